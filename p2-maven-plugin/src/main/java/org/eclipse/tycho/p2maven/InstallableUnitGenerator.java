@@ -103,6 +103,9 @@ public class InstallableUnitGenerator {
 	@Inject
 	private InstallableUnitPublisher publisher;
 
+	@Inject
+	private ProjectMetadataCache metadataCache;
+
 	@Inject
 	private PlexusContainer plexus;
 
@@ -199,9 +202,18 @@ public class InstallableUnitGenerator {
 			String packaging = project.getPackaging();
 			String version = project.getVersion();
 			String artifactId = project.getArtifactId();
-			List<IPublisherAction> actions = getPublisherActions(packaging, basedir, projectArtifact, version,
-					artifactId);
-			Collection<IInstallableUnit> publishedUnits = publisher.publishMetadata(actions);
+			Collection<IInstallableUnit> publishedUnits;
+			if (projectArtifact == null) {
+				// units generated from the project directory can be reused as long as the
+				// files they are generated from are unchanged
+				publishedUnits = metadataCache.getPublishedUnits(basedir,
+						packaging + ';' + artifactId + ';' + version,
+						() -> publisher.publishMetadata(
+								getPublisherActions(packaging, basedir, projectArtifact, version, artifactId)));
+			} else {
+				publishedUnits = publisher.publishMetadata(
+						getPublisherActions(packaging, basedir, projectArtifact, version, artifactId));
+			}
 			for (InstallableUnitProvider unitProvider : getProvider(project, session)) {
 				log.debug("Asking " + unitProvider + " for additional units for " + project);
 				Collection<IInstallableUnit> installableUnits = unitProvider.getInstallableUnits(project, session);
@@ -40,7 +40,6 @@ import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.MultiStatus;
 import org.eclipse.equinox.internal.p2.metadata.IRequiredCapability;
-import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.IProvidedCapability;
 import org.eclipse.equinox.p2.metadata.IRequirement;
@@ -69,6 +68,9 @@ public class MavenProjectDependencyProcessor {
 	@Inject
 	private InstallableUnitSlicer slicer;
 
+	@Inject
+	private ProjectMetadataCache metadataCache;
+
 	/**
 	 * Computes the {@link ProjectDependencyClosure} of the given collection of
 	 * projects.
@@ -91,7 +93,7 @@ public class MavenProjectDependencyProcessor {
 		Collection<IInstallableUnit> availableIUs = projectIUMap.values().stream().flatMap(Collection::stream)
 				.collect(Collectors.toSet());
 		Map<MavenProject, ProjectDependencies> projectDependenciesMap = computeProjectDependencies(projects,
-				new CollectionResult<>(availableIUs), projectIUMap);
+				availableIUs, projectIUMap);
 		Map<IInstallableUnit, MavenProject> iuProjectMap = new HashMap<>();
 		for (var entry : projectIUMap.entrySet()) {
 			MavenProject mavenProject = entry.getKey();
@@ -147,15 +149,33 @@ public class MavenProjectDependencyProcessor {
 	 * @throws CoreException if computation failed
 	 */
 	private Map<MavenProject, ProjectDependencies> computeProjectDependencies(Collection<MavenProject> projects,
-			IQueryable<IInstallableUnit> avaiableIUs, Map<MavenProject, Collection<IInstallableUnit>> projectIUMap)
+			Collection<IInstallableUnit> avaiableIUs, Map<MavenProject, Collection<IInstallableUnit>> projectIUMap)
 			throws CoreException {
+		IQueryable<IInstallableUnit> availableQueryable = new CollectionResult<>(avaiableIUs);
+		String fingerprint;
+		Map<String, IInstallableUnit> availableUnitsByKey;
+		if (metadataCache.isEnabled()) {
+			// the direct dependencies of a project only change if any of the available units
+			// change
+			fingerprint = metadataCache.computeFingerprint(projectIUMap);
+			availableUnitsByKey = new HashMap<>();
+			for (IInstallableUnit unit : avaiableIUs) {
+				availableUnitsByKey.putIfAbsent(ProjectMetadataCache.getKey(unit), unit);
+			}
+		} else {
+			fingerprint = null;
+			availableUnitsByKey = Map.of();
+		}
 		List<CoreException> errors = new CopyOnWriteArrayList<>();
 		Map<MavenProject, ProjectDependencies> result = new ConcurrentHashMap<>();
 		projects.parallelStream().unordered().takeWhile(nil -> errors.isEmpty()).forEach(project -> {
 			try {
-				ProjectDependencies projectDependencies = computeProjectDependencies(
-						Set.copyOf(projectIUMap.get(project)),
-						avaiableIUs);
+				Set<IInstallableUnit> projectUnits = Set.copyOf(projectIUMap.get(project));
+				ProjectDependencies projectDependencies = projectUnits.isEmpty() ? EMPTY_DEPENDENCIES
+						: new ProjectDependencies(metadataCache.getDirectDependencies(project.getBasedir(), fingerprint,
+								projectUnits, availableUnitsByKey,
+								() -> slicer.computeDirectDependencies(projectUnits, availableQueryable)),
+								projectUnits);
 				result.put(project, projectDependencies);
 				if (DUMP_DATA) {
 					File file = new File(project.getBasedir(), "project-dependencies.xml");
@@ -182,27 +202,6 @@ public class MavenProjectDependencyProcessor {
 		throw new CoreException(multiStatus);
 	}
 
-	/**
-	 * Given a {@link MavenProject} and a collection of {@link IInstallableUnit},
-	 * compute the collection of dependencies that fulfill the projects requirements
-	 * 
-	 * @param project     the project to query for requirements
-	 * @param avaiableIUs all available units that should be used to fulfill project
-	 *                    requirements
-	 * @return the collection of dependent {@link InstallableUnit}s
-	 * @throws CoreException if computation failed
-	 */
-	private ProjectDependencies computeProjectDependencies(Set<IInstallableUnit> projectUnits,
-			IQueryable<IInstallableUnit> avaiableIUs)
-			throws CoreException {
-		if (projectUnits.isEmpty()) {
-			return EMPTY_DEPENDENCIES;
-		}
-		Map<IRequirement, Collection<IInstallableUnit>> dependencies = slicer.computeDirectDependencies(projectUnits,
-				avaiableIUs);
-		return new ProjectDependencies(dependencies, projectUnits);
-	}
-
 	private static boolean hasAnyHost(IInstallableUnit unit, Iterable<IInstallableUnit> collection) {
 		return getFragmentHostRequirement(unit).anyMatch(req -> {
 			for (IInstallableUnit iu : collection) {
@@ -0,0 +1,442 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2maven;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Properties;
+import java.util.Set;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.IRequirement;
+import org.eclipse.equinox.p2.publisher.AbstractPublisherAction;
+import org.eclipse.equinox.p2.publisher.eclipse.FeaturesAction;
+import org.eclipse.tycho.FileChecksums;
+import org.eclipse.tycho.p2maven.io.MetadataIO;
+import org.eclipse.tycho.p2maven.transport.TransportCacheConfig;
+import org.eclipse.tycho.version.TychoVersion;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+
+/**
+ * Stores the metadata computed for the projects of the reactor on disk, so it can be reused by
+ * later builds:
+ * <ul>
+ * <li>the units published for a project are reused as long as the files they are generated from
+ * (e.g. the manifest, <code>feature.xml</code>, <code>category.xml</code> or product files and
+ * their localization) are unchanged,</li>
+ * <li>the direct dependencies of a project are reused as long as the units of all projects of the
+ * reactor are unchanged.</li>
+ * </ul>
+ * The cache is stored in the transport cache directory and must be enabled with
+ * <code>-Dtycho.p2.dependencies.persistentCache=true</code>. Entries written by another version of
+ * Tycho or the p2 publisher are not used, as these might publish different units for the same
+ * files.
+ */
+@Named
+@Singleton
+public class ProjectMetadataCache {
+
+	static final boolean ENABLED = Boolean.getBoolean("tycho.p2.dependencies.persistentCache");
+
+	private static final String FORMAT_VERSION = "1";
+
+	private static final String KEY_FORMAT = "format";
+	private static final String KEY_VERSIONS = "versions";
+	private static final String KEY_CONFIGURATION = "configuration";
+	private static final String KEY_INPUTS = "inputs";
+	private static final String KEY_UNITS = "units";
+	private static final String KEY_FINGERPRINT = "fingerprint";
+	private static final String KEY_REQUIREMENT = "requirement.";
+	private static final String KEY_SATISFIED_BY = "satisfiedBy.";
+
+	interface UnitsSupplier {
+		Collection<IInstallableUnit> get() throws CoreException;
+	}
+
+	interface DependenciesSupplier {
+		Map<IRequirement, Collection<IInstallableUnit>> get() throws CoreException;
+	}
+
+	@Inject
+	private TransportCacheConfig cacheConfig;
+
+	@Inject
+	private Logger log;
+
+	private final boolean enabled;
+
+	private final String versions;
+
+	public ProjectMetadataCache() {
+		this(ENABLED, TychoVersion.getTychoVersion(),
+				getBundleVersion(AbstractPublisherAction.class, FeaturesAction.class));
+	}
+
+	/**
+	 * @param enabled          if the cache should be used
+	 * @param tychoVersion     the version of Tycho
+	 * @param publisherVersion the version of the p2 publisher or <code>null</code>
+	 *                         if it is unknown, what disables the cache
+	 */
+	ProjectMetadataCache(boolean enabled, String tychoVersion, String publisherVersion) {
+		this.enabled = enabled && tychoVersion != null && publisherVersion != null;
+		this.versions = "tycho=" + tychoVersion + ";publisher=" + publisherVersion;
+	}
+
+	ProjectMetadataCache(TransportCacheConfig cacheConfig, Logger log, String tychoVersion,
+			String publisherVersion) {
+		this(true, tychoVersion, publisherVersion);
+		this.cacheConfig = cacheConfig;
+		this.log = log;
+	}
+
+	boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Returns the units published for the project in the given directory
+	 *
+	 * @param basedir       the directory of the project
+	 * @param configuration everything besides the files of the project that
+	 *                      influences the published units
+	 * @param supplier      publishes the units if they are not cached
+	 * @return a (modifiable) collection of the units
+	 * @throws CoreException if publishing failed
+	 */
+	Collection<IInstallableUnit> getPublishedUnits(File basedir, String configuration, UnitsSupplier supplier)
+			throws CoreException {
+		if (!enabled) {
+			return supplier.get();
+		}
+		String inputs;
+		try {
+			inputs = hashInputs(basedir.toPath());
+		} catch (IOException e) {
+			log.debug("Can't compute the inputs of " + basedir + ": " + e);
+			return supplier.get();
+		}
+		File file = getFile(basedir, "units");
+		Properties properties = load(file);
+		if (properties != null && configuration.equals(properties.getProperty(KEY_CONFIGURATION))
+				&& inputs.equals(properties.getProperty(KEY_INPUTS))) {
+			String xml = properties.getProperty(KEY_UNITS);
+			if (xml != null) {
+				try {
+					Collection<IInstallableUnit> units = new HashSet<>(
+							new MetadataIO().readXML(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8))));
+					log.debug("Using cached units for " + basedir);
+					return units;
+				} catch (IOException e) {
+					log.debug("Can't read cached units for " + basedir + ": " + e);
+				}
+			}
+		}
+		Collection<IInstallableUnit> units = supplier.get();
+		try {
+			byte[] xml = toXML(units);
+			properties = new Properties();
+			properties.setProperty(KEY_FORMAT, FORMAT_VERSION);
+			properties.setProperty(KEY_VERSIONS, versions);
+			properties.setProperty(KEY_CONFIGURATION, configuration);
+			properties.setProperty(KEY_INPUTS, inputs);
+			properties.setProperty(KEY_UNITS, new String(xml, StandardCharsets.UTF_8));
+			store(file, properties);
+			// use the same units as later builds that read them from the cache, so the
+			// fingerprint of the reactor stays the same
+			return new HashSet<>(new MetadataIO().readXML(new ByteArrayInputStream(xml)));
+		} catch (IOException e) {
+			log.debug("Can't store units for " + basedir + ": " + e);
+		}
+		return units;
+	}
+
+	/**
+	 * Computes a fingerprint of the units of all given projects
+	 *
+	 * @param projectUnits the units of the projects
+	 * @return the fingerprint
+	 */
+	String computeFingerprint(Map<MavenProject, Collection<IInstallableUnit>> projectUnits) {
+		StringBuilder builder = new StringBuilder();
+		projectUnits.entrySet().parallelStream().map(entry -> {
+			try {
+				return entry.getKey().getBasedir().getAbsolutePath() + '=' + sha256(toXML(entry.getValue()));
+			} catch (IOException e) {
+				// should never happen as we write to memory
+				throw new IllegalStateException(e);
+			}
+		}).sorted().forEachOrdered(line -> builder.append(line).append('\n'));
+		return sha256(builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Returns the direct dependencies of a project
+	 *
+	 * @param basedir        the directory of the project
+	 * @param fingerprint    the fingerprint of all units available to fulfill the
+	 *                       requirements of the project, see
+	 *                       {@link #computeFingerprint(Map)}
+	 * @param projectUnits   the units of the project
+	 * @param availableUnits all available units by {@link #getKey(IInstallableUnit)}
+	 * @param supplier       computes the dependencies if they are not cached
+	 * @return the dependencies of the project
+	 * @throws CoreException if computing the dependencies failed
+	 */
+	Map<IRequirement, Collection<IInstallableUnit>> getDirectDependencies(File basedir, String fingerprint,
+			Collection<IInstallableUnit> projectUnits, Map<String, IInstallableUnit> availableUnits,
+			DependenciesSupplier supplier) throws CoreException {
+		if (!enabled) {
+			return supplier.get();
+		}
+		Map<String, IInstallableUnit> unitsByKey = projectUnits.stream()
+				.collect(Collectors.toMap(ProjectMetadataCache::getKey, unit -> unit, (u1, u2) -> u1));
+		File file = getFile(basedir, "dependencies");
+		Properties properties = load(file);
+		if (properties != null && fingerprint.equals(properties.getProperty(KEY_FINGERPRINT))) {
+			Map<IRequirement, Collection<IInstallableUnit>> dependencies = restoreDependencies(properties,
+					unitsByKey, availableUnits);
+			if (dependencies != null) {
+				log.debug("Using cached dependencies for " + basedir);
+				return dependencies;
+			}
+		}
+		Map<IRequirement, Collection<IInstallableUnit>> dependencies = supplier.get();
+		properties = new Properties();
+		properties.setProperty(KEY_FORMAT, FORMAT_VERSION);
+		properties.setProperty(KEY_VERSIONS, versions);
+		properties.setProperty(KEY_FINGERPRINT, fingerprint);
+		int i = 0;
+		for (Entry<IRequirement, Collection<IInstallableUnit>> entry : dependencies.entrySet()) {
+			String requirement = getRequirementKey(projectUnits, entry.getKey());
+			if (requirement == null) {
+				// can't be restored later
+				return dependencies;
+			}
+			properties.setProperty(KEY_REQUIREMENT + i, requirement);
+			properties.setProperty(KEY_SATISFIED_BY + i,
+					entry.getValue().stream().map(ProjectMetadataCache::getKey).collect(Collectors.joining(",")));
+			i++;
+		}
+		try {
+			store(file, properties);
+		} catch (IOException e) {
+			log.debug("Can't store dependencies for " + basedir + ": " + e);
+		}
+		return dependencies;
+	}
+
+	/**
+	 * @return the key of a unit used to reference it in the cache
+	 */
+	static String getKey(IInstallableUnit unit) {
+		return unit.getId() + ':' + unit.getVersion();
+	}
+
+	private static Map<IRequirement, Collection<IInstallableUnit>> restoreDependencies(Properties properties,
+			Map<String, IInstallableUnit> projectUnits, Map<String, IInstallableUnit> availableUnits) {
+		Map<IRequirement, Collection<IInstallableUnit>> dependencies = new LinkedHashMap<>();
+		for (int i = 0; properties.containsKey(KEY_REQUIREMENT + i); i++) {
+			String requirementKey = properties.getProperty(KEY_REQUIREMENT + i);
+			int index = requirementKey.lastIndexOf(':');
+			IInstallableUnit owner = projectUnits.get(requirementKey.substring(0, index));
+			if (owner == null) {
+				return null;
+			}
+			List<IRequirement> requirements = List.copyOf(owner.getRequirements());
+			int requirementIndex = Integer.parseInt(requirementKey.substring(index + 1));
+			if (requirementIndex >= requirements.size()) {
+				return null;
+			}
+			List<IInstallableUnit> satisfiedBy = new ArrayList<>();
+			for (String unitKey : properties.getProperty(KEY_SATISFIED_BY + i, "").split(",")) {
+				if (unitKey.isEmpty()) {
+					continue;
+				}
+				IInstallableUnit unit = availableUnits.get(unitKey);
+				if (unit == null) {
+					return null;
+				}
+				satisfiedBy.add(unit);
+			}
+			dependencies.put(requirements.get(requirementIndex), satisfiedBy);
+		}
+		return dependencies;
+	}
+
+	private static String getRequirementKey(Collection<IInstallableUnit> projectUnits, IRequirement requirement) {
+		for (IInstallableUnit unit : projectUnits) {
+			int index = List.copyOf(unit.getRequirements()).indexOf(requirement);
+			if (index >= 0) {
+				return getKey(unit) + ':' + index;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Hashes all files the publisher actions read from a project directory, this
+	 * includes the files directly in the project directory (e.g.
+	 * <code>feature.xml</code>, <code>category.xml</code>, product files,
+	 * <code>p2.inf</code>), the <code>META-INF</code> folder and the localization
+	 * files of a bundle.
+	 */
+	private static String hashInputs(Path basedir) throws IOException {
+		Set<Path> directories = new LinkedHashSet<>();
+		directories.add(basedir);
+		directories.add(basedir.resolve("META-INF"));
+		directories.add(basedir.resolve("OSGI-INF/l10n"));
+		Path manifest = basedir.resolve("META-INF/MANIFEST.MF");
+		if (Files.isRegularFile(manifest)) {
+			try (InputStream stream = Files.newInputStream(manifest)) {
+				String localization = new Manifest(stream).getMainAttributes()
+						.getValue(Constants.BUNDLE_LOCALIZATION);
+				if (localization != null) {
+					Path parent = basedir.resolve(localization.trim()).normalize().getParent();
+					if (parent != null) {
+						directories.add(parent);
+					}
+				}
+			}
+		}
+		StringBuilder builder = new StringBuilder();
+		for (Path directory : directories) {
+			if (!Files.isDirectory(directory)) {
+				continue;
+			}
+			List<Path> files;
+			try (Stream<Path> stream = Files.list(directory)) {
+				files = stream.filter(Files::isRegularFile).sorted(Comparator.comparing(Path::toString)).toList();
+			}
+			for (Path file : files) {
+				builder.append(basedir.relativize(file)).append('=')
+						.append(FileChecksums.getChecksum(file, "SHA-256")).append('\n');
+			}
+		}
+		return sha256(builder.toString().getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static byte[] toXML(Collection<IInstallableUnit> units) throws IOException {
+		List<IInstallableUnit> sorted = new ArrayList<>(units);
+		sorted.sort(null);
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		new MetadataIO().writeXML(sorted, stream);
+		return stream.toByteArray();
+	}
+
+	private File getFile(File basedir, String type) {
+		String key = sha256(basedir.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+		return new File(cacheConfig.getCacheLocation(), "project-metadata/" + key + "." + type + ".properties");
+	}
+
+	private Properties load(File file) {
+		if (!file.isFile()) {
+			return null;
+		}
+		Properties properties = new Properties();
+		try (InputStream stream = Files.newInputStream(file.toPath())) {
+			properties.load(stream);
+		} catch (IOException e) {
+			return null;
+		}
+		if (FORMAT_VERSION.equals(properties.getProperty(KEY_FORMAT))
+				&& versions.equals(properties.getProperty(KEY_VERSIONS))) {
+			return properties;
+		}
+		return null;
+	}
+
+	/**
+	 * @return the versions of the bundles containing the given classes or
+	 *         <code>null</code> if one of them can't be determined
+	 */
+	private static String getBundleVersion(Class<?>... types) {
+		List<String> versions = new ArrayList<>();
+		for (Class<?> type : types) {
+			Bundle bundle = FrameworkUtil.getBundle(type);
+			if (bundle != null) {
+				versions.add(bundle.getVersion().toString());
+				continue;
+			}
+			try {
+				CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+				try (JarFile jarFile = new JarFile(new File(codeSource.getLocation().toURI()))) {
+					String version = jarFile.getManifest().getMainAttributes().getValue(Constants.BUNDLE_VERSION);
+					if (version == null) {
+						return null;
+					}
+					versions.add(version);
+				}
+			} catch (Exception e) {
+				return null;
+			}
+		}
+		return String.join(",", versions);
+	}
+
+	private static void store(File file, Properties properties) throws IOException {
+		Path directory = file.getParentFile().toPath();
+		Files.createDirectories(directory);
+		Path tempFile = Files.createTempFile(directory, file.getName(), ".tmp");
+		try {
+			try (OutputStream stream = Files.newOutputStream(tempFile)) {
+				properties.store(stream, null);
+			}
+			Files.move(tempFile, file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+	private static String sha256(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+	}
+}
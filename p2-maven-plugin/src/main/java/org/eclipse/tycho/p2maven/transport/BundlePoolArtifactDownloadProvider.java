@@ -14,13 +14,10 @@ package org.eclipse.tycho.p2maven.transport;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.DigestOutputStream;
-import java.security.MessageDigest;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -36,13 +33,13 @@ import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.equinox.internal.p2.artifact.repository.simple.SimpleArtifactRepositoryFactory;
 import org.eclipse.equinox.internal.p2.repository.DownloadStatus;
-import org.eclipse.equinox.internal.p2.repository.helpers.ChecksumHelper;
 import org.eclipse.equinox.internal.p2.repository.helpers.RepositoryHelper;
 import org.eclipse.equinox.p2.core.ProvisionException;
 import org.eclipse.equinox.p2.metadata.IArtifactKey;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactDescriptor;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.IFileArtifactRepository;
+import org.eclipse.tycho.FileChecksums;
 import org.eclipse.tycho.TychoConstants;
 import org.eclipse.tycho.helper.MavenPropertyHelper;
 import org.eclipse.tycho.transport.ArtifactDownloadProvider;
@@ -129,15 +126,8 @@ public class BundlePoolArtifactDownloadProvider implements ArtifactDownloadProvi
 					String key = entry.getKey();
 					if (key.startsWith(TychoConstants.PROP_DOWNLOAD_CHECKSUM_PREFIX)) {
 						try {
-							String algorithm = key.substring(TychoConstants.PROP_DOWNLOAD_CHECKSUM_PREFIX.length())
-									.toUpperCase();
-							MessageDigest md = MessageDigest.getInstance(algorithm);
-							try (DigestOutputStream outputStream = new DigestOutputStream(
-									OutputStream.nullOutputStream(), md);
-									InputStream inputStream = Files.newInputStream(artifactFile)) {
-								inputStream.transferTo(outputStream);
-							}
-							return ChecksumHelper.toHexString(md.digest()).equals(entry.getValue());
+							String algorithm = key.substring(TychoConstants.PROP_DOWNLOAD_CHECKSUM_PREFIX.length());
+							return FileChecksums.getChecksum(artifactFile, algorithm).equals(entry.getValue());
 						} catch (Exception e) {
 							// can't check...
 						}
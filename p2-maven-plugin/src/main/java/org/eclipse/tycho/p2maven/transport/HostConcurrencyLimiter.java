@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2maven.transport;
+
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Limits the number of concurrent requests to a host and adapts this limit to the responses of the
+ * server: whenever a server signals that it is overloaded (429 / 503) the limit is halved, each
+ * series of successful requests raises it again by one up to the configured maximum. Requests for
+ * repository metadata (e.g. <code>content.xml.xz</code>, <code>artifacts.xml.xz</code>) are never
+ * queued behind artifact downloads as everything else usually waits for them.
+ */
+final class HostConcurrencyLimiter {
+
+	static final int MAX_REQUESTS_PER_HOST = Math.max(1,
+			Integer.getInteger("tycho.p2.transport.max-requests-per-host", 32));
+
+	static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+	private static final Set<String> METADATA_FILES = Set.of("p2.index", "content.jar", "content.xml",
+			"content.xml.xz", "artifacts.jar", "artifacts.xml", "artifacts.xml.xz", "compositeContent.jar",
+			"compositeContent.xml", "compositeArtifacts.jar", "compositeArtifacts.xml");
+
+	private final Map<String, HostLimit> hosts = new ConcurrentHashMap<>();
+
+	/**
+	 * Waits until a request to the host of the given URI is allowed.
+	 *
+	 * @param uri
+	 *            the URI that is about to be requested
+	 * @return the permit that must be released once the response is received
+	 * @throws InterruptedException
+	 *             if the thread was interrupted while waiting
+	 */
+	Permit acquire(URI uri) throws InterruptedException {
+		String host = uri.getHost();
+		if (host == null) {
+			return Permit.NONE;
+		}
+		HostLimit limit = hosts.computeIfAbsent(host.toLowerCase(), nil -> new HostLimit());
+		limit.acquire(isMetadata(uri));
+		return limit::release;
+	}
+
+	static boolean isMetadata(URI uri) {
+		String path = uri.getPath();
+		if (path == null) {
+			return false;
+		}
+		return METADATA_FILES.contains(path.substring(path.lastIndexOf('/') + 1));
+	}
+
+	static boolean isOverloaded(int code) {
+		return code == HTTP_TOO_MANY_REQUESTS || code == HttpURLConnection.HTTP_UNAVAILABLE;
+	}
+
+	/**
+	 * Computes the time to wait before a request that was answered with an overload status should
+	 * be retried
+	 *
+	 * @param retryAfter
+	 *            the value of the <code>Retry-After</code> header, might be <code>null</code>
+	 * @param attempt
+	 *            the number of the attempt starting with 1
+	 * @return the delay in milliseconds
+	 */
+	static long getRetryDelay(String retryAfter, int attempt) {
+		if (retryAfter != null) {
+			try {
+				long seconds = Long.parseLong(retryAfter.trim());
+				if (seconds >= 0) {
+					return TimeUnit.SECONDS.toMillis(Math.min(seconds, HttpTransportFactory.TIMEOUT_SECONDS));
+				}
+			} catch (NumberFormatException e) {
+				// a http date we don't care about, use the default backoff then
+			}
+		}
+		return TimeUnit.SECONDS.toMillis(attempt);
+	}
+
+	interface Permit {
+
+		Permit NONE = code -> {
+		};
+
+		/**
+		 * Releases this permit
+		 *
+		 * @param code
+		 *            the status code of the response or <code>-1</code> if the request failed
+		 */
+		void release(int code);
+	}
+
+	private static final class HostLimit {
+
+		private final ReentrantLock lock = new ReentrantLock();
+		private final Condition available = lock.newCondition();
+		private int limit = MAX_REQUESTS_PER_HOST;
+		private int active;
+		private int successes;
+
+		void acquire(boolean priority) throws InterruptedException {
+			lock.lock();
+			try {
+				if (!priority) {
+					while (active >= limit) {
+						available.await();
+					}
+				}
+				active++;
+			} finally {
+				lock.unlock();
+			}
+		}
+
+		void release(int code) {
+			lock.lock();
+			try {
+				active--;
+				if (isOverloaded(code)) {
+					limit = Math.max(1, limit / 2);
+					successes = 0;
+				} else if (code >= 0 && code < HttpURLConnection.HTTP_BAD_REQUEST && limit < MAX_REQUESTS_PER_HOST
+						&& ++successes >= limit) {
+					limit++;
+					successes = 0;
+				}
+				available.signalAll();
+			} finally {
+				lock.unlock();
+			}
+		}
+	}
+
+}
@@ -45,6 +45,7 @@ import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.personality.plexus.lifecycle.phase.Initializable;
 import org.codehaus.plexus.personality.plexus.lifecycle.phase.InitializationException;
 import org.eclipse.tycho.p2maven.helper.ProxyHelper;
+import org.eclipse.tycho.p2maven.transport.HostConcurrencyLimiter.Permit;
 import org.eclipse.tycho.p2maven.transport.Response.ResponseConsumer;
 
 /**
@@ -54,6 +55,7 @@ import org.eclipse.tycho.p2maven.transport.Response.ResponseConsumer;
 public class Java11HttpTransportFactory implements HttpTransportFactory, Initializable {
 	private static final int MAX_DISCARD = 1024 * 10;
 	private static final byte[] DUMMY_BUFFER = new byte[MAX_DISCARD];
+	private static final int MAX_OVERLOAD_RETRIES = Integer.getInteger("tycho.p2.transport.max-overload-retries", 3);
 	private final CookieManager cookieManager = new CookieManager(null, CookiePolicy.ACCEPT_ALL);
 
 	// see https://www.w3.org/Protocols/rfc2616/rfc2616-sec3.html#sec3.3
@@ -76,11 +78,12 @@ public class Java11HttpTransportFactory implements HttpTransportFactory, Initial
 
 	private HttpClient client;
 	private HttpClient clientHttp1;
+	private final HostConcurrencyLimiter limiter = new HostConcurrencyLimiter();
 
 	@Override
 	public HttpTransport createTransport(URI uri) {
 		Java11HttpTransport transport = new Java11HttpTransport(client, clientHttp1, HttpRequest.newBuilder().uri(uri),
-				uri, logger);
+				uri, limiter, logger);
 		authenticator.preemtiveAuth((k, v) -> transport.setHeader(k, v), uri);
 		return transport;
 	}
@@ -92,12 +95,15 @@ public class Java11HttpTransportFactory implements HttpTransportFactory, Initial
 		private Logger logger;
 		private HttpClient clientHttp1;
 		private URI uri;
+		private HostConcurrencyLimiter limiter;
 
-		public Java11HttpTransport(HttpClient client, HttpClient clientHttp1, Builder builder, URI uri, Logger logger) {
+		public Java11HttpTransport(HttpClient client, HttpClient clientHttp1, Builder builder, URI uri,
+				HostConcurrencyLimiter limiter, Logger logger) {
 			this.client = client;
 			this.clientHttp1 = clientHttp1;
 			this.builder = builder;
 			this.uri = uri;
+			this.limiter = limiter;
 			this.logger = logger;
 		}
 
@@ -128,7 +134,38 @@ public class Java11HttpTransportFactory implements HttpTransportFactory, Initial
 		private <T> T performGet(ResponseConsumer<T> consumer, HttpClient httpClient)
 				throws IOException, InterruptedException {
 			HttpRequest request = builder.GET().timeout(Duration.ofSeconds(TIMEOUT_SECONDS)).build();
-			HttpResponse<InputStream> response = httpClient.send(request, BodyHandlers.ofInputStream());
+			for (int attempt = 1;; attempt++) {
+				// the permit is released as soon as the response arrived, the consumer might
+				// issue further requests (e.g. for redirects) to the same host
+				Permit permit = limiter.acquire(uri);
+				int code = -1;
+				HttpResponse<InputStream> response;
+				try {
+					response = httpClient.send(request, BodyHandlers.ofInputStream());
+					code = response.statusCode();
+				} finally {
+					permit.release(code);
+				}
+				if (!HostConcurrencyLimiter.isOverloaded(code) || attempt > MAX_OVERLOAD_RETRIES) {
+					return handleResponse(consumer, response);
+				}
+				try (InputStream stream = response.body()) {
+					// discard the error page
+				}
+				waitForRetry(response, attempt);
+			}
+		}
+
+		private void waitForRetry(HttpResponse<?> response, int attempt) throws InterruptedException {
+			long delay = HostConcurrencyLimiter.getRetryDelay(response.headers().firstValue("Retry-After").orElse(null),
+					attempt);
+			logger.debug("Server " + uri.getHost() + " responded with code " + response.statusCode()
+					+ ", will retry request of " + uri + " in " + delay + " ms...");
+			TimeUnit.MILLISECONDS.sleep(delay);
+		}
+
+		private <T> T handleResponse(ResponseConsumer<T> consumer, HttpResponse<InputStream> response)
+				throws IOException {
 			try (ResponseImplementation<InputStream> implementation = new ResponseImplementation<>(response) {
 
 				@Override
@@ -187,10 +224,23 @@ public class Java11HttpTransportFactory implements HttpTransportFactory, Initial
 		}
 
 		private Response doHead(HttpClient httpClient) throws IOException, InterruptedException {
-			HttpResponse<Void> response = httpClient.send(
-					builder.method("HEAD", BodyPublishers.noBody()).timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-							.build(),
-					BodyHandlers.discarding());
+			HttpRequest request = builder.method("HEAD", BodyPublishers.noBody())
+					.timeout(Duration.ofSeconds(TIMEOUT_SECONDS)).build();
+			HttpResponse<Void> response;
+			for (int attempt = 1;; attempt++) {
+				Permit permit = limiter.acquire(uri);
+				int code = -1;
+				try {
+					response = httpClient.send(request, BodyHandlers.discarding());
+					code = response.statusCode();
+				} finally {
+					permit.release(code);
+				}
+				if (!HostConcurrencyLimiter.isOverloaded(code) || attempt > MAX_OVERLOAD_RETRIES) {
+					break;
+				}
+				waitForRetry(response, attempt);
+			}
 			return new ResponseImplementation<>(response) {
 				@Override
 				public void close() {
@@ -13,13 +13,10 @@
 package org.eclipse.tycho.p2maven.transport;
 
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.security.DigestOutputStream;
-import java.security.MessageDigest;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -49,8 +46,8 @@ import org.eclipse.aether.version.Version;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.equinox.internal.p2.repository.DownloadStatus;
-import org.eclipse.equinox.internal.p2.repository.helpers.ChecksumHelper;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactDescriptor;
+import org.eclipse.tycho.FileChecksums;
 import org.eclipse.tycho.TychoConstants;
 import org.eclipse.tycho.helper.MavenPropertyHelper;
 import org.eclipse.tycho.transport.ArtifactDownloadProvider;
@@ -196,14 +193,8 @@ public class MavenArtifactDownloadProvider implements ArtifactDownloadProvider {
 	}
 
 	private static boolean checksumMatch(Path file, Entry<String, String> entry) {
-		String key = entry.getKey();
 		try {
-			MessageDigest md = MessageDigest.getInstance(key.toUpperCase());
-			try (InputStream inputStream = Files.newInputStream(file);
-					DigestOutputStream outputStream = new DigestOutputStream(OutputStream.nullOutputStream(), md)) {
-				inputStream.transferTo(outputStream);
-			}
-			return ChecksumHelper.toHexString(md.digest()).equals(entry.getValue());
+			return FileChecksums.getChecksum(file, entry.getKey()).equals(entry.getValue());
 		} catch (Exception e) {
 		}
 		return false;
@@ -14,23 +14,21 @@ package org.eclipse.tycho.p2maven.transport;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.HttpURLConnection;
 import java.net.URI;
-import java.text.DateFormat;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.nio.file.Files;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
 import java.util.Map;
 import java.util.Properties;
-import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -56,24 +54,25 @@ public class SharedHttpCacheStorage implements HttpCache {
 	public static final long MIN_CACHE_PERIOD = Long.getLong("tycho.p2.transport.min-cache-minutes",
 			TimeUnit.HOURS.toMinutes(1));
 	private static final int MAX_IN_MEMORY = 1000;
+	/**
+	 * Number of independently locked segments of the in-memory cache line registry, must be a
+	 * power of two
+	 */
+	private static final int CACHE_STRIPES = 16;
 
 	@Inject
 	TransportCacheConfig cacheConfig;
 
-	private final Map<File, CacheLine> entryCache;
-
-	public SharedHttpCacheStorage() {
-
-		entryCache = new LinkedHashMap<>(MAX_CACHE_LINES, 0.75f, true) {
+	private final CacheStripe[] entryCache;
 
-			private static final long serialVersionUID = 1L;
+	private volatile CacheRoot cacheRoot;
 
-			@Override
-			protected boolean removeEldestEntry(final Map.Entry<File, CacheLine> eldest) {
-				return (size() > MAX_IN_MEMORY);
-			}
-
-		};
+	public SharedHttpCacheStorage() {
+		entryCache = new CacheStripe[CACHE_STRIPES];
+		for (int i = 0; i < entryCache.length; i++) {
+			entryCache[i] = new CacheStripe(Math.max(1, MAX_CACHE_LINES / CACHE_STRIPES),
+					Math.max(1, MAX_IN_MEMORY / CACHE_STRIPES));
+		}
 	}
 
 	/**
@@ -143,7 +142,7 @@ public class SharedHttpCacheStorage implements HttpCache {
 		};
 	}
 
-	private synchronized CacheLine getCacheLine(URI uri) {
+	private CacheLine getCacheLine(URI uri) {
 		String cleanPath = uri.normalize().toASCIIString().replace(':', '/').replace('?', '/').replace('&', '/')
 				.replace('*', '/').replaceAll("/+", "/");
 		if (cleanPath.endsWith("/")) {
@@ -151,15 +150,131 @@ public class SharedHttpCacheStorage implements HttpCache {
 			// this can happen in case of a redirect even though its quite clumsy
 			cleanPath += ".idx";
 		}
-		File file = new File(cacheConfig.getCacheLocation(), cleanPath);
-		File location;
-		try {
-			location = file.getCanonicalFile();
-		} catch (IOException e) {
-			location = file.getAbsoluteFile();
+		// the path is already normalized, so only the cache root itself needs to be
+		// canonicalized (once) what saves a filesystem access for each lookup
+		String location = getCacheRoot() + cleanPath;
+		CacheStripe stripe = entryCache[spread(location.hashCode()) & (CACHE_STRIPES - 1)];
+		synchronized (stripe) {
+			return stripe.computeIfAbsent(location, key -> new CacheLine(new File(key)));
+		}
+	}
+
+	private String getCacheRoot() {
+		File location = cacheConfig.getCacheLocation();
+		CacheRoot root = cacheRoot;
+		if (root == null || root.location() != location) {
+			File base = location == null ? new File("") : location;
+			File canonical;
+			try {
+				canonical = base.getCanonicalFile();
+			} catch (IOException e) {
+				canonical = base.getAbsoluteFile();
+			}
+			String path = canonical.getPath();
+			if (!path.endsWith(File.separator)) {
+				path += File.separator;
+			}
+			cacheRoot = root = new CacheRoot(location, path);
+		}
+		return root.path();
+	}
+
+	private static int spread(int hash) {
+		return hash ^ (hash >>> 16);
+	}
+
+	private record CacheRoot(File location, String path) {
+	}
+
+	/**
+	 * A segment of the in-memory registry of cache lines that keeps the most recently used ones
+	 */
+	private static final class CacheStripe extends LinkedHashMap<String, CacheLine> {
+
+		private static final long serialVersionUID = 1L;
+		private final int maxSize;
+
+		CacheStripe(int initialCapacity, int maxSize) {
+			super(initialCapacity, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, CacheLine> eldest) {
+			return size() > maxSize;
+		}
+	}
+
+	/**
+	 * Parsed representation of the stored headers of a cache line, the (textual) header file stays
+	 * the persistent format so caches can still be shared with other processes and versions.
+	 */
+	private record CacheHeader(int responseCode, long lastUpdated, String etag, String lastModified,
+			long lastModifiedTime, long expiresTime, boolean mustRevalidate, long maxAge, String location) {
+
+		static final long NO_DATE = -1;
+		static final long NO_MAX_AGE = -1;
+		static final CacheHeader EMPTY = new CacheHeader(-1, 0, null, null, NO_DATE, NO_DATE, false, NO_MAX_AGE,
+				null);
+
+		static CacheHeader of(Properties properties) {
+			boolean mustRevalidate = false;
+			long maxAge = NO_MAX_AGE;
+			String cacheControl = properties.getProperty(Headers.CACHE_CONTROL_HEADER.toLowerCase());
+			if (cacheControl != null) {
+				for (String directive : cacheControl.split(",\\s*")) {
+					if (Headers.MUST_REVALIDATE_DIRECTIVE.equals(directive)) {
+						mustRevalidate = true;
+					} else if (maxAge == NO_MAX_AGE
+							&& directive.toLowerCase().startsWith(Headers.MAX_AGE_DIRECTIVE)) {
+						maxAge = Math.max(0,
+								parseLong(directive.substring(Math.min(directive.length(),
+										Headers.MAX_AGE_DIRECTIVE.length() + 1))));
+					}
+				}
+			}
+			String lastModified = properties.getProperty(Headers.LAST_MODIFIED_HEADER.toLowerCase());
+			return new CacheHeader(parseInt(properties.getProperty(CacheLine.RESPONSE_CODE)),
+					parseLong(properties.getProperty(CacheLine.LAST_UPDATED)),
+					properties.getProperty(Headers.ETAG_HEADER.toLowerCase()), lastModified,
+					parseHttpDate(lastModified),
+					parseHttpDate(properties.getProperty(Headers.EXPIRES_HEADER.toLowerCase())), mustRevalidate,
+					maxAge, properties.getProperty("location"));
+		}
+
+		private static long parseHttpDate(String input) {
+			if (input != null) {
+				try {
+					return ZonedDateTime.parse(input.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant()
+							.toEpochMilli();
+				} catch (DateTimeParseException e) {
+					// can't use it then..
+				}
+			}
+			return NO_DATE;
+		}
+
+		private static int parseInt(String value) {
+			if (value != null) {
+				try {
+					return Integer.parseInt(value);
+				} catch (NumberFormatException e) {
+					// ignore...
+				}
+			}
+			return -1;
 		}
-		return entryCache.computeIfAbsent(location, CacheLine::new);
 
+		private static long parseLong(String value) {
+			if (value != null) {
+				try {
+					return Long.parseLong(value);
+				} catch (NumberFormatException e) {
+					// ignore...
+				}
+			}
+			return 0;
+		}
 	}
 
 	private final class CacheLine {
@@ -169,13 +284,11 @@ public class SharedHttpCacheStorage implements HttpCache {
 		private static final String STATUS_LINE = "HTTP_STATUS_LINE";
 		private final File file;
 		private final File headerFile;
-		private Properties header;
-		private final DateFormat httpDateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss z", Locale.US);
+		private volatile CacheHeader header;
 
 		public CacheLine(File file) {
 			this.file = file;
 			this.headerFile = new File(file.getParent(), file.getName() + ".headers");
-			httpDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
 		}
 
 		public synchronized long fetchLastModified(URI uri, HttpTransportFactory transportFactory, Logger logger)
@@ -214,10 +327,9 @@ public class SharedHttpCacheStorage implements HttpCache {
 				if (isRedirected(code)) {
 					return SharedHttpCacheStorage.this.getCacheEntry(uri, logger).getLastModified(transportFactory);
 				}
-				Properties offlineHeader = getHeader();
-				Date lastModified = pareHttpDate(offlineHeader.getProperty(Headers.LAST_MODIFIED_HEADER.toLowerCase()));
-				if (lastModified != null) {
-					return lastModified.getTime();
+				long lastModified = getHeader().lastModifiedTime();
+				if (lastModified != CacheHeader.NO_DATE) {
+					return lastModified;
 				}
 				return -1;
 			} else {
@@ -232,14 +344,13 @@ public class SharedHttpCacheStorage implements HttpCache {
 				return file;
 			}
 			HttpTransport transport = transportFactory.createTransport(uri);
-			Properties lastHeader = getHeader();
+			CacheHeader lastHeader = getHeader();
 			if (exists) {
-				if (lastHeader.containsKey(Headers.ETAG_HEADER.toLowerCase())) {
-					transport.setHeader("If-None-Match", lastHeader.getProperty(Headers.ETAG_HEADER.toLowerCase()));
+				if (lastHeader.etag() != null) {
+					transport.setHeader("If-None-Match", lastHeader.etag());
 				}
-				if (lastHeader.contains(Headers.LAST_MODIFIED_HEADER.toLowerCase())) {
-					transport.setHeader("If-Modified-Since",
-							lastHeader.getProperty(Headers.LAST_MODIFIED_HEADER.toLowerCase()));
+				if (lastHeader.lastModified() != null) {
+					transport.setHeader("If-Modified-Since", lastHeader.lastModified());
 				}
 			}
 			transport.setHeader(Headers.HEADER_ACCEPT_ENCODING, Headers.ENCODING_GZIP);
@@ -347,61 +458,38 @@ public class SharedHttpCacheStorage implements HttpCache {
 				// user enforced validation
 				return true;
 			}
-			String[] cacheControls = getCacheControl();
-			for (String directive : cacheControls) {
-				if (Headers.MUST_REVALIDATE_DIRECTIVE.equals(directive)) {
-					// server enforced validation
-					return true;
-				}
+			CacheHeader cacheHeader = getHeader();
+			if (cacheHeader.mustRevalidate()) {
+				// server enforced validation
+				return true;
 			}
-			Properties properties = getHeader();
-			long lastUpdated = parseLong(properties.getProperty(LAST_UPDATED));
-			if (lastUpdated + TimeUnit.MINUTES.toMillis(MIN_CACHE_PERIOD) > System.currentTimeMillis()) {
+			long lastUpdated = cacheHeader.lastUpdated();
+			long now = System.currentTimeMillis();
+			if (lastUpdated + TimeUnit.MINUTES.toMillis(MIN_CACHE_PERIOD) > now) {
 				return false;
 			}
 			// Cache-Control header with "max-age" directive takes precedence over Expires
 			// Header.
-			for (String directive : cacheControls) {
-				if (directive.toLowerCase().startsWith(Headers.MAX_AGE_DIRECTIVE)) {
-					long maxAge = parseLong(directive.substring(Headers.MAX_AGE_DIRECTIVE.length() + 1));
-					if (maxAge <= 0) {
-						return true;
-					}
-					return (lastUpdated + TimeUnit.SECONDS.toMillis(maxAge)) < System.currentTimeMillis();
+			long maxAge = cacheHeader.maxAge();
+			if (maxAge != CacheHeader.NO_MAX_AGE) {
+				if (maxAge <= 0) {
+					return true;
 				}
+				return (lastUpdated + TimeUnit.SECONDS.toMillis(maxAge)) < now;
 			}
-			Date expiresDate = pareHttpDate(properties.getProperty(Headers.EXPIRES_HEADER.toLowerCase()));
-			if (expiresDate != null) {
-				return expiresDate.after(new Date());
+			long expires = cacheHeader.expiresTime();
+			if (expires != CacheHeader.NO_DATE) {
+				return expires > now;
 			}
 			return true;
 		}
 
-		protected long parseLong(String value) {
-			if (value != null) {
-				try {
-					return Long.parseLong(value);
-				} catch (NumberFormatException e) {
-					// ignore...
-				}
-			}
-			return 0;
-		}
-
-		private String[] getCacheControl() {
-			String property = getHeader().getProperty(Headers.CACHE_CONTROL_HEADER);
-			if (property != null) {
-				return property.split(",\\s*");
-			}
-			return new String[0];
-		}
-
 		protected boolean isAuthFailure(int code) {
 			return code == HttpURLConnection.HTTP_PROXY_AUTH || code == HttpURLConnection.HTTP_UNAUTHORIZED;
 		}
 
 		protected void updateHeader(Headers response, int code) throws IOException, FileNotFoundException {
-			header = new Properties();
+			Properties header = new Properties();
 			header.setProperty(RESPONSE_CODE, String.valueOf(code));
 			header.setProperty(LAST_UPDATED, String.valueOf(System.currentTimeMillis()));
 			Map<String, List<String>> headerFields = response.headers();
@@ -434,26 +522,15 @@ public class SharedHttpCacheStorage implements HttpCache {
 			// we store the header here, this might be a 404 response or (permanent)
 			// redirect we probably need to work with later on
 			ReproducibleUtils.storeProperties(header, headerFile.toPath());
-		}
-
-		private synchronized Date pareHttpDate(String input) {
-			if (input != null) {
-				try {
-					return httpDateFormat.parse(input);
-				} catch (ParseException e) {
-					// can't use it then..
-				}
-			}
-			return null;
+			this.header = CacheHeader.of(header);
 		}
 
 		public int getResponseCode() {
-			return Integer.parseInt(getHeader().getProperty(RESPONSE_CODE, "-1"));
+			return getHeader().responseCode();
 		}
 
 		public URI getRedirect(URI base, Logger logger) throws FileNotFoundException {
-			String location = getHeader().getProperty("location");
-			return getRedirect(base, location, logger);
+			return getRedirect(base, getHeader().location(), logger);
 		}
 
 		private URI getRedirect(URI base, String location, Logger logger) throws FileNotFoundException {
@@ -468,18 +545,22 @@ public class SharedHttpCacheStorage implements HttpCache {
 			return uri;
 		}
 
-		public Properties getHeader() {
-			if (header == null) {
-				header = new Properties();
+		private CacheHeader getHeader() {
+			CacheHeader cacheHeader = header;
+			if (cacheHeader == null) {
+				cacheHeader = CacheHeader.EMPTY;
 				if (headerFile.isFile()) {
-					try {
-						header.load(new FileInputStream(headerFile));
+					Properties properties = new Properties();
+					try (InputStream stream = Files.newInputStream(headerFile.toPath())) {
+						properties.load(stream);
+						cacheHeader = CacheHeader.of(properties);
 					} catch (IOException e) {
 						// can't use the headers then...
 					}
 				}
+				header = cacheHeader;
 			}
-			return header;
+			return cacheHeader;
 		}
 	}
 
@@ -30,8 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.io.FileUtils;
@@ -58,19 +57,30 @@ public class TychoRepositoryTransport extends org.eclipse.equinox.internal.p2.re
 
 	private static final int MAX_DOWNLOAD_THREADS = Integer.getInteger("tycho.p2.transport.max-download-threads", 4);
 
-	private static final Executor DOWNLOAD_EXECUTOR = Executors.newFixedThreadPool(MAX_DOWNLOAD_THREADS,
-			new ThreadFactory() {
+	private static final Semaphore DOWNLOAD_PERMITS = new Semaphore(Math.max(1, MAX_DOWNLOAD_THREADS));
 
-				private AtomicInteger cnt = new AtomicInteger();
+	/**
+	 * Runs each download in its own virtual thread, so threads blocked on network I/O are cheap and
+	 * the (HTTP/2) client can multiplex the requests, the number of downloads running at the same
+	 * time is still bounded by {@link #MAX_DOWNLOAD_THREADS}.
+	 */
+	private static final Executor DOWNLOAD_EXECUTOR = new Executor() {
 
-				@Override
-				public Thread newThread(Runnable r) {
-					Thread thread = new Thread(r);
-					thread.setName("Tycho-Download-Thread-" + cnt.getAndIncrement());
-					thread.setDaemon(true);
-					return thread;
+		private final Executor virtualThreads = Executors
+				.newThreadPerTaskExecutor(Thread.ofVirtual().name("Tycho-Download-Thread-", 0).factory());
+
+		@Override
+		public void execute(Runnable command) {
+			virtualThreads.execute(() -> {
+				DOWNLOAD_PERMITS.acquireUninterruptibly();
+				try {
+					command.run();
+				} finally {
+					DOWNLOAD_PERMITS.release();
 				}
 			});
+		}
+	};
 
 	private NumberFormat numberFormat = NumberFormat.getNumberInstance();
 
@@ -0,0 +1,139 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2maven;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.MetadataFactory;
+import org.eclipse.equinox.p2.metadata.MetadataFactory.InstallableUnitDescription;
+import org.eclipse.equinox.p2.metadata.Version;
+import org.eclipse.tycho.p2maven.transport.TransportCacheConfig;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ProjectMetadataCacheTest {
+
+	private static final String CONFIGURATION = "eclipse-plugin";
+
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private final Logger logger = new ConsoleLogger(Logger.LEVEL_DISABLED, "no-op logger");
+	private final AtomicInteger published = new AtomicInteger();
+	private TransportCacheConfig cacheConfig;
+	private File basedir;
+
+	@Before
+	public void setUp() throws Exception {
+		File cacheLocation = tempFolder.newFolder("cache");
+		cacheConfig = new TransportCacheConfig() {
+
+			@Override
+			public boolean isOffline() {
+				return false;
+			}
+
+			@Override
+			public boolean isUpdate() {
+				return false;
+			}
+
+			@Override
+			public boolean isInteractive() {
+				return false;
+			}
+
+			@Override
+			public boolean isDebug() {
+				return false;
+			}
+
+			@Override
+			public File getCacheLocation() {
+				return cacheLocation;
+			}
+		};
+		basedir = tempFolder.newFolder("bundle");
+		Files.writeString(new File(basedir, "feature.xml").toPath(), "<feature id=\"feature\"/>");
+	}
+
+	@Test
+	public void testUnitsAreReusedWhileFilesAreUnchanged() throws Exception {
+		publish(newCache("5.0.0", "1.0.0"));
+
+		Collection<IInstallableUnit> units = publish(newCache("5.0.0", "1.0.0"));
+
+		assertEquals(1, published.get());
+		assertEquals("feature", units.iterator().next().getId());
+		Files.writeString(new File(basedir, "feature.xml").toPath(), "<feature id=\"changed\"/>");
+		publish(newCache("5.0.0", "1.0.0"));
+		assertEquals(2, published.get());
+	}
+
+	@Test
+	public void testUnitsOfOtherTychoVersionAreNotUsed() throws Exception {
+		publish(newCache("5.0.0", "1.0.0"));
+
+		publish(newCache("5.0.1", "1.0.0"));
+
+		assertEquals(2, published.get());
+	}
+
+	@Test
+	public void testUnitsOfOtherPublisherVersionAreNotUsed() throws Exception {
+		publish(newCache("5.0.0", "1.0.0"));
+
+		publish(newCache("5.0.0", "1.1.0"));
+
+		assertEquals(2, published.get());
+	}
+
+	@Test
+	public void testCacheIsDisabledIfPublisherVersionIsUnknown() throws Exception {
+		ProjectMetadataCache cache = newCache("5.0.0", null);
+		assertFalse(cache.isEnabled());
+		assertTrue(newCache("5.0.0", "1.0.0").isEnabled());
+
+		publish(cache);
+		publish(cache);
+
+		assertEquals(2, published.get());
+	}
+
+	private ProjectMetadataCache newCache(String tychoVersion, String publisherVersion) {
+		return new ProjectMetadataCache(cacheConfig, logger, tychoVersion, publisherVersion);
+	}
+
+	private Collection<IInstallableUnit> publish(ProjectMetadataCache cache) throws Exception {
+		return cache.getPublishedUnits(basedir, CONFIGURATION, () -> {
+			published.incrementAndGet();
+			InstallableUnitDescription description = new InstallableUnitDescription();
+			description.setId("feature");
+			description.setVersion(Version.create("1.0.0"));
+			return List.of(MetadataFactory.createInstallableUnit(description));
+		});
+	}
+}
@@ -15,9 +15,12 @@ package org.eclipse.sisu.equinox.launching.internal;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.file.FileSystemException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -25,6 +28,7 @@ import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.jar.JarFile;
 import java.util.jar.Manifest;
 
@@ -44,6 +48,7 @@ import org.eclipse.sisu.equinox.launching.BundleStartLevel;
 import org.eclipse.sisu.equinox.launching.EquinoxInstallation;
 import org.eclipse.sisu.equinox.launching.EquinoxInstallationDescription;
 import org.eclipse.sisu.equinox.launching.EquinoxInstallationFactory;
+import org.eclipse.tycho.FileChecksums;
 import org.eclipse.tycho.ReproducibleUtils;
 import org.eclipse.tycho.TychoConstants;
 import org.osgi.framework.Constants;
@@ -54,7 +59,7 @@ public class DefaultEquinoxInstallationFactory implements EquinoxInstallationFac
     @Inject
     private PlexusContainer plexus;
 
-    private final Map<String, Manifest> manifestCache = new HashMap<>();
+    private final Map<String, Manifest> manifestCache = new ConcurrentHashMap<>();
 
     @Inject
     private Logger log;
@@ -69,6 +74,12 @@ public class DefaultEquinoxInstallationFactory implements EquinoxInstallationFac
 
     @Override
     public EquinoxInstallation createInstallation(EquinoxInstallationDescription description, File location) {
+        return createInstallation(description, location, null);
+    }
+
+    @Override
+    public EquinoxInstallation createInstallation(EquinoxInstallationDescription description, File location,
+            File store) {
         Set<String> bundlesToExplode = description.getBundlesToExplode();
         Collection<File> frameworkExtensions = description.getFrameworkExtensions();
         Map<String, BundleStartLevel> startLevel = description.getBundleStartLevel();
@@ -85,13 +96,7 @@ public class DefaultEquinoxInstallationFactory implements EquinoxInstallationFac
                 File file = artifact.getLocation();
                 if (needsUnpack(artifact, bundlesToExplode)) {
                     String filename = artifact.getId() + "_" + artifact.getVersion();
-                    File unpacked = new File(location, "plugins/" + filename);
-
-                    unpacked.mkdirs();
-
-                    unpack(file, unpacked);
-
-                    effective.put(artifact, unpacked);
+                    effective.put(artifact, unpackBundle(file, location, filename, store));
                 } else {
                     effective.put(artifact, file);
                 }
@@ -139,8 +144,8 @@ public class DefaultEquinoxInstallationFactory implements EquinoxInstallationFac
 
             if (!frameworkExtensions.isEmpty()) {
                 // see osgi.framework.extensions at https://help.eclipse.org/latest/index.jsp?topic=%2Forg.eclipse.platform.doc.isv%2Freference%2Fmisc%2Fruntime-options.html
-                Collection<String> bundleNames = unpackFrameworkExtensions(location, frameworkExtensions);
-                p.setProperty("osgi.framework", copySystemBundle(description, location));
+                Collection<String> bundleNames = unpackFrameworkExtensions(location, frameworkExtensions, store);
+                p.setProperty("osgi.framework", copySystemBundle(description, location, store));
                 p.setProperty("osgi.framework.extensions", StringUtils.join(bundleNames.iterator(), ","));
             }
 
@@ -192,7 +197,9 @@ public class DefaultEquinoxInstallationFactory implements EquinoxInstallationFac
                 manifest = jarFile.getManifest();
             }
         }
-        manifestCache.put(key, manifest);
+        if (manifest != null) {
+            manifestCache.put(key, manifest);
+        }
         return manifest;
     }
 
@@ -229,7 +236,71 @@ public class DefaultEquinoxInstallationFactory implements EquinoxInstallationFac
         }
     }
 
-    private List<String> unpackFrameworkExtensions(File location, Collection<File> frameworkExtensions)
+    /**
+     * Unpacks the given bundle to <code>plugins/name</code> in the location. If a store is given,
+     * the bundle is unpacked into the store only once and the directory in the location is a link
+     * to it.
+     * 
+     * @return the directory the bundle can be found in
+     */
+    private File unpackBundle(File bundleFile, File location, String name, File store) throws IOException {
+        File destination = new File(location, "plugins/" + name);
+        if (store == null) {
+            destination.mkdirs();
+            unpack(bundleFile, destination);
+            return destination;
+        }
+        Path stored = getStoredBundle(bundleFile, name, store).toPath().toAbsolutePath();
+        Path link = destination.toPath();
+        try {
+            if (Files.isSymbolicLink(link)) {
+                if (stored.equals(Files.readSymbolicLink(link))) {
+                    return destination;
+                }
+                Files.delete(link);
+            } else if (destination.exists()) {
+                FileUtils.forceDelete(destination);
+            }
+            Files.createDirectories(link.getParent());
+            Files.createSymbolicLink(link, stored);
+            return destination;
+        } catch (IOException | UnsupportedOperationException e) {
+            log.debug("Can't link " + stored + " to " + destination + ", the stored bundle is used directly: " + e);
+            return stored.toFile();
+        }
+    }
+
+    /**
+     * Returns the directory in the store that contains the unpacked bundle, it is identified by the
+     * checksum of the bundle file so it is only unpacked once
+     */
+    private File getStoredBundle(File bundleFile, String name, File store) throws IOException {
+        String checksum = FileChecksums.getChecksum(bundleFile.toPath(), "SHA-256");
+        File stored = new File(store, name + "_" + checksum.substring(0, 16));
+        if (stored.isDirectory()) {
+            return stored;
+        }
+        Files.createDirectories(store.toPath());
+        Path temp = Files.createTempDirectory(store.toPath(), name + ".tmp");
+        try {
+            unpack(bundleFile, temp.toFile());
+            try {
+                Files.move(temp, stored.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileSystemException e) {
+                if (!stored.isDirectory()) {
+                    throw e;
+                }
+                // stored concurrently by another installation
+            }
+        } finally {
+            if (Files.exists(temp)) {
+                FileUtils.deleteDirectory(temp.toFile());
+            }
+        }
+        return stored;
+    }
+
+    private List<String> unpackFrameworkExtensions(File location, Collection<File> frameworkExtensions, File store)
             throws IOException {
         List<String> bundleNames = new ArrayList<>();
 
@@ -238,21 +309,33 @@ public class DefaultEquinoxInstallationFactory implements EquinoxInstallationFac
             String symbolicName = mf.getMainAttributes().getValue(Constants.BUNDLE_SYMBOLICNAME);
             String version = mf.getMainAttributes().getValue(Constants.BUNDLE_VERSION);
             bundleNames.add(symbolicName);
-            File bundleDir = new File(location, "plugins/" + symbolicName + "_" + version);
             if (bundleFile.isFile()) {
-                unpack(bundleFile, bundleDir);
+                unpackBundle(bundleFile, location, symbolicName + "_" + version, store);
             } else {
+                File bundleDir = new File(location, "plugins/" + symbolicName + "_" + version);
                 FileUtils.copyDirectoryStructure(bundleFile, bundleDir);
             }
         }
         return bundleNames;
     }
 
-    private String copySystemBundle(EquinoxInstallationDescription description, File location) throws IOException {
+    private String copySystemBundle(EquinoxInstallationDescription description, File location, File store)
+            throws IOException {
         BundleReference bundle = description.getSystemBundle();
         File srcFile = bundle.getLocation();
         File dstFile = new File(location, "plugins/" + srcFile.getName());
-        FileUtils.copyFileIfModified(srcFile, dstFile);
+        if (store != null && srcFile.isFile()) {
+            // the framework extensions are found next to the framework, so it can't be used directly
+            try {
+                Files.deleteIfExists(dstFile.toPath());
+                Files.createDirectories(dstFile.toPath().getParent());
+                Files.createLink(dstFile.toPath(), srcFile.toPath());
+            } catch (IOException | UnsupportedOperationException e) {
+                FileUtils.copyFile(srcFile, dstFile);
+            }
+        } else {
+            FileUtils.copyFileIfModified(srcFile, dstFile);
+        }
 
         return "file:" + dstFile.getAbsolutePath().replace('\\', '/');
     }
@@ -24,10 +24,12 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 
 import org.apache.commons.exec.CommandLine;
+import org.apache.commons.exec.DefaultExecuteResultHandler;
 import org.apache.commons.exec.DefaultExecutor;
 import org.apache.commons.exec.DefaultExecutor.Builder;
 import org.apache.commons.exec.ExecuteException;
 import org.apache.commons.exec.ExecuteWatchdog;
+import org.apache.commons.exec.Executor;
 import org.apache.commons.exec.ShutdownHookProcessDestroyer;
 import org.apache.commons.exec.environment.EnvironmentUtils;
 import org.codehaus.plexus.logging.Logger;
@@ -65,28 +67,50 @@ public class DefaultEquinoxLauncher implements EquinoxLauncher {
         Builder<?> executorBuilder = DefaultExecutor.builder();
         executorBuilder.setWorkingDirectory(configuration.getWorkingDirectory());
         DefaultExecutor executor = executorBuilder.get();
-        ExecuteWatchdog watchdog = null;
+        // the watchdog is also used to destroy the process if the calling thread is interrupted
+        Duration timeout = Duration.ofMillis(ExecuteWatchdog.INFINITE_TIMEOUT);
         if (forkedProcessTimeoutInSeconds > 0) {
             long timeoutInMilliseconds = forkedProcessTimeoutInSeconds * 1000L;
             cli.addArguments(new String[] { "-timeout ", String.valueOf(timeoutInMilliseconds) });
-            watchdog = ExecuteWatchdog.builder().setTimeout(Duration.ofMillis(timeoutInMilliseconds)).get();
-            executor.setWatchdog(watchdog);
+            timeout = Duration.ofMillis(timeoutInMilliseconds);
         }
+        ExecuteWatchdog watchdog = ExecuteWatchdog.builder().setTimeout(timeout).get();
+        executor.setWatchdog(watchdog);
 
         log.info("Command line: " + Arrays.stream(cli.toStrings()).collect(Collectors.joining(" ")));
 
         // best effort to avoid orphaned child process
         executor.setProcessDestroyer(new ShutdownHookProcessDestroyer());
+        DefaultExecuteResultHandler resultHandler = new DefaultExecuteResultHandler();
         try {
-            return executor.execute(cli, getMergedEnvironment(configuration));
-        } catch (ExecuteException e) {
-            if (watchdog != null && watchdog.killedProcess()) {
-                log.error("Timeout of " + forkedProcessTimeoutInSeconds + "s exceeded. Process was killed");
-            }
-            return e.getExitValue();
+            executor.execute(cli, getMergedEnvironment(configuration), resultHandler);
+            resultHandler.waitFor();
         } catch (IOException e) {
             throw new EquinoxLaunchingException(e);
+        } catch (InterruptedException e) {
+            // the caller is not interested in the result anymore (e.g. because a parallel test run
+            // failed), so the process must not outlive the call
+            watchdog.destroyProcess();
+            try {
+                resultHandler.waitFor(Duration.ofMinutes(1));
+            } catch (InterruptedException e1) {
+                // give up waiting
+            }
+            Thread.currentThread().interrupt();
+            throw new EquinoxLaunchingException("Interrupted while waiting for the process", e);
+        }
+        ExecuteException failure = resultHandler.getException();
+        if (failure == null) {
+            return resultHandler.getExitValue();
+        }
+        if (failure.getExitValue() == Executor.INVALID_EXITVALUE && failure.getCause() instanceof IOException) {
+            // the process could not be started
+            throw new EquinoxLaunchingException(failure);
+        }
+        if (forkedProcessTimeoutInSeconds > 0 && watchdog.killedProcess()) {
+            log.error("Timeout of " + forkedProcessTimeoutInSeconds + "s exceeded. Process was killed");
         }
+        return failure.getExitValue();
     }
 
     private static Map<String, String> getMergedEnvironment(LaunchConfiguration configuration) throws IOException {
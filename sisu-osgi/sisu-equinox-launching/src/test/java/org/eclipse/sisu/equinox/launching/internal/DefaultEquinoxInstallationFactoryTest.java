@@ -12,16 +12,20 @@
  ******************************************************************************/
 package org.eclipse.sisu.equinox.launching.internal;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.codehaus.plexus.logging.Logger;
 import org.eclipse.sisu.equinox.launching.BundleReference;
@@ -29,6 +33,7 @@ import org.eclipse.sisu.equinox.launching.BundleStartLevel;
 import org.eclipse.sisu.equinox.launching.DefaultEquinoxInstallationDescription;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 public class DefaultEquinoxInstallationFactoryTest {
 
@@ -124,6 +129,38 @@ public class DefaultEquinoxInstallationFactoryTest {
         assertTrue(config.contains("reference:file:absolute/path/to/bundle1@start")); // implicitly use default start level
     }
 
+    @Test
+    public void testStoredBundleIsUnpackedOnce(@TempDir Path tempDir) throws Exception {
+        File bundle = Files.writeString(tempDir.resolve("bundle1.jar"), "content").toFile();
+        AtomicInteger unpacked = new AtomicInteger();
+        DefaultEquinoxInstallationFactory factory = new DefaultEquinoxInstallationFactory(mock(Logger.class)) {
+            @Override
+            protected void unpack(File source, File destination) {
+                unpacked.incrementAndGet();
+                try {
+                    Files.createDirectories(destination.toPath());
+                    Files.copy(source.toPath(), destination.toPath().resolve("unpacked.txt"));
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        };
+        DefaultEquinoxInstallationDescription description = new DefaultEquinoxInstallationDescription();
+        description.addBundle("org.example.bundle1", "1.0", bundle);
+        description.addBundlesToExplode(List.of("org.example.bundle1"));
+        File store = tempDir.resolve("store").toFile();
+
+        factory.createInstallation(description, tempDir.resolve("work1").toFile(), store);
+        factory.createInstallation(description, tempDir.resolve("work2").toFile(), store);
+
+        assertEquals(1, unpacked.get());
+        assertEquals(1, store.list().length);
+        for (String work : List.of("work1", "work2")) {
+            Path unpackedFile = tempDir.resolve(work).resolve("plugins/org.example.bundle1_1.0/unpacked.txt");
+            assertEquals("content", Files.readString(unpackedFile));
+        }
+    }
+
     private static File mockFile(String absolutePath) {
         File file = mock(File.class);
         when(file.getAbsolutePath()).thenReturn(absolutePath);
@@ -16,4 +16,18 @@ import java.io.File;
 
 public interface EquinoxInstallationFactory {
     public EquinoxInstallation createInstallation(EquinoxInstallationDescription description, File location);
+
+    /**
+     * Creates an installation at the given location. Bundles that need to be unpacked are stored
+     * only once in the given store (identified by their content) and are linked into the
+     * installation, so installations created with the same store can share them.
+     * 
+     * @param store
+     *            the directory to store unpacked bundles in, or <code>null</code> to unpack them
+     *            into the installation
+     */
+    public default EquinoxInstallation createInstallation(EquinoxInstallationDescription description, File location,
+            File store) {
+        return createInstallation(description, location);
+    }
 }
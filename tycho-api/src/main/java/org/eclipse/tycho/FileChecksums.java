@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Computes checksums of files and remembers them, so the same file is not read again as long as
+ * its size, modification time and file key are unchanged. All requested algorithms are computed
+ * together in a single pass over the file. Files that were modified shortly before they are read
+ * are not remembered, as a further modification might not change their modification time. The number of remembered files is bounded by the system
+ * property <code>tycho.checksums.cache.size</code> (default 10000).
+ * <p>
+ * If the system property <code>tycho.checksums.sidecar</code> is set to <code>true</code> the
+ * checksums are additionally stored in a sidecar file in the Tycho cache directory (never next to
+ * the file itself, as it might be located in a shared bundle pool or repository), so later builds
+ * can reuse them as well.
+ */
+public final class FileChecksums {
+
+    private static final String SIDECAR_DIRECTORY = "checksums";
+    private static final String PATH = "path";
+    private static final String SIZE = "size";
+    private static final String LAST_MODIFIED = "lastModified";
+    private static final String FILE_KEY = "fileKey";
+    private static final long MAPPED_THRESHOLD = 16 * 1024 * 1024;
+    private static final int MAPPED_CHUNK_SIZE = 64 * 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * The coarsest granularity of modification times of common filesystems (FAT uses two seconds)
+     */
+    private static final long MODIFICATION_TIME_GRANULARITY = 2000;
+
+    private static final FileChecksums INSTANCE = new FileChecksums(
+            Boolean.getBoolean("tycho.checksums.sidecar") ? getDefaultSidecarDirectory() : null,
+            Integer.getInteger("tycho.checksums.cache.size", 10000));
+
+    private final Map<Path, Entry> cache = new ConcurrentHashMap<>();
+    private final Path sidecarDirectory;
+    private final int cacheSize;
+
+    private record Entry(long size, long lastModified, String fileKey, Map<String, String> checksums) {
+
+        static Entry of(BasicFileAttributes attributes, Map<String, String> checksums) {
+            return new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(),
+                    Objects.toString(attributes.fileKey(), null), Map.copyOf(checksums));
+        }
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified == attributes.lastModifiedTime().toMillis()
+                    && Objects.equals(fileKey, Objects.toString(attributes.fileKey(), null));
+        }
+    }
+
+    /**
+     * @param sidecarDirectory
+     *            the directory to store sidecar files in or <code>null</code> if no sidecar files
+     *            should be used
+     * @param cacheSize
+     *            the maximum number of files to remember the checksums for
+     */
+    FileChecksums(Path sidecarDirectory, int cacheSize) {
+        this.sidecarDirectory = sidecarDirectory;
+        this.cacheSize = cacheSize;
+    }
+
+    /**
+     * Returns the checksum of a file
+     *
+     * @param file
+     *            the file
+     * @param algorithm
+     *            the name of the algorithm (e.g. <code>sha-256</code> or <code>MD5</code>)
+     * @return the checksum as lower case hex string
+     * @throws IOException
+     *             if the file can't be read
+     * @throws IllegalArgumentException
+     *             if the algorithm is not supported
+     */
+    public static String getChecksum(Path file, String algorithm) throws IOException {
+        return getChecksums(file, List.of(algorithm)).get(algorithm);
+    }
+
+    /**
+     * Returns the checksums of a file, the file is read at most once for all algorithms not known
+     * yet.
+     *
+     * @param file
+     *            the file
+     * @param algorithms
+     *            the names of the algorithms
+     * @return the checksums as lower case hex strings, keyed by the given algorithm names
+     * @throws IOException
+     *             if the file can't be read
+     * @throws IllegalArgumentException
+     *             if an algorithm is not supported
+     */
+    public static Map<String, String> getChecksums(Path file, Collection<String> algorithms) throws IOException {
+        return INSTANCE.compute(file, algorithms);
+    }
+
+    Map<String, String> compute(Path file, Collection<String> algorithms) throws IOException {
+        Path path = file.toRealPath();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Entry entry = cache.get(path);
+        if (entry == null || !entry.matches(attributes)) {
+            entry = readSidecar(path, attributes);
+        }
+        Map<String, String> known = entry != null ? entry.checksums() : Map.of();
+        Map<String, MessageDigest> missing = new LinkedHashMap<>();
+        for (String algorithm : algorithms) {
+            String name = normalize(algorithm);
+            if (!known.containsKey(name) && !missing.containsKey(name)) {
+                try {
+                    missing.put(name, MessageDigest.getInstance(name));
+                } catch (NoSuchAlgorithmException e) {
+                    throw new IllegalArgumentException("Unsupported checksum algorithm " + algorithm, e);
+                }
+            }
+        }
+        if (!missing.isEmpty()) {
+            Map<String, String> checksums = new LinkedHashMap<>(known);
+            long readTime = System.currentTimeMillis();
+            digest(path, attributes.size(), missing.values());
+            missing.forEach((name, digest) -> checksums.put(name, HexFormat.of().formatHex(digest.digest())));
+            BasicFileAttributes after = Files.readAttributes(path, BasicFileAttributes.class);
+            entry = Entry.of(attributes, checksums);
+            if (entry.matches(after) && readTime - entry.lastModified() > MODIFICATION_TIME_GRANULARITY) {
+                // only remember the result if the file was not modified while reading it, and can't be
+                // modified afterwards within the same modification time
+                remember(path, entry);
+                writeSidecar(path, entry);
+            }
+        } else if (entry != null && entry != cache.get(path)) {
+            remember(path, entry);
+        }
+        Map<String, String> result = new LinkedHashMap<>();
+        for (String algorithm : algorithms) {
+            result.put(algorithm, entry.checksums().get(normalize(algorithm)));
+        }
+        return result;
+    }
+
+    /**
+     * Checks if a file has the expected checksum
+     *
+     * @param file
+     *            the file
+     * @param algorithm
+     *            the name of the algorithm
+     * @param expected
+     *            the expected checksum as hex string (case is ignored)
+     * @return <code>true</code> if the checksum matches, <code>false</code> if it does not match,
+     *         the file can't be read or the algorithm is not supported
+     */
+    public static boolean matches(Path file, String algorithm, String expected) {
+        try {
+            return getChecksum(file, algorithm).equalsIgnoreCase(expected);
+        } catch (IOException | IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    int getCachedFileCount() {
+        return cache.size();
+    }
+
+    private void remember(Path path, Entry entry) {
+        if (cache.size() >= cacheSize) {
+            // no need for a strict LRU here, just make room for new entries
+            Iterator<Path> iterator = cache.keySet().iterator();
+            for (int i = cacheSize / 10; i >= 0 && iterator.hasNext(); i--) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        cache.put(path, entry);
+    }
+
+    private static String normalize(String algorithm) {
+        return algorithm.toUpperCase(Locale.ROOT);
+    }
+
+    private static void digest(Path file, long size, Collection<MessageDigest> digests) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (size >= MAPPED_THRESHOLD) {
+                for (long position = 0; position < size; position += MAPPED_CHUNK_SIZE) {
+                    MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(MAPPED_CHUNK_SIZE, size - position));
+                    for (MessageDigest digest : digests) {
+                        digest.update(buffer.duplicate());
+                    }
+                }
+            } else {
+                ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+                while (channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    for (MessageDigest digest : digests) {
+                        digest.update(buffer.array(), 0, buffer.limit());
+                    }
+                    buffer.clear();
+                }
+            }
+        }
+    }
+
+    private Entry readSidecar(Path file, BasicFileAttributes attributes) {
+        if (sidecarDirectory == null) {
+            return null;
+        }
+        Path sidecar = getSidecar(file);
+        if (!Files.isRegularFile(sidecar)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = Files.newInputStream(sidecar)) {
+            properties.load(stream);
+            if (!file.toString().equals(properties.getProperty(PATH))) {
+                return null;
+            }
+            Map<String, String> checksums = new LinkedHashMap<>();
+            for (String key : properties.stringPropertyNames()) {
+                if (!key.equals(PATH) && !key.equals(SIZE) && !key.equals(LAST_MODIFIED) && !key.equals(FILE_KEY)) {
+                    checksums.put(key, properties.getProperty(key));
+                }
+            }
+            Entry entry = new Entry(Long.parseLong(properties.getProperty(SIZE)),
+                    Long.parseLong(properties.getProperty(LAST_MODIFIED)), properties.getProperty(FILE_KEY),
+                    Map.copyOf(checksums));
+            return entry.matches(attributes) ? entry : null;
+        } catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void writeSidecar(Path file, Entry entry) {
+        if (sidecarDirectory == null) {
+            return;
+        }
+        Properties properties = new Properties();
+        properties.setProperty(PATH, file.toString());
+        properties.setProperty(SIZE, Long.toString(entry.size()));
+        properties.setProperty(LAST_MODIFIED, Long.toString(entry.lastModified()));
+        if (entry.fileKey() != null) {
+            properties.setProperty(FILE_KEY, entry.fileKey());
+        }
+        properties.putAll(entry.checksums());
+        Path sidecar = getSidecar(file);
+        try {
+            Files.createDirectories(sidecar.getParent());
+            Path tempFile = Files.createTempFile(sidecar.getParent(), sidecar.getFileName().toString(), ".tmp");
+            try {
+                try (OutputStream stream = Files.newOutputStream(tempFile)) {
+                    properties.store(stream, null);
+                }
+                Files.move(tempFile, sidecar, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException e) {
+            // the sidecar is only an optimization
+        }
+    }
+
+    Path getSidecar(Path file) {
+        try {
+            String hash = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(file.toString().getBytes(StandardCharsets.UTF_8)));
+            return sidecarDirectory.resolve(hash.substring(0, 2)).resolve(hash + ".properties");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path getDefaultSidecarDirectory() {
+        // same location as the p2 transport cache, see DefaultTransportCacheConfig
+        String property = System.getProperty("tycho.p2.transport.cache");
+        Path cacheLocation;
+        if (property != null && !property.isBlank()) {
+            cacheLocation = Path.of(property);
+        } else {
+            cacheLocation = TychoConstants.DEFAULT_USER_LOCALREPOSITORY.toPath().resolve(".cache/tycho");
+        }
+        return cacheLocation.resolve(SIDECAR_DIRECTORY);
+    }
+}
@@ -13,6 +13,7 @@
 package org.eclipse.tycho;
 
 import java.io.File;
+import java.util.Collection;
 
 import org.eclipse.equinox.p2.metadata.IArtifactKey;
 
@@ -39,4 +40,14 @@ public interface IArtifactFileProvider extends IArtifactProvider {
 
     public boolean isFileAlreadyAvailable(IArtifactKey artifactKey);
 
+    /**
+     * Hint that the files of the given artifacts will be requested soon, implementations may start
+     * to fetch them in the background. The default implementation does nothing.
+     * 
+     * @param keys
+     *            the artifact keys
+     */
+    public default void prefetchArtifactFiles(Collection<IArtifactKey> keys) {
+    }
+
 }
@@ -17,6 +17,8 @@ package org.eclipse.tycho.build;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -156,7 +158,7 @@ public class TychoGraphBuilder implements GraphBuilder {
 		Map<String, MavenProject> projectIdMap = projects.stream()
 				.collect(Collectors.toMap(p -> getProjectKey(p), Function.identity()));
 		int degreeOfConcurrency = request.getDegreeOfConcurrency();
-		Optional<ExecutorService> executor;
+		Optional<ForkJoinPool> executor;
 		if (degreeOfConcurrency > 1) {
 			executor = Optional.of(new ForkJoinPool(degreeOfConcurrency));
 		} else {
@@ -192,6 +194,9 @@ public class TychoGraphBuilder implements GraphBuilder {
 					}
 				}
 			}
+			Map<MavenProject, Set<MavenProject>> dependentsIndex = makeDownstream
+					? computeDependentsIndex(dependencyClosure, executor)
+					: Map.of();
 			Queue<ProjectRequest> queue = new ConcurrentLinkedQueue<>(graph.getSortedProjects().stream()
 					.map(p -> new ProjectRequest(p, makeDownstream, makeUpstream, null)).toList());
 			if (DEBUG) {
@@ -232,21 +237,16 @@ public class TychoGraphBuilder implements GraphBuilder {
 						}
 					}
 					if (projectRequest.addRequires) {
-						dependencyClosure.dependencies(always -> List.of())//
-								.filter(entry -> entry.getValue().stream()//
-										.flatMap(dependency -> dependencyClosure.getProject(dependency).stream())//
-										.anyMatch(projectRequest::matches))//
-								.map(Entry::getKey)//
-								.distinct()//
-								.peek(project -> {
-									if (DEBUG) {
-										log.info(" + add project '" + project.getId() + "' that depends on '"
-												+ projectRequest.mavenProject.getId() + "'...");
-									}
-								})//
-								// request dependencies of dependants, otherwise, -amd would not be able to
-								// produce a satisfiable build graph
-								.forEach(project -> queue.add(new ProjectRequest(project, true, true, projectRequest)));
+						for (MavenProject project : dependentsIndex.getOrDefault(projectRequest.mavenProject,
+								Set.of())) {
+							if (DEBUG) {
+								log.info(" + add project '" + project.getId() + "' that depends on '"
+										+ projectRequest.mavenProject.getId() + "'...");
+							}
+							// request dependencies of dependants, otherwise, -amd would not be able to
+							// produce a satisfiable build graph
+							queue.add(new ProjectRequest(project, true, true, projectRequest));
+						}
 					}
 				}
 			}
@@ -259,6 +259,12 @@ public class TychoGraphBuilder implements GraphBuilder {
 				}
 
 			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return Result.error(graph);
+		} catch (ExecutionException e) {
+			log.error("Cannot compute project's dependency graph", e.getCause());
+			return Result.error(graph);
 		} finally {
 			executor.ifPresent(ExecutorService::shutdownNow);
 		}
@@ -281,6 +287,38 @@ public class TychoGraphBuilder implements GraphBuilder {
 		}
 	}
 
+	/**
+	 * Computes which projects (directly) depend on a project, this is done once for
+	 * the whole reactor as otherwise each -amd request would need to inspect all
+	 * dependencies of all projects.
+	 * 
+	 * @return a map of each providing project to its dependents, in the order of
+	 *         {@link ProjectDependencyClosure#dependencies(Function)}
+	 */
+	private static Map<MavenProject, Set<MavenProject>> computeDependentsIndex(
+			ProjectDependencyClosure dependencyClosure, Optional<ForkJoinPool> executor)
+			throws InterruptedException, ExecutionException {
+		List<Entry<MavenProject, Collection<IInstallableUnit>>> dependencies = dependencyClosure
+				.dependencies(always -> List.of()).toList();
+		Function<Entry<MavenProject, Collection<IInstallableUnit>>, Set<MavenProject>> providers = entry -> entry
+				.getValue().stream().flatMap(dependency -> dependencyClosure.getProject(dependency).stream())
+				.collect(Collectors.toSet());
+		List<Set<MavenProject>> providersList;
+		if (executor.isPresent()) {
+			providersList = executor.get().submit(() -> dependencies.parallelStream().map(providers).toList()).get();
+		} else {
+			providersList = dependencies.stream().map(providers).toList();
+		}
+		Map<MavenProject, Set<MavenProject>> index = new IdentityHashMap<>();
+		for (int i = 0; i < dependencies.size(); i++) {
+			MavenProject dependent = dependencies.get(i).getKey();
+			for (MavenProject provider : providersList.get(i)) {
+				index.computeIfAbsent(provider, nil -> new LinkedHashSet<>()).add(dependent);
+			}
+		}
+		return index;
+	}
+
 	private String getProjectKey(Dependency project) {
 		return project.getGroupId() + ":" + project.getArtifactId() + ":" + project.getVersion();
 	}
@@ -0,0 +1,318 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.extras.buildtimestamp.jgit;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import org.eclipse.jgit.lib.IndexDiff;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.submodule.SubmoduleWalk.IgnoreSubmoduleMode;
+import org.eclipse.jgit.treewalk.FileTreeIterator;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+
+/**
+ * Holds the information about one git repository that is shared by all projects of a build:
+ * <ul>
+ * <li>the status of the whole working tree, computed with a single scan and filtered per
+ * project,</li>
+ * <li>the time of the last commit that modified each project, computed for all projects of the
+ * reactor that live in the repository with a single walk through the history.</li>
+ * </ul>
+ * The walk applies the same history simplification as a {@link RevWalk} with a path filter (i.e.
+ * merges that did not change a project are followed only along the parent they are identical to),
+ * so the results are the same as walking the history separately for each project. The commit times
+ * only depend on the HEAD commit and can optionally be stored in a cache directory (never inside the
+ * git directory).
+ */
+final class GitRepositoryIndex {
+
+	private static final String NO_COMMIT = "none";
+
+	record WorkingTreeStatus(Set<String> added, Set<String> changed, Set<String> removed, Set<String> modified,
+			Set<String> missing, Set<String> conflicting, Set<String> untracked) {
+
+		boolean isClean() {
+			return added.isEmpty() && changed.isEmpty() && removed.isEmpty() && modified.isEmpty()
+					&& missing.isEmpty() && conflicting.isEmpty() && untracked.isEmpty();
+		}
+
+		WorkingTreeStatus filter(Predicate<String> filter) {
+			return new WorkingTreeStatus(filter(added, filter), filter(changed, filter), filter(removed, filter),
+					filter(modified, filter), filter(missing, filter), filter(conflicting, filter),
+					filter(untracked, filter));
+		}
+
+		private static Set<String> filter(Set<String> paths, Predicate<String> filter) {
+			return paths.stream().filter(filter).collect(Collectors.toCollection(LinkedHashSet::new));
+		}
+	}
+
+	private record CommitTimeKey(String relPath, String ignoreFilter) {
+
+		String externalForm() {
+			return relPath + '\0' + (ignoreFilter == null ? "" : ignoreFilter);
+		}
+	}
+
+	private final Object sessionRequest;
+	private final ObjectId headId;
+	private final File persistentFile;
+	private final Map<CommitTimeKey, Long> commitTimes = new HashMap<>();
+	private final Properties persistentCommitTimes = new Properties();
+	private WorkingTreeStatus workingTreeStatus;
+
+	/**
+	 * @param sessionRequest
+	 *            the request of the build session this index is valid for
+	 * @param headId
+	 *            the current HEAD commit
+	 * @param persistentDirectory
+	 *            the directory (exclusively used for this repository) to store the commit
+	 *            times in, or <code>null</code> if they should not be stored
+	 */
+	GitRepositoryIndex(Object sessionRequest, ObjectId headId, File persistentDirectory) {
+		this.sessionRequest = sessionRequest;
+		this.headId = headId.copy();
+		this.persistentFile = persistentDirectory != null
+				? new File(persistentDirectory, headId.name() + ".properties")
+				: null;
+		if (persistentFile != null && persistentFile.isFile()) {
+			try (InputStream stream = Files.newInputStream(persistentFile.toPath())) {
+				persistentCommitTimes.load(stream);
+			} catch (IOException e) {
+				persistentCommitTimes.clear();
+			}
+		}
+	}
+
+	boolean isValidFor(Object sessionRequest, ObjectId headId) {
+		return this.sessionRequest == sessionRequest && this.headId.equals(headId);
+	}
+
+	/**
+	 * @return the status of the whole working tree (ignoring submodules)
+	 */
+	synchronized WorkingTreeStatus getWorkingTreeStatus(Repository repository) throws IOException {
+		if (workingTreeStatus == null) {
+			IndexDiff diff = new IndexDiff(repository, headId, new FileTreeIterator(repository));
+			diff.setIgnoreSubmoduleMode(IgnoreSubmoduleMode.ALL);
+			diff.diff();
+			workingTreeStatus = new WorkingTreeStatus(Set.copyOf(diff.getAdded()), Set.copyOf(diff.getChanged()),
+					Set.copyOf(diff.getRemoved()), Set.copyOf(diff.getModified()), Set.copyOf(diff.getMissing()),
+					Set.copyOf(diff.getConflicting()), Set.copyOf(diff.getUntracked()));
+		}
+		return workingTreeStatus;
+	}
+
+	/**
+	 * Returns the time of the last commit that modified the given path, if it is not known yet it
+	 * is computed together with the given other paths.
+	 *
+	 * @param repository   the repository
+	 * @param relPath      the path of the project relative to the working tree (unix-style, empty
+	 *                     for the root)
+	 * @param ignoreFilter the additional ignore patterns
+	 * @param otherPaths   the paths of other projects that will be queried later
+	 * @return the commit time in seconds or <code>null</code> if no commit modified the path
+	 */
+	synchronized Long getCommitTime(Repository repository, String relPath, String ignoreFilter,
+			Collection<String> otherPaths) throws IOException {
+		CommitTimeKey key = new CommitTimeKey(relPath, ignoreFilter);
+		if (!commitTimes.containsKey(key)) {
+			Set<CommitTimeKey> missing = new LinkedHashSet<>();
+			for (String path : otherPaths) {
+				CommitTimeKey otherKey = new CommitTimeKey(path, ignoreFilter);
+				if (!commitTimes.containsKey(otherKey) && !readPersisted(otherKey)) {
+					missing.add(otherKey);
+				}
+			}
+			if (!readPersisted(key)) {
+				missing.add(key);
+			}
+			if (!missing.isEmpty()) {
+				computeCommitTimes(repository, ignoreFilter, missing);
+				writePersisted();
+			}
+		}
+		return commitTimes.get(key);
+	}
+
+	private boolean readPersisted(CommitTimeKey key) {
+		String value = persistentCommitTimes.getProperty(key.externalForm());
+		if (value == null) {
+			return false;
+		}
+		try {
+			commitTimes.put(key, NO_COMMIT.equals(value) ? null : Long.valueOf(value));
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
+	private void writePersisted() {
+		if (persistentFile == null) {
+			return;
+		}
+		commitTimes.forEach((key, time) -> persistentCommitTimes.setProperty(key.externalForm(),
+				time == null ? NO_COMMIT : time.toString()));
+		try {
+			Path directory = persistentFile.getParentFile().toPath();
+			Files.createDirectories(directory);
+			Path tempFile = Files.createTempFile(directory, "timestamps", ".tmp");
+			try {
+				try (OutputStream stream = Files.newOutputStream(tempFile)) {
+					persistentCommitTimes.store(stream, null);
+				}
+				Files.move(tempFile, persistentFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+						StandardCopyOption.ATOMIC_MOVE);
+			} finally {
+				Files.deleteIfExists(tempFile);
+			}
+			// results for other HEAD commits are not needed anymore
+			File[] files = directory.toFile().listFiles();
+			if (files != null) {
+				for (File file : files) {
+					if (!file.equals(persistentFile)) {
+						file.delete();
+					}
+				}
+			}
+		} catch (IOException e) {
+			// the cache is only an optimization
+		}
+	}
+
+	private void computeCommitTimes(Repository repository, String ignoreFilter, Set<CommitTimeKey> keys)
+			throws IOException {
+		Map<String, PathFilter> filters = new HashMap<>();
+		for (CommitTimeKey key : keys) {
+			filters.put(key.relPath(), JGitBuildTimestampProvider.createPathFilter(key.relPath(), ignoreFilter));
+		}
+		Map<String, Long> result = new HashMap<>();
+		// same order as the DateRevQueue of a RevWalk: newest first, then in order of discovery
+		record Pending(RevCommit commit, long sequence) {
+		}
+		PriorityQueue<Pending> queue = new PriorityQueue<>((p1, p2) -> {
+			int byTime = Integer.compare(p2.commit().getCommitTime(), p1.commit().getCommitTime());
+			return byTime != 0 ? byTime : Long.compare(p1.sequence(), p2.sequence());
+		});
+		Map<RevCommit, Set<String>> pendingPaths = new HashMap<>();
+		long sequence = 0;
+		try (RevWalk walk = new RevWalk(repository); TreeWalk treeWalk = new TreeWalk(repository)) {
+			treeWalk.setRecursive(true);
+			RevCommit head = walk.parseCommit(headId);
+			for (Map.Entry<String, PathFilter> entry : filters.entrySet()) {
+				if (entry.getValue() == null) {
+					// without a filter every commit is relevant, just like for a RevWalk without a tree filter
+					result.put(entry.getKey(), (long) head.getCommitTime());
+				}
+			}
+			pendingPaths.put(head, new HashSet<>(filters.keySet()));
+			queue.add(new Pending(head, sequence++));
+			while (!queue.isEmpty() && result.size() < filters.size()) {
+				RevCommit commit = queue.poll().commit();
+				Set<String> paths = pendingPaths.remove(commit);
+				if (paths == null) {
+					continue;
+				}
+				paths.removeIf(result::containsKey);
+				if (paths.isEmpty()) {
+					continue;
+				}
+				RevCommit[] parents = commit.getParents();
+				if (parents.length == 0) {
+					// a root commit modifies everything it contains
+					for (String path : changedPaths(treeWalk, filters, paths, commit.getTree())) {
+						result.put(path, (long) commit.getCommitTime());
+					}
+					continue;
+				}
+				List<Set<String>> changedPerParent = new ArrayList<>(parents.length);
+				for (RevCommit parent : parents) {
+					walk.parseHeaders(parent);
+					changedPerParent.add(changedPaths(treeWalk, filters, paths, parent.getTree(), commit.getTree()));
+				}
+				for (String path : paths) {
+					RevCommit sameParent = null;
+					for (int i = 0; i < parents.length; i++) {
+						if (!changedPerParent.get(i).contains(path)) {
+							sameParent = parents[i];
+							break;
+						}
+					}
+					if (sameParent == null) {
+						result.put(path, (long) commit.getCommitTime());
+					} else {
+						Set<String> parentPaths = pendingPaths.get(sameParent);
+						if (parentPaths == null) {
+							pendingPaths.put(sameParent, parentPaths = new HashSet<>());
+							queue.add(new Pending(sameParent, sequence++));
+						}
+						parentPaths.add(path);
+					}
+				}
+			}
+		}
+		for (CommitTimeKey key : keys) {
+			commitTimes.put(key, result.get(key.relPath()));
+		}
+	}
+
+	/**
+	 * @return the subset of the given project paths that contain at least one file that differs
+	 *         between the given trees (or exists in the single tree given)
+	 */
+	private static Set<String> changedPaths(TreeWalk treeWalk, Map<String, PathFilter> filters, Set<String> paths,
+			ObjectId... trees) throws IOException {
+		Set<String> changed = new HashSet<>();
+		treeWalk.reset(trees);
+		treeWalk.setFilter(trees.length > 1 ? TreeFilter.ANY_DIFF : TreeFilter.ALL);
+		while (treeWalk.next() && changed.size() < paths.size()) {
+			String file = treeWalk.getPathString();
+			// only the project paths that are a parent folder of the file are candidates
+			for (int slash = 0; slash >= 0; slash = file.indexOf('/', slash + 1)) {
+				String path = file.substring(0, slash);
+				if (paths.contains(path) && !changed.contains(path)) {
+					PathFilter filter = filters.get(path);
+					if (filter == null || filter.includesFile(file)) {
+						changed.add(path);
+					}
+				}
+			}
+		}
+		return changed;
+	}
+}
@@ -17,10 +17,15 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -33,19 +38,12 @@ import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.logging.Logger;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
-import org.eclipse.jgit.api.Status;
 import org.eclipse.jgit.lib.Constants;
-import org.eclipse.jgit.lib.IndexDiff;
 import org.eclipse.jgit.lib.ObjectId;
 import org.eclipse.jgit.lib.Repository;
-import org.eclipse.jgit.revwalk.RevCommit;
-import org.eclipse.jgit.revwalk.RevWalk;
 import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
-import org.eclipse.jgit.submodule.SubmoduleWalk.IgnoreSubmoduleMode;
-import org.eclipse.jgit.treewalk.FileTreeIterator;
-import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
-import org.eclipse.jgit.treewalk.filter.TreeFilter;
 import org.eclipse.tycho.build.BuildTimestampProvider;
+import org.eclipse.tycho.extras.buildtimestamp.jgit.GitRepositoryIndex.WorkingTreeStatus;
 
 /**
  * Build timestamp provider that returns date of the most recent git commit that
@@ -68,6 +66,14 @@ import org.eclipse.tycho.build.BuildTimestampProvider;
  * patterns specified in &ltjgit.ignore> element of tycho-packaging-plugin
  * configuration block. Like in a .gitignore file each pattern is separated by a
  * newline (unix or windows style) or form-feed.
+ * <p/>
+ * 
+ * The working tree status and the commit history are only scanned once per
+ * build for all projects of the reactor. With
+ * <code>-Djgit.persistentIndex=true</code> the computed commit times are
+ * additionally stored per HEAD commit in the Tycho cache directory of the local
+ * Maven repository (<code>.cache/tycho/jgit-timestamps</code>) and reused by
+ * later builds.
  * 
  * <p>
  * Typical usage
@@ -100,6 +106,8 @@ public class JGitBuildTimestampProvider implements BuildTimestampProvider {
 
 	private static final String PARAMETER_JGIT_DIRTY_WORKING_TREE = "jgit.dirtyWorkingTree";
 
+	private static final String PARAMETER_JGIT_PERSISTENT_INDEX = "jgit.persistentIndex";
+
 	@Inject
 	@Named("default")
 	private BuildTimestampProvider defaultTimestampProvider;
@@ -109,6 +117,8 @@ public class JGitBuildTimestampProvider implements BuildTimestampProvider {
 
 	private boolean quiet;
 
+	private final Map<File, GitRepositoryIndex> indices = new ConcurrentHashMap<>();
+
 	private enum DirtyBehavior {
 
 		ERROR, WARNING, IGNORE, FALLBACK;
@@ -138,7 +148,7 @@ public class JGitBuildTimestampProvider implements BuildTimestampProvider {
 		try {
 			try (Repository repository = builder.build()) {
 				String relPath = getRelPath(repository, project);
-				TreeFilter pathFilter = createPathFilter(relPath, execution);
+				PathFilter pathFilter = createPathFilter(relPath, getIgnoreFilter(execution));
 				ObjectId headId = repository.resolve(Constants.HEAD);
 				if (headId == null) {
 					String message = "Git repository without HEAD on " + project.getBasedir()
@@ -149,25 +159,23 @@ public class JGitBuildTimestampProvider implements BuildTimestampProvider {
 					}
 					return defaultTimestampProvider.getTimestamp(session, project, execution);
 				}
+				GitRepositoryIndex index = getIndex(session, repository, headId);
 				DirtyBehavior dirtyBehaviour = DirtyBehavior
 						.getDirtyWorkingTreeBehaviour(getDirtyBehaviorValue(execution));
 				if (dirtyBehaviour != DirtyBehavior.IGNORE) {
 					// 1. check if 'git status' is clean for relPath
-					IndexDiff diff = new IndexDiff(repository, headId, new FileTreeIterator(repository));
-					// Ignore all the submodules (together with the pathFilter this will ignore
+					// Submodules are ignored (together with the pathFilter this will ignore
 					// changes done in not related submodules #480951)
-					diff.setIgnoreSubmoduleMode(IgnoreSubmoduleMode.ALL);
+					WorkingTreeStatus status = index.getWorkingTreeStatus(repository);
 					if (pathFilter != null) {
-						diff.setFilter(pathFilter);
+						status = status.filter(pathFilter::includesFile);
 					}
-					diff.diff();
-					Status status = new Status(diff);
 					if (!status.isClean()) {
 						if (dirtyBehaviour == DirtyBehavior.FALLBACK) {
 							return defaultTimestampProvider.getTimestamp(session, project, execution);
 						}
 						String message = "Working tree is dirty.\ngit status " + (relPath != null ? relPath : "")
-								+ ":\n" + toGitStatusStyleOutput(diff);
+								+ ":\n" + toGitStatusStyleOutput(status);
 						if (dirtyBehaviour == DirtyBehavior.WARNING) {
 							if (!quiet) {
 								logger.warn(message);
@@ -182,23 +190,18 @@ public class JGitBuildTimestampProvider implements BuildTimestampProvider {
 						}
 					}
 				}
-				// 2. get latest commit for relPath
-				try (RevWalk walk = new RevWalk(repository)) {
-					if (pathFilter != null) {
-						walk.setTreeFilter(AndTreeFilter.create(pathFilter, TreeFilter.ANY_DIFF));
-					}
-					walk.markStart(walk.parseCommit(headId));
-					walk.setRewriteParents(false);
-					RevCommit commit = walk.next();
-					// When dirtyBehaviour==ignore and no commit was ever done,
-					// the commit is null, so we fallback to the defaultTimestampProvider
-					if (commit == null) {
-						logger.info(
-								"Fallback to default timestamp provider, because no commit could be found for that project (Shared but not committed yet).");
-						return defaultTimestampProvider.getTimestamp(session, project, execution);
-					}
-					return new Date(commit.getCommitTime() * 1000L);
+				// 2. get latest commit for relPath, computed together with all other projects in
+				// the same repository
+				Long commitTime = index.getCommitTime(repository, relPath, getIgnoreFilter(execution),
+						getReactorPaths(session, repository));
+				// When dirtyBehaviour==ignore and no commit was ever done,
+				// the commit is null, so we fallback to the defaultTimestampProvider
+				if (commitTime == null) {
+					logger.info(
+							"Fallback to default timestamp provider, because no commit could be found for that project (Shared but not committed yet).");
+					return defaultTimestampProvider.getTimestamp(session, project, execution);
 				}
+				return new Date(commitTime * 1000L);
 			}
 		} catch (IOException e) {
 			throw new MojoExecutionException("Could not determine git commit timestamp", e);
@@ -219,13 +222,43 @@ public class JGitBuildTimestampProvider implements BuildTimestampProvider {
 		return System.getProperty(PARAMETER_JGIT_DIRTY_WORKING_TREE);
 	}
 
-	private static TreeFilter createPathFilter(String relPath, MojoExecution execution) {
+	static PathFilter createPathFilter(String relPath, String ignoreFilter) {
 		if (relPath != null && !relPath.isEmpty()) {
-			return new PathFilter(relPath, getIgnoreFilter(execution));
+			return new PathFilter(relPath, ignoreFilter);
 		}
 		return null;
 	}
 
+	private GitRepositoryIndex getIndex(MavenSession session, Repository repository, ObjectId headId) {
+		return indices.compute(repository.getDirectory(),
+				(gitDir, index) -> index != null && index.isValidFor(session.getRequest(), headId) ? index
+						: new GitRepositoryIndex(session.getRequest(), headId,
+								getPersistentDirectory(session, repository)));
+	}
+
+	private static File getPersistentDirectory(MavenSession session, Repository repository) {
+		if (!Boolean.getBoolean(PARAMETER_JGIT_PERSISTENT_INDEX) || session.getLocalRepository() == null) {
+			return null;
+		}
+		// one folder per git directory, as the index removes the files of older HEAD commits
+		MessageDigest digest = Constants.newMessageDigest();
+		String gitDir = repository.getDirectory().getAbsolutePath();
+		String name = ObjectId.fromRaw(digest.digest(gitDir.getBytes(StandardCharsets.UTF_8))).name();
+		return new File(session.getLocalRepository().getBasedir(), ".cache/tycho/jgit-timestamps/" + name);
+	}
+
+	private Collection<String> getReactorPaths(MavenSession session, Repository repository) {
+		List<String> paths = new ArrayList<>();
+		for (MavenProject reactorProject : session.getProjects()) {
+			try {
+				paths.add(getRelPath(repository, reactorProject));
+			} catch (IOException e) {
+				// not part of this repository
+			}
+		}
+		return paths;
+	}
+
 	private static String getIgnoreFilter(MojoExecution execution) {
 		Xpp3Dom pluginConfiguration = getDom(execution);
 		if (pluginConfiguration == null) {
@@ -259,35 +292,35 @@ public class JGitBuildTimestampProvider implements BuildTimestampProvider {
 		return path;
 	}
 
-	private static String toGitStatusStyleOutput(IndexDiff diff) {
+	private static String toGitStatusStyleOutput(WorkingTreeStatus diff) {
 		StringWriter sw = new StringWriter();
 		PrintWriter pw = new PrintWriter(sw);
-		List<String> toBeCommitted = new ArrayList<>(diff.getAdded());
-		toBeCommitted.addAll(diff.getChanged());
-		toBeCommitted.addAll(diff.getRemoved());
+		List<String> toBeCommitted = new ArrayList<>(diff.added());
+		toBeCommitted.addAll(diff.changed());
+		toBeCommitted.addAll(diff.removed());
 		if (!toBeCommitted.isEmpty()) {
 			pw.println("Changes to be committed:");
-			printList(pw, "\tnew file:    ", diff.getAdded());
-			printList(pw, "\tmodified:    ", diff.getChanged());
-			printList(pw, "\tdeleted:     ", diff.getRemoved());
+			printList(pw, "\tnew file:    ", diff.added());
+			printList(pw, "\tmodified:    ", diff.changed());
+			printList(pw, "\tdeleted:     ", diff.removed());
 		}
-		List<String> notStaged = new ArrayList<>(diff.getModified());
-		notStaged.addAll(diff.getMissing());
+		List<String> notStaged = new ArrayList<>(diff.modified());
+		notStaged.addAll(diff.missing());
 		if (!notStaged.isEmpty()) {
 			pw.println();
 			pw.println("Changes not staged for commit:");
-			printList(pw, "\tmodified:    ", diff.getModified());
-			printList(pw, "\tdeleted:     ", diff.getMissing());
+			printList(pw, "\tmodified:    ", diff.modified());
+			printList(pw, "\tdeleted:     ", diff.missing());
 		}
-		if (!diff.getConflicting().isEmpty()) {
+		if (!diff.conflicting().isEmpty()) {
 			pw.println();
 			pw.println("Conflicting files:");
-			printList(pw, "\tconflict:    ", diff.getConflicting());
+			printList(pw, "\tconflict:    ", diff.conflicting());
 		}
-		if (!diff.getUntracked().isEmpty()) {
+		if (!diff.untracked().isEmpty()) {
 			pw.println();
 			pw.println("Untracked files:");
-			printList(pw, "\t", diff.getUntracked());
+			printList(pw, "\t", diff.untracked());
 		}
 		return sw.toString();
 	}
@@ -26,11 +26,13 @@ import org.eclipse.jgit.treewalk.filter.TreeFilter;
 public class PathFilter extends TreeFilter {
 
 	private static final Pattern FILTER_DELIMITER = Pattern.compile("[\n\r\f]");
+	private final String basedirPath;
 	private final byte[] basedir;
 
 	private final List<FastIgnoreRule> rules;
 
 	public PathFilter(String basedir, String filters) {
+		this.basedirPath = basedir;
 		this.basedir = Constants.encode(basedir);
 
 		Stream<FastIgnoreRule> standardRules = Stream.of(
@@ -69,6 +71,25 @@ public class PathFilter extends TreeFilter {
 		return true;
 	}
 
+	/**
+	 * Checks a file path without a {@link TreeWalk}, e.g. to filter the result of a
+	 * diff of the whole working tree.
+	 * 
+	 * @param path the path of a file relative to the working tree (unix-style)
+	 * @return <code>true</code> if this filter includes the file
+	 */
+	public boolean includesFile(String path) {
+		if (!path.startsWith(basedirPath + "/")) {
+			return false;
+		}
+		for (FastIgnoreRule rule : rules) {
+			if (rule.isMatch(path, false)) {
+				return !rule.getResult();
+			}
+		}
+		return true;
+	}
+
 	@Override
 	public boolean shouldBeRecursive() {
 		return true;
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.extras.buildtimestamp.jgit;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.api.MergeCommand.FastForwardMode;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.filter.AndTreeFilter;
+import org.eclipse.jgit.treewalk.filter.TreeFilter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class GitRepositoryIndexTest {
+
+	private static final List<String> PROJECTS = List.of("", "a", "b", "c", "d");
+
+	@Rule
+	public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+	private Git git;
+	private File workTree;
+	private int time = 1_000_000;
+
+	@Before
+	public void createRepository() throws Exception {
+		workTree = tempFolder.newFolder("repository");
+		git = Git.init().setDirectory(workTree).setInitialBranch("main").call();
+		write("a/A.txt", "a");
+		write("b/B.txt", "b");
+		write("c/C.txt", "c");
+		write("README", "readme");
+		commit("initial");
+		git.branchCreate().setName("side").call();
+		write("a/A.txt", "a2");
+		commit("change a on main");
+		git.checkout().setName("side").call();
+		write("b/B.txt", "b2");
+		commit("change b on side");
+		write("c/C.txt", "c2");
+		commit("change c on side");
+		git.checkout().setName("main").call();
+		git.merge().include(git.getRepository().resolve("side")).setFastForward(FastForwardMode.NO_FF)
+				.setCommit(false).call();
+		commit("merge side");
+		Files.move(new File(workTree, "a/A.txt").toPath(), new File(workTree, "c/Moved.txt").toPath());
+		git.rm().addFilepattern("a/A.txt").call();
+		git.add().addFilepattern("c/Moved.txt").call();
+		commit("move a file from a to c");
+		write("b/build.log", "log");
+		commit("add a log file to b");
+		git.commit().setAllowEmpty(true).setMessage("empty").setAuthor(nextIdent()).setCommitter(nextIdent())
+				.call();
+	}
+
+	@After
+	public void closeRepository() {
+		git.close();
+	}
+
+	@Test
+	public void testSameResultAsRevWalkPerPath() throws Exception {
+		assertSameResultAsRevWalk(null);
+	}
+
+	@Test
+	public void testSameResultAsRevWalkPerPathWithIgnoreFilter() throws Exception {
+		assertSameResultAsRevWalk("*.log");
+	}
+
+	@Test
+	public void testMergeIsFollowedAlongUnchangedParent() throws Exception {
+		Repository repository = git.getRepository();
+		GitRepositoryIndex index = new GitRepositoryIndex(new Object(), repository.resolve(Constants.HEAD), null);
+
+		// b was only changed on the side branch (and by the log file that is ignored)
+		assertEquals(commitTime("change b on side"), index.getCommitTime(repository, "b", "*.log", PROJECTS));
+		// a and c were changed by the move
+		assertEquals(commitTime("move a file from a to c"), index.getCommitTime(repository, "a", null, PROJECTS));
+		assertEquals(commitTime("move a file from a to c"), index.getCommitTime(repository, "c", null, PROJECTS));
+		assertNull(index.getCommitTime(repository, "d", null, PROJECTS));
+	}
+
+	@Test
+	public void testPersistedOutsideOfGitDirectory() throws Exception {
+		Repository repository = git.getRepository();
+		ObjectId head = repository.resolve(Constants.HEAD);
+		File cacheDirectory = tempFolder.newFolder("cache");
+		File stale = new File(cacheDirectory, ObjectId.zeroId().name() + ".properties");
+		Files.writeString(stale.toPath(), "");
+
+		Long stored = new GitRepositoryIndex(new Object(), head, cacheDirectory).getCommitTime(repository, "b", null,
+				PROJECTS);
+
+		assertArrayEquals(new String[] { head.name() + ".properties" }, cacheDirectory.list());
+		assertFalse(new File(repository.getDirectory(), "tycho").exists());
+		// a new index (e.g. of a later build) reads the stored value without walking the history
+		GitRepositoryIndex reloaded = new GitRepositoryIndex(new Object(), head, cacheDirectory);
+		assertEquals(stored, reloaded.getCommitTime(repository, "b", null, List.of()));
+	}
+
+	private void assertSameResultAsRevWalk(String ignoreFilter) throws IOException {
+		Repository repository = git.getRepository();
+		GitRepositoryIndex index = new GitRepositoryIndex(new Object(), repository.resolve(Constants.HEAD), null);
+		for (String project : PROJECTS) {
+			assertEquals("commit time of '" + project + "'", revWalkCommitTime(repository, project, ignoreFilter),
+					index.getCommitTime(repository, project, ignoreFilter, PROJECTS));
+		}
+	}
+
+	/**
+	 * The way the commit time of a single project was computed before the index was introduced
+	 */
+	private static Long revWalkCommitTime(Repository repository, String relPath, String ignoreFilter)
+			throws IOException {
+		try (RevWalk walk = new RevWalk(repository)) {
+			PathFilter pathFilter = JGitBuildTimestampProvider.createPathFilter(relPath, ignoreFilter);
+			if (pathFilter != null) {
+				walk.setTreeFilter(AndTreeFilter.create(pathFilter, TreeFilter.ANY_DIFF));
+			}
+			walk.markStart(walk.parseCommit(repository.resolve(Constants.HEAD)));
+			walk.setRewriteParents(false);
+			RevCommit commit = walk.next();
+			return commit == null ? null : (long) commit.getCommitTime();
+		}
+	}
+
+	private Long commitTime(String message) throws Exception {
+		for (RevCommit commit : git.log().all().call()) {
+			if (message.equals(commit.getFullMessage())) {
+				return (long) commit.getCommitTime();
+			}
+		}
+		throw new IllegalArgumentException(message);
+	}
+
+	private void write(String path, String content) throws Exception {
+		File file = new File(workTree, path);
+		file.getParentFile().mkdirs();
+		Files.writeString(file.toPath(), content);
+		git.add().addFilepattern(path).call();
+	}
+
+	private void commit(String message) throws Exception {
+		git.add().addFilepattern(".").setUpdate(true).call();
+		git.commit().setMessage(message).setAuthor(nextIdent()).setCommitter(nextIdent()).call();
+	}
+
+	private PersonIdent nextIdent() {
+		time += 60;
+		return new PersonIdent("Tycho", "tycho@example.org", time * 1000L, 0);
+	}
+}
@@ -15,13 +15,16 @@ package org.eclipse.tycho.compiler.jdt;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FilenameFilter;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.regex.Pattern;
 
 import javax.inject.Inject;
@@ -41,11 +44,13 @@ import org.codehaus.plexus.logging.Logger;
 import org.eclipse.aether.resolution.ArtifactResolutionException;
 import org.eclipse.tycho.compiler.jdt.copied.LibraryInfo;
 import org.eclipse.tycho.core.maven.MavenDependenciesResolver;
+import org.eclipse.tycho.p2maven.transport.TransportCacheConfig;
 import org.eclipse.tycho.version.TychoVersion;
 
 /**
  * Determine and cache system library info (Java version, bootclasspath, extension and endorsed
- * directories) for given javaHome directories.
+ * directories) for given javaHome directories. Information that needs to be obtained by running the
+ * JVM is also stored in the Tycho cache directory, so a JDK is only probed once per machine.
  */
 @Named
 @Singleton
@@ -63,20 +68,105 @@ public class DefaultJdkLibraryInfoProvider implements JdkLibraryInfoProvider {
     @Inject
     private Logger log;
 
+    @Inject
+    private TransportCacheConfig cacheConfig;
+
     private Map<String, LibraryInfo> libraryInfoCache = new HashMap<>();
     private File libDetectorJar;
     private Boolean isRunningOnJava9orLater;
 
     @Override
-    public LibraryInfo getLibraryInfo(String javaHome) throws ArtifactResolutionException {
+    public synchronized LibraryInfo getLibraryInfo(String javaHome) throws ArtifactResolutionException {
         LibraryInfo libInfo = libraryInfoCache.get(javaHome);
         if (libInfo == null) {
-            libInfo = generateLibraryInfo(javaHome);
+            libInfo = probeRuntimeImage(javaHome);
+            if (libInfo == null) {
+                libInfo = loadLibraryInfo(javaHome);
+            }
             libraryInfoCache.put(javaHome, libInfo);
         }
         return libInfo;
     }
 
+    /**
+     * A modular runtime image (Java 9+) has no boot classpath, its classes are accessed through
+     * the <code>jrt:/</code> filesystem provided by <code>lib/jrt-fs.jar</code>, so there is no need
+     * to start a process to find out what is already known from the layout of the java home.
+     * 
+     * @return the library info or <code>null</code> if the java home is not a modular runtime image
+     */
+    private static LibraryInfo probeRuntimeImage(String javaHome) {
+        File home = new File(javaHome);
+        File jrtFsJar = new File(home, "lib/jrt-fs.jar");
+        if (!new File(home, "lib/modules").isFile() || !jrtFsJar.isFile()) {
+            return null;
+        }
+        String version;
+        if (isCurrentJavaHome(home)) {
+            version = System.getProperty("java.version");
+        } else {
+            version = readReleaseVersion(home);
+            if (version == null) {
+                return null;
+            }
+        }
+        return new LibraryInfo(version, new String[] { jrtFsJar.getAbsolutePath() }, new String[0], new String[0]);
+    }
+
+    private static boolean isCurrentJavaHome(File javaHome) {
+        try {
+            return javaHome.getCanonicalFile().equals(new File(System.getProperty("java.home")).getCanonicalFile());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static String readReleaseVersion(File javaHome) {
+        File release = new File(javaHome, "release");
+        if (!release.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = new FileInputStream(release)) {
+            properties.load(stream);
+        } catch (IOException e) {
+            return null;
+        }
+        String version = properties.getProperty("JAVA_VERSION");
+        if (version == null) {
+            return null;
+        }
+        return version.replace("\"", "").trim();
+    }
+
+    private LibraryInfo loadLibraryInfo(String javaHome) throws ArtifactResolutionException {
+        File cacheDirectory = getCacheDirectory();
+        if (cacheDirectory == null) {
+            return generateLibraryInfo(javaHome);
+        }
+        PersistentLibraryInfoCache persistentCache = new PersistentLibraryInfoCache(cacheDirectory);
+        File home = new File(javaHome).getAbsoluteFile();
+        LibraryInfo libInfo = persistentCache.read(home);
+        if (libInfo == null) {
+            libInfo = generateLibraryInfo(javaHome);
+            if (!"unknown".equals(libInfo.getVersion())) {
+                try {
+                    persistentCache.write(home, libInfo);
+                } catch (IOException e) {
+                    getLog().debug("Can't store library info of " + javaHome + ": " + e);
+                }
+            }
+        }
+        return libInfo;
+    }
+
+    protected File getCacheDirectory() {
+        if (cacheConfig == null) {
+            return null;
+        }
+        return new File(cacheConfig.getCacheLocation(), "jdk-library-info");
+    }
+
     private LibraryInfo generateLibraryInfo(String javaHome) throws ArtifactResolutionException {
         String executable = javaHome + File.separator + "bin" + File.separator + "java";
         if (File.separatorChar == '\\') {
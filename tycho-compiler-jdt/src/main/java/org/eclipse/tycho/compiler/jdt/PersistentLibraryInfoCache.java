@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler.jdt;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.regex.Pattern;
+
+import org.eclipse.tycho.compiler.jdt.copied.LibraryInfo;
+
+/**
+ * Stores the {@link LibraryInfo} of a java home on disk, an entry is only used as long as the
+ * <code>release</code> file, the <code>lib/modules</code> image and the java executable of the
+ * java home are unchanged.
+ */
+final class PersistentLibraryInfoCache {
+
+    private static final String VERSION = "version";
+    private static final String BOOTPATH = "bootpath";
+    private static final String EXT_DIRS = "extDirs";
+    private static final String ENDORSED_DIRS = "endorsedDirs";
+    private static final String STATE = "state";
+
+    private final File directory;
+
+    PersistentLibraryInfoCache(File directory) {
+        this.directory = directory;
+    }
+
+    LibraryInfo read(File javaHome) {
+        File file = getFile(javaHome);
+        if (!file.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = Files.newInputStream(file.toPath())) {
+            properties.load(stream);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!Objects.equals(properties.getProperty(STATE), computeState(javaHome))) {
+            return null;
+        }
+        String version = properties.getProperty(VERSION);
+        if (version == null) {
+            return null;
+        }
+        return new LibraryInfo(version, split(properties.getProperty(BOOTPATH)),
+                split(properties.getProperty(EXT_DIRS)), split(properties.getProperty(ENDORSED_DIRS)));
+    }
+
+    void write(File javaHome, LibraryInfo libraryInfo) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(STATE, computeState(javaHome));
+        properties.setProperty(VERSION, libraryInfo.getVersion());
+        properties.setProperty(BOOTPATH, String.join(File.pathSeparator, libraryInfo.getBootpath()));
+        properties.setProperty(EXT_DIRS, String.join(File.pathSeparator, libraryInfo.getExtensionDirs()));
+        properties.setProperty(ENDORSED_DIRS, String.join(File.pathSeparator, libraryInfo.getEndorsedDirs()));
+        directory.mkdirs();
+        Path tempFile = Files.createTempFile(directory.toPath(), "libraryinfo", ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(tempFile)) {
+                properties.store(stream, javaHome.getAbsolutePath());
+            }
+            Files.move(tempFile, getFile(javaHome).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private File getFile(File javaHome) {
+        String hash = sha256(javaHome.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+        return new File(directory, hash + ".properties");
+    }
+
+    private static String computeState(File javaHome) {
+        StringBuilder state = new StringBuilder();
+        File release = new File(javaHome, "release");
+        if (release.isFile()) {
+            try {
+                state.append("release=").append(sha256(Files.readAllBytes(release.toPath())));
+            } catch (IOException e) {
+                state.append("release=?");
+            }
+        }
+        File modules = new File(javaHome, "lib/modules");
+        state.append(";modules=").append(modules.lastModified()).append('/').append(modules.length());
+        File java = new File(javaHome, "bin/java");
+        if (!java.isFile()) {
+            java = new File(javaHome, "bin/java.exe");
+        }
+        state.append(";java=").append(java.lastModified()).append('/').append(java.length());
+        return state.toString();
+    }
+
+    private static String[] split(String path) {
+        if (path == null || path.isEmpty()) {
+            return new String[0];
+        }
+        return path.split(Pattern.quote(File.pathSeparator));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+}
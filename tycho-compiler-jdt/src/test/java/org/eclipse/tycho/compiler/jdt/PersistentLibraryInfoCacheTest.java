@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.compiler.jdt;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.eclipse.tycho.compiler.jdt.copied.LibraryInfo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PersistentLibraryInfoCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testStoredInfoIsReused() throws Exception {
+        File javaHome = createJavaHome("1.8.0_402");
+        PersistentLibraryInfoCache cache = new PersistentLibraryInfoCache(tempDir.resolve("cache").toFile());
+        LibraryInfo info = new LibraryInfo("1.8.0_402", new String[] { "rt.jar", "jce.jar" },
+                new String[] { "ext" }, new String[0]);
+        cache.write(javaHome, info);
+
+        LibraryInfo cached = cache.read(javaHome);
+
+        assertNotNull(cached);
+        assertEquals(info.getVersion(), cached.getVersion());
+        assertArrayEquals(info.getBootpath(), cached.getBootpath());
+        assertArrayEquals(info.getExtensionDirs(), cached.getExtensionDirs());
+        assertArrayEquals(info.getEndorsedDirs(), cached.getEndorsedDirs());
+    }
+
+    @Test
+    public void testChangedJavaHomeInvalidatesEntry() throws Exception {
+        File javaHome = createJavaHome("1.8.0_402");
+        PersistentLibraryInfoCache cache = new PersistentLibraryInfoCache(tempDir.resolve("cache").toFile());
+        cache.write(javaHome, new LibraryInfo("1.8.0_402", new String[] { "rt.jar" }, new String[0], new String[0]));
+
+        Files.writeString(new File(javaHome, "release").toPath(), "JAVA_VERSION=\"1.8.0_412\"\n");
+
+        assertNull(cache.read(javaHome));
+    }
+
+    private File createJavaHome(String version) throws Exception {
+        Path javaHome = tempDir.resolve("jdk");
+        Files.createDirectories(javaHome.resolve("bin"));
+        Files.writeString(javaHome.resolve("bin/java"), "java");
+        Files.writeString(javaHome.resolve("release"), "JAVA_VERSION=\"" + version + "\"\n");
+        return javaHome.toFile();
+    }
+
+}
@@ -12,6 +12,7 @@
  *******************************************************************************/
 package org.eclipse.tycho.core.ee;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
@@ -21,6 +22,7 @@ import java.util.Collection;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
@@ -34,6 +36,7 @@ import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
 import org.eclipse.tycho.ExecutionEnvironment;
 import org.eclipse.tycho.ExecutionEnvironment.SystemPackageEntry;
 import org.eclipse.tycho.TargetEnvironment;
+import org.eclipse.tycho.TychoConstants;
 import org.eclipse.tycho.core.ee.StandardExecutionEnvironment.JavaInfo;
 import org.osgi.framework.BundleActivator;
 import org.osgi.framework.Constants;
@@ -46,7 +49,9 @@ import org.osgi.framework.Constants;
  */
 public class ExecutionEnvironmentUtils {
 
-    private static Map<String, StandardExecutionEnvironment> executionEnvironmentsMap;
+    private static final String CACHE_PROPERTY = "tycho.p2.transport.cache";
+
+    private static volatile Map<String, StandardExecutionEnvironment> executionEnvironmentsMap;
 
     private static final Map<String, StandardExecutionEnvironment> surrogateExecutionEnvironmentsMap = new ConcurrentHashMap<>();
 
@@ -118,44 +123,88 @@ public class ExecutionEnvironmentUtils {
         return new ArrayList<>(getExecutionEnvironmentsMap(manager, session, logger).keySet());
     }
 
-    private static synchronized Map<String, StandardExecutionEnvironment> getExecutionEnvironmentsMap(
-            ToolchainManager manager, MavenSession session, Logger logger) {
-        if (executionEnvironmentsMap == null) {
-            executionEnvironmentsMap = new LinkedHashMap<>();
-            Properties listProps = readProperties(findInSystemBundle("profile.list"));
-            //first read all profiles that are part of the system...
-            for (String profileFile : listProps.getProperty("java.profiles").split(",")) {
-                Properties props = readProperties(findInSystemBundle(profileFile.trim()));
-                if (props == null) {
-                    logger.warn("Cannot read profile " + profileFile + " from the system path");
-                    continue;
-                }
-                String name = props.getProperty(EquinoxConfiguration.PROP_OSGI_JAVA_PROFILE_NAME).trim();
-                executionEnvironmentsMap.put(name, new StandardExecutionEnvironment(props,
-                        getToolchainFor(name, null, manager, session, logger), logger));
+    private static Map<String, StandardExecutionEnvironment> getExecutionEnvironmentsMap(ToolchainManager manager,
+            MavenSession session, Logger logger) {
+        Map<String, StandardExecutionEnvironment> map = executionEnvironmentsMap;
+        if (map != null) {
+            return map;
+        }
+        //probing the toolchains is the expensive part, so do it before taking the lock
+        Map<Toolchain, JavaInfo> toolchainInfos = readToolchains(manager, session, logger);
+        synchronized (ExecutionEnvironmentUtils.class) {
+            if (executionEnvironmentsMap == null) {
+                executionEnvironmentsMap = createExecutionEnvironmentsMap(toolchainInfos, manager, session, logger);
             }
-            //derive from the toolchains...
-            if (manager != null) {
-                List<Toolchain> jdks = manager.getToolchains(session, "jdk", null);
-                for (Toolchain jdk : jdks) {
-                    JavaInfo javaInfo = StandardExecutionEnvironment.readFromToolchains(jdk, logger);
-                    if (javaInfo.version > 8) {
-                        Properties toolchainJvm = createProfileJvm(javaInfo.version, javaInfo.packages);
-                        String name = toolchainJvm.getProperty(EquinoxConfiguration.PROP_OSGI_JAVA_PROFILE_NAME).trim();
-                        executionEnvironmentsMap.put(name, new StandardExecutionEnvironment(toolchainJvm, jdk, logger));
-                    }
-                }
+            return executionEnvironmentsMap;
+        }
+    }
+
+    private static Map<Toolchain, JavaInfo> readToolchains(ToolchainManager manager, MavenSession session,
+            Logger logger) {
+        if (manager == null) {
+            return Map.of();
+        }
+        List<Toolchain> jdks = manager.getToolchains(session, "jdk", null);
+        File cacheDirectory = getCacheDirectory(session);
+        Map<Toolchain, JavaInfo> result = new LinkedHashMap<>();
+        List<JavaInfo> infos = jdks.parallelStream()
+                .map(jdk -> StandardExecutionEnvironment.readFromToolchains(jdk, cacheDirectory, logger)).toList();
+        for (int i = 0; i < jdks.size(); i++) {
+            result.put(jdks.get(i), infos.get(i));
+        }
+        return result;
+    }
+
+    private static Map<String, StandardExecutionEnvironment> createExecutionEnvironmentsMap(
+            Map<Toolchain, JavaInfo> toolchainInfos, ToolchainManager manager, MavenSession session, Logger logger) {
+        Map<String, StandardExecutionEnvironment> map = new LinkedHashMap<>();
+        Properties listProps = readProperties(findInSystemBundle("profile.list"));
+        //first read all profiles that are part of the system...
+        for (String profileFile : listProps.getProperty("java.profiles").split(",")) {
+            Properties props = readProperties(findInSystemBundle(profileFile.trim()));
+            if (props == null) {
+                logger.warn("Cannot read profile " + profileFile + " from the system path");
+                continue;
             }
-            //derive from the running jvm...
-            int javaVersion = Runtime.version().feature();
-            if (!executionEnvironmentsMap.containsKey("JavaSE-" + javaVersion)) {
-                Properties runningVm = createProfileJvm(javaVersion, ListSystemPackages.getCurrentJREPackages());
-                String name = runningVm.getProperty(EquinoxConfiguration.PROP_OSGI_JAVA_PROFILE_NAME).trim();
-                executionEnvironmentsMap.put(name, new StandardExecutionEnvironment(runningVm,
-                        getToolchainFor(name, null, manager, session, logger), logger));
+            String name = props.getProperty(EquinoxConfiguration.PROP_OSGI_JAVA_PROFILE_NAME).trim();
+            map.put(name,
+                    new StandardExecutionEnvironment(props, getToolchainFor(name, null, manager, session, logger), logger));
+        }
+        //derive from the toolchains...
+        for (Entry<Toolchain, JavaInfo> entry : toolchainInfos.entrySet()) {
+            JavaInfo javaInfo = entry.getValue();
+            if (javaInfo.version > 8) {
+                Properties toolchainJvm = createProfileJvm(javaInfo.version, javaInfo.packages);
+                String name = toolchainJvm.getProperty(EquinoxConfiguration.PROP_OSGI_JAVA_PROFILE_NAME).trim();
+                map.put(name, new StandardExecutionEnvironment(toolchainJvm, entry.getKey(), logger));
             }
         }
-        return executionEnvironmentsMap;
+        //derive from the running jvm...
+        int javaVersion = Runtime.version().feature();
+        if (!map.containsKey("JavaSE-" + javaVersion)) {
+            Properties runningVm = createProfileJvm(javaVersion, ListSystemPackages.getCurrentJREPackages());
+            String name = runningVm.getProperty(EquinoxConfiguration.PROP_OSGI_JAVA_PROFILE_NAME).trim();
+            map.put(name, new StandardExecutionEnvironment(runningVm,
+                    getToolchainFor(name, null, manager, session, logger), logger));
+        }
+        return map;
+    }
+
+    /**
+     * The system packages of toolchains are stored in the same cache directory as used by the p2
+     * transport, see DefaultTransportCacheConfig
+     */
+    private static File getCacheDirectory(MavenSession session) {
+        String property = System.getProperty(CACHE_PROPERTY);
+        File cacheLocation;
+        if (property != null && !property.isBlank()) {
+            cacheLocation = new File(property);
+        } else if (session != null && session.getLocalRepository() != null) {
+            cacheLocation = new File(session.getLocalRepository().getBasedir(), ".cache/tycho");
+        } else {
+            cacheLocation = new File(TychoConstants.DEFAULT_USER_LOCALREPOSITORY, ".cache/tycho");
+        }
+        return new File(cacheLocation, "toolchain-system-packages");
     }
 
     public static Toolchain getToolchainFor(String profileName, TargetEnvironment environment, ToolchainManager manager,
@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -99,7 +100,14 @@ public class StandardExecutionEnvironment implements Comparable<StandardExecutio
         this.logger = logger;
     }
 
-    static JavaInfo readFromToolchains(Toolchain toolchain, Logger logger) {
+    /**
+     * Reads the version and system packages of the given toolchain, if possible without starting
+     * the java of the toolchain, see {@link ToolchainSystemPackages}.
+     * 
+     * @param cacheDirectory
+     *            the directory to store the result in, or <code>null</code>
+     */
+    static JavaInfo readFromToolchains(Toolchain toolchain, File cacheDirectory, Logger logger) {
         if (toolchain == null) {
             return new JavaInfo(-1, Collections.emptySet());
         }
@@ -107,6 +115,15 @@ public class StandardExecutionEnvironment implements Comparable<StandardExecutio
         if (java == null) {
             return new JavaInfo(-1, Collections.emptySet());
         }
+        Path bin = Path.of(java).toAbsolutePath().getParent();
+        if (bin == null || bin.getParent() == null) {
+            return readFromJava(java, logger);
+        }
+        return ToolchainSystemPackages.getJavaInfo(bin.getParent(), cacheDirectory, () -> readFromJava(java, logger),
+                logger);
+    }
+
+    private static JavaInfo readFromJava(String java, Logger logger) {
         Set<String> res = new HashSet<>();
         int version = -1;
         try {
@@ -144,7 +161,7 @@ public class StandardExecutionEnvironment implements Comparable<StandardExecutio
         final int version;
         final Collection<String> packages;
 
-        private JavaInfo(int version, Collection<String> packages) {
+        JavaInfo(int version, Collection<String> packages) {
             this.version = version;
             this.packages = Collections.unmodifiableCollection(packages);
         }
@@ -242,7 +259,7 @@ public class StandardExecutionEnvironment implements Comparable<StandardExecutio
             } else if (toolchain != null) {
                 logger.debug(
                         "No system.packages in profile definition file for " + profileName + "; checking toolchain.");
-                this.systemPackages = readFromToolchains(toolchain, logger).packages.stream()
+                this.systemPackages = readFromToolchains(toolchain, null, logger).packages.stream()
                         .map(packageName -> new SystemPackageEntry(packageName, null)).toList();
             } else if (Integer.parseInt(compilerSourceLevel) == Runtime.version().feature()) {
                 logger.debug("Currently running JRE matches source level for " + getProfileName()
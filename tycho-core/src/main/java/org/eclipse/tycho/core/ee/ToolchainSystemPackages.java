@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.ee;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.module.ModuleDescriptor;
+import java.lang.module.ModuleDescriptor.Exports;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.tycho.FileChecksums;
+import org.eclipse.tycho.core.ee.StandardExecutionEnvironment.JavaInfo;
+
+/**
+ * Determines the version and system packages of a java home. For a modular runtime image the
+ * exported packages are read from the module descriptors in its <code>lib/modules</code> image
+ * (through the <code>jrt:/</code> filesystem provided by its <code>lib/jrt-fs.jar</code>), so no
+ * process needs to be started. The result is remembered for the lifetime of the process and, if a
+ * cache directory is given, stored on disk as long as the java home is unchanged.
+ */
+final class ToolchainSystemPackages {
+
+    /**
+     * Must be increased whenever the way the packages are computed changes
+     */
+    private static final String FORMAT_VERSION = "1";
+    private static final String FORMAT = "format";
+    private static final String STATE = "state";
+    private static final String VERSION = "version";
+    private static final String PACKAGES = "packages";
+
+    private static final Map<Path, JavaInfo> CACHE = new ConcurrentHashMap<>();
+
+    private ToolchainSystemPackages() {
+    }
+
+    /**
+     * Returns the information of the given java home
+     *
+     * @param javaHome
+     *            the java home
+     * @param cacheDirectory
+     *            the directory to store the information in, or <code>null</code> if it should not
+     *            be stored on disk
+     * @param probe
+     *            used if the information can't be read from the runtime image (e.g. because it is
+     *            not a modular runtime image)
+     * @param logger
+     *            the logger
+     * @return the information of the java home
+     */
+    static JavaInfo getJavaInfo(Path javaHome, File cacheDirectory, Supplier<JavaInfo> probe, Logger logger) {
+        JavaInfo javaInfo = CACHE.get(javaHome);
+        if (javaInfo != null) {
+            return javaInfo;
+        }
+        File cacheFile = cacheDirectory == null ? null : getCacheFile(cacheDirectory, javaHome);
+        String state = computeState(javaHome);
+        javaInfo = readCached(cacheFile, state);
+        if (javaInfo == null) {
+            javaInfo = readRuntimeImage(javaHome, logger);
+            if (javaInfo == null) {
+                javaInfo = probe.get();
+            }
+            if (cacheFile != null && javaInfo.version > 0) {
+                try {
+                    writeCached(cacheFile, state, javaHome, javaInfo);
+                } catch (IOException e) {
+                    logger.debug("Can't store system packages of " + javaHome + ": " + e);
+                }
+            }
+        }
+        JavaInfo existing = CACHE.putIfAbsent(javaHome, javaInfo);
+        return existing != null ? existing : javaInfo;
+    }
+
+    /**
+     * Reads the packages exported by the modules that are resolved by default in the given java
+     * home. This is only supported for Java 11 and later, as before some exporting modules were not
+     * resolved by default, and for runtime images whose module descriptors can be read by the
+     * running java.
+     *
+     * @return the information or <code>null</code> if it can't be read from the runtime image
+     */
+    static JavaInfo readRuntimeImage(Path javaHome, Logger logger) {
+        if (!Files.isRegularFile(javaHome.resolve("lib/modules"))
+                || !Files.isRegularFile(javaHome.resolve("lib/jrt-fs.jar"))) {
+            return null;
+        }
+        int version = readReleaseVersion(javaHome);
+        if (version < 11) {
+            return null;
+        }
+        Set<String> packages = new TreeSet<>();
+        try (FileSystem jrt = FileSystems.newFileSystem(URI.create("jrt:/"),
+                Map.of("java.home", javaHome.toString()));
+                DirectoryStream<Path> modules = Files.newDirectoryStream(jrt.getPath("/modules"))) {
+            for (Path module : modules) {
+                Path moduleInfo = module.resolve("module-info.class");
+                if (!Files.isRegularFile(moduleInfo)) {
+                    continue;
+                }
+                ModuleDescriptor descriptor;
+                try (InputStream stream = Files.newInputStream(moduleInfo)) {
+                    descriptor = ModuleDescriptor.read(stream);
+                }
+                if (descriptor.name().startsWith("jdk.incubator.")) {
+                    // incubator modules are not resolved by default
+                    continue;
+                }
+                descriptor.exports().stream().filter(exports -> !exports.isQualified()).map(Exports::source)
+                        .forEach(packages::add);
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.debug("Can't read system packages from runtime image of " + javaHome + ": " + e);
+            return null;
+        }
+        if (packages.isEmpty()) {
+            return null;
+        }
+        return new JavaInfo(version, packages);
+    }
+
+    private static int readReleaseVersion(Path javaHome) {
+        Path release = javaHome.resolve("release");
+        if (!Files.isRegularFile(release)) {
+            return -1;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = Files.newInputStream(release)) {
+            properties.load(stream);
+        } catch (IOException e) {
+            return -1;
+        }
+        String version = properties.getProperty("JAVA_VERSION");
+        if (version == null) {
+            return -1;
+        }
+        String[] segments = version.replace("\"", "").trim().split("[.\\-+_]");
+        try {
+            return Integer.parseInt(segments[0].equals("1") && segments.length > 1 ? segments[1] : segments[0]);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static JavaInfo readCached(File cacheFile, String state) {
+        if (cacheFile == null || !cacheFile.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = Files.newInputStream(cacheFile.toPath())) {
+            properties.load(stream);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!FORMAT_VERSION.equals(properties.getProperty(FORMAT)) || !state.equals(properties.getProperty(STATE))) {
+            return null;
+        }
+        try {
+            int version = Integer.parseInt(properties.getProperty(VERSION));
+            String packages = properties.getProperty(PACKAGES, "");
+            return new JavaInfo(version, packages.isEmpty() ? Set.of() : Arrays.asList(packages.split(",")));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static void writeCached(File cacheFile, String state, Path javaHome, JavaInfo javaInfo)
+            throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(FORMAT, FORMAT_VERSION);
+        properties.setProperty(STATE, state);
+        properties.setProperty(VERSION, String.valueOf(javaInfo.version));
+        properties.setProperty(PACKAGES, String.join(",", new TreeSet<>(javaInfo.packages)));
+        Path directory = cacheFile.getParentFile().toPath();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, "packages", ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(tempFile)) {
+                properties.store(stream, javaHome.toString());
+            }
+            Files.move(tempFile, cacheFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static File getCacheFile(File cacheDirectory, Path javaHome) {
+        return new File(cacheDirectory, sha256(javaHome.toString()) + ".properties");
+    }
+
+    private static String computeState(Path javaHome) {
+        StringBuilder state = new StringBuilder();
+        Path release = javaHome.resolve("release");
+        if (Files.isRegularFile(release)) {
+            try {
+                state.append("release=").append(FileChecksums.getChecksum(release, "SHA-256"));
+            } catch (IOException e) {
+                state.append("release=?");
+            }
+        }
+        File modules = javaHome.resolve("lib/modules").toFile();
+        state.append(";modules=").append(modules.lastModified()).append('/').append(modules.length());
+        File java = javaHome.resolve("bin/java").toFile();
+        if (!java.isFile()) {
+            java = javaHome.resolve("bin/java.exe").toFile();
+        }
+        state.append(";java=").append(java.lastModified()).append('/').append(java.length());
+        return state.toString();
+    }
+
+    private static String sha256(String value) {
+        try {
+            return HexFormat.of()
+                    .formatHex(MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+}
@@ -62,6 +62,8 @@ import org.eclipse.tycho.build.BuildListeners;
 import org.eclipse.tycho.core.TychoProjectManager;
 import org.eclipse.tycho.core.osgitools.BundleReader;
 import org.eclipse.tycho.core.osgitools.DefaultBundleReader;
+import org.eclipse.tycho.p2.repository.LocalRepositoryP2Indices;
+import org.eclipse.tycho.p2.repository.MirroringArtifactProvider;
 import org.eclipse.tycho.p2maven.MavenProjectDependencyProcessor;
 import org.eclipse.tycho.p2maven.MavenProjectDependencyProcessor.ProjectDependencyClosure;
 import org.eclipse.tycho.p2maven.transport.TransportCacheConfig;
@@ -215,6 +217,14 @@ public class TychoMavenLifecycleParticipant extends AbstractMavenLifecyclePartic
     @Override
     public void afterSessionEnd(MavenSession session) throws MavenExecutionException {
         buildListeners.notifyBuildEnd(session);
+        // prefetches save the local repository index when they are done
+        MirroringArtifactProvider.awaitPrefetches();
+        try {
+            // leave a self-contained index behind for other tools and older Tycho versions
+            plexus.lookup(LocalRepositoryP2Indices.class).compact();
+        } catch (ComponentLookupException | IOException e) {
+            log.warn("Compacting the local repository index failed: " + e.getMessage(), e);
+        }
         if (plexus.hasComponent(EquinoxServiceFactory.class)) {
             try {
                 EquinoxServiceFactory factory = plexus.lookup(EquinoxServiceFactory.class);
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.osgitools;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.eclipse.tycho.ClasspathEntry.AccessRule;
+
+/**
+ * The parts of the classpath computation that can be shared by all projects of a build.
+ * <p>
+ * Access rules and sets of access rules only depend on the packages they describe, so equal rules
+ * of different projects are interned and only kept once. Nothing that depends on the wiring of a
+ * single project is shared.
+ * </p>
+ */
+public final class ClasspathFragments {
+
+    private final Map<AccessRule, AccessRule> rules = new ConcurrentHashMap<>();
+
+    private final Map<List<AccessRule>, Collection<AccessRule>> ruleSets = new ConcurrentHashMap<>();
+
+    private final AtomicLong ruleSetsCreated = new AtomicLong();
+    private final AtomicLong ruleSetsReused = new AtomicLong();
+
+    AccessRule intern(AccessRule rule) {
+        AccessRule existing = rules.putIfAbsent(rule, rule);
+        return existing != null ? existing : rule;
+    }
+
+    /**
+     * Returns an immutable set with the given rules (in the given order) that is shared with all
+     * other callers passing the same rules.
+     */
+    Collection<AccessRule> intern(Collection<AccessRule> ruleSet) {
+        List<AccessRule> key = List.copyOf(ruleSet);
+        Collection<AccessRule> cached = ruleSets.get(key);
+        if (cached != null) {
+            ruleSetsReused.incrementAndGet();
+            return cached;
+        }
+        ruleSetsCreated.incrementAndGet();
+        Collection<AccessRule> set = Collections.unmodifiableSet(new LinkedHashSet<>(key));
+        Collection<AccessRule> existing = ruleSets.putIfAbsent(key, set);
+        return existing != null ? existing : set;
+    }
+
+    @Override
+    public String toString() {
+        return "ClasspathFragments [access rule sets created=" + ruleSetsCreated.get() + ", reused="
+                + ruleSetsReused.get() + ", access rules=" + rules.size() + "]";
+    }
+}
@@ -20,7 +20,7 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
@@ -45,7 +45,9 @@ import org.eclipse.tycho.TychoConstants;
 public class DefaultBundleReader extends AbstractLogEnabled implements BundleReader {
 
     private static final long LOCK_TIMEOUT = Long.getLong("tycho.bundlereader.lock.timeout", 5 * 60 * 1000L);
-    private final Map<String, OsgiManifest> manifestCache = new HashMap<>();
+    private static final int MANIFEST_CACHE_SIZE = Integer.getInteger("tycho.bundlereader.manifest.cache.size",
+            10000);
+    private final Map<String, CachedManifest> manifestCache = new ConcurrentHashMap<>();
 
     private File cacheDir;
     private ConcurrentMap<String, Optional<File>> extractedFiles = new ConcurrentHashMap<>();
@@ -56,11 +58,16 @@ public class DefaultBundleReader extends AbstractLogEnabled implements BundleRea
     @Override
     public OsgiManifest loadManifest(File bundleLocation) {
         String locationPath = bundleLocation.getAbsolutePath();
-        OsgiManifest manifest = manifestCache.get(locationPath);
-        if (manifest == null) {
-            manifest = doLoadManifest(bundleLocation);
-            manifestCache.put(locationPath, manifest);
+        CachedManifest cached = manifestCache.get(locationPath);
+        if (cached != null && cached.isCurrent()) {
+            return cached.manifest();
         }
+        File manifestFile = bundleLocation.isDirectory() ? new File(bundleLocation, JarFile.MANIFEST_NAME)
+                : bundleLocation;
+        long lastModified = manifestFile.lastModified();
+        long length = manifestFile.length();
+        OsgiManifest manifest = doLoadManifest(bundleLocation);
+        cacheManifest(locationPath, new CachedManifest(manifestFile, lastModified, length, manifest));
         return manifest;
     }
 
@@ -69,21 +76,36 @@ public class DefaultBundleReader extends AbstractLogEnabled implements BundleRea
             throws OsgiManifestParserException, InvalidOSGiManifestException {
         String locationPath = mavenProject.getBasedir().getAbsolutePath();
         try {
-            OsgiManifest manifest = manifestCache.get(locationPath);
-            if (manifest == null) {
-                File manifestFile = getManifestLocation(mavenProject);
-                if (!manifestFile.isFile()) {
-                    throw new OsgiManifestParserException(manifestFile.getAbsolutePath(), "Manifest file not found");
-                }
-                manifest = loadManifestFile(manifestFile);
-                manifestCache.put(locationPath, manifest);
+            CachedManifest cached = manifestCache.get(locationPath);
+            if (cached != null && cached.isCurrent()) {
+                return cached.manifest();
+            }
+            File manifestFile = getManifestLocation(mavenProject);
+            if (!manifestFile.isFile()) {
+                throw new OsgiManifestParserException(manifestFile.getAbsolutePath(), "Manifest file not found");
             }
+            long lastModified = manifestFile.lastModified();
+            long length = manifestFile.length();
+            OsgiManifest manifest = loadManifestFile(manifestFile);
+            cacheManifest(locationPath, new CachedManifest(manifestFile, lastModified, length, manifest));
             return manifest;
         } catch (IOException e) {
             throw new OsgiManifestParserException(locationPath, e);
         }
     }
 
+    private void cacheManifest(String locationPath, CachedManifest cachedManifest) {
+        if (manifestCache.size() >= MANIFEST_CACHE_SIZE) {
+            // no need for a strict LRU here, just make room for new entries
+            Iterator<String> iterator = manifestCache.keySet().iterator();
+            for (int i = MANIFEST_CACHE_SIZE / 10; i >= 0 && iterator.hasNext(); i--) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        manifestCache.put(locationPath, cachedManifest);
+    }
+
     private OsgiManifest doLoadManifest(File bundleLocation) {
         try {
             if (bundleLocation.isDirectory()) {
@@ -104,13 +126,10 @@ public class DefaultBundleReader extends AbstractLogEnabled implements BundleRea
             // file but not a jar, assume it is MANIFEST.MF
             return loadManifestFile(bundleLocation);
         }
-        try ( // it is a jar, let's see if it has OSGi bundle manifest
-                ZipFile jar = new ZipFile(bundleLocation, ZipFile.OPEN_READ)) {
-            ZipEntry manifestEntry = jar.getEntry(JarFile.MANIFEST_NAME);
-            if (manifestEntry != null) {
-                InputStream stream = jar.getInputStream(manifestEntry);
-                return OsgiManifest.parse(stream, bundleLocation.getAbsolutePath() + "!/" + JarFile.MANIFEST_NAME);
-            }
+        // it is a jar, let's see if it has OSGi bundle manifest
+        InputStream stream = JarManifestReader.readManifest(bundleLocation.toPath());
+        if (stream != null) {
+            return OsgiManifest.parse(stream, bundleLocation.getAbsolutePath() + "!/" + JarFile.MANIFEST_NAME);
         }
         throw new OsgiManifestParserException(bundleLocation.getAbsolutePath(),
                 "Manifest file not found in JAR archive");
@@ -159,7 +178,9 @@ public class DefaultBundleReader extends AbstractLogEnabled implements BundleRea
     }
 
     private OsgiManifest loadManifestFile(File manifestFile) throws IOException, OsgiManifestParserException {
-        return OsgiManifest.parse(new FileInputStream(manifestFile), manifestFile.getAbsolutePath());
+        try (InputStream stream = new FileInputStream(manifestFile)) {
+            return OsgiManifest.parse(stream, manifestFile.getAbsolutePath());
+        }
     }
 
     public void setCacheLocation(File basedir) {
@@ -244,4 +265,14 @@ public class DefaultBundleReader extends AbstractLogEnabled implements BundleRea
             outputFile.setLastModified(timestamp);
         }
     }
+
+    /**
+     * A parsed manifest together with the state of the file it was read from
+     */
+    private record CachedManifest(File file, long lastModified, long length, OsgiManifest manifest) {
+
+        boolean isCurrent() {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
 }
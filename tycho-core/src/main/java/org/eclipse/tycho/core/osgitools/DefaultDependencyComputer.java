@@ -150,13 +150,18 @@ public class DefaultDependencyComputer implements DependencyComputer {
     private static final class VisiblePackages {
         private final Map<BundleRevision, Set<AccessRule>> visiblePackages = new HashMap<>();
         private final BundleRevision consumerHost;
+        private final ClasspathFragments fragments;
 
-        public VisiblePackages(ModuleRevision consumer) {
+        public VisiblePackages(ModuleRevision consumer, ClasspathFragments fragments) {
             this.consumerHost = getFragmentHost(consumer).orElse(consumer);
+            this.fragments = fragments;
         }
 
         public void add(ModuleCapability packageCapability) {
             AccessRule rule = createRule(consumerHost, packageCapability);
+            if (fragments != null) {
+                rule = fragments.intern(rule);
+            }
             visiblePackages.computeIfAbsent(packageCapability.getResource(), m -> new LinkedHashSet<>()).add(rule);
         }
 
@@ -168,6 +173,9 @@ public class DefaultDependencyComputer implements DependencyComputer {
                 rules = new HashSet<>(rules);
                 rules.addAll(hostRules);
             }
+            if (fragments != null) {
+                return fragments.intern(rules);
+            }
             return Collections.unmodifiableSet(rules);
         }
 
@@ -192,11 +200,17 @@ public class DefaultDependencyComputer implements DependencyComputer {
     @Override
     public List<DependencyComputer.DependencyEntry> computeDependencies(ModuleRevision module,
             Function<BundleRevision, ArtifactDescriptor> descriptorLookup) {
+        return computeDependencies(module, descriptorLookup, null);
+    }
+
+    @Override
+    public List<DependencyComputer.DependencyEntry> computeDependencies(ModuleRevision module,
+            Function<BundleRevision, ArtifactDescriptor> descriptorLookup, ClasspathFragments fragments) {
         if (module == null || module.getWiring() == null) {
             return Collections.emptyList();
         }
 
-        VisiblePackages visiblePackages = getPackagesInternal(module);
+        VisiblePackages visiblePackages = getPackagesInternal(module, fragments);
         Set<BundleRevision> added = new HashSet<>();
 
         // to avoid cycles, e.g. when a bundle imports a package it exports
@@ -234,16 +248,18 @@ public class DefaultDependencyComputer implements DependencyComputer {
                 .map(BundleWire::getProvider).findAny();
     }
 
-    private VisiblePackages getPackagesInternal(ModuleRevision module) {
-        Map<String, Set<ModuleCapability>> sources = getPackagesInternal0(module.getWiring(), new HashMap<>());
-        VisiblePackages res = new VisiblePackages(module);
+    private VisiblePackages getPackagesInternal(ModuleRevision module, ClasspathFragments fragments) {
+        Map<String, Set<ModuleCapability>> sources = getPackagesInternal0(module.getWiring(), new HashMap<>(),
+                new HashMap<>());
+        VisiblePackages res = new VisiblePackages(module, fragments);
         sources.values().stream().flatMap(Set::stream).forEach(res::add);
         return res;
     }
 
     // This part of resolution is copied and adapted from EquinoxCommandProvider `getPackages` implementation
     private Map<String, Set<ModuleCapability>> getPackagesInternal0(ModuleWiring wiring,
-            Map<ModuleWiring, Map<String, Set<ModuleCapability>>> allSources) {
+            Map<ModuleWiring, Map<String, Set<ModuleCapability>>> allSources,
+            Map<BundleRevision, Collection<ModuleWire>> reexportClosures) {
 
         Map<String, Set<ModuleCapability>> packages = allSources.get(wiring);
         if (packages != null) {
@@ -253,27 +269,30 @@ public class DefaultDependencyComputer implements DependencyComputer {
         allSources.put(wiring, packages);
 
         Set<String> importedPackageNames = new HashSet<>();
-        populateFromWiring(wiring, allSources, packages, importedPackageNames);
+        populateFromWiring(wiring, allSources, reexportClosures, packages, importedPackageNames);
         for (ModuleWire fragmentWire : wiring.getRequiredModuleWires(HostNamespace.HOST_NAMESPACE)) {
-            populateFromWiring(fragmentWire.getProviderWiring(), allSources, packages, importedPackageNames);
+            populateFromWiring(fragmentWire.getProviderWiring(), allSources, reexportClosures, packages,
+                    importedPackageNames);
         }
         return packages;
     }
 
     private void populateFromWiring(ModuleWiring wiring,
             Map<ModuleWiring, Map<String, Set<ModuleCapability>>> allSources,
-            Map<String, Set<ModuleCapability>> packages, Set<String> importedPackageNames) {
+            Map<BundleRevision, Collection<ModuleWire>> reexportClosures, Map<String, Set<ModuleCapability>> packages,
+            Set<String> importedPackageNames) {
 
         // first get the imported packages
         for (ModuleWire packageWire : wiring.getRequiredModuleWires(PackageNamespace.PACKAGE_NAMESPACE)) {
             String packageName = getPackageName(packageWire.getCapability());
             importedPackageNames.add(packageName);
-            addAggregatePackageSource(packageWire.getCapability(), packageName, packageWire, packages, allSources);
+            addAggregatePackageSource(packageWire.getCapability(), packageName, packageWire, packages, allSources,
+                    reexportClosures);
         }
 
         // now get packages from its required bundles and all accessible bundles through visibility:reexport 
-        for (ModuleWire requiredWire : getRequiredAndAllAccessibleModuleWires(wiring)) {
-            getRequiredBundlePackages(requiredWire, importedPackageNames, packages, allSources);
+        for (ModuleWire requiredWire : getRequiredAndAllAccessibleModuleWires(wiring, reexportClosures)) {
+            getRequiredBundlePackages(requiredWire, importedPackageNames, packages, allSources, reexportClosures);
         }
     }
 
@@ -281,19 +300,41 @@ public class DefaultDependencyComputer implements DependencyComputer {
      * For a given moduleWiring, retrieve the list of all requiredModuleWires, including the
      * moduleWires that are accessible with a visibility:reexport
      */
-    private Collection<ModuleWire> getRequiredAndAllAccessibleModuleWires(ModuleWiring wiring) {
-        Collection<ModuleWire> requiredAndReexportedWires = new LinkedHashSet<>();
+    private Collection<ModuleWire> getRequiredAndAllAccessibleModuleWires(ModuleWiring wiring,
+            Map<BundleRevision, Collection<ModuleWire>> reexportClosures) {
+        List<ModuleWire> requiredWires = wiring.getRequiredModuleWires(BundleNamespace.BUNDLE_NAMESPACE);
+        Collection<ModuleWire> requiredAndReexportedWires = new LinkedHashSet<>(requiredWires);
+        for (ModuleWire requiredWire : requiredWires) {
+            ModuleWiring providerWiring = requiredWire.getProviderWiring();
+            // bundles like org.eclipse.core.runtime are required by many bundles of a state, so the
+            // bundles they re-export are only collected once
+            Collection<ModuleWire> reexportClosure = reexportClosures.get(providerWiring.getRevision());
+            if (reexportClosure == null) {
+                reexportClosure = computeReexportClosure(providerWiring);
+                reexportClosures.put(providerWiring.getRevision(), reexportClosure);
+            }
+            requiredAndReexportedWires.addAll(reexportClosure);
+        }
+        return requiredAndReexportedWires;
+    }
+
+    /**
+     * For a module, retrieve the moduleWires of all bundles it re-exports, including the bundles
+     * these re-export in turn
+     */
+    Collection<ModuleWire> computeReexportClosure(ModuleWiring wiring) {
+        Collection<ModuleWire> reexportedWires = new LinkedHashSet<>();
         LinkedList<ModuleWire> toVisitWires = new LinkedList<>();
-        toVisitWires.addAll(wiring.getRequiredModuleWires(BundleNamespace.BUNDLE_NAMESPACE));
+        toVisitWires.addAll(getRequiredModuleWiresWithVisibilityReexport(wiring));
 
         while (!toVisitWires.isEmpty()) {
             ModuleWire moduleWire = toVisitWires.removeFirst();
-            if (requiredAndReexportedWires.add(moduleWire)) {
+            if (reexportedWires.add(moduleWire)) {
                 ModuleWiring providerWiring = moduleWire.getProviderWiring();
                 toVisitWires.addAll(getRequiredModuleWiresWithVisibilityReexport(providerWiring));
             }
         }
-        return requiredAndReexportedWires;
+        return List.copyOf(reexportedWires);
     }
 
     /**
@@ -306,7 +347,8 @@ public class DefaultDependencyComputer implements DependencyComputer {
 
     private void addAggregatePackageSource(ModuleCapability packageCap, String packageName, ModuleWire wire,
             Map<String, Set<ModuleCapability>> packages,
-            Map<ModuleWiring, Map<String, Set<ModuleCapability>>> allSources) {
+            Map<ModuleWiring, Map<String, Set<ModuleCapability>>> allSources,
+            Map<BundleRevision, Collection<ModuleWire>> reexportClosures) {
         Set<ModuleCapability> packageSources = packages.computeIfAbsent(packageName, p -> new LinkedHashSet<>());
         packageSources.add(packageCap);
         // Tycho-specific: Case of split package with fragment, not part of `getPackages` console command but necessary for Tycho
@@ -320,8 +362,8 @@ public class DefaultDependencyComputer implements DependencyComputer {
             }
         }
         // source may be a split package aggregate
-        Set<ModuleCapability> providerSource = getPackagesInternal0(wire.getProviderWiring(), allSources)
-                .get(packageName);
+        Set<ModuleCapability> providerSource = getPackagesInternal0(wire.getProviderWiring(), allSources,
+                reexportClosures).get(packageName);
         if (providerSource != null) {
             packageSources.addAll(providerSource);
         }
@@ -329,14 +371,16 @@ public class DefaultDependencyComputer implements DependencyComputer {
 
     private void getRequiredBundlePackages(ModuleWire requiredWire, Set<String> importedPackageNames,
             Map<String, Set<ModuleCapability>> packages,
-            Map<ModuleWiring, Map<String, Set<ModuleCapability>>> allSources) {
+            Map<ModuleWiring, Map<String, Set<ModuleCapability>>> allSources,
+            Map<BundleRevision, Collection<ModuleWire>> reexportClosures) {
         ModuleWiring providerWiring = requiredWire.getProviderWiring();
         for (ModuleCapability packageCapability : providerWiring
                 .getModuleCapabilities(PackageNamespace.PACKAGE_NAMESPACE)) {
             String packageName = getPackageName(packageCapability);
             // if imported then packages from required bundles do not get added
             if (!importedPackageNames.contains(packageName)) {
-                addAggregatePackageSource(packageCapability, packageName, requiredWire, packages, allSources);
+                addAggregatePackageSource(packageCapability, packageName, requiredWire, packages, allSources,
+                        reexportClosures);
             }
         }
 
@@ -359,7 +403,8 @@ public class DefaultDependencyComputer implements DependencyComputer {
             if (!importedPackageNames.contains(packageName) && declaredPackageNames.contains(packageName)) {
                 // if the package is a declared capability AND the wiring imports the package
                 // then it is substituted
-                addAggregatePackageSource(packageWire.getCapability(), packageName, packageWire, packages, allSources);
+                addAggregatePackageSource(packageWire.getCapability(), packageName, packageWire, packages, allSources,
+                        reexportClosures);
             }
         }
 
@@ -52,6 +52,24 @@ public interface DependencyComputer {
     List<DependencyEntry> computeDependencies(ModuleRevision module,
             Function<BundleRevision, ArtifactDescriptor> descriptorLookup);
 
+    /**
+     * Computes and returns the List of dependencies of the given {@link ModuleRevision}, sharing
+     * equal access rules with the other projects computed with the same {@link ClasspathFragments}.
+     * 
+     * @param module
+     *            the ModuleRevision whose dependencies are computed
+     * @param descriptorLookup
+     *            function to look up artifact descriptors
+     * @param fragments
+     *            the access rules shared with other projects, or <code>null</code> if nothing is
+     *            shared
+     * @return the list of dependencies of the module
+     */
+    default List<DependencyEntry> computeDependencies(ModuleRevision module,
+            Function<BundleRevision, ArtifactDescriptor> descriptorLookup, ClasspathFragments fragments) {
+        return computeDependencies(module, descriptorLookup);
+    }
+
     /**
      * Computes and returns extra access rules for boot classpath.
      * 
@@ -15,18 +15,28 @@
  *******************************************************************************/
 package org.eclipse.tycho.core.osgitools;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -37,6 +47,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.toolchain.ToolchainManager;
@@ -44,10 +55,12 @@ import org.codehaus.plexus.logging.Logger;
 import org.eclipse.osgi.container.Module;
 import org.eclipse.osgi.container.Module.Settings;
 import org.eclipse.osgi.container.Module.State;
+import org.eclipse.osgi.container.ModuleCapability;
 import org.eclipse.osgi.container.ModuleCollisionHook;
 import org.eclipse.osgi.container.ModuleContainer;
 import org.eclipse.osgi.container.ModuleContainerAdaptor;
 import org.eclipse.osgi.container.ModuleDatabase;
+import org.eclipse.osgi.container.ModuleRequirement;
 import org.eclipse.osgi.container.ModuleRevision;
 import org.eclipse.osgi.container.ModuleRevisionBuilder;
 import org.eclipse.osgi.container.ModuleRevisionBuilder.GenericInfo;
@@ -82,9 +95,11 @@ import org.osgi.framework.hooks.resolver.ResolverHook;
 import org.osgi.framework.hooks.resolver.ResolverHookFactory;
 import org.osgi.framework.namespace.HostNamespace;
 import org.osgi.framework.namespace.NativeNamespace;
+import org.osgi.framework.namespace.PackageNamespace;
 import org.osgi.framework.wiring.BundleCapability;
 import org.osgi.framework.wiring.BundleRequirement;
 import org.osgi.framework.wiring.BundleRevision;
+import org.osgi.resource.Namespace;
 
 @Named("equinox")
 @Singleton
@@ -112,6 +127,29 @@ public class EquinoxResolver implements DependenciesResolver {
     @Inject
     private DependencyComputer dependencyComputer;
 
+    private final Map<AllExecutionEnvironmentsKey, List<SystemCapability>> allExecutionEnvironmentCapabilities = //
+            new ConcurrentHashMap<>();
+
+    /**
+     * The access rules shared by all projects of a build, keyed by the request as the session is
+     * cloned for each project in parallel builds
+     */
+    private final Map<MavenExecutionRequest, ClasspathFragments> classpathFragments = Collections
+            .synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * The resolved target platforms, see {@link #loadBaseState}
+     */
+    private final Map<TargetPlatformState, BaseState> baseStates = new LinkedHashMap<>(16, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<TargetPlatformState, BaseState> eldest) {
+            return size() > EquinoxResolverConfiguration.BASE_STATE_CACHE_SIZE;
+        }
+    };
+
     public ModuleContainer newResolvedState(ReactorProject project, MavenSession mavenSession, ExecutionEnvironment ee,
             DependencyArtifacts artifacts, Map<Module, ArtifactDescriptor> descriptorLookup) throws BundleException {
         Objects.requireNonNull(artifacts, "DependencyArtifacts can't be null!");
@@ -130,7 +168,7 @@ public class EquinoxResolver implements DependenciesResolver {
             EquinoxResolverConfiguration config, Map<Module, ArtifactDescriptor> descriptorLookup)
             throws BundleException {
         Properties properties = getPlatformProperties(project, mavenSession, ee);
-        ModuleContainer container = newState(artifacts, properties, mavenSession, executorService, config,
+        ModuleContainer container = newState(artifacts, properties, ee == null, mavenSession, executorService, config,
                 descriptorLookup);
         ResolutionReport report = container.resolve(null, false);
         Module module = container.getModule(getNormalizedPath(project.getBasedir()));
@@ -235,32 +273,417 @@ public class EquinoxResolver implements DependenciesResolver {
         if (ee != null) {
             ExecutionEnvironmentUtils.applyProfileProperties(properties, ee);
         } else {
-            // ignoring EE by adding all known EEs
-            StringJoiner allSystemPackages = new StringJoiner(",");
-            StringJoiner allSystemCapabilities = new StringJoiner(",");
-            for (String profile : ExecutionEnvironmentUtils.getProfileNames(toolchainManager, mavenSession, logger)) {
-                StandardExecutionEnvironment executionEnvironment = ExecutionEnvironmentUtils
-                        .getExecutionEnvironment(profile, toolchainManager, mavenSession, logger);
-                String currentSystemPackages = (String) executionEnvironment.getProfileProperties()
-                        .get(Constants.FRAMEWORK_SYSTEMPACKAGES);
-                if (currentSystemPackages != null && !currentSystemPackages.isEmpty()) {
-                    allSystemPackages.add(currentSystemPackages);
+            // ignoring EE by adding all known EEs, see getAllExecutionEnvironmentCapabilities
+            properties.remove(Constants.FRAMEWORK_SYSTEMPACKAGES);
+            properties.remove(Constants.FRAMEWORK_SYSTEMCAPABILITIES);
+        }
+        return properties;
+    }
+
+    /**
+     * Computes the (deduplicated) system packages and capabilities of all known execution
+     * environments as they are provided by a system bundle with the given symbolic name and
+     * version. As these are the same for all projects (and quite large) they are only parsed once
+     * and then added to the system bundle of each state.
+     */
+    private List<SystemCapability> getAllExecutionEnvironmentCapabilities(MavenSession mavenSession,
+            String symbolicName, String version) throws BundleException {
+        AllExecutionEnvironmentsKey key = new AllExecutionEnvironmentsKey(
+                List.copyOf(ExecutionEnvironmentUtils.getProfileNames(toolchainManager, mavenSession, logger)),
+                symbolicName, version);
+        List<SystemCapability> capabilities = allExecutionEnvironmentCapabilities.get(key);
+        if (capabilities == null) {
+            synchronized (allExecutionEnvironmentCapabilities) {
+                capabilities = allExecutionEnvironmentCapabilities.get(key);
+                if (capabilities == null) {
+                    capabilities = computeAllExecutionEnvironmentCapabilities(key, mavenSession);
+                    allExecutionEnvironmentCapabilities.put(key, capabilities);
                 }
-                String currentSystemCapabilities = (String) executionEnvironment.getProfileProperties()
-                        .get(Constants.FRAMEWORK_SYSTEMCAPABILITIES);
-                if (currentSystemCapabilities != null && !currentSystemCapabilities.isEmpty()) {
-                    allSystemCapabilities.add(currentSystemCapabilities);
+            }
+        }
+        return capabilities;
+    }
+
+    private List<SystemCapability> computeAllExecutionEnvironmentCapabilities(AllExecutionEnvironmentsKey key,
+            MavenSession mavenSession) throws BundleException {
+        StringJoiner allSystemPackages = new StringJoiner(",");
+        StringJoiner allSystemCapabilities = new StringJoiner(",");
+        for (String profile : key.profiles()) {
+            StandardExecutionEnvironment executionEnvironment = ExecutionEnvironmentUtils
+                    .getExecutionEnvironment(profile, toolchainManager, mavenSession, logger);
+            String currentSystemPackages = (String) executionEnvironment.getProfileProperties()
+                    .get(Constants.FRAMEWORK_SYSTEMPACKAGES);
+            if (currentSystemPackages != null && !currentSystemPackages.isEmpty()) {
+                allSystemPackages.add(currentSystemPackages);
+            }
+            String currentSystemCapabilities = (String) executionEnvironment.getProfileProperties()
+                    .get(Constants.FRAMEWORK_SYSTEMCAPABILITIES);
+            if (currentSystemCapabilities != null && !currentSystemCapabilities.isEmpty()) {
+                allSystemCapabilities.add(currentSystemCapabilities);
+            }
+        }
+        Map<String, String> manifest = new HashMap<>();
+        manifest.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+        manifest.put(Constants.BUNDLE_SYMBOLICNAME, key.symbolicName());
+        if (key.version() != null) {
+            manifest.put(Constants.BUNDLE_VERSION, key.version());
+        }
+        // the builder also contains the capabilities derived from the manifest itself, these are provided by the
+        // system bundle of each state already and must not be added twice
+        List<SystemCapability> manifestCapabilities = new ArrayList<>(
+                SystemCapability.of(OSGiManifestBuilderFactory.createBuilder(manifest,
+                        Constants.SYSTEM_BUNDLE_SYMBOLICNAME, null, null)));
+        Set<SystemCapability> capabilities = new LinkedHashSet<>();
+        for (SystemCapability capability : SystemCapability.of(OSGiManifestBuilderFactory.createBuilder(manifest,
+                Constants.SYSTEM_BUNDLE_SYMBOLICNAME, allSystemPackages.toString(), allSystemCapabilities.toString()))) {
+            if (!manifestCapabilities.remove(capability)) {
+                capabilities.add(capability);
+            }
+        }
+        logger.debug("Computed " + capabilities.size() + " system capabilities for " + key.profiles().size()
+                + " execution environments");
+        return List.copyOf(capabilities);
+    }
+
+    private record AllExecutionEnvironmentsKey(List<String> profiles, String symbolicName, String version) {
+    }
+
+    private record SystemCapability(String namespace, Map<String, String> directives, Map<String, Object> attributes) {
+
+        static List<SystemCapability> of(ModuleRevisionBuilder builder) {
+            return builder.getCapabilities().stream().map(info -> new SystemCapability(info.getNamespace(),
+                    Map.copyOf(info.getDirectives()), Map.copyOf(info.getAttributes()))).toList();
+        }
+
+        void addTo(ModuleRevisionBuilder builder) {
+            // the builder (and the resolver) might modify the maps
+            builder.addCapability(namespace, new HashMap<>(directives), new HashMap<>(attributes));
+        }
+    }
+
+    protected ModuleContainer newState(DependencyArtifacts artifacts, Properties properties,
+            boolean allExecutionEnvironments, MavenSession mavenSession, ScheduledExecutorService executorService,
+            EquinoxResolverConfiguration config, Map<Module, ArtifactDescriptor> descriptorLookup)
+            throws BundleException {
+        Map<File, OsgiManifest> systemBundles = new LinkedHashMap<>();
+        Map<File, OsgiManifest> externalBundles = new LinkedHashMap<>();
+        Map<File, OsgiManifest> projects = new LinkedHashMap<>();
+        Map<File, ArtifactDescriptor> descriptors = new LinkedHashMap<>();
+
+        List<ArtifactDescriptor> list = artifacts.getArtifacts(ArtifactType.TYPE_ECLIPSE_PLUGIN);
+
+        for (ArtifactDescriptor artifact : list) {
+            File location = artifact.getLocation(true);
+            OsgiManifest mf = loadManifest(location, artifact);
+            descriptors.put(location, artifact);
+            if (isFrameworkImplementation(mf)) {
+                systemBundles.put(location, mf);
+            } else {
+                ReactorProject mavenProject = artifact.getMavenProject();
+                if (mavenProject != null) {
+                    Collection<String> additionalBundles = buildPropertiesParser.parse(mavenProject)
+                            .getAdditionalBundles();
+                    if (!additionalBundles.isEmpty()) {
+                        List<String> reqb = new ArrayList<>();
+                        String value = mf.getValue(Constants.REQUIRE_BUNDLE);
+                        if (value != null) {
+                            reqb.add(value);
+                        }
+                        reqb.addAll(additionalBundles.stream().map(b -> b + ";resolution:=optional").toList());
+                        mf.getHeaders().put(Constants.REQUIRE_BUNDLE, String.join(",", reqb));
+                    }
+                    projects.put(location, mf);
+                } else {
+                    externalBundles.put(location, mf);
                 }
             }
-            properties.put(Constants.FRAMEWORK_SYSTEMPACKAGES, allSystemPackages.toString());
-            properties.put(Constants.FRAMEWORK_SYSTEMCAPABILITIES, allSystemCapabilities.toString());
         }
-        return properties;
+
+        String systemExtraCapabilities = getSystemExtraCapabilities(properties);
+
+        Map<String, String> systemBundleManifest;
+        File systemBundleInfo;
+        if (!systemBundles.isEmpty()) {
+            Map.Entry<File, OsgiManifest> systemBundle = systemBundles.entrySet().iterator().next();
+            systemBundleManifest = systemBundle.getValue().getHeaders();
+            systemBundleInfo = systemBundle.getKey();
+        } else {
+            systemBundleManifest = Map.of(Constants.BUNDLE_SYMBOLICNAME, Constants.SYSTEM_BUNDLE_SYMBOLICNAME);
+            systemBundleInfo = null;
+        }
+        List<SystemCapability> executionEnvironmentCapabilities = allExecutionEnvironments
+                ? getAllExecutionEnvironmentCapabilities(mavenSession,
+                        systemBundleManifest.get(Constants.BUNDLE_SYMBOLICNAME),
+                        systemBundleManifest.get(Constants.BUNDLE_VERSION))
+                : List.of();
+        TargetPlatformState targetPlatform = new TargetPlatformState(systemBundleManifest, systemBundleInfo,
+                properties.getProperty(Constants.FRAMEWORK_SYSTEMPACKAGES), systemExtraCapabilities,
+                executionEnvironmentCapabilities, externalBundles);
+
+        Map<File, ModuleRevisionBuilder> projectBuilders = new LinkedHashMap<>();
+        for (Map.Entry<File, OsgiManifest> entry : projects.entrySet()) {
+            projectBuilders.put(entry.getKey(), OSGiManifestBuilderFactory.createBuilder(entry.getValue().getHeaders()));
+        }
+        ModuleContainer moduleContainer = null;
+        ArtifactDescriptor systemBundleDescriptor = descriptors.get(systemBundleInfo);
+        if (config.baseState && !config.keepUses
+                && (systemBundleDescriptor == null || systemBundleDescriptor.getMavenProject() == null)) {
+            moduleContainer = loadBaseState(targetPlatform, projectBuilders.values(), executorService, config,
+                    descriptorLookup, descriptors);
+        }
+        if (moduleContainer == null) {
+            moduleContainer = newContainer(executorService, config, Map.of(), null);
+            installTargetPlatform(moduleContainer, targetPlatform, config, descriptorLookup, descriptors);
+        }
+        for (Map.Entry<File, ModuleRevisionBuilder> entry : projectBuilders.entrySet()) {
+            // make sure reactor projects override anything from the target platform
+            // that has the same bundle symbolic name
+            install(moduleContainer, null, entry.getKey().getAbsolutePath(), entry.getValue(), entry.getKey(), config,
+                    descriptorLookup, descriptors);
+        }
+        return moduleContainer;
+    }
+
+    private void installTargetPlatform(ModuleContainer moduleContainer, TargetPlatformState targetPlatform,
+            EquinoxResolverConfiguration config, Map<Module, ArtifactDescriptor> descriptorLookup,
+            Map<File, ArtifactDescriptor> descriptors) throws BundleException {
+        ModuleRevisionBuilder systemBundleRevisionBuilder = OSGiManifestBuilderFactory.createBuilder(
+                targetPlatform.systemBundleManifest(), Constants.SYSTEM_BUNDLE_SYMBOLICNAME,
+                targetPlatform.systemPackages(), targetPlatform.systemExtraCapabilities());
+        for (SystemCapability capability : targetPlatform.executionEnvironmentCapabilities()) {
+            capability.addTo(systemBundleRevisionBuilder);
+        }
+        install(moduleContainer, null, Constants.SYSTEM_BUNDLE_LOCATION, systemBundleRevisionBuilder,
+                targetPlatform.systemBundleInfo(), config, descriptorLookup, descriptors);
+
+        for (Map.Entry<File, OsgiManifest> external : targetPlatform.externalBundles().entrySet()) {
+            install(moduleContainer, null, external.getKey().getAbsolutePath(),
+                    OSGiManifestBuilderFactory.createBuilder(external.getValue().getHeaders()), external.getKey(),
+                    config, descriptorLookup, descriptors);
+        }
+    }
+
+    /**
+     * Loads the resolved state of the target platform into a new container, so only the reactor
+     * projects need to be resolved on top of it. The state is computed once for each target
+     * platform and each project gets its own copy of it.
+     *
+     * @return the container or <code>null</code> if the reactor projects could change how the
+     *         target platform is resolved, in this case the full state has to be resolved
+     */
+    private ModuleContainer loadBaseState(TargetPlatformState targetPlatform,
+            Collection<ModuleRevisionBuilder> projects, ScheduledExecutorService executorService,
+            EquinoxResolverConfiguration config, Map<Module, ArtifactDescriptor> descriptorLookup,
+            Map<File, ArtifactDescriptor> descriptors) throws BundleException {
+        BaseState baseState;
+        synchronized (baseStates) {
+            baseState = baseStates.computeIfAbsent(targetPlatform, key -> new BaseState());
+        }
+        byte[] data;
+        synchronized (baseState) {
+            if (baseState.data == null) {
+                logger.debug("Resolving the base state of " + targetPlatform.externalBundles().size() + " bundles");
+                ModuleContainer container = newContainer(executorService, config, Map.of(), null);
+                installTargetPlatform(container, targetPlatform, config, new HashMap<>(), new HashMap<>());
+                container.resolve(null, false);
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                try (DataOutputStream stream = new DataOutputStream(bytes)) {
+                    container.store(stream, true);
+                } catch (IOException e) {
+                    throw new BundleException("Can't store the resolver state", e);
+                }
+                baseState.index(container);
+                baseState.data = bytes.toByteArray();
+            }
+            data = baseState.data;
+        }
+        if (baseState.isAffectedBy(projects)) {
+            logger.debug("Reactor projects interfere with the target platform, resolving the full state");
+            return null;
+        }
+        Map<String, File> revisionInfos = new HashMap<>();
+        if (targetPlatform.systemBundleInfo() != null) {
+            revisionInfos.put(Constants.SYSTEM_BUNDLE_LOCATION, targetPlatform.systemBundleInfo());
+        }
+        for (File external : targetPlatform.externalBundles().keySet()) {
+            revisionInfos.put(external.getAbsolutePath(), external);
+        }
+        ModuleContainer moduleContainer = newContainer(executorService, config, revisionInfos, data);
+        for (Module module : moduleContainer.getModules()) {
+            ArtifactDescriptor descriptor = descriptors.get(module.getCurrentRevision().getRevisionInfo());
+            if (descriptor != null) {
+                descriptorLookup.put(module, descriptor);
+            }
+        }
+        return moduleContainer;
     }
 
-    protected ModuleContainer newState(DependencyArtifacts artifacts, Properties properties, MavenSession mavenSession,
-            ScheduledExecutorService executorService, EquinoxResolverConfiguration config,
-            Map<Module, ArtifactDescriptor> descriptorLookup) throws BundleException {
+    /**
+     * Everything that is installed for the target platform, two projects with equal states share
+     * the base state. As the manifests are part of it, a changed bundle results in a new state.
+     */
+    private record TargetPlatformState(Map<String, String> systemBundleManifest, File systemBundleInfo,
+            String systemPackages, String systemExtraCapabilities,
+            List<SystemCapability> executionEnvironmentCapabilities, Map<File, OsgiManifest> externalBundles) {
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof TargetPlatformState other && systemBundleManifest.equals(other.systemBundleManifest)
+                    && Objects.equals(systemBundleInfo, other.systemBundleInfo)
+                    && Objects.equals(systemPackages, other.systemPackages)
+                    && systemExtraCapabilities.equals(other.systemExtraCapabilities)
+                    && executionEnvironmentCapabilities.equals(other.executionEnvironmentCapabilities)
+                    && headers(externalBundles).equals(headers(other.externalBundles));
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(systemBundleManifest, systemBundleInfo, systemPackages, systemExtraCapabilities,
+                    executionEnvironmentCapabilities, headers(externalBundles));
+        }
+
+        private static List<Map.Entry<File, Map<String, String>>> headers(Map<File, OsgiManifest> bundles) {
+            return bundles.entrySet().stream().map(e -> Map.entry(e.getKey(), e.getValue().getHeaders())).toList();
+        }
+    }
+
+    /**
+     * The stored state of the target platform (including its wiring) together with the names of
+     * the capabilities it provides and requires. The resolver prefers capabilities of already
+     * resolved bundles and can't wire resolved bundles to new ones, so the state is only used if
+     * the reactor projects provide nothing the target platform provides or requires and attach no
+     * fragments to it. Otherwise the result would differ from resolving all bundles at once.
+     */
+    private static final class BaseState {
+
+        private byte[] data;
+
+        private final Set<String> capabilities = new HashSet<>();
+
+        private final Set<String> capabilityNamespaces = new HashSet<>();
+
+        private final Set<String> requirements = new HashSet<>();
+
+        private final Set<String> requirementNamespaces = new HashSet<>();
+
+        void index(ModuleContainer container) {
+            for (Module module : container.getModules()) {
+                ModuleRevision revision = module.getCurrentRevision();
+                for (ModuleCapability capability : revision.getModuleCapabilities(null)) {
+                    if (isEffective(capability.getDirectives())) {
+                        capabilityNamespaces.add(capability.getNamespace());
+                        capabilities.addAll(names(capability.getNamespace(), capability.getAttributes()));
+                    }
+                }
+                for (ModuleRequirement requirement : revision.getModuleRequirements(null)) {
+                    if (isEffective(requirement.getDirectives())) {
+                        requirementNamespaces.add(requirement.getNamespace());
+                        requirements.addAll(names(requirement.getNamespace(), requirement.getDirectives()
+                                .get(Namespace.REQUIREMENT_FILTER_DIRECTIVE)));
+                    }
+                }
+            }
+        }
+
+        boolean isAffectedBy(Collection<ModuleRevisionBuilder> projects) {
+            Set<String> projectRequirementNamespaces = new HashSet<>();
+            for (ModuleRevisionBuilder project : projects) {
+                for (GenericInfo requirement : project.getRequirements()) {
+                    if (!isEffective(requirement.getDirectives())) {
+                        continue;
+                    }
+                    String namespace = requirement.getNamespace();
+                    projectRequirementNamespaces.add(namespace);
+                    if (HostNamespace.HOST_NAMESPACE.equals(namespace)) {
+                        for (String host : names(namespace, requirement.getDirectives()
+                                .get(Namespace.REQUIREMENT_FILTER_DIRECTIVE))) {
+                            if (isAnyName(host) ? capabilityNamespaces.contains(namespace)
+                                    : capabilities.contains(host)) {
+                                return true;
+                            }
+                        }
+                    }
+                }
+            }
+            for (ModuleRevisionBuilder project : projects) {
+                for (GenericInfo capability : project.getCapabilities()) {
+                    if (!isEffective(capability.getDirectives())) {
+                        continue;
+                    }
+                    String namespace = capability.getNamespace();
+                    String anyName = namespace + ":*";
+                    if (requirements.contains(anyName)) {
+                        return true;
+                    }
+                    boolean competing = projectRequirementNamespaces.contains(namespace);
+                    for (String name : names(namespace, capability.getAttributes())) {
+                        if (isAnyName(name)) {
+                            if (requirementNamespaces.contains(namespace)
+                                    || (competing && capabilityNamespaces.contains(namespace))) {
+                                return true;
+                            }
+                        } else if (requirements.contains(name) || capabilities.contains(name)
+                                || (competing && capabilities.contains(anyName))) {
+                            return true;
+                        }
+                    }
+                }
+            }
+            return false;
+        }
+
+        private static boolean isEffective(Map<String, String> directives) {
+            String effective = directives.get(Namespace.CAPABILITY_EFFECTIVE_DIRECTIVE);
+            return (effective == null || Namespace.EFFECTIVE_RESOLVE.equals(effective))
+                    && !PackageNamespace.RESOLUTION_DYNAMIC
+                            .equals(directives.get(Namespace.REQUIREMENT_RESOLUTION_DIRECTIVE));
+        }
+
+        private static boolean isAnyName(String name) {
+            return name.endsWith(":*");
+        }
+
+        /**
+         * @return the names of a capability, or <code>namespace:*</code> if it has none
+         */
+        private static Collection<String> names(String namespace, Map<String, Object> attributes) {
+            Object name = attributes.get(namespace);
+            if (name instanceof String string) {
+                return List.of(namespace + ":" + string);
+            }
+            if (name instanceof Collection<?> collection && !collection.isEmpty()) {
+                return collection.stream().map(element -> namespace + ":" + element).toList();
+            }
+            return List.of(namespace + ":*");
+        }
+
+        /**
+         * @return the names a requirement filter matches, or <code>namespace:*</code> if the
+         *         filter is not restricted to a fixed set of names
+         */
+        private static Collection<String> names(String namespace, String filter) {
+            if (filter == null || filter.indexOf('|') >= 0 || filter.indexOf('!') >= 0
+                    || filter.indexOf('\\') >= 0) {
+                return List.of(namespace + ":*");
+            }
+            String prefix = "(" + namespace + "=";
+            List<String> names = new ArrayList<>();
+            for (int start = filter.indexOf(prefix); start >= 0; start = filter.indexOf(prefix, start + 1)) {
+                int end = filter.indexOf(')', start);
+                if (end < 0 || filter.substring(start, end).indexOf('*') >= 0) {
+                    return List.of(namespace + ":*");
+                }
+                names.add(namespace + ":" + filter.substring(start + prefix.length(), end));
+            }
+            return names.isEmpty() ? List.of(namespace + ":*") : names;
+        }
+    }
+
+    /**
+     * Creates a new (empty) container or loads the given stored state into the new container
+     */
+    private ModuleContainer newContainer(ScheduledExecutorService executorService, EquinoxResolverConfiguration config,
+            Map<String, File> revisionInfos, byte[] state) throws BundleException {
         ModuleContainer[] moduleContainerAccessor = new ModuleContainer[1];
         ModuleContainerAdaptor moduleContainerAdaptor = new ModuleContainerAdaptor() {
 
@@ -348,6 +771,12 @@ public class EquinoxResolver implements DependenciesResolver {
                 };
             }
 
+            @Override
+            public Object getRevisionInfo(String location, long id) {
+                // called when a stored state is loaded
+                return revisionInfos.get(location);
+            }
+
             @Override
             public ScheduledExecutorService getScheduledExecutor() {
                 return executorService;
@@ -357,73 +786,13 @@ public class EquinoxResolver implements DependenciesResolver {
         ModuleDatabase moduleDatabase = new ModuleDatabase(moduleContainerAdaptor);
         ModuleContainer moduleContainer = new ModuleContainer(moduleContainerAdaptor, moduleDatabase);
         moduleContainerAccessor[0] = moduleContainer;
-
-        Map<File, OsgiManifest> systemBundles = new LinkedHashMap<>();
-        Map<File, OsgiManifest> externalBundles = new LinkedHashMap<>();
-        Map<File, OsgiManifest> projects = new LinkedHashMap<>();
-        Map<File, ArtifactDescriptor> descriptors = new LinkedHashMap<>();
-
-        List<ArtifactDescriptor> list = artifacts.getArtifacts(ArtifactType.TYPE_ECLIPSE_PLUGIN);
-
-        for (ArtifactDescriptor artifact : list) {
-            File location = artifact.getLocation(true);
-            OsgiManifest mf = loadManifest(location, artifact);
-            descriptors.put(location, artifact);
-            if (isFrameworkImplementation(mf)) {
-                systemBundles.put(location, mf);
-            } else {
-                ReactorProject mavenProject = artifact.getMavenProject();
-                if (mavenProject != null) {
-                    Collection<String> additionalBundles = buildPropertiesParser.parse(mavenProject)
-                            .getAdditionalBundles();
-                    if (!additionalBundles.isEmpty()) {
-                        List<String> reqb = new ArrayList<>();
-                        String value = mf.getValue(Constants.REQUIRE_BUNDLE);
-                        if (value != null) {
-                            reqb.add(value);
-                        }
-                        reqb.addAll(additionalBundles.stream().map(b -> b + ";resolution:=optional").toList());
-                        mf.getHeaders().put(Constants.REQUIRE_BUNDLE, String.join(",", reqb));
-                    }
-                    projects.put(location, mf);
-                } else {
-                    externalBundles.put(location, mf);
-                }
+        if (state != null) {
+            try (DataInputStream stream = new DataInputStream(new ByteArrayInputStream(state))) {
+                moduleDatabase.load(stream);
+            } catch (IOException e) {
+                throw new BundleException("Can't load the resolver state", e);
             }
         }
-
-        String systemExtraCapabilities = getSystemExtraCapabilities(properties);
-
-        Map<String, String> systemBundleManifest;
-        File systemBundleInfo;
-        if (!systemBundles.isEmpty()) {
-            Map.Entry<File, OsgiManifest> systemBundle = systemBundles.entrySet().iterator().next();
-            systemBundleManifest = systemBundle.getValue().getHeaders();
-            systemBundleInfo = systemBundle.getKey();
-        } else {
-            systemBundleManifest = Map.of(Constants.BUNDLE_SYMBOLICNAME, Constants.SYSTEM_BUNDLE_SYMBOLICNAME);
-            systemBundleInfo = null;
-        }
-
-        ModuleRevisionBuilder systemBundleRevisionBuilder = OSGiManifestBuilderFactory.createBuilder(
-                systemBundleManifest, Constants.SYSTEM_BUNDLE_SYMBOLICNAME,
-                properties.getProperty(Constants.FRAMEWORK_SYSTEMPACKAGES), systemExtraCapabilities);
-        install(moduleContainer, null, Constants.SYSTEM_BUNDLE_LOCATION, systemBundleRevisionBuilder, systemBundleInfo,
-                config, descriptorLookup, descriptors);
-
-        for (Map.Entry<File, OsgiManifest> external : externalBundles.entrySet()) {
-            install(moduleContainer, null, external.getKey().getAbsolutePath(),
-                    OSGiManifestBuilderFactory.createBuilder(external.getValue().getHeaders()), external.getKey(),
-                    config, descriptorLookup, descriptors);
-        }
-        for (Map.Entry<File, OsgiManifest> entry : projects.entrySet()) {
-            // make sure reactor projects override anything from the target platform
-            // that has the same bundle symbolic name
-            Map<String, String> headers = entry.getValue().getHeaders();
-            ModuleRevisionBuilder builder = OSGiManifestBuilderFactory.createBuilder(headers);
-            install(moduleContainer, null, entry.getKey().getAbsolutePath(), builder, entry.getKey(), config,
-                    descriptorLookup, descriptors);
-        }
         return moduleContainer;
     }
 
@@ -575,6 +944,8 @@ public class EquinoxResolver implements DependenciesResolver {
         ModuleRevision bundleDescription = module.getCurrentRevision();
 
         // dependencies
+        ClasspathFragments fragments = session == null ? null
+                : classpathFragments.computeIfAbsent(session.getRequest(), request -> new ClasspathFragments());
         List<DependencyEntry> dependencies = dependencyComputer.computeDependencies(bundleDescription, revision -> {
             if (revision instanceof ModuleRevision mr) {
                 Module key = mr.getRevisions().getModule();
@@ -586,7 +957,10 @@ public class EquinoxResolver implements DependenciesResolver {
             } else {
                 throw new IllegalArgumentException("Not a valid bundle revision: " + revision);
             }
-        });
+        }, fragments);
+        if (fragments != null && logger.isDebugEnabled()) {
+            logger.debug("Computed dependencies of " + project.getId() + " using " + fragments);
+        }
         return new DependenciesInfo() {
 
             @Override
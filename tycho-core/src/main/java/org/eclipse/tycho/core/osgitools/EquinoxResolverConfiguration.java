@@ -17,11 +17,13 @@ final class EquinoxResolverConfiguration {
     public EquinoxResolverConfiguration() {
         keepUses = Boolean.getBoolean("tycho.equinox.resolver.uses");
         batchSize = System.getProperty("tycho.equinox.resolver.batch.size", keepUses ? null : "1");
+        baseState = Boolean.getBoolean("tycho.equinox.resolver.baseState");
     }
 
     public EquinoxResolverConfiguration(EquinoxResolverConfiguration source, boolean forceKeepUses) {
         keepUses = forceKeepUses;
         batchSize = keepUses ? null : source.batchSize;
+        baseState = source.baseState;
     }
 
     /**
@@ -37,6 +39,18 @@ final class EquinoxResolverConfiguration {
      */
     final String batchSize;
 
+    /**
+     * If enabled the bundles of the target platform are resolved only once and each project using
+     * the same target platform then only resolves its reactor projects on top of a copy of this
+     * state. This is not used if 'uses' constraints are kept.
+     */
+    final boolean baseState;
+
+    /**
+     * The maximum number of resolved target platforms kept in memory
+     */
+    final static int BASE_STATE_CACHE_SIZE = Integer.getInteger("tycho.equinox.resolver.baseState.cacheSize", 4);
+
     /**
      * Set the batch timeout to an acceptable timeout before fallback to resolve one bundle at a
      * time, but allow to override this if necessary
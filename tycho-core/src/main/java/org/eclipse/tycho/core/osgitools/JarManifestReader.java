@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.osgitools;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.jar.JarFile;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Reads the <code>META-INF/MANIFEST.MF</code> of a jar by looking it up in the central directory
+ * and reading only this single entry instead of opening (and indexing) the whole archive. Archives
+ * using features not handled here (ZIP64, encryption, unusual compression) are read with
+ * {@link ZipFile} instead.
+ */
+final class JarManifestReader {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int END_HEADER_SIGNATURE = 0x06054b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int END_HEADER_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final byte[] MANIFEST_NAME = JarFile.MANIFEST_NAME.getBytes(StandardCharsets.UTF_8);
+
+    private JarManifestReader() {
+    }
+
+    /**
+     * Reads the manifest of the given jar
+     *
+     * @param jar
+     *            the jar file
+     * @return a stream of the manifest or <code>null</code> if the jar has no manifest
+     * @throws IOException
+     *             if the jar can't be read
+     */
+    static InputStream readManifest(Path jar) throws IOException {
+        try (FileChannel channel = FileChannel.open(jar, StandardOpenOption.READ)) {
+            byte[] manifest = readManifest(channel);
+            if (manifest != null) {
+                return manifest.length == 0 ? null : new ByteArrayInputStream(manifest);
+            }
+        }
+        // fall back to the full implementation
+        try (ZipFile zip = new ZipFile(jar.toFile(), ZipFile.OPEN_READ)) {
+            ZipEntry entry = zip.getEntry(JarFile.MANIFEST_NAME);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream stream = zip.getInputStream(entry)) {
+                return new ByteArrayInputStream(stream.readAllBytes());
+            }
+        }
+    }
+
+    /**
+     * @return the manifest bytes, an empty array if there is no manifest or <code>null</code> if the
+     *         archive can't be handled here
+     */
+    private static byte[] readManifest(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < END_HEADER_SIZE) {
+            return null;
+        }
+        int tailSize = (int) Math.min(size, END_HEADER_SIZE + MAX_COMMENT_SIZE);
+        ByteBuffer tail = read(channel, size - tailSize, tailSize);
+        int end = -1;
+        for (int i = tailSize - END_HEADER_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_HEADER_SIGNATURE) {
+                end = i;
+                break;
+            }
+        }
+        if (end < 0) {
+            return null;
+        }
+        int entries = Short.toUnsignedInt(tail.getShort(end + 10));
+        long directorySize = Integer.toUnsignedLong(tail.getInt(end + 12));
+        long directoryOffset = Integer.toUnsignedLong(tail.getInt(end + 16));
+        if (entries == 0xFFFF || directorySize == 0xFFFFFFFFL || directoryOffset == 0xFFFFFFFFL
+                || directoryOffset + directorySize > size - tailSize + end || directorySize > Integer.MAX_VALUE) {
+            // ZIP64 or prepended data
+            return null;
+        }
+        ByteBuffer directory = read(channel, directoryOffset, (int) directorySize);
+        int position = 0;
+        for (int i = 0; i < entries; i++) {
+            if (position + CENTRAL_HEADER_SIZE > directorySize
+                    || directory.getInt(position) != CENTRAL_HEADER_SIGNATURE) {
+                return null;
+            }
+            int nameLength = Short.toUnsignedInt(directory.getShort(position + 28));
+            int extraLength = Short.toUnsignedInt(directory.getShort(position + 30));
+            int commentLength = Short.toUnsignedInt(directory.getShort(position + 32));
+            if (nameLength == MANIFEST_NAME.length && position + CENTRAL_HEADER_SIZE + nameLength <= directorySize
+                    && Arrays.equals(directory.array(), position + CENTRAL_HEADER_SIZE,
+                            position + CENTRAL_HEADER_SIZE + nameLength, MANIFEST_NAME, 0, nameLength)) {
+                int flags = Short.toUnsignedInt(directory.getShort(position + 8));
+                int method = Short.toUnsignedInt(directory.getShort(position + 10));
+                long compressedSize = Integer.toUnsignedLong(directory.getInt(position + 20));
+                long uncompressedSize = Integer.toUnsignedLong(directory.getInt(position + 24));
+                long localHeaderOffset = Integer.toUnsignedLong(directory.getInt(position + 42));
+                if ((flags & 1) != 0 || compressedSize == 0xFFFFFFFFL || uncompressedSize > Integer.MAX_VALUE
+                        || localHeaderOffset == 0xFFFFFFFFL) {
+                    return null;
+                }
+                return readEntry(channel, localHeaderOffset, method, (int) compressedSize, (int) uncompressedSize);
+            }
+            position += CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+        return new byte[0];
+    }
+
+    private static byte[] readEntry(FileChannel channel, long localHeaderOffset, int method, int compressedSize,
+            int uncompressedSize) throws IOException {
+        ByteBuffer header = read(channel, localHeaderOffset, LOCAL_HEADER_SIZE);
+        if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+            return null;
+        }
+        long dataOffset = localHeaderOffset + LOCAL_HEADER_SIZE + Short.toUnsignedInt(header.getShort(26))
+                + Short.toUnsignedInt(header.getShort(28));
+        byte[] data = read(channel, dataOffset, compressedSize).array();
+        if (method == ZipEntry.STORED) {
+            return data;
+        }
+        if (method != ZipEntry.DEFLATED) {
+            return null;
+        }
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data);
+            byte[] result = new byte[uncompressedSize];
+            int length = inflater.inflate(result);
+            if (length != uncompressedSize) {
+                return null;
+            }
+            return result;
+        } catch (DataFormatException e) {
+            throw new IOException("Invalid compressed data for " + JarFile.MANIFEST_NAME, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static ByteBuffer read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of archive");
+            }
+        }
+        return buffer;
+    }
+}
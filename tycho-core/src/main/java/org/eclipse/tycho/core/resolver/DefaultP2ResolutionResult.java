@@ -45,6 +45,11 @@ public class DefaultP2ResolutionResult implements P2ResolutionResult {
     private final Set<IInstallableUnit> nonReactorUnits = new LinkedHashSet<>();
     private P2TargetPlatform resolutionContext;
     private List<Entry> fragments;
+    /**
+     * Artifacts that are not available locally yet and are only downloaded when their location is
+     * requested
+     */
+    private final Set<IArtifactKey> pendingArtifacts = new LinkedHashSet<>();
 
     public DefaultP2ResolutionResult(Collection<IInstallableUnit> dependencyFragments,
             P2TargetPlatform resolutionContext) {
@@ -57,6 +62,7 @@ public class DefaultP2ResolutionResult implements P2ResolutionResult {
                 entry = new DefaultP2ResolutionResultEntry(artifactKey.getType(), artifactKey.getId(),
                         artifactKey.getVersion(), null, resolutionContext.getArtifactLocation(artifactKey));
             } else {
+                pendingArtifacts.add(ArtifactTypeHelper.toP2ArtifactKey(artifactKey));
                 entry = new DefaultP2ResolutionResultEntry(artifactKey.getType(), artifactKey.getId(),
                         artifactKey.getVersion(), null, () -> {
                             File res = resolutionContext
@@ -85,6 +91,7 @@ public class DefaultP2ResolutionResult implements P2ResolutionResult {
         ClassifiedArtifactKey key = new ClassifiedArtifactKey(artifactKey, classifier);
         DefaultP2ResolutionResultEntry entry = (DefaultP2ResolutionResultEntry) entries.get(key);
         if (entry == null) {
+            pendingArtifacts.add(p2ArtifactKey);
             entry = new DefaultP2ResolutionResultEntry(artifactKey.getType(), artifactKey.getId(),
                     artifactKey.getVersion(), classifier, () -> {
                         File res = resolutionContext.getLocalArtifactFile(p2ArtifactKey);
@@ -161,6 +168,18 @@ public class DefaultP2ResolutionResult implements P2ResolutionResult {
         entries.values().removeIf(entry -> entry.getType() == null);
     }
 
+    /**
+     * Starts downloading all artifacts of this result that are not available locally yet in the
+     * background, so requesting their location later only needs to wait for the download.
+     */
+    public void prefetchArtifacts() {
+        pendingArtifacts.remove(null);
+        if (!pendingArtifacts.isEmpty()) {
+            resolutionContext.prefetchArtifactFiles(List.copyOf(pendingArtifacts));
+            pendingArtifacts.clear();
+        }
+    }
+
     public void addNonReactorUnit(IInstallableUnit installableUnit) {
         this.nonReactorUnits.add(installableUnit);
     }
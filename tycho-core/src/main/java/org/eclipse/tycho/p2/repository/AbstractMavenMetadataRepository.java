@@ -13,9 +13,7 @@
 package org.eclipse.tycho.p2.repository;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URI;
 import java.util.Collection;
 import java.util.Collections;
@@ -36,6 +34,9 @@ import org.eclipse.tycho.TychoConstants;
 
 public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRepository {
 
+    private static final ParsedFileCache<Set<IInstallableUnit>> PARSED_UNITS = new ParsedFileCache<>(
+            new MetadataIO()::readXML);
+
     protected final TychoRepositoryIndex metadataIndex;
 
     protected final RepositoryReader contentLocator;
@@ -44,6 +45,9 @@ public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRe
 
     protected Map<GAV, Set<IInstallableUnit>> unitsMap = new LinkedHashMap<>();
 
+    private volatile boolean loaded;
+    private boolean loading;
+
     public AbstractMavenMetadataRepository(IProvisioningAgent agent, URI location, TychoRepositoryIndex metadataIndex,
             RepositoryReader contentLocator) {
         super(agent);
@@ -52,15 +56,32 @@ public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRe
 
         this.metadataIndex = metadataIndex;
         this.contentLocator = contentLocator;
+        // the content is only read on first access as many builds never query the local repository
+        this.loaded = metadataIndex == null || contentLocator == null;
+    }
 
-        if (metadataIndex != null && contentLocator != null) {
-            load();
+    /**
+     * Makes sure the units of the GAVs listed in the index are loaded, must be called before the
+     * {@link #units} or {@link #unitsMap} are accessed.
+     */
+    protected final void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        synchronized (this) {
+            if (!loaded && !loading) {
+                loading = true;
+                try {
+                    load();
+                } finally {
+                    loading = false;
+                }
+                loaded = true;
+            }
         }
     }
 
     protected void load() {
-        MetadataIO io = new MetadataIO();
-
         for (GAV gav : metadataIndex.getProjectGAVs()) {
             try {
                 File localArtifactFileLocation = contentLocator.getLocalArtifactLocation(gav,
@@ -69,12 +90,10 @@ public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRe
                     // if files have been manually removed from the repository, simply remove them from the index (bug 351080)
                     metadataIndex.removeGav(gav);
                 } else {
-                    try (InputStream is = new FileInputStream(localArtifactFileLocation)) {
-                        Set<IInstallableUnit> gavUnits = io.readXML(is);
+                    Set<IInstallableUnit> gavUnits = PARSED_UNITS.get(localArtifactFileLocation);
 
-                        unitsMap.put(gav, gavUnits);
-                        units.addAll(gavUnits);
-                    }
+                    unitsMap.put(gav, new LinkedHashSet<>(gavUnits));
+                    units.addAll(gavUnits);
                 }
             } catch (IOException e) {
                 // TODO throw properly typed exception if repository cannot be loaded
@@ -90,6 +109,7 @@ public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRe
 
     @Override
     public IQueryResult<IInstallableUnit> query(IQuery<IInstallableUnit> query, IProgressMonitor monitor) {
+        ensureLoaded();
         return query.perform(units.iterator());
     }
 
@@ -97,6 +117,7 @@ public abstract class AbstractMavenMetadataRepository extends AbstractMetadataRe
      * For testing purposes only
      */
     public Map<GAV, Set<IInstallableUnit>> getGAVs() {
+        ensureLoaded();
         return unitsMap;
     }
 
@@ -81,6 +81,14 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
 
     // index read access
 
+    /**
+     * Returns the index of this repository, all access to the {@link #descriptorsMap} member goes
+     * through this method so that subclasses can populate the index lazily.
+     */
+    protected Map<IArtifactKey, Set<ArtifactDescriptorT>> getDescriptorsMap() {
+        return descriptorsMap;
+    }
+
     /**
      * Returns an {@link IArtifactDescriptor} instance which is comparable to the artifact
      * descriptors stored in the index (i.e. the {@link #descriptorsMap} member). A valid
@@ -104,18 +112,18 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
 
     @Override
     public final boolean contains(IArtifactKey key) {
-        return descriptorsMap.containsKey(key);
+        return getDescriptorsMap().containsKey(key);
     }
 
     @Override
     public final boolean contains(IArtifactDescriptor descriptor) {
         IArtifactDescriptor comparableDescriptor = getComparableDescriptor(descriptor);
-        return descriptorsMap.values().stream().anyMatch(set -> set.contains(comparableDescriptor));
+        return getDescriptorsMap().values().stream().anyMatch(set -> set.contains(comparableDescriptor));
     }
 
     @Override
     public final IArtifactDescriptor[] getArtifactDescriptors(IArtifactKey key) {
-        Set<ArtifactDescriptorT> descriptors = descriptorsMap.get(key);
+        Set<ArtifactDescriptorT> descriptors = getDescriptorsMap().get(key);
         if (descriptors == null) {
             return EMPTY_DESCRIPTOR_ARRAY;
         }
@@ -124,7 +132,7 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
 
     @Override
     public final IQueryResult<IArtifactKey> query(IQuery<IArtifactKey> query, IProgressMonitor monitor) {
-        return query.perform(descriptorsMap.keySet().iterator());
+        return query.perform(getDescriptorsMap().keySet().iterator());
     }
 
     @Override
@@ -134,7 +142,7 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
     }
 
     protected final Stream<ArtifactDescriptorT> flattenedValues() {
-        return descriptorsMap.values().stream().flatMap(Collection::stream);
+        return getDescriptorsMap().values().stream().flatMap(Collection::stream);
     }
 
     // index write access
@@ -163,8 +171,8 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
         internalAddInternalDescriptor(getInternalDescriptorForAdding(descriptor));
     }
 
-    protected final void internalAddInternalDescriptor(ArtifactDescriptorT internalDescriptor) {
-        Set<ArtifactDescriptorT> descriptorsForKey = descriptorsMap.computeIfAbsent(internalDescriptor.getArtifactKey(),
+    protected void internalAddInternalDescriptor(ArtifactDescriptorT internalDescriptor) {
+        Set<ArtifactDescriptorT> descriptorsForKey = getDescriptorsMap().computeIfAbsent(internalDescriptor.getArtifactKey(),
                 k -> ConcurrentHashMap.newKeySet());
         descriptorsForKey.add(internalDescriptor);
     }
@@ -174,7 +182,7 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
         IArtifactDescriptor comparableDescriptor = getComparableDescriptor(descriptor);
 
         IArtifactKey artifactKey = comparableDescriptor.getArtifactKey();
-        descriptorsMap.computeIfPresent(artifactKey, (k, descriptors) -> {
+        getDescriptorsMap().computeIfPresent(artifactKey, (k, descriptors) -> {
             descriptors.remove(comparableDescriptor);
             return descriptors.isEmpty() ? null : descriptors;
         });
@@ -189,7 +197,7 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
 
     @Override
     protected void internalRemoveDescriptors(IArtifactKey key) {
-        descriptorsMap.remove(key);
+        getDescriptorsMap().remove(key);
     }
 
     @Override
@@ -201,7 +209,7 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
 
     @Override
     protected final void internalRemoveAllDescriptors() {
-        descriptorsMap.clear();
+        getDescriptorsMap().clear();
     }
 
     /**
@@ -239,7 +247,7 @@ public abstract class ArtifactRepositoryBaseImpl<ArtifactDescriptorT extends IAr
 
     @Override
     public final File getArtifactFile(IArtifactKey key) {
-        Set<ArtifactDescriptorT> descriptors = descriptorsMap.get(key);
+        Set<ArtifactDescriptorT> descriptors = getDescriptorsMap().get(key);
 
         // if available, return location of canonical format of the artifact
         if (descriptors != null) {
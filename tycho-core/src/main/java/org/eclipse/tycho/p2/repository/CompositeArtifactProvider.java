@@ -17,7 +17,10 @@ import static org.eclipse.tycho.p2.repository.BundleConstants.BUNDLE_ID;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -168,6 +171,21 @@ public class CompositeArtifactProvider extends CompositeArtifactProviderBaseImpl
         }
     }
 
+    @Override
+    public void prefetchArtifactFiles(Collection<IArtifactKey> keys) {
+        // same component as used by getArtifactFile(IArtifactKey)
+        Map<IRawArtifactFileProvider, List<IArtifactKey>> keysByComponent = new LinkedHashMap<>();
+        for (IArtifactKey key : keys) {
+            for (IRawArtifactFileProvider component : components) {
+                if (component.contains(key)) {
+                    keysByComponent.computeIfAbsent(component, c -> new ArrayList<>()).add(key);
+                    break;
+                }
+            }
+        }
+        keysByComponent.forEach(IRawArtifactFileProvider::prefetchArtifactFiles);
+    }
+
     @Override
     public boolean isFileAlreadyAvailable(IArtifactKey artifactKey) {
         return components.stream().anyMatch(component -> component.isFileAlreadyAvailable(artifactKey));
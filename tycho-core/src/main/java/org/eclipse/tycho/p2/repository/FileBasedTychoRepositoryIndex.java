@@ -16,14 +16,22 @@ import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashSet;
@@ -36,32 +44,61 @@ import org.eclipse.tycho.core.shared.MavenLogger;
 /**
  * Simplistic local Maven repository index to allow efficient lookup of all installed Tycho
  * projects. The content is persisted in a local file.
+ * <p>
+ * To avoid rewriting the whole file on each {@link #save()}, changes are appended to a journal
+ * file next to the index (one <code>+g:a:v</code> or <code>-g:a:v</code> line per change). The
+ * journal is folded into the index file whenever the index is read, once it grows larger than
+ * <code>tycho.localrepo.index.compactThreshold</code> entries and when {@link #compact()} is called,
+ * so it only holds the changes of builds that are still running (or were killed before they
+ * compacted). Incomplete lines (e.g. from a process that was killed while writing) are ignored and
+ * discarded by the next write.
+ * </p>
+ * <p>
+ * Tools and older Tycho versions that only read the index file do not see the journaled changes of
+ * builds that are still running until these are folded into the index.
+ * </p>
  */
 public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
 
     public static final String ARTIFACTS_INDEX_RELPATH = ".meta/p2-artifacts.properties";
     public static final String METADATA_INDEX_RELPATH = ".meta/p2-local-metadata.properties";
 
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final int COMPACT_THRESHOLD = Integer.getInteger("tycho.localrepo.index.compactThreshold", 1000);
+
     private static final String EOL = "\n";
+    private static final char ADDED = '+';
+    private static final char REMOVED = '-';
 
     private final File indexFile;
+    private final File journalFile;
     private final MavenLogger logger;
     private final FileLockService fileLockService;
 
     private Set<GAV> addedGavs = new HashSet<>();
     private Set<GAV> removedGavs = new HashSet<>();
-    private Set<GAV> gavs = new HashSet<>();
+    private Set<GAV> gavs = new LinkedHashSet<>();
     private MavenContext mavenContext;
 
+    // the index file the current content is based on and the part of the journal applied to it
+    private FileState indexState;
+    private long journalOffset;
+    private int journalEntries;
+
     private FileBasedTychoRepositoryIndex(File indexFile, FileLockService fileLockService, MavenContext mavenContext) {
         super();
         this.indexFile = indexFile;
+        this.journalFile = new File(indexFile.getPath() + JOURNAL_SUFFIX);
         this.mavenContext = mavenContext;
         this.fileLockService = fileLockService;
         this.logger = mavenContext.getLogger();
         if (indexFile.isFile()) {
             try (var locked = fileLockService.lock(indexFile)) {
-                gavs = read(new FileInputStream(indexFile));
+                refresh();
+                if (journalEntries > 0) {
+                    // make the changes of other (possibly killed) builds visible to everyone reading the index file
+                    writeIndex();
+                }
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -102,41 +139,148 @@ public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
             // avoid touching the file on disk if saving is a no-op
             return;
         }
+        persist(false);
+    }
+
+    @Override
+    public synchronized void compact() throws IOException {
+        if (addedGavs.isEmpty() && removedGavs.isEmpty() && indexFile.isFile() && !journalFile.exists()) {
+            return;
+        }
+        persist(true);
+    }
+
+    private void persist(boolean compact) throws IOException {
         File parentDir = indexFile.getParentFile();
         if (!parentDir.isDirectory()) {
             parentDir.mkdirs();
         }
         try (var locked = fileLockService.lock(indexFile)) {
-            reconcile();
-            // minimize time window for corrupting the file by first writing to a temp file, then moving it
-            File tempFile = File.createTempFile("index", "tmp", indexFile.getParentFile());
-            write(new BufferedOutputStream(new FileOutputStream(tempFile)));
-            if (indexFile.isFile()) {
-                indexFile.delete();
+            // pick up changes from other processes which happened in the meantime so they are not discarded
+            refresh();
+            if (compact || indexState == null
+                    || journalEntries + addedGavs.size() + removedGavs.size() > COMPACT_THRESHOLD) {
+                writeIndex();
+            } else {
+                appendJournal();
             }
-            tempFile.renameTo(indexFile);
+            addedGavs.clear();
+            removedGavs.clear();
         }
     }
 
-    private synchronized void reconcile() throws IOException {
-        // re-read index from file system so that changes from other
-        // processes which happened in the meantime are not discarded
-        if (indexFile.isFile()) {
-            gavs = read(new FileInputStream(indexFile));
-            for (GAV addedGav : addedGavs) {
-                addGav(addedGav);
+    /**
+     * Brings the memory state up-to-date with the files on disk, must be called while holding the
+     * file lock.
+     */
+    private void refresh() throws IOException {
+        FileState state = FileState.of(indexFile);
+        if (state == null) {
+            // nothing to merge with, a left-over journal does not belong to any index and is
+            // discarded when the index file is written
+            indexState = null;
+            return;
+        }
+        if (!state.equals(indexState) || journalFile.length() < journalOffset) {
+            // the index was rewritten (or compacted) in the meantime
+            try (InputStream stream = new FileInputStream(indexFile)) {
+                gavs = read(stream);
+            }
+            indexState = state;
+            journalOffset = 0;
+            journalEntries = 0;
+        }
+        readJournal();
+        // re-apply our own pending changes on top of the external ones
+        gavs.addAll(addedGavs);
+        gavs.removeAll(removedGavs);
+    }
+
+    private void readJournal() throws IOException {
+        byte[] content;
+        int length;
+        try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size <= journalOffset) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Math.toIntExact(size - journalOffset));
+            while (buffer.hasRemaining() && channel.read(buffer, journalOffset + buffer.position()) >= 0) {
+                // read fully
+            }
+            content = buffer.array();
+            length = buffer.position();
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        int end = length;
+        while (end > 0 && content[end - 1] != '\n') {
+            // ignore an incomplete last line
+            end--;
+        }
+        for (String line : new String(content, 0, end, StandardCharsets.UTF_8).split(EOL)) {
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                char operation = line.charAt(0);
+                GAV gav = GAV.parse(line.substring(1));
+                if (operation == ADDED) {
+                    gavs.add(gav);
+                } else if (operation == REMOVED) {
+                    gavs.remove(gav);
+                } else {
+                    throw new IllegalArgumentException(line);
+                }
+                journalEntries++;
+            } catch (IllegalArgumentException e) {
+                logger.warn("Ignoring invalid line '" + line + "' in " + journalFile);
             }
-            for (GAV removedGav : removedGavs) {
-                removeGav(removedGav);
+        }
+        journalOffset += end;
+    }
+
+    private void appendJournal() throws IOException {
+        StringBuilder changes = new StringBuilder();
+        for (GAV gav : addedGavs) {
+            changes.append(ADDED).append(gav.toExternalForm()).append(EOL);
+        }
+        for (GAV gav : removedGavs) {
+            changes.append(REMOVED).append(gav.toExternalForm()).append(EOL);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(changes.toString().getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE)) {
+            // drop an incomplete line left behind by an interrupted write
+            channel.truncate(journalOffset);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer, journalOffset + buffer.position());
             }
         }
-        addedGavs.clear();
-        removedGavs.clear();
+        journalOffset += buffer.limit();
+        journalEntries += addedGavs.size() + removedGavs.size();
+    }
+
+    private void writeIndex() throws IOException {
+        // minimize time window for corrupting the file by first writing to a temp file, then moving it
+        Path tempFile = Files.createTempFile(indexFile.getParentFile().toPath(), "index", "tmp");
+        try {
+            write(Files.newOutputStream(tempFile));
+            Files.move(tempFile, indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        // the journal is now part of the index, if we crash before deleting it replaying it again is harmless
+        Files.deleteIfExists(journalFile.toPath());
+        indexState = FileState.of(indexFile);
+        journalOffset = 0;
+        journalEntries = 0;
     }
 
     private void write(OutputStream outStream) throws IOException {
         try (Writer out = new OutputStreamWriter(new BufferedOutputStream(outStream), StandardCharsets.UTF_8)) {
-            for (GAV gav : getProjectGAVs()) {
+            for (GAV gav : gavs) {
                 out.write(gav.toExternalForm());
                 out.write(EOL);
             }
@@ -173,4 +317,19 @@ public class FileBasedTychoRepositoryIndex implements TychoRepositoryIndex {
         return new FileBasedTychoRepositoryIndex(new File(basedir, ARTIFACTS_INDEX_RELPATH), fileLockService, context);
     }
 
+    private record FileState(Object fileKey, FileTime lastModified, long size) {
+
+        static FileState of(File file) throws IOException {
+            try {
+                BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+                if (!attributes.isRegularFile()) {
+                    return null;
+                }
+                return new FileState(attributes.fileKey(), attributes.lastModifiedTime(), attributes.size());
+            } catch (NoSuchFileException e) {
+                return null;
+            }
+        }
+    }
+
 }
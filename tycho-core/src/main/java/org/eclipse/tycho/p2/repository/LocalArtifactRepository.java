@@ -15,10 +15,8 @@ package org.eclipse.tycho.p2.repository;
 
 import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.HashSet;
 import java.util.Map;
@@ -26,7 +24,6 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
-import java.util.stream.Collectors;
 
 import org.eclipse.equinox.p2.core.IProvisioningAgent;
 import org.eclipse.equinox.p2.metadata.IArtifactKey;
@@ -36,10 +33,15 @@ import org.eclipse.tycho.TychoConstants;
 
 public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtifactDescriptor> {
 
-    private Set<IArtifactKey> descriptorsOnLastSave;
+    private static final ParsedFileCache<Set<IArtifactDescriptor>> PARSED_DESCRIPTORS = new ParsedFileCache<>(
+            new ArtifactsIO()::readXML);
+
+    private final Set<IArtifactKey> unsavedKeys = ConcurrentHashMap.newKeySet();
     private final LocalRepositoryP2Indices localRepoIndices;
     private final RepositoryReader contentLocator;
     private final Map<IArtifactKey, Lock> downloadLocks = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+    private boolean loading;
 
     public LocalArtifactRepository(IProvisioningAgent agent, LocalRepositoryP2Indices localRepoIndices) {
         this(agent, localRepoIndices, new LocalRepositoryReader(localRepoIndices.getMavenContext()));
@@ -50,11 +52,28 @@ public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtif
         super(agent, localRepoIndices.getBasedir().toURI(), ArtifactTransferPolicies.forLocalArtifacts());
         this.localRepoIndices = localRepoIndices;
         this.contentLocator = contentLocator;
-        loadMaven();
+        // the descriptors are only read on first access as many builds never use the local repository
+    }
+
+    @Override
+    protected Map<IArtifactKey, Set<GAVArtifactDescriptor>> getDescriptorsMap() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded && !loading) {
+                    loading = true;
+                    try {
+                        loadMaven();
+                    } finally {
+                        loading = false;
+                    }
+                    loaded = true;
+                }
+            }
+        }
+        return descriptorsMap;
     }
 
     private void loadMaven() {
-        final ArtifactsIO io = new ArtifactsIO();
         TychoRepositoryIndex index = localRepoIndices.getArtifactsIndex();
 
         for (final GAV gav : index.getProjectGAVs()) {
@@ -62,21 +81,19 @@ public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtif
                 File localArtifactFileLocation = contentLocator.getLocalArtifactLocation(gav,
                         TychoConstants.CLASSIFIER_P2_ARTIFACTS, ArtifactType.TYPE_P2_ARTIFACTS);
                 if (localArtifactFileLocation.isFile()) {
-                    try (InputStream is = new FileInputStream(localArtifactFileLocation)) {
-                        final Set<IArtifactDescriptor> gavDescriptors = io.readXML(is);
-                        for (IArtifactDescriptor descriptor : gavDescriptors) {
-                            if (ArtifactTransferPolicy.isCanonicalFormat(descriptor)
-                                    && gav.getGroupId().startsWith(TychoConstants.P2_GROUPID_PREFIX)) {
-                                //we must use the key to get the correct artifact GAV location
-                                GAVArtifactDescriptor copy = new GAVArtifactDescriptor(descriptor.getArtifactKey());
-                                //but retain the properties of the given descriptor
-                                descriptor.getProperties().forEach(copy::setProperty);
-                                copy.setProcessingSteps(descriptor.getProcessingSteps());
-                                copy.setRepository(this);
-                                super.internalAddDescriptor(copy);
-                            } else {
-                                super.internalAddDescriptor(descriptor);
-                            }
+                    final Set<IArtifactDescriptor> gavDescriptors = PARSED_DESCRIPTORS.get(localArtifactFileLocation);
+                    for (IArtifactDescriptor descriptor : gavDescriptors) {
+                        if (ArtifactTransferPolicy.isCanonicalFormat(descriptor)
+                                && gav.getGroupId().startsWith(TychoConstants.P2_GROUPID_PREFIX)) {
+                            //we must use the key to get the correct artifact GAV location
+                            GAVArtifactDescriptor copy = new GAVArtifactDescriptor(descriptor.getArtifactKey());
+                            //but retain the properties of the given descriptor
+                            descriptor.getProperties().forEach(copy::setProperty);
+                            copy.setProcessingSteps(descriptor.getProcessingSteps());
+                            copy.setRepository(this);
+                            super.internalAddDescriptor(copy);
+                        } else {
+                            super.internalAddDescriptor(descriptor);
                         }
                     }
                 } else {
@@ -89,20 +106,20 @@ public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtif
             }
         }
 
-        descriptorsOnLastSave = currentKeys();
+        unsavedKeys.clear();
     }
 
     public synchronized void save() {
         TychoRepositoryIndex index = localRepoIndices.getArtifactsIndex();
+        // loading also removes stale entries from the index
+        Map<IArtifactKey, Set<GAVArtifactDescriptor>> descriptorsMap = getDescriptorsMap();
 
         ArtifactsIO io = new ArtifactsIO();
 
-        Set<IArtifactKey> descriptors = currentKeys();
+        // only keys added since the last save need to be written
+        Set<IArtifactKey> keys = new HashSet<>(unsavedKeys);
 
-        for (IArtifactKey key : descriptors) {
-            if (descriptorsOnLastSave.contains(key)) {
-                continue;
-            }
+        for (IArtifactKey key : keys) {
             Set<GAVArtifactDescriptor> keyDescriptors = descriptorsMap.get(key);
             if (keyDescriptors != null && !keyDescriptors.isEmpty()) {
                 // all descriptors should have the same GAV
@@ -129,12 +146,7 @@ public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtif
             throw new RuntimeException(e);
         }
 
-        descriptorsOnLastSave = new HashSet<>(descriptors);
-    }
-
-    protected HashSet<IArtifactKey> currentKeys() {
-        return flattenedValues().map(IArtifactDescriptor::getArtifactKey)
-                .collect(Collectors.toCollection(HashSet::new));
+        unsavedKeys.removeAll(keys);
     }
 
     @Override
@@ -191,14 +203,8 @@ public class LocalArtifactRepository extends ArtifactRepositoryBaseImpl<GAVArtif
     }
 
     @Override
-    protected void internalRemoveDescriptors(IArtifactKey key) {
-        super.internalRemoveDescriptors(key);
-        descriptorsOnLastSave.remove(key);
-    }
-
-    @Override
-    public void internalAddDescriptor(IArtifactDescriptor descriptor) {
-        super.internalAddDescriptor(descriptor);
-        descriptorsOnLastSave.remove(descriptor.getArtifactKey());
+    protected void internalAddInternalDescriptor(GAVArtifactDescriptor internalDescriptor) {
+        super.internalAddInternalDescriptor(internalDescriptor);
+        unsavedKeys.add(internalDescriptor.getArtifactKey());
     }
 }
@@ -47,6 +47,7 @@ public class LocalMetadataRepository extends AbstractMavenMetadataRepository {
     }
 
     public void addInstallableUnit(IInstallableUnit unit, GAV gav) {
+        ensureLoaded();
         this.units.add(unit);
 
         Set<IInstallableUnit> gavUnits = unitsMap.get(gav);
@@ -60,6 +61,8 @@ public class LocalMetadataRepository extends AbstractMavenMetadataRepository {
     }
 
     public void save() {
+        // loading also removes stale entries from the index
+        ensureLoaded();
         File basedir = new File(getLocation());
 
         MetadataIO io = new MetadataIO();
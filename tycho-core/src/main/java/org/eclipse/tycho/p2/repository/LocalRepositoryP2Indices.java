@@ -33,4 +33,9 @@ public interface LocalRepositoryP2Indices {
 
     public void add(GAV gav) throws IOException;
 
+    /**
+     * Compacts the indices that have been used so far, see {@link TychoRepositoryIndex#compact()}
+     */
+    public void compact() throws IOException;
+
 }
@@ -11,23 +11,33 @@
  *    Tobias Oberlies (SAP SE) - initial API and implementation
  *    Christoph Läubrich    - Issue #658 - Tycho strips p2 artifact properties (eg PGP, maven info...)
  *                          - Issue #692 - Check Hashsums for local cached artifacts
+ *                          - Prefetch artifacts of resolution results in parallel
  *******************************************************************************/
 package org.eclipse.tycho.p2.repository;
 
 import static org.eclipse.tycho.p2.repository.BundleConstants.BUNDLE_ID;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
 
-import org.apache.commons.codec.digest.DigestUtils;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
 import org.eclipse.core.runtime.NullProgressMonitor;
@@ -42,6 +52,7 @@ import org.eclipse.equinox.p2.repository.artifact.IArtifactDescriptor;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.spi.ArtifactDescriptor;
 import org.eclipse.tycho.ArtifactSinkException;
+import org.eclipse.tycho.FileChecksums;
 import org.eclipse.tycho.IArtifactSink;
 import org.eclipse.tycho.IRawArtifactFileProvider;
 import org.eclipse.tycho.IRawArtifactProvider;
@@ -72,6 +83,11 @@ import org.eclipse.tycho.core.shared.MultiLineLogger;
  * format.</li>
  * </ul>
  * </p>
+ * <p>
+ * Artifacts that are known to be needed soon can be fetched in the background with
+ * {@link #prefetchArtifactFiles(Collection)}, later requests for them then only wait for the
+ * running download.
+ * </p>
  */
 public class MirroringArtifactProvider implements IRawArtifactFileProvider {
 
@@ -84,6 +100,23 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
     protected final IProgressMonitor monitor;
     private MavenContext mavenContext;
     private IArtifactRepository shaddowRepository;
+    private final Map<IArtifactKey, CompletableFuture<Boolean>> prefetches = new ConcurrentHashMap<>();
+
+    /**
+     * Number of artifacts that are prefetched at the same time
+     */
+    private static final int PREFETCH_THREADS = Integer.getInteger("tycho.p2.prefetch.threads", 4);
+
+    /**
+     * Separate from the download executor of the transport, so prefetches do not compete with
+     * downloads that are needed right now
+     */
+    private static final ExecutorService PREFETCH_EXECUTOR = createPrefetchExecutor();
+
+    /**
+     * Batches of prefetches that are not done yet, including the save of the local repository index
+     */
+    private static final Set<CompletableFuture<?>> RUNNING_PREFETCHES = ConcurrentHashMap.newKeySet();
 
     /**
      * Creates a new {@link MirroringArtifactProvider} instance.
@@ -202,6 +235,14 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
      *             if a fatal error occurred while downloading the artifact.
      */
     private boolean makeLocallyAvailable(IArtifactKey key) throws MirroringFailedException {
+        CompletableFuture<Boolean> prefetch = prefetches.get(key);
+        if (prefetch != null) {
+            try {
+                prefetch.join();
+            } catch (CompletionException | CancellationException e) {
+                // the download is attempted again below and reports the error
+            }
+        }
         try {
             boolean isAvailable = makeOneFormatLocallyAvailable(key);
 
@@ -233,8 +274,79 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
         }
     }
 
+    /**
+     * Starts downloading the given artifacts in the background (bounded by
+     * <code>tycho.p2.prefetch.threads</code>). The local repository index is saved once after all
+     * of them are done, see {@link #awaitPrefetches()}.
+     *
+     * @param keys
+     *            the artifacts that will be requested soon
+     */
+    @Override
+    public void prefetchArtifactFiles(Collection<IArtifactKey> keys) {
+        List<CompletableFuture<Boolean>> batch = new ArrayList<>();
+        for (IArtifactKey key : keys) {
+            CompletableFuture<Boolean> future = new CompletableFuture<>();
+            if (prefetches.putIfAbsent(key, future) != null) {
+                continue;
+            }
+            batch.add(future);
+            PREFETCH_EXECUTOR.execute(() -> {
+                try {
+                    future.complete(makeOneFormatLocallyAvailable(key, false));
+                } catch (Exception e) {
+                    logger.debug("Prefetching artifact " + key + " failed: " + e);
+                    future.completeExceptionally(e);
+                } finally {
+                    prefetches.remove(key, future);
+                }
+            });
+        }
+        if (!batch.isEmpty()) {
+            CompletableFuture<Void> save = CompletableFuture.allOf(batch.toArray(CompletableFuture[]::new))
+                    .handleAsync((result, error) -> {
+                        localArtifactRepository.save();
+                        return null;
+                    }, PREFETCH_EXECUTOR);
+            RUNNING_PREFETCHES.add(save);
+            save.whenComplete((result, error) -> RUNNING_PREFETCHES.remove(save));
+        }
+    }
+
+    /**
+     * Waits until all prefetches that were started so far are done and the local repository index
+     * has been saved. Must be called before the session ends, so the index is not written after it
+     * was compacted.
+     */
+    public static void awaitPrefetches() {
+        for (CompletableFuture<?> prefetch : Set.copyOf(RUNNING_PREFETCHES)) {
+            try {
+                prefetch.join();
+            } catch (CompletionException | CancellationException e) {
+                // failed prefetches are reported when the artifact is requested
+            }
+        }
+    }
+
+    private static ExecutorService createPrefetchExecutor() {
+        int threads = Math.max(1, PREFETCH_THREADS);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Tycho-Artifact-Prefetch");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
     protected boolean makeOneFormatLocallyAvailable(IArtifactKey key)
             throws MirroringFailedException, ProvisionException, ArtifactSinkException {
+        return makeOneFormatLocallyAvailable(key, true);
+    }
+
+    private boolean makeOneFormatLocallyAvailable(IArtifactKey key, boolean save)
+            throws MirroringFailedException, ProvisionException, ArtifactSinkException {
 
         if (isFileAlreadyAvailable(key)) {
             return true;
@@ -257,12 +369,16 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
                         if (fileMatchesProperties(artifactFile, descriptor.getProperties(),
                                 mavenContext.getChecksumsMode() == ChecksumPolicy.STRICT)) {
                             localArtifactRepository.internalAddDescriptor(descriptor);
-                            localArtifactRepository.save();
+                            if (save) {
+                                localArtifactRepository.save();
+                            }
                             return true;
                         }
                     }
                     downloadArtifact(key);
-                    localArtifactRepository.save();
+                    if (save) {
+                        localArtifactRepository.save();
+                    }
                 }
             } finally {
                 downloadLock.unlock();
@@ -285,8 +401,8 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
         }
         String sha256 = properties.get("download.checksum.sha-256");
         if (sha256 != null) {
-            try (FileInputStream stream = new FileInputStream(file)) {
-                String fileSha256 = DigestUtils.sha256Hex(stream);
+            try {
+                String fileSha256 = FileChecksums.getChecksum(file.toPath(), "sha-256");
                 if (fileSha256.equalsIgnoreCase(sha256)) {
                     return true;
                 }
@@ -301,8 +417,8 @@ public class MirroringArtifactProvider implements IRawArtifactFileProvider {
         }
         String md5 = properties.get("download.checksum.md5");
         if (md5 != null) {
-            try (FileInputStream stream = new FileInputStream(file)) {
-                String fileMd5 = DigestUtils.md5Hex(stream);
+            try {
+                String fileMd5 = FileChecksums.getChecksum(file.toPath(), "md5");
                 if (fileMd5.equalsIgnoreCase(md5)) {
                     return true;
                 }
@@ -0,0 +1,80 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches the result of parsing the p2 XML files stored in the local repository, so that
+ * repositories created for the same local repository (e.g. by different provisioning agents or
+ * subsequent builds in the same VM) do not parse the same files again. An entry is only reused as
+ * long as the modification time and size of the file are unchanged, values are only softly
+ * referenced and the parsed values must not be modified by callers.
+ */
+final class ParsedFileCache<T> {
+
+    interface Parser<T> {
+        T parse(InputStream stream) throws IOException;
+    }
+
+    private record Entry<T> (FileTime lastModified, long size, SoftReference<T> value) {
+
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && lastModified.equals(attributes.lastModifiedTime());
+        }
+    }
+
+    private final Map<Path, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Parser<T> parser;
+
+    ParsedFileCache(Parser<T> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Returns the parsed content of the given file
+     *
+     * @param file
+     *            the file to parse
+     * @return the (possibly cached) result of the parser
+     * @throws IOException
+     *             if the file can't be read or parsed
+     */
+    T get(File file) throws IOException {
+        Path path = file.toPath().toAbsolutePath();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        Entry<T> entry = entries.get(path);
+        if (entry != null && entry.matches(attributes)) {
+            T value = entry.value().get();
+            if (value != null) {
+                return value;
+            }
+        }
+        T value;
+        try (InputStream stream = Files.newInputStream(path)) {
+            value = parser.parse(stream);
+        }
+        entries.put(path, new Entry<>(attributes.lastModifiedTime(), attributes.size(), new SoftReference<>(value)));
+        return value;
+    }
+
+}
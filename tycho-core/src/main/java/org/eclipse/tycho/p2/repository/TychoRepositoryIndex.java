@@ -53,6 +53,15 @@ public interface TychoRepositoryIndex {
      */
     void save() throws IOException;
 
+    /**
+     * Folds all changes saved so far into a single, self-contained representation of the index (if
+     * the persistence storage uses an intermediate format, e.g. a journal, at all).
+     * 
+     * @throws IOException
+     */
+    default void compact() throws IOException {
+    }
+
     MavenContext getMavenContext();
 
 }
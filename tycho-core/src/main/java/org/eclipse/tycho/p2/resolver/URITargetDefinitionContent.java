@@ -14,6 +14,7 @@ package org.eclipse.tycho.p2.resolver;
 
 import java.net.URI;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -50,6 +51,8 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
     private IMetadataRepository metadataRepository;
     private ReferencedRepositoryMode referencedRepositoryMode;
     private MavenLogger logger;
+    private List<URI> metadataRepositoryLocations;
+    private Map<URI, Boolean> artifactRepositoryLocations;
 
     public URITargetDefinitionContent(IProvisioningAgent agent, URI location, String id,
             ReferencedRepositoryMode referencedRepositoryMode, MavenLogger logger) {
@@ -60,6 +63,22 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
         this.logger = logger;
     }
 
+    /**
+     * Creates a content where the artifact repositories are already known (e.g. from a previous
+     * build), so the artifact repository can be used without loading the metadata repositories
+     * first.
+     * 
+     * @param artifactRepositoryLocations
+     *            the locations of the artifact repositories mapped to <code>true</code> if the
+     *            repository was only referenced
+     */
+    public URITargetDefinitionContent(IProvisioningAgent agent, URI location, String id,
+            ReferencedRepositoryMode referencedRepositoryMode, MavenLogger logger,
+            Map<URI, Boolean> artifactRepositoryLocations) {
+        this(agent, location, id, referencedRepositoryMode, logger);
+        this.artifactRepositoryLocations = Collections.unmodifiableMap(new LinkedHashMap<>(artifactRepositoryLocations));
+    }
+
     @Override
     public IQueryResult<IInstallableUnit> query(IQuery<IInstallableUnit> query, IProgressMonitor monitor) {
         SubMonitor subMonitor = SubMonitor.convert(monitor, 200);
@@ -78,11 +97,12 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
         if (metadataRepository == null) {
             Map<URI, IMetadataRepository> metadataRepositoriesMap = new LinkedHashMap<>();
             Map<URI, IArtifactRepository> artifactRepositoriesMap = new LinkedHashMap<>();
+            Map<URI, Boolean> artifactLocations = new LinkedHashMap<>();
             URI uri = location;
             try {
-                loadMetadataRepositories(uri, id, metadataRepositoriesMap, artifactRepositoriesMap,
+                loadMetadataRepositories(uri, id, metadataRepositoriesMap, artifactRepositoriesMap, artifactLocations,
                         referencedRepositoryMode == ReferencedRepositoryMode.include, agent, monitor, logger);
-                loadArtifactRepositories(uri, artifactRepositoriesMap, agent, false, logger);
+                loadArtifactRepositories(uri, artifactRepositoriesMap, artifactLocations, agent, false, logger);
             } catch (ProvisionException e) {
                 throw new TargetDefinitionResolutionException(
                         "Failed to load p2 metadata repository from location " + uri, e);
@@ -93,18 +113,25 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
             } else {
                 metadataRepository = new ListCompositeMetadataRepository(List.copyOf(metadataRepositories), agent);
             }
-            Collection<IArtifactRepository> artifactRepositories = artifactRepositoriesMap.values();
-            if (artifactRepositories.size() == 1) {
-                artifactRepository = artifactRepositories.iterator().next();
-            } else {
-                artifactRepository = new ListCompositeArtifactRepository(List.copyOf(artifactRepositories), agent);
+            metadataRepositoryLocations = List.copyOf(metadataRepositoriesMap.keySet());
+            if (artifactRepository == null) {
+                artifactRepositoryLocations = Collections.unmodifiableMap(artifactLocations);
+                artifactRepository = createArtifactRepository(artifactRepositoriesMap.values());
             }
         }
     }
 
+    private IArtifactRepository createArtifactRepository(Collection<IArtifactRepository> artifactRepositories) {
+        if (artifactRepositories.size() == 1) {
+            return artifactRepositories.iterator().next();
+        }
+        return new ListCompositeArtifactRepository(List.copyOf(artifactRepositories), agent);
+    }
+
     private static void loadMetadataRepositories(URI uri, String id, Map<URI, IMetadataRepository> metadataRepositories,
-            Map<URI, IArtifactRepository> artifactRepositories, boolean includeReferenced, IProvisioningAgent agent,
-            IProgressMonitor monitor, MavenLogger logger) throws ProvisionException {
+            Map<URI, IArtifactRepository> artifactRepositories, Map<URI, Boolean> artifactLocations,
+            boolean includeReferenced, IProvisioningAgent agent, IProgressMonitor monitor, MavenLogger logger)
+            throws ProvisionException {
         URI key = uri.normalize();
         if (metadataRepositories.containsKey(key)) {
             //already loaded...
@@ -130,12 +157,14 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
                     if (reference.getType() == IRepository.TYPE_METADATA) {
                         try {
                             loadMetadataRepositories(location, reference.getNickname(), metadataRepositories,
-                                    artifactRepositories, includeReferenced, agent, subMonitor.split(1), logger);
+                                    artifactRepositories, artifactLocations, includeReferenced, agent,
+                                    subMonitor.split(1), logger);
                         } catch (ProvisionException e) {
                             logger.warn("Skip referenced repository: " + location + ": " + e);
                         }
                     } else if (reference.getType() == IRepository.TYPE_ARTIFACT) {
-                        loadArtifactRepositories(location, artifactRepositories, agent, true, logger);
+                        loadArtifactRepositories(location, artifactRepositories, artifactLocations, agent, true,
+                                logger);
                         subMonitor.worked(1);
                     }
                 }
@@ -145,7 +174,7 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
     }
 
     private static void loadArtifactRepositories(URI uri, Map<URI, IArtifactRepository> artifactRepositories,
-            IProvisioningAgent agent, boolean referenced, MavenLogger logger) {
+            Map<URI, Boolean> artifactLocations, IProvisioningAgent agent, boolean referenced, MavenLogger logger) {
         URI key = uri.normalize();
         if (artifactRepositories.containsKey(key)) {
             //already loaded...
@@ -169,12 +198,45 @@ public class URITargetDefinitionContent implements TargetDefinitionContent {
             repository = new LazyArtifactRepository(agent, uri, RepositoryArtifactProvider::loadRepository);
         }
         artifactRepositories.put(key, repository);
+        artifactLocations.put(key, referenced);
     }
 
     @Override
-    public IArtifactRepository getArtifactRepository() {
-        preload(null);
+    public synchronized IArtifactRepository getArtifactRepository() {
+        if (artifactRepository == null) {
+            if (artifactRepositoryLocations == null) {
+                preload(null);
+            } else {
+                IRepositoryIdManager repositoryIdManager = agent.getService(IRepositoryIdManager.class);
+                if (repositoryIdManager != null) {
+                    repositoryIdManager.addMapping(id, location);
+                }
+                Map<URI, IArtifactRepository> artifactRepositoriesMap = new LinkedHashMap<>();
+                artifactRepositoryLocations.forEach((uri, referenced) -> loadArtifactRepositories(uri,
+                        artifactRepositoriesMap, new LinkedHashMap<>(), agent, referenced, logger));
+                artifactRepository = createArtifactRepository(artifactRepositoriesMap.values());
+            }
+        }
         return artifactRepository;
     }
 
+    /**
+     * 
+     * @return the (normalized) locations of all metadata repositories that make up this content
+     */
+    public List<URI> getMetadataRepositoryLocations() {
+        preload(null);
+        return metadataRepositoryLocations;
+    }
+
+    /**
+     * 
+     * @return the (normalized) locations of all artifact repositories that make up this content
+     *         mapped to <code>true</code> if the repository was only referenced
+     */
+    public synchronized Map<URI, Boolean> getArtifactRepositoryLocations() {
+        preload(null);
+        return artifactRepositoryLocations;
+    }
+
 }
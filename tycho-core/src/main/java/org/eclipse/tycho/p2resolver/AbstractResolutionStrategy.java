@@ -70,10 +70,15 @@ public abstract class AbstractResolutionStrategy {
             throws ResolverException;
 
     private Map<String, String> getEffectiveFilterProperties(TargetEnvironment environment) {
+        Map<String, String> result = getBaseFilterProperties(environment);
+        insertAdditionalFilterProperties(result);
+        return result;
+    }
+
+    static Map<String, String> getBaseFilterProperties(TargetEnvironment environment) {
         Map<String, String> result = environment.toFilterProperties();
         result.put("org.eclipse.update.install.features", "true");
         result.put(BundlesAction.FILTER_PROPERTY_INSTALL_SOURCE, "true");
-        insertAdditionalFilterProperties(result);
         return result;
     }
 
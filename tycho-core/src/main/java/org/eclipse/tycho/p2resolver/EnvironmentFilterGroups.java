@@ -0,0 +1,137 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.equinox.internal.p2.director.SimplePlanner;
+import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.metadata.IInstallableUnitFragment;
+import org.eclipse.equinox.p2.metadata.IInstallableUnitPatch;
+import org.eclipse.equinox.p2.metadata.IRequirement;
+import org.eclipse.equinox.p2.metadata.expression.IMatchExpression;
+import org.eclipse.tycho.TargetEnvironment;
+
+/**
+ * Groups target environments that can't be distinguished by the filters of the units (and their
+ * requirements) taking part in a resolution. The slicer and the projector only see an environment
+ * through these filters, so all environments of a group have the same resolution result and it is
+ * sufficient to resolve one of them.
+ */
+final class EnvironmentFilterGroups {
+
+    private EnvironmentFilterGroups() {
+    }
+
+    /**
+     * Computes the representative for each of the given environments
+     *
+     * @param environments
+     *            the environments to group
+     * @param data
+     *            the data of the resolution
+     * @param additionalUnits
+     *            further units that might be queried during the resolution
+     * @return a map (in the order of the given environments) of each environment to the
+     *         environment that needs to be resolved instead of it
+     */
+    static Map<TargetEnvironment, TargetEnvironment> computeRepresentatives(List<TargetEnvironment> environments,
+            ResolutionData data, Collection<IInstallableUnit> additionalUnits) {
+        Map<TargetEnvironment, TargetEnvironment> representatives = new LinkedHashMap<>();
+        List<IMatchExpression<IInstallableUnit>> filters = collectFilters(data, additionalUnits);
+        if (filters == null) {
+            // can't decide, every environment needs to be resolved on its own
+            for (TargetEnvironment environment : environments) {
+                representatives.put(environment, environment);
+            }
+            return representatives;
+        }
+        Map<BitSet, TargetEnvironment> signatures = new HashMap<>();
+        for (TargetEnvironment environment : environments) {
+            BitSet signature = computeSignature(filters, getFilterProperties(environment, data));
+            representatives.put(environment, signatures.computeIfAbsent(signature, nil -> environment));
+        }
+        return representatives;
+    }
+
+    private static BitSet computeSignature(List<IMatchExpression<IInstallableUnit>> filters,
+            Map<String, String> properties) {
+        // the slicer uses the plain properties, the projector the planner's selection context
+        IInstallableUnit slicerContext = InstallableUnit.contextIU(properties);
+        IInstallableUnit projectorContext = InstallableUnit.contextIU(SimplePlanner.createSelectionContext(properties));
+        BitSet signature = new BitSet(filters.size() * 2);
+        for (int i = 0; i < filters.size(); i++) {
+            IMatchExpression<IInstallableUnit> filter = filters.get(i);
+            signature.set(2 * i, filter.isMatch(slicerContext));
+            signature.set(2 * i + 1, filter.isMatch(projectorContext));
+        }
+        return signature;
+    }
+
+    private static Map<String, String> getFilterProperties(TargetEnvironment environment, ResolutionData data) {
+        Map<String, String> properties = AbstractResolutionStrategy.getBaseFilterProperties(environment);
+        properties.putAll(data.getAdditionalFilterProperties());
+        return properties;
+    }
+
+    private static List<IMatchExpression<IInstallableUnit>> collectFilters(ResolutionData data,
+            Collection<IInstallableUnit> additionalUnits) {
+        Set<IMatchExpression<IInstallableUnit>> filters = new LinkedHashSet<>();
+        List<Collection<IInstallableUnit>> unitSets = List.of(data.getAvailableIUs(), data.getRootIUs(),
+                data.getEEResolutionHints().getMandatoryUnits(), data.getEEResolutionHints().getTemporaryAdditions(),
+                additionalUnits);
+        for (Collection<IInstallableUnit> units : unitSets) {
+            for (IInstallableUnit unit : units) {
+                if (unit instanceof IInstallableUnitPatch) {
+                    // patches can change requirements in ways we don't want to track here
+                    return null;
+                }
+                addFilter(filters, unit.getFilter());
+                addRequirementFilters(filters, unit.getRequirements());
+                addRequirementFilters(filters, unit.getMetaRequirements());
+                if (unit instanceof IInstallableUnitFragment fragment) {
+                    addRequirementFilters(filters, fragment.getHost());
+                }
+            }
+        }
+        if (data.getAdditionalRequirements() != null) {
+            addRequirementFilters(filters, data.getAdditionalRequirements());
+        }
+        addRequirementFilters(filters, data.getEEResolutionHints().getMandatoryRequires());
+        return new ArrayList<>(filters);
+    }
+
+    private static void addRequirementFilters(Set<IMatchExpression<IInstallableUnit>> filters,
+            Collection<IRequirement> requirements) {
+        for (IRequirement requirement : requirements) {
+            addFilter(filters, requirement.getFilter());
+        }
+    }
+
+    private static void addFilter(Set<IMatchExpression<IInstallableUnit>> filters,
+            IMatchExpression<IInstallableUnit> filter) {
+        if (filter != null) {
+            filters.add(filter);
+        }
+    }
+
+}
@@ -88,6 +88,14 @@ public class LocalRepositoryP2IndicesImpl implements LocalRepositoryP2Indices {
         addGavAndSave(gav, metadataIndex);
     }
 
+    @Override
+    public synchronized void compact() throws IOException {
+        if (initialized) {
+            artifactsIndex.compact();
+            metadataIndex.compact();
+        }
+    }
+
     private static void addGavAndSave(GAV gav, TychoRepositoryIndex index) throws IOException {
         index.addGav(gav);
         index.save();
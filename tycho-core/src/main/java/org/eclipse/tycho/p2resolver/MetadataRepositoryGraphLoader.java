@@ -0,0 +1,181 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.IRepositoryReference;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+import org.eclipse.tycho.core.shared.DuplicateFilteringLoggingProgressMonitor;
+import org.eclipse.tycho.core.shared.MavenLogger;
+
+/**
+ * Loads metadata repositories together with the metadata repositories they reference. Each
+ * repository is loaded (and queried for its units) in the background as soon as it is discovered,
+ * so the configured repositories and the repositories referenced by them are fetched concurrently.
+ * The children of a composite repository are loaded by p2 as part of the composite and therefore
+ * still one after another. The result is collected in the (depth first) order in which the
+ * repositories are declared and referenced, so the order of the gathered units does not depend on
+ * timing.
+ */
+final class MetadataRepositoryGraphLoader {
+
+    /**
+     * Number of metadata repositories loaded at the same time, independent of the limit for
+     * artifact downloads so metadata loading never waits for them
+     */
+    private static final int LOAD_THREADS = Integer.getInteger("tycho.p2.metadata.loadThreads", 4);
+
+    static final ExecutorService LOAD_EXECUTOR = createLoadExecutor();
+
+    record LoadedRepository(IMetadataRepository repository, Set<IInstallableUnit> units) {
+    }
+
+    private final IMetadataRepositoryManager repositoryManager;
+    private final Executor executor;
+    private final boolean includeReferences;
+    private final MavenLogger logger;
+    private final Map<URI, CompletableFuture<LoadedRepository>> repositories = new ConcurrentHashMap<>();
+
+    MetadataRepositoryGraphLoader(IMetadataRepositoryManager repositoryManager, Executor executor,
+            boolean includeReferences, MavenLogger logger) {
+        this.repositoryManager = repositoryManager;
+        this.executor = executor;
+        this.includeReferences = includeReferences;
+        this.logger = logger;
+    }
+
+    /**
+     * Starts loading the repository at the given location (and its references) in the background
+     *
+     * @param location
+     *            the location of the repository
+     */
+    void schedule(URI location) {
+        load(location);
+    }
+
+    /**
+     * Collects the given repository and all repositories it references that are not already part of
+     * the given set of visited locations, waiting for them to be loaded if necessary.
+     *
+     * @param location
+     *            the location of the repository
+     * @param result
+     *            the list where loaded repositories are added
+     * @param visited
+     *            the (normalized) locations already collected
+     * @param artifactRepositories
+     *            map of referenced artifact repositories that is updated
+     * @throws ProvisionException
+     *             if the repository at the given location can't be loaded, failures of referenced
+     *             repositories are only logged
+     */
+    void collect(URI location, List<LoadedRepository> result, Set<URI> visited,
+            Map<URI, Boolean> artifactRepositories) throws ProvisionException {
+        if (!visited.add(location.normalize())) {
+            return;
+        }
+        LoadedRepository loaded = await(load(location));
+        result.add(loaded);
+        if (includeReferences) {
+            for (IRepositoryReference reference : loaded.repository().getReferences()) {
+                if (reference.isEnabled()) {
+                    URI uri = reference.getLocation();
+                    if (reference.getType() == IRepository.TYPE_METADATA) {
+                        try {
+                            collect(uri, result, visited, artifactRepositories);
+                        } catch (ProvisionException e) {
+                            logger.warn("Loading referenced repository failed: " + e.getMessage(),
+                                    logger.isDebugEnabled() ? e : null);
+                        }
+                    } else if (reference.getType() == IRepository.TYPE_ARTIFACT) {
+                        artifactRepositories.putIfAbsent(uri, true);
+                    }
+                }
+            }
+        }
+    }
+
+    private CompletableFuture<LoadedRepository> load(URI location) {
+        return repositories.computeIfAbsent(location.normalize(),
+                key -> CompletableFuture.supplyAsync(() -> loadRepository(location), executor));
+    }
+
+    private LoadedRepository loadRepository(URI location) {
+        IMetadataRepository repository;
+        try {
+            // progress monitors are not thread-safe, so each load gets its own
+            repository = repositoryManager.loadRepository(location,
+                    new DuplicateFilteringLoggingProgressMonitor(logger));
+        } catch (ProvisionException e) {
+            throw new CompletionException(e);
+        }
+        if (includeReferences) {
+            // discover the next level while this repository is queried
+            for (IRepositoryReference reference : repository.getReferences()) {
+                if (reference.isEnabled() && reference.getType() == IRepository.TYPE_METADATA) {
+                    load(reference.getLocation());
+                }
+            }
+        }
+        return new LoadedRepository(repository, repository.query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet());
+    }
+
+    private static ExecutorService createLoadExecutor() {
+        int threads = Math.max(1, LOAD_THREADS);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Tycho-Metadata-Loader");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private static LoadedRepository await(CompletableFuture<LoadedRepository> future) throws ProvisionException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ProvisionException provisionException) {
+                throw provisionException;
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+}
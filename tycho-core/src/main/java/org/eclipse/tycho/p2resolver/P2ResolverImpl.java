@@ -27,9 +27,17 @@ import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 import org.apache.felix.resolver.util.CopyOnWriteSet;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -79,6 +87,22 @@ import org.eclipse.tycho.version.TychoVersion;
 
 public class P2ResolverImpl implements P2Resolver {
 
+    /**
+     * Number of threads used to resolve the different environments of a project concurrently
+     */
+    private static final int ENVIRONMENT_THREADS = Integer.getInteger("tycho.p2.resolver.environment.threads", 1);
+
+    /**
+     * Shared by all resolvers, so the configured number of threads is a limit for the whole build
+     */
+    private static final ExecutorService ENVIRONMENT_EXECUTOR = createEnvironmentExecutor();
+
+    /**
+     * Whether the artifacts of a resolution result that are not available locally yet are
+     * downloaded in the background right away instead of when they are first used
+     */
+    private static final boolean PREFETCH_ARTIFACTS = Boolean.getBoolean("tycho.p2.prefetch");
+
     private final MavenLogger logger;
 
     private final IProgressMonitor monitor;
@@ -108,22 +132,18 @@ public class P2ResolverImpl implements P2Resolver {
             ReactorProject project) {
         P2TargetPlatform targetPlatform = getTargetFromContext(context);
 
-        // we need a linked hashmap to maintain iteration-order, some of the code relies on it!
-        Map<TargetEnvironment, P2ResolutionResult> results = new LinkedHashMap<>();
         Set<IInstallableUnit> usedTargetPlatformUnits = new LinkedHashSet<>();
         Set<IInstallableUnit> usedShadowedUnits = new CopyOnWriteSet<>();
-        for (TargetEnvironment environment : environments) {
-            results.put(environment,
-                    resolveDependencies(Collections.emptySet(), project, new ProjectorResolutionStrategy(logger) {
-                        @Override
-                        protected Slicer newSlicer(IQueryable<IInstallableUnit> availableUnits,
-                                Map<String, String> properties) {
-                            return super.newSlicer(
-                                    new ShadowedUnitsQueryable(targetPlatform, availableUnits, usedShadowedUnits),
-                                    properties);
-                        }
-                    }, environment, targetPlatform, usedTargetPlatformUnits));
-        }
+        Map<TargetEnvironment, P2ResolutionResult> results = resolveDependencies(Collections.emptySet(), project,
+                () -> new ProjectorResolutionStrategy(logger) {
+                    @Override
+                    protected Slicer newSlicer(IQueryable<IInstallableUnit> availableUnits,
+                            Map<String, String> properties) {
+                        return super.newSlicer(
+                                new ShadowedUnitsQueryable(targetPlatform, availableUnits, usedShadowedUnits),
+                                properties);
+                    }
+                }, targetPlatform, usedTargetPlatformUnits);
         targetPlatform.reportUsedLocalIUs(usedTargetPlatformUnits);
         for (IInstallableUnit unit : usedShadowedUnits) {
             logger.warn("Your build strictly depends on unit " + unit
@@ -145,12 +165,7 @@ public class P2ResolverImpl implements P2Resolver {
             IQueryResult<IInstallableUnit> result = queriable.query(QueryUtil.createLatestQuery(query), monitor);
             roots.addAll(result.toUnmodifiableSet());
         }
-        Map<TargetEnvironment, P2ResolutionResult> results = new LinkedHashMap<>();
-        for (TargetEnvironment environment : environments) {
-            results.put(environment, resolveDependencies(roots, null, new ProjectorResolutionStrategy(logger),
-                    environment, targetPlatform, null));
-        }
-        return results;
+        return resolveDependencies(roots, null, () -> new ProjectorResolutionStrategy(logger), targetPlatform, null);
     }
 
     @Override
@@ -194,9 +209,116 @@ public class P2ResolverImpl implements P2Resolver {
         return result;
     }
 
-    protected P2ResolutionResult resolveDependencies(Collection<IInstallableUnit> rootUIs, ReactorProject project,
-            AbstractResolutionStrategy strategy, TargetEnvironment environment, P2TargetPlatform targetPlatform,
-            Set<IInstallableUnit> usedTargetPlatformUnits) {
+    /**
+     * Resolves the dependencies for all configured environments. Environments that can't be
+     * distinguished by any filter of the involved units share one resolution, the remaining ones are
+     * resolved concurrently if configured.
+     * 
+     * @return the results in the order of the configured environments
+     */
+    private Map<TargetEnvironment, P2ResolutionResult> resolveDependencies(Collection<IInstallableUnit> rootUIs,
+            ReactorProject project, Supplier<AbstractResolutionStrategy> strategyFactory,
+            P2TargetPlatform targetPlatform, Set<IInstallableUnit> usedTargetPlatformUnits) {
+        ResolutionDataImpl data = createResolutionData(rootUIs, project, targetPlatform);
+        Map<TargetEnvironment, TargetEnvironment> representatives;
+        Collection<IInstallableUnit> additionalUnits = new ArrayList<>();
+        PomInstallableUnitStore unloadedPomStore = null;
+        if (environments.size() > 1) {
+            if (targetPlatform instanceof TargetPlatformBaseImpl base) {
+                additionalUnits.addAll(base.getShadowed());
+            }
+            IQueryable<IInstallableUnit> additionalUnitStore = data.getAdditionalUnitStore();
+            if (additionalUnitStore instanceof PomInstallableUnitStore pomStore) {
+                // querying the pom store would load and mark all of its units as used, so it is only
+                // considered once a resolution has needed it (see below)
+                Optional<Collection<IInstallableUnit>> pomUnits = pomStore.getLoadedInstallableUnits();
+                if (pomUnits.isPresent()) {
+                    additionalUnits.addAll(pomUnits.get());
+                } else {
+                    unloadedPomStore = pomStore;
+                }
+            } else if (additionalUnitStore != null) {
+                additionalUnits.addAll(additionalUnitStore.query(QueryUtil.ALL_UNITS, monitor).toUnmodifiableSet());
+            }
+            representatives = EnvironmentFilterGroups.computeRepresentatives(environments, data, additionalUnits);
+        } else {
+            representatives = new LinkedHashMap<>();
+            for (TargetEnvironment environment : environments) {
+                representatives.put(environment, environment);
+            }
+        }
+        List<TargetEnvironment> distinctEnvironments = representatives.values().stream().distinct().toList();
+        if (logger.isDebugEnabled() && distinctEnvironments.size() < environments.size()) {
+            logger.debug("Resolving " + distinctEnvironments + " for " + project + " as other environments "
+                    + environments + " can not be distinguished by the involved units");
+        }
+        Map<TargetEnvironment, ResolvedState> states = resolveStates(data, project, strategyFactory,
+                distinctEnvironments);
+        if (unloadedPomStore != null && distinctEnvironments.size() < environments.size()) {
+            Optional<Collection<IInstallableUnit>> pomUnits = unloadedPomStore.getLoadedInstallableUnits();
+            if (pomUnits.isPresent()) {
+                // a resolution has used the pom dependencies, their filters might distinguish environments
+                // that were resolved together, so these are now resolved on their own
+                additionalUnits.addAll(pomUnits.get());
+                representatives = EnvironmentFilterGroups.computeRepresentatives(environments, data,
+                        additionalUnits);
+                List<TargetEnvironment> unresolvedEnvironments = representatives.values().stream().distinct()
+                        .filter(environment -> !states.containsKey(environment)).toList();
+                if (!unresolvedEnvironments.isEmpty()) {
+                    logger.debug("Resolving " + unresolvedEnvironments + " for " + project
+                            + " as they are distinguished by the units of the pom dependencies");
+                    states.putAll(resolveStates(data, project, strategyFactory, unresolvedEnvironments));
+                }
+            }
+        }
+        // we need a linked hashmap to maintain iteration-order, some of the code relies on it!
+        Map<TargetEnvironment, P2ResolutionResult> results = new LinkedHashMap<>();
+        for (TargetEnvironment environment : environments) {
+            ResolvedState state = states.get(representatives.get(environment));
+            if (usedTargetPlatformUnits != null) {
+                usedTargetPlatformUnits.addAll(state.units());
+            }
+            results.put(environment, toResolutionResult(state.units(), state.fragments(), project, targetPlatform));
+        }
+        return results;
+    }
+
+    private Map<TargetEnvironment, ResolvedState> resolveStates(ResolutionData data, ReactorProject project,
+            Supplier<AbstractResolutionStrategy> strategyFactory, List<TargetEnvironment> environments) {
+        Map<TargetEnvironment, ResolvedState> states = new LinkedHashMap<>();
+        if (ENVIRONMENT_EXECUTOR != null && environments.size() > 1) {
+            Map<TargetEnvironment, Future<ResolvedState>> tasks = new LinkedHashMap<>();
+            for (TargetEnvironment environment : environments) {
+                // each environment reports its progress through its own monitor
+                IProgressMonitor environmentMonitor = new LoggingProgressMonitor(logger);
+                tasks.put(environment, ENVIRONMENT_EXECUTOR.submit(
+                        () -> resolveState(data, project, strategyFactory.get(), environment, environmentMonitor)));
+            }
+            try {
+                for (Entry<TargetEnvironment, Future<ResolvedState>> entry : tasks.entrySet()) {
+                    states.put(entry.getKey(), entry.getValue().get());
+                }
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw new DependencyResolutionException("Cannot resolve dependencies of " + project, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new DependencyResolutionException("Interrupted while resolving dependencies of " + project, e);
+            } finally {
+                tasks.values().forEach(task -> task.cancel(true));
+            }
+        } else {
+            for (TargetEnvironment environment : environments) {
+                states.put(environment, resolveState(data, project, strategyFactory.get(), environment, monitor));
+            }
+        }
+        return states;
+    }
+
+    private ResolutionDataImpl createResolutionData(Collection<IInstallableUnit> rootUIs, ReactorProject project,
+            P2TargetPlatform targetPlatform) {
         ResolutionDataImpl data = new ResolutionDataImpl(targetPlatform.getEEResolutionHints());
 
         Set<IInstallableUnit> availableUnits = targetPlatform.getInstallableUnits();
@@ -214,13 +336,17 @@ public class P2ResolverImpl implements P2Resolver {
         data.setAdditionalRequirements(additionalRequirements);
         data.setAvailableIUs(availableUnits);
         data.setAdditionalFilterProperties(additionalFilterProperties);
+        if (project != null && p2ResolverFactoryImpl != null && pomDependencies != PomDependencies.ignore) {
+            data.setAdditionalUnitStore(p2ResolverFactoryImpl.getPomUnits().createPomQueryable(project));
+        }
+        return data;
+    }
 
+    private ResolvedState resolveState(ResolutionData data, ReactorProject project,
+            AbstractResolutionStrategy strategy, TargetEnvironment environment, IProgressMonitor monitor) {
         strategy.setData(data);
         Collection<IInstallableUnit> newState;
         try {
-            if (project != null && p2ResolverFactoryImpl != null && pomDependencies != PomDependencies.ignore) {
-                data.setAdditionalUnitStore(p2ResolverFactoryImpl.getPomUnits().createPomQueryable(project));
-            }
             newState = strategy.resolve(environment, monitor);
         } catch (ResolverException e) {
             logger.info(e.getSelectionContext());
@@ -233,13 +359,26 @@ public class P2ResolverImpl implements P2Resolver {
             logger.error("See https://tycho.eclipseprojects.io/doc/" + docVersion + "/Troubleshooting.html for help.");
             throw new DependencyResolutionException("Cannot resolve dependencies of " + project, e);
         }
-
-        if (usedTargetPlatformUnits != null) {
-            usedTargetPlatformUnits.addAll(newState);
-        }
         Set<IInstallableUnit> dependencyFragments = p2ResolverFactoryImpl == null ? Collections.emptySet()
                 : p2ResolverFactoryImpl.calculateDependencyFragments(data, newState);
-        return toResolutionResult(newState, dependencyFragments, project, targetPlatform);
+        return new ResolvedState(newState, dependencyFragments);
+    }
+
+    private static ExecutorService createEnvironmentExecutor() {
+        if (ENVIRONMENT_THREADS <= 1) {
+            return null;
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(ENVIRONMENT_THREADS, ENVIRONMENT_THREADS, 1,
+                TimeUnit.MINUTES, new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Tycho-Environment-Resolver");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    private record ResolvedState(Collection<IInstallableUnit> units, Set<IInstallableUnit> fragments) {
     }
 
     private P2ResolutionResult toResolutionResult(Collection<IInstallableUnit> resolvedUnits,
@@ -252,6 +391,10 @@ public class P2ResolverImpl implements P2Resolver {
         }
         // remove entries for which there were only "additional" IUs, but none with a recognized type
         result.removeEntriesWithUnknownType();
+        if (PREFETCH_ARTIFACTS) {
+            // download the artifacts in parallel while the results are processed
+            result.prefetchArtifacts();
+        }
 
         // local repository index needs to be saved manually
         targetPlatform.saveLocalMavenRepository();
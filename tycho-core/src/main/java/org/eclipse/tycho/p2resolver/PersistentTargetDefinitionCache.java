@@ -0,0 +1,389 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.equinox.internal.p2.repository.AuthenticationFailedException;
+import org.eclipse.equinox.internal.p2.repository.Transport;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.CollectionResult;
+import org.eclipse.equinox.p2.query.IQuery;
+import org.eclipse.equinox.p2.query.IQueryResult;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.equinox.p2.repository.ICompositeRepository;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+import org.eclipse.tycho.ExecutionEnvironmentResolutionHints;
+import org.eclipse.tycho.TargetEnvironment;
+import org.eclipse.tycho.core.resolver.shared.IncludeSourceMode;
+import org.eclipse.tycho.core.resolver.shared.ReferencedRepositoryMode;
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.p2.repository.ListCompositeMetadataRepository;
+import org.eclipse.tycho.p2.repository.MetadataIO;
+import org.eclipse.tycho.p2.resolver.URITargetDefinitionContent;
+import org.eclipse.tycho.p2maven.ListCompositeArtifactRepository;
+import org.eclipse.tycho.targetplatform.TargetDefinition;
+import org.eclipse.tycho.targetplatform.TargetDefinition.InstallableUnitLocation;
+import org.eclipse.tycho.targetplatform.TargetDefinition.Location;
+import org.eclipse.tycho.targetplatform.TargetDefinition.Repository;
+import org.eclipse.tycho.targetplatform.TargetDefinition.Unit;
+import org.eclipse.tycho.targetplatform.TargetDefinitionContent;
+
+/**
+ * Stores the resolved content of target definitions on disk so that it can be reused by later
+ * builds. An entry is keyed by a hash of everything that influences the resolution and is only used
+ * as long as the metadata files of all involved repositories, including the children of composite
+ * repositories, are unchanged (as reported by the p2 transport, which takes care of
+ * <code>Last-Modified</code> / <code>ETag</code> validation and offline mode).
+ * <p>
+ * Only target definitions consisting purely of installable unit locations are cached, all other
+ * location types depend on local state that can't be validated cheaply.
+ */
+final class PersistentTargetDefinitionCache {
+
+    static final boolean ENABLED = Boolean.getBoolean("tycho.target.persistentCache");
+
+    private static final int MAGIC = 0x54544443; // TTDC
+    private static final int FORMAT_VERSION = 2;
+
+    private static final String[] METADATA_FILES = { "p2.index", "compositeContent.jar", "compositeContent.xml",
+            "content.jar", "content.xml.xz", "content.xml" };
+
+    private final File directory;
+    private final MavenLogger logger;
+
+    PersistentTargetDefinitionCache(File directory, MavenLogger logger) {
+        this.directory = directory;
+        this.logger = logger;
+    }
+
+    record CachedRepository(URI location, String id, ReferencedRepositoryMode referencedRepositoryMode) {
+    }
+
+    record Key(String hash, List<CachedRepository> repositories) {
+    }
+
+    /**
+     * Computes the key for the given arguments
+     *
+     * @return the key or <code>null</code> if the target definition can't be cached
+     */
+    static Key computeKey(TargetDefinition definition, List<TargetEnvironment> environments,
+            ExecutionEnvironmentResolutionHints jreIUs, IncludeSourceMode includeSourceMode,
+            ReferencedRepositoryMode referencedRepositoryMode, UnaryOperator<String> variableResolver) {
+        if (definition.getLocations().isEmpty()) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder();
+        key.append("format=").append(FORMAT_VERSION).append('\n');
+        Map<String, CachedRepository> repositories = new LinkedHashMap<>();
+        for (Location location : definition.getLocations()) {
+            if (!(location instanceof InstallableUnitLocation iuLocation)) {
+                return null;
+            }
+            ReferencedRepositoryMode followReferences = TargetDefinitionResolver
+                    .getReferencedRepositoryMode(iuLocation, referencedRepositoryMode);
+            key.append("location includeMode=").append(iuLocation.getIncludeMode());
+            key.append(" includeAllEnvironments=").append(iuLocation.includeAllEnvironments());
+            key.append(" includeSource=").append(iuLocation.includeSource());
+            key.append(" includeConfigurePhase=").append(iuLocation.includeConfigurePhase());
+            key.append(" followReferences=").append(followReferences).append('\n');
+            for (Repository repository : iuLocation.getRepositories()) {
+                URI uri;
+                try {
+                    uri = new URI(variableResolver.apply(repository.getLocation()));
+                } catch (URISyntaxException e) {
+                    // let the resolver report that
+                    return null;
+                }
+                String normalized = uri.normalize().toASCIIString();
+                repositories.putIfAbsent(normalized, new CachedRepository(uri, repository.getId(), followReferences));
+                key.append("repository ").append(normalized).append(' ').append(repository.getId()).append('\n');
+            }
+            for (Unit unit : iuLocation.getUnits()) {
+                key.append("unit ").append(unit.getId()).append(' ').append(unit.getVersion()).append('\n');
+            }
+        }
+        key.append("environments=").append(environments).append('\n');
+        key.append("includeSourceMode=").append(includeSourceMode).append('\n');
+        key.append("referencedRepositoryMode=").append(referencedRepositoryMode).append('\n');
+        appendSorted(key, "ee.unit", jreIUs.getMandatoryUnits());
+        appendSorted(key, "ee.addition", jreIUs.getTemporaryAdditions());
+        appendSorted(key, "ee.requirement", jreIUs.getMandatoryRequires());
+        return new Key(sha256(key.toString()), List.copyOf(repositories.values()));
+    }
+
+    private static void appendSorted(StringBuilder key, String prefix, Collection<?> values) {
+        values.stream().map(String::valueOf).sorted()
+                .forEach(value -> key.append(prefix).append(' ').append(value).append('\n'));
+    }
+
+    /**
+     * Reads the content stored for the given key
+     *
+     * @return the content or <code>null</code> if there is no (longer a) valid entry
+     */
+    TargetDefinitionContent read(Key key, IProvisioningAgent agent) {
+        File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        Transport transport = agent.getService(Transport.class);
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file.toPath()))))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                return null;
+            }
+            int fingerprints = in.readInt();
+            for (int i = 0; i < fingerprints; i++) {
+                URI location = URI.create(in.readUTF());
+                long lastModified = in.readLong();
+                if (getFingerprint(location, transport) != lastModified) {
+                    logger.debug("Persistent target definition cache entry " + key.hash() + " is outdated, "
+                            + location + " has changed");
+                    return null;
+                }
+            }
+            List<URITargetDefinitionContent> repositories = new ArrayList<>();
+            for (CachedRepository repository : key.repositories()) {
+                int artifactRepositories = in.readInt();
+                Map<URI, Boolean> artifactLocations = new LinkedHashMap<>();
+                for (int i = 0; i < artifactRepositories; i++) {
+                    artifactLocations.put(URI.create(in.readUTF()), in.readBoolean());
+                }
+                repositories.add(new URITargetDefinitionContent(agent, repository.location(), repository.id(),
+                        repository.referencedRepositoryMode(), logger, artifactLocations));
+            }
+            byte[] units = in.readNBytes(in.readInt());
+            return new CachedTargetDefinitionContent(new MetadataIO().readXML(new ByteArrayInputStream(units)),
+                    repositories, agent);
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Can't read persistent target definition cache entry " + file + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the given (already resolved) content under the given key
+     */
+    void write(Key key, TargetDefinitionContent content, IProvisioningAgent agent) {
+        Transport transport = agent.getService(Transport.class);
+        IMetadataRepositoryManager repositoryManager = agent.getService(IMetadataRepositoryManager.class);
+        if (repositoryManager == null) {
+            return;
+        }
+        List<URITargetDefinitionContent> repositories = new ArrayList<>();
+        Map<URI, Long> fingerprints = new LinkedHashMap<>();
+        try {
+            for (CachedRepository repository : key.repositories()) {
+                // the repositories are already loaded by the resolution, so this is cheap
+                URITargetDefinitionContent repositoryContent = new URITargetDefinitionContent(agent,
+                        repository.location(), repository.id(), repository.referencedRepositoryMode(), logger);
+                Set<URI> locations = new LinkedHashSet<>();
+                for (URI location : repositoryContent.getMetadataRepositoryLocations()) {
+                    collectLocations(location, repositoryManager, locations);
+                }
+                for (URI location : locations) {
+                    long fingerprint = getFingerprint(location, transport);
+                    if (fingerprint == -1) {
+                        logger.debug("Not caching target definition content, can't determine the state of "
+                                + location);
+                        return;
+                    }
+                    fingerprints.put(location, fingerprint);
+                }
+                repositories.add(repositoryContent);
+            }
+            Set<IInstallableUnit> units = content.query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet();
+            ByteArrayOutputStream unitsXml = new ByteArrayOutputStream();
+            new MetadataIO().writeXML(units, unitsXml);
+            directory.mkdirs();
+            Path tempFile = Files.createTempFile(directory.toPath(), key.hash(), ".tmp");
+            try {
+                try (DataOutputStream out = new DataOutputStream(
+                        new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile))))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeInt(fingerprints.size());
+                    for (Map.Entry<URI, Long> entry : fingerprints.entrySet()) {
+                        out.writeUTF(entry.getKey().toASCIIString());
+                        out.writeLong(entry.getValue());
+                    }
+                    for (URITargetDefinitionContent repository : repositories) {
+                        Map<URI, Boolean> artifactLocations = repository.getArtifactRepositoryLocations();
+                        out.writeInt(artifactLocations.size());
+                        for (Map.Entry<URI, Boolean> entry : artifactLocations.entrySet()) {
+                            out.writeUTF(entry.getKey().toASCIIString());
+                            out.writeBoolean(entry.getValue());
+                        }
+                    }
+                    out.writeInt(unitsXml.size());
+                    unitsXml.writeTo(out);
+                }
+                Files.move(tempFile, getFile(key).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempFile);
+            }
+        } catch (IOException | ProvisionException | RuntimeException e) {
+            logger.warn("Can't write persistent target definition cache entry for " + key.hash() + ": " + e);
+        }
+    }
+
+    /**
+     * Collects the given location and, if it is a composite repository, the locations of all of its
+     * children, as the content of a composite changes with its children even if its own metadata
+     * file stays the same
+     */
+    private static void collectLocations(URI location, IMetadataRepositoryManager repositoryManager,
+            Set<URI> locations) throws ProvisionException {
+        if (!locations.add(location.normalize())) {
+            return;
+        }
+        // already loaded by the resolution
+        IMetadataRepository repository = repositoryManager.loadRepository(location, null);
+        if (repository instanceof ICompositeRepository<?> composite) {
+            for (URI child : composite.getChildren()) {
+                collectLocations(child, repositoryManager, locations);
+            }
+        }
+    }
+
+    private File getFile(Key key) {
+        return new File(directory, key.hash() + ".bin");
+    }
+
+    /**
+     * Computes a fingerprint of all metadata files of the given repository. All of them are taken
+     * into account as it depends on the repository type (and the p2 version) which of them is read.
+     *
+     * @return the fingerprint or <code>-1</code> if the state of the repository can't be determined
+     */
+    private static long getFingerprint(URI repository, Transport transport) {
+        if (transport == null) {
+            return -1;
+        }
+        String base = repository.toASCIIString();
+        if (!base.endsWith("/")) {
+            base += "/";
+        }
+        long fingerprint = 17;
+        boolean found = false;
+        for (int i = 0; i < METADATA_FILES.length; i++) {
+            try {
+                long lastModified = transport.getLastModified(URI.create(base + METADATA_FILES[i]), null);
+                if (lastModified == 0) {
+                    // local files that don't exist have no modification time
+                    continue;
+                }
+                if (lastModified < 0) {
+                    // the file exists, but its state is unknown
+                    return -1;
+                }
+                fingerprint = 31 * (31 * fingerprint + i) + lastModified;
+                found = true;
+            } catch (FileNotFoundException e) {
+                // the repository doesn't use this file
+            } catch (CoreException | AuthenticationFailedException | IllegalArgumentException e) {
+                return -1;
+            }
+        }
+        if (!found || fingerprint == -1) {
+            return -1;
+        }
+        return fingerprint;
+    }
+
+    private static String sha256(String value) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(value.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class CachedTargetDefinitionContent implements TargetDefinitionContent {
+
+        private final CollectionResult<IInstallableUnit> units;
+        private final List<URITargetDefinitionContent> repositories;
+        private final IProvisioningAgent agent;
+        private IMetadataRepository metadataRepository;
+        private IArtifactRepository artifactRepository;
+
+        CachedTargetDefinitionContent(Set<IInstallableUnit> units, List<URITargetDefinitionContent> repositories,
+                IProvisioningAgent agent) {
+            this.units = new CollectionResult<>(units);
+            this.repositories = repositories;
+            this.agent = agent;
+        }
+
+        @Override
+        public IQueryResult<IInstallableUnit> query(IQuery<IInstallableUnit> query, IProgressMonitor monitor) {
+            return units.query(query, monitor);
+        }
+
+        @Override
+        public synchronized IMetadataRepository getMetadataRepository() {
+            if (metadataRepository == null) {
+                metadataRepository = new ListCompositeMetadataRepository(
+                        repositories.stream().map(URITargetDefinitionContent::getMetadataRepository).toList(), agent);
+            }
+            return metadataRepository;
+        }
+
+        @Override
+        public synchronized IArtifactRepository getArtifactRepository() {
+            if (artifactRepository == null) {
+                artifactRepository = new ListCompositeArtifactRepository(
+                        repositories.stream().map(URITargetDefinitionContent::getArtifactRepository).toList(), agent);
+            }
+            return artifactRepository;
+        }
+
+    }
+
+}
@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
@@ -52,6 +53,10 @@ import org.eclipse.tycho.p2.resolver.WrappedArtifact;
 import org.eclipse.tycho.p2maven.InstallableUnitGenerator;
 import org.eclipse.tycho.p2tools.copiedfromp2.QueryableArray;
 
+/**
+ * The units of the pom dependencies of a project, the store can be queried concurrently (e.g. when
+ * several environments are resolved in parallel).
+ */
 class PomInstallableUnitStore implements IQueryable<IInstallableUnit> {
 
     private static final IQueryResult<IInstallableUnit> EMPTY_RESULT = new CollectionResult<>(Collections.emptyList());
@@ -61,6 +66,7 @@ class PomInstallableUnitStore implements IQueryable<IInstallableUnit> {
     private Map<IInstallableUnit, PomDependency> installableUnitLookUp = new HashMap<>();
     private Collection<PomDependency> gatheredDependencies = new HashSet<>();
     private List<Consumer<PomDependency>> dependencyConsumer = new ArrayList<>();
+    private final Object consumerLock = new Object();
     private InstallableUnitGenerator generator;
     private PomDependencies considerPomDependencies;
     private ArtifactHandlerManager artifactHandlerManager;
@@ -86,21 +92,38 @@ class PomInstallableUnitStore implements IQueryable<IInstallableUnit> {
         if (considerPomDependencies == PomDependencies.ignore) {
             return EMPTY_RESULT;
         }
-        IQueryResult<IInstallableUnit> result = getPomIUs().query(query, monitor);
-        for (IInstallableUnit unit : result) {
-            PomDependency pomDependency = installableUnitLookUp.get(unit);
-            if (pomDependency == null) {
-                continue;
-            }
-            if (gatheredDependencies.add(pomDependency)) {
-                for (Consumer<PomDependency> consumer : dependencyConsumer) {
-                    consumer.accept(pomDependency);
+        IQueryResult<IInstallableUnit> result;
+        List<PomDependency> newDependencies = new ArrayList<>();
+        List<Consumer<PomDependency>> consumers;
+        synchronized (this) {
+            result = getPomIUs().query(query, monitor);
+            for (IInstallableUnit unit : result) {
+                PomDependency pomDependency = installableUnitLookUp.get(unit);
+                if (pomDependency != null && gatheredDependencies.add(pomDependency)) {
+                    newDependencies.add(pomDependency);
                 }
             }
+            consumers = List.copyOf(dependencyConsumer);
         }
+        // the consumers are called outside of the lock, so concurrent queries are not blocked by them
+        notifyConsumers(consumers, newDependencies);
         return result;
     }
 
+    /**
+     * @return all units of the store if they have already been loaded (e.g. because the store was
+     *         queried), without loading them or marking them as used
+     */
+    synchronized Optional<Collection<IInstallableUnit>> getLoadedInstallableUnits() {
+        if (considerPomDependencies == PomDependencies.ignore) {
+            return Optional.of(Collections.emptyList());
+        }
+        if (collection == null) {
+            return Optional.empty();
+        }
+        return Optional.of(List.copyOf(installableUnitLookUp.keySet()));
+    }
+
     static final record PomDependency(IArtifactFacade artifactFacade, Collection<IInstallableUnit> installableUnit,
             File location) {
     }
@@ -252,8 +275,26 @@ class PomInstallableUnitStore implements IQueryable<IInstallableUnit> {
     }
 
     void addPomDependencyConsumer(Consumer<PomDependency> consumer) {
-        gatheredDependencies.forEach(consumer);
-        dependencyConsumer.add(consumer);
+        List<PomDependency> dependencies;
+        synchronized (this) {
+            dependencies = List.copyOf(gatheredDependencies);
+            dependencyConsumer.add(consumer);
+        }
+        notifyConsumers(List.of(consumer), dependencies);
+    }
+
+    private void notifyConsumers(List<Consumer<PomDependency>> consumers, List<PomDependency> dependencies) {
+        if (consumers.isEmpty() || dependencies.isEmpty()) {
+            return;
+        }
+        // consumers are not required to be thread-safe, so they are still called one at a time
+        synchronized (consumerLock) {
+            for (PomDependency pomDependency : dependencies) {
+                for (Consumer<PomDependency> consumer : consumers) {
+                    consumer.accept(pomDependency);
+                }
+            }
+        }
     }
 
 }
@@ -13,9 +13,11 @@
  *                          - [Bug 533747] - Target file is read and parsed over and over again
  *                          - [Bug 568729] - Support new "Maven" Target location
  *                          - [Issue #496] - ResolutionArguments#hashcode is not stable 
+ *                          - persistent cache of resolved target definitions
  *******************************************************************************/
 package org.eclipse.tycho.p2resolver;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
@@ -33,6 +35,7 @@ import org.eclipse.tycho.core.resolver.MavenTargetLocationFactory;
 import org.eclipse.tycho.core.resolver.shared.IncludeSourceMode;
 import org.eclipse.tycho.core.resolver.shared.ReferencedRepositoryMode;
 import org.eclipse.tycho.core.shared.MavenContext;
+import org.eclipse.tycho.p2maven.transport.TransportCacheConfig;
 import org.eclipse.tycho.targetplatform.TargetDefinition;
 import org.eclipse.tycho.targetplatform.TargetDefinitionContent;
 
@@ -57,6 +60,9 @@ public class TargetDefinitionResolverService {
     @Requirement
     private TargetDefinitionVariableResolver varResolver;
 
+    @Requirement
+    private TransportCacheConfig cacheConfig;
+
     // constructor for DS
     public TargetDefinitionResolverService() {
     }
@@ -84,6 +90,19 @@ public class TargetDefinitionResolverService {
 
     // this method must only have the cache key as parameter (to make sure that the key is complete)
     private CompletableFuture<TargetDefinitionContent> resolveFromArguments(ResolutionArguments arguments) {
+        PersistentTargetDefinitionCache.Key persistentKey = null;
+        if (PersistentTargetDefinitionCache.ENABLED && cacheConfig != null) {
+            persistentKey = PersistentTargetDefinitionCache.computeKey(arguments.definition, arguments.environments,
+                    arguments.jreIUs, arguments.includeSourceMode, arguments.referencedRepositoryMode,
+                    varResolver::resolve);
+            if (persistentKey != null && !cacheConfig.isUpdate()) {
+                TargetDefinitionContent content = getPersistentCache().read(persistentKey, arguments.agent);
+                if (content != null) {
+                    mavenContext.getLogger().info("Using persistent cache for " + arguments.definition.getOrigin());
+                    return CompletableFuture.completedFuture(content);
+                }
+            }
+        }
         mavenContext.getLogger().info("Resolving " + arguments);
         if (mavenContext.getLogger().isDebugEnabled()) {
             debugCacheMiss(arguments);
@@ -93,12 +112,21 @@ public class TargetDefinitionResolverService {
                 arguments.includeSourceMode, arguments.referencedRepositoryMode, mavenContext, dependenciesResolver,
                 varResolver);
         try {
-            return CompletableFuture.completedFuture(resolver.resolveContent(arguments.definition, arguments.agent));
+            TargetDefinitionContent content = resolver.resolveContent(arguments.definition, arguments.agent);
+            if (persistentKey != null) {
+                getPersistentCache().write(persistentKey, content, arguments.agent);
+            }
+            return CompletableFuture.completedFuture(content);
         } catch (Exception e) {
             return CompletableFuture.failedFuture(e);
         }
     }
 
+    private PersistentTargetDefinitionCache getPersistentCache() {
+        return new PersistentTargetDefinitionCache(new File(cacheConfig.getCacheLocation(), "target-definitions"),
+                mavenContext.getLogger());
+    }
+
     private void debugCacheMiss(ResolutionArguments arguments) {
         if (resolutionCache.isEmpty()) {
             return;
@@ -133,6 +161,11 @@ public class TargetDefinitionResolverService {
         this.dependenciesResolver = mavenDependenciesResolver;
     }
 
+    // setter for DS
+    public void setTransportCacheConfig(TransportCacheConfig cacheConfig) {
+        this.cacheConfig = cacheConfig;
+    }
+
     // setter for DS
     public void setTargetDefinitionVariableResolver(TargetDefinitionVariableResolver varResolver) {
         this.varResolver = varResolver;
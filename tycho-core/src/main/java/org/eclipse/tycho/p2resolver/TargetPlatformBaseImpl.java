@@ -169,6 +169,11 @@ abstract class TargetPlatformBaseImpl implements P2TargetPlatform {
         return artifacts.getArtifactFile(key);
     }
 
+    @Override
+    public final void prefetchArtifactFiles(Collection<IArtifactKey> keys) {
+        artifacts.prefetchArtifactFiles(keys);
+    }
+
     @Override
     public final void saveLocalMavenRepository() {
         localArtifactRepository.save();
@@ -58,11 +58,8 @@ import org.eclipse.equinox.p2.query.IQuery;
 import org.eclipse.equinox.p2.query.IQueryResult;
 import org.eclipse.equinox.p2.query.IQueryable;
 import org.eclipse.equinox.p2.query.QueryUtil;
-import org.eclipse.equinox.p2.repository.IRepository;
-import org.eclipse.equinox.p2.repository.IRepositoryReference;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepositoryManager;
-import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
 import org.eclipse.tycho.ArtifactKey;
 import org.eclipse.tycho.ExecutionEnvironmentConfiguration;
@@ -115,6 +112,7 @@ import org.eclipse.tycho.p2.target.facade.TargetPlatformConfigurationStub;
 import org.eclipse.tycho.p2.target.facade.TargetPlatformFactory;
 import org.eclipse.tycho.p2maven.ListCompositeArtifactRepository;
 import org.eclipse.tycho.p2maven.advices.MavenPropertiesAdvice;
+import org.eclipse.tycho.p2resolver.MetadataRepositoryGraphLoader.LoadedRepository;
 import org.eclipse.tycho.p2tools.copiedfromp2.QueryableArray;
 import org.eclipse.tycho.targetplatform.P2TargetPlatform;
 import org.eclipse.tycho.targetplatform.TargetDefinition;
@@ -427,24 +425,29 @@ public class TargetPlatformFactoryImpl implements TargetPlatformFactory {
             result.addAll(queryResult.toUnmodifiableSet());
         }
 
-        List<IMetadataRepository> metadataRepositories = new ArrayList<>();
+        MetadataRepositoryGraphLoader repositoryLoader = new MetadataRepositoryGraphLoader(
+                remoteMetadataRepositoryManager, MetadataRepositoryGraphLoader.LOAD_EXECUTOR, includeReferences,
+                logger);
+        for (MavenRepositoryLocation location : completeRepositories) {
+            repositoryLoader.schedule(location.getURL());
+        }
+        List<LoadedRepository> metadataRepositories = new ArrayList<>();
         Set<URI> loaded = new HashSet<>();
         for (MavenRepositoryLocation location : completeRepositories) {
             artifactRepositories.put(location.getURL(), false);
             try {
-                loadMetadataRepository(location, metadataRepositories, loaded, artifactRepositories, includeReferences);
+                repositoryLoader.collect(location.getURL(), metadataRepositories, loaded, artifactRepositories);
             } catch (ProvisionException e) {
                 String idMessage = location.getId() == null ? "" : " with ID '" + location.getId() + "'";
                 throw new RuntimeException(
                         "Failed to load p2 repository" + idMessage + " from location " + location.getURL(), e);
             }
         }
-        if (includeLocalMavenRepo) {
-            metadataRepositories.add(localMetadataRepository);
+        for (LoadedRepository repository : metadataRepositories) {
+            result.addAll(repository.units());
         }
-
-        for (IMetadataRepository repository : metadataRepositories) {
-            IQueryResult<IInstallableUnit> matches = repository.query(QueryUtil.ALL_UNITS, monitor);
+        if (includeLocalMavenRepo) {
+            IQueryResult<IInstallableUnit> matches = localMetadataRepository.query(QueryUtil.ALL_UNITS, monitor);
             result.addAll(matches.toUnmodifiableSet());
         }
 
@@ -458,36 +461,6 @@ public class TargetPlatformFactoryImpl implements TargetPlatformFactory {
         return result;
     }
 
-    private void loadMetadataRepository(MavenRepositoryLocation location,
-            List<IMetadataRepository> metadataRepositories, Set<URI> loaded, Map<URI, Boolean> artifactRepositories,
-            boolean includeReferences) throws ProvisionException {
-        if (loaded.add(location.getURL().normalize())) {
-            IMetadataRepository repository = remoteMetadataRepositoryManager.loadRepository(location.getURL(), monitor);
-            metadataRepositories.add(repository);
-            if (includeReferences) {
-                for (IRepositoryReference reference : repository.getReferences()) {
-                    if (reference.isEnabled()) {
-                        URI uri = reference.getLocation();
-                        if (reference.getType() == IRepository.TYPE_METADATA) {
-                            try {
-                                loadMetadataRepository(new MavenRepositoryLocation(reference.getNickname(), uri),
-                                        metadataRepositories, loaded, artifactRepositories, includeReferences);
-                            } catch (ProvisionException e) {
-                                logger.warn("Loading referenced repository failed: " + e.getMessage(),
-                                        logger.isDebugEnabled() ? e : null);
-                            }
-                        } else if (reference.getType() == IRepository.TYPE_ARTIFACT) {
-                            if (!artifactRepositories.containsKey(uri)) {
-                                artifactRepositories.put(uri, true);
-                            }
-                        }
-                    }
-                }
-            }
-
-        }
-    }
-
     private static final class SortedRepositories {
 
         private SortedRepositories(List<FileArtifactRepository> local, List<IArtifactRepository> remote) {
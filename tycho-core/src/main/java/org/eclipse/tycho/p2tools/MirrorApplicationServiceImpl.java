@@ -82,6 +82,7 @@ import org.eclipse.tycho.p2.tools.RepositoryReferences;
 import org.eclipse.tycho.p2.tools.mirroring.facade.IUDescription;
 import org.eclipse.tycho.p2.tools.mirroring.facade.MirrorApplicationService;
 import org.eclipse.tycho.p2.tools.mirroring.facade.MirrorOptions;
+import org.eclipse.tycho.p2tools.TychoMirrorApplication.ArtifactFileTransfer;
 import org.eclipse.tycho.p2tools.copiedfromp2.RecreateRepositoryApplication;
 import org.eclipse.tycho.p2tools.copiedfromp2.RepositoryDescriptor;
 
@@ -98,12 +99,18 @@ public class MirrorApplicationServiceImpl implements MirrorApplicationService {
     @Requirement
     IProvisioningAgent agent;
 
+    /**
+     * How local artifacts are placed into the destination, <code>null</code> for the default of the
+     * mirror application
+     */
+    ArtifactFileTransfer artifactFileTransfer;
+
     @Override
     public void mirrorStandalone(RepositoryReferences sources, DestinationRepositoryDescriptor destination,
             Collection<IUDescription> seedIUs, MirrorOptions mirrorOptions, BuildDirectory tempDirectory)
             throws FacadeException {
         agent.getService(IArtifactRepositoryManager.class); //force init of framework if not already done!
-        final TychoMirrorApplication mirrorApp = createMirrorApplication(sources, destination, agent, logger);
+        final TychoMirrorApplication mirrorApp = createMirrorApplication(sources, destination);
         mirrorApp.setSlicingOptions(createSlicingOptions(mirrorOptions));
         mirrorApp.setIgnoreErrors(mirrorOptions.isIgnoreErrors());
         try {
@@ -178,7 +185,7 @@ public class MirrorApplicationServiceImpl implements MirrorApplicationService {
             boolean includeAllSource, boolean includeRequiredBundles, boolean includeRequiredFeatures,
             boolean filterProvided, boolean addOnlyProvidingRepoReferences, Map<String, String> filterProperties)
             throws FacadeException {
-        final TychoMirrorApplication mirrorApp = createMirrorApplication(sources, destination, agent, logger);
+        final TychoMirrorApplication mirrorApp = createMirrorApplication(sources, destination);
 
         // mirror scope: seed units...
         try {
@@ -251,10 +258,13 @@ public class MirrorApplicationServiceImpl implements MirrorApplicationService {
         xzCompress(destination);
     }
 
-    private static TychoMirrorApplication createMirrorApplication(RepositoryReferences sources,
-            DestinationRepositoryDescriptor destination, IProvisioningAgent agent, Logger logger) {
+    TychoMirrorApplication createMirrorApplication(RepositoryReferences sources,
+            DestinationRepositoryDescriptor destination) {
         final TychoMirrorApplication mirrorApp = new TychoMirrorApplication(agent, destination, logger);
         mirrorApp.setRaw(false);
+        if (artifactFileTransfer != null) {
+            mirrorApp.setArtifactFileTransfer(artifactFileTransfer);
+        }
 
         List<RepositoryDescriptor> sourceDescriptors = createSourceDescriptors(sources);
         for (RepositoryDescriptor sourceDescriptor : sourceDescriptors) {
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2tools;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Runs the file operations of assembling a repository (e.g. copying artifacts or calculating
+ * their checksums) in parallel. The operations block on IO, so they use a bounded executor of
+ * their own instead of the common fork join pool that is shared with the rest of the build.
+ */
+public final class ParallelFileOperations {
+
+    private static final int THREADS = Integer.getInteger("tycho.mirror.threads", 4);
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    private ParallelFileOperations() {
+    }
+
+    /**
+     * Applies the function to all items in parallel and waits for the results.
+     *
+     * @return the results in the order of the items
+     */
+    public static <T, R> List<R> map(Collection<? extends T> items, Function<? super T, ? extends R> function) {
+        if (items.size() <= 1 || THREADS <= 1) {
+            return items.stream().<R> map(function).toList();
+        }
+        List<CompletableFuture<? extends R>> futures = new ArrayList<>();
+        for (T item : items) {
+            futures.add(CompletableFuture.supplyAsync(() -> function.apply(item), EXECUTOR));
+        }
+        List<R> results = new ArrayList<>();
+        for (CompletableFuture<? extends R> future : futures) {
+            try {
+                results.add(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                }
+                throw e;
+            }
+        }
+        return results;
+    }
+
+    private static ExecutorService createExecutor() {
+        int threads = Math.max(1, THREADS);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Tycho-Repository-IO");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
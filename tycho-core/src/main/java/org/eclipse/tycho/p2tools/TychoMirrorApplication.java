@@ -17,12 +17,21 @@ package org.eclipse.tycho.p2tools;
 import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.mapping;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -32,6 +41,9 @@ import java.util.stream.Stream;
 
 import org.codehaus.plexus.logging.Logger;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.equinox.internal.p2.artifact.processors.checksum.ChecksumUtilities;
+import org.eclipse.equinox.internal.p2.artifact.processors.checksum.ChecksumVerifier;
 import org.eclipse.equinox.internal.p2.metadata.IRequiredCapability;
 import org.eclipse.equinox.internal.p2.metadata.InstallableUnit;
 import org.eclipse.equinox.internal.p2.metadata.RequiredCapability;
@@ -49,8 +61,11 @@ import org.eclipse.equinox.p2.query.QueryUtil;
 import org.eclipse.equinox.p2.repository.IRepository;
 import org.eclipse.equinox.p2.repository.IRepositoryManager;
 import org.eclipse.equinox.p2.repository.IRepositoryReference;
+import org.eclipse.equinox.p2.repository.artifact.IArtifactDescriptor;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.IArtifactRepositoryManager;
+import org.eclipse.equinox.p2.repository.artifact.IFileArtifactRepository;
+import org.eclipse.equinox.p2.repository.artifact.spi.ArtifactDescriptor;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
 import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
 import org.eclipse.equinox.spi.p2.publisher.PublisherHelper;
@@ -66,6 +81,38 @@ public class TychoMirrorApplication extends org.eclipse.tycho.p2tools.copiedfrom
 
     private static final String SOURCE_SUFFIX = ".source";
     private static final String FEATURE_GROUP = ".feature.group";
+    /**
+     * Artifacts available as local files are hard linked into the destination instead of being
+     * copied, enabled with <code>-Dtycho.mirror.linkArtifacts=true</code>. As a hard link shares
+     * the file, a later in-place modification of the source also changes the repository.
+     */
+    private static final boolean LINK_ARTIFACTS = Boolean.getBoolean("tycho.mirror.linkArtifacts");
+
+    /**
+     * Places the file of an artifact of the source repository into the destination repository
+     */
+    interface ArtifactFileTransfer {
+        void transfer(Path source, Path target) throws IOException;
+    }
+
+    /**
+     * The copy is done by the file system, which can share the data where supported
+     */
+    static final ArtifactFileTransfer COPY = (source, target) -> Files.copy(source, target,
+            StandardCopyOption.REPLACE_EXISTING);
+
+    /**
+     * Hard links the file and falls back to a copy if this is not possible
+     */
+    static final ArtifactFileTransfer LINK = (source, target) -> {
+        try {
+            Files.createLink(target, source);
+        } catch (IOException | UnsupportedOperationException e) {
+            // e.g. source and destination are on different file systems or the target exists
+            COPY.transfer(source, target);
+        }
+    };
+
     private final DestinationRepositoryDescriptor destination;
     private boolean includeAllSource;
     private boolean includeRequiredBundles;
@@ -74,6 +121,7 @@ public class TychoMirrorApplication extends org.eclipse.tycho.p2tools.copiedfrom
     private boolean addOnlyProvidingRepoReferences;
     private TargetPlatform targetPlatform;
     private Logger logger;
+    private ArtifactFileTransfer artifactFileTransfer = LINK_ARTIFACTS ? LINK : COPY;
 
     public TychoMirrorApplication(IProvisioningAgent agent, DestinationRepositoryDescriptor destination,
             Logger logger) {
@@ -280,9 +328,113 @@ public class TychoMirrorApplication extends org.eclipse.tycho.p2tools.copiedfrom
         if (isFilterProvidedItems()) {
             removeProvidedItems(keys, getArtifactRepositoryManager(), IRepository.TYPE_ARTIFACT, monitor);
         }
+        transferLocalArtifacts(keys);
         return keys;
     }
 
+    /**
+     * Transfers the artifacts that are available as local files in their canonical form directly
+     * into the destination, in parallel and without streaming them through the mirroring. The
+     * transferred keys are removed from the given list, everything else (e.g. remote artifacts or
+     * artifacts with several formats) is left to the mirroring. If the artifacts are to be
+     * compared or validated, everything is left to the mirroring as well because it performs these
+     * steps.
+     */
+    private void transferLocalArtifacts(List<IArtifactKey> keys) throws ProvisionException {
+        if (isCompareOrValidate()
+                || !(destinationArtifactRepository instanceof IFileArtifactRepository destinationFiles)
+                || !(getCompositeArtifactRepository() instanceof IFileArtifactRepository sourceFiles)) {
+            return;
+        }
+        List<ArtifactTransfer> transfers = new ArrayList<>();
+        for (IArtifactKey key : new LinkedHashSet<>(keys)) {
+            List<IArtifactDescriptor> descriptors = Arrays.stream(sourceFiles.getArtifactDescriptors(key)).distinct()
+                    .toList();
+            if (descriptors.size() != 1 || !isCanonical(descriptors.get(0))) {
+                continue;
+            }
+            IArtifactDescriptor descriptor = descriptors.get(0);
+            ArtifactDescriptor targetDescriptor = new ArtifactDescriptor(descriptor);
+            if (destinationArtifactRepository.contains(targetDescriptor)) {
+                continue;
+            }
+            File source = sourceFiles.getArtifactFile(descriptor);
+            File target = destinationFiles.getArtifactFile(targetDescriptor);
+            if (source == null || target == null || !source.isFile()) {
+                continue;
+            }
+            transfers.add(new ArtifactTransfer(key, targetDescriptor, source.toPath(), target.toPath()));
+        }
+        if (transfers.isEmpty()) {
+            return;
+        }
+        List<Boolean> results = ParallelFileOperations.map(transfers, this::transfer);
+        List<ArtifactTransfer> transferred = new ArrayList<>();
+        for (int i = 0; i < transfers.size(); i++) {
+            if (results.get(i)) {
+                transferred.add(transfers.get(i));
+            }
+        }
+        destinationArtifactRepository.addDescriptors(
+                transferred.stream().map(ArtifactTransfer::descriptor).toArray(IArtifactDescriptor[]::new), null);
+        keys.removeAll(transferred.stream().map(ArtifactTransfer::key).toList());
+        logger.debug("Transferred " + transferred.size() + " local artifacts into the destination repository");
+    }
+
+    private static boolean isCanonical(IArtifactDescriptor descriptor) {
+        return descriptor.getProcessingSteps().length == 0
+                && descriptor.getProperty(IArtifactDescriptor.FORMAT) == null;
+    }
+
+    private boolean transfer(ArtifactTransfer transfer) {
+        try {
+            Files.createDirectories(transfer.target().getParent());
+            artifactFileTransfer.transfer(transfer.source(), transfer.target());
+            if (!hasExpectedChecksums(transfer)) {
+                // let the mirroring report the mismatch
+                logger.debug("Checksum of " + transfer.source() + " does not match, using the mirroring instead");
+                Files.deleteIfExists(transfer.target());
+                return false;
+            }
+            return true;
+        } catch (IOException e) {
+            logger.debug("Transferring " + transfer.source() + " failed, using the mirroring instead: " + e);
+            try {
+                Files.deleteIfExists(transfer.target());
+            } catch (IOException deleteFailed) {
+                // overwritten by the mirroring
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Verifies the transferred file against the download checksums of its descriptor in the same
+     * way the mirroring does.
+     */
+    private static boolean hasExpectedChecksums(ArtifactTransfer transfer) throws IOException {
+        Collection<ChecksumVerifier> verifiers;
+        try {
+            verifiers = ChecksumUtilities.getChecksumVerifiers(transfer.descriptor(),
+                    IArtifactDescriptor.DOWNLOAD_CHECKSUM, Set.of());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        for (ChecksumVerifier verifier : verifiers) {
+            verifier.link(OutputStream.nullOutputStream(), new NullProgressMonitor());
+            Files.copy(transfer.target(), verifier);
+            verifier.close();
+            if (!verifier.getStatus().isOK()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static record ArtifactTransfer(IArtifactKey key, IArtifactDescriptor descriptor, Path source,
+            Path target) {
+    }
+
     @Override
     protected Set<IInstallableUnit> collectUnits(IQueryable<IInstallableUnit> slice, IProgressMonitor monitor)
             throws ProvisionException {
@@ -426,4 +578,8 @@ public class TychoMirrorApplication extends org.eclipse.tycho.p2tools.copiedfrom
         this.addOnlyProvidingRepoReferences = addOnlyProvidingRepoReferences;
     }
 
+    void setArtifactFileTransfer(ArtifactFileTransfer artifactFileTransfer) {
+        this.artifactFileTransfer = artifactFileTransfer;
+    }
+
 }
@@ -513,6 +513,13 @@ public class MirrorApplication extends AbstractApplication implements IApplicati
         compare = value;
     }
 
+    /*
+     * Whether the mirrored artifacts are compared against the baseline or validated.
+     */
+    protected boolean isCompareOrValidate() {
+        return compare || validate;
+    }
+
     /*
      * Set whether or not we should ignore errors when running the mirror application.
      */
@@ -18,11 +18,13 @@ package org.eclipse.tycho.p2tools.copiedfromp2;
 
 import java.io.File;
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -46,6 +48,7 @@ import org.eclipse.equinox.p2.repository.artifact.IArtifactRepositoryManager;
 import org.eclipse.equinox.p2.repository.artifact.IFileArtifactRepository;
 import org.eclipse.equinox.p2.repository.artifact.spi.ArtifactDescriptor;
 import org.eclipse.osgi.util.NLS;
+import org.eclipse.tycho.p2tools.ParallelFileOperations;
 
 public class RecreateRepositoryApplication extends AbstractApplication {
     private URI repoLocation;
@@ -127,6 +130,14 @@ public class RecreateRepositoryApplication extends AbstractApplication {
             throw new ProvisionException(NLS.bind(Messages.exception_notLocalFileRepo, repository.getLocation()));
 
         IFileArtifactRepository simple = (IFileArtifactRepository) repository;
+        // the checksums are calculated in parallel up front, only adding the descriptors needs the batch
+        List<File> artifactFiles = repoMap.values().stream().flatMap(Arrays::stream).map(simple::getArtifactFile)
+                .filter(Objects::nonNull).distinct().toList();
+        List<Checksums> calculatedChecksums = ParallelFileOperations.map(artifactFiles, Checksums::calculate);
+        Map<File, Checksums> artifactChecksums = new HashMap<>();
+        for (int i = 0; i < artifactFiles.size(); i++) {
+            artifactChecksums.put(artifactFiles.get(i), calculatedChecksums.get(i));
+        }
         MultiStatus multiStatus = new MultiStatus(getClass(), 0, "Problem while recreate repository");
         repository.executeBatch(m -> {
             for (IArtifactKey key : repoMap.keySet()) {
@@ -143,14 +154,12 @@ public class RecreateRepositoryApplication extends AbstractApplication {
                     newDescriptor.setProperty(IArtifactDescriptor.ARTIFACT_SIZE, size);
                     newDescriptor.setProperty(IArtifactDescriptor.DOWNLOAD_SIZE, size);
 
-                    Map<String, String> checksums = new HashMap<>();
-                    List<String> checksumsToSkip = Collections.emptyList();
-                    IStatus status = ChecksumUtilities.calculateChecksums(artifactFile, checksums, checksumsToSkip);
-                    if (!status.isOK()) {
-                        multiStatus.add(status);
+                    Checksums checksums = artifactChecksums.get(artifactFile);
+                    if (!checksums.status().isOK()) {
+                        multiStatus.add(checksums.status());
                     }
                     Map<String, String> checksumsToProperties = ChecksumUtilities
-                            .checksumsToProperties(IArtifactDescriptor.DOWNLOAD_CHECKSUM, checksums);
+                            .checksumsToProperties(IArtifactDescriptor.DOWNLOAD_CHECKSUM, checksums.values());
                     //remove checksums that are no longer marked for publishing
                     String checksumProperty = IArtifactDescriptor.DOWNLOAD_CHECKSUM + ".";
                     for (String property : newDescriptor.getProperties().keySet().toArray(String[]::new)) {
@@ -173,4 +182,14 @@ public class RecreateRepositoryApplication extends AbstractApplication {
         }, monitor);
         return multiStatus;
     }
+
+    private static record Checksums(Map<String, String> values, IStatus status) {
+
+        static Checksums calculate(File artifactFile) {
+            Map<String, String> checksums = new HashMap<>();
+            List<String> checksumsToSkip = Collections.emptyList();
+            IStatus status = ChecksumUtilities.calculateChecksums(artifactFile, checksums, checksumsToSkip);
+            return new Checksums(checksums, status);
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileChecksumsTest {
+
+    private static final String SHA256_OF_CONTENT = "ed7002b439e9ac845f22357d822bac1444730fbdb6016d3ec9432297b9ec9f73";
+    private static final String MD5_OF_CONTENT = "9a0364b9e99bb480dd25e1f0284c8555";
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testAllAlgorithmsAreComputed() throws Exception {
+        Path file = write("file.jar", "content");
+        FileChecksums checksums = new FileChecksums(null, 10);
+
+        Map<String, String> result = checksums.compute(file, List.of("sha-256", "MD5"));
+
+        assertEquals(Map.of("sha-256", SHA256_OF_CONTENT, "MD5", MD5_OF_CONTENT), result);
+    }
+
+    @Test
+    public void testSidecarIsStoredInCacheDirectoryAndReused() throws Exception {
+        File pool = tempFolder.newFolder("pool");
+        Path file = makeOld(Files.writeString(pool.toPath().resolve("file.jar"), "content"));
+        Path cacheDirectory = tempFolder.newFolder("cache").toPath();
+
+        FileChecksums checksums = new FileChecksums(cacheDirectory, 10);
+        assertEquals(SHA256_OF_CONTENT, checksums.compute(file, List.of("SHA-256")).get("SHA-256"));
+
+        // nothing is written next to the file
+        assertArrayEquals(new String[] { "file.jar" }, pool.list());
+        Path sidecar = checksums.getSidecar(file.toRealPath());
+        assertTrue(sidecar.startsWith(cacheDirectory));
+        assertTrue(Files.isRegularFile(sidecar));
+
+        // a later build reads the value from the sidecar instead of the file
+        String stored = Files.readString(sidecar).replace(SHA256_OF_CONTENT, "stored");
+        Files.writeString(sidecar, stored);
+        assertEquals("stored", new FileChecksums(cacheDirectory, 10).compute(file, List.of("SHA-256")).get("SHA-256"));
+    }
+
+    @Test
+    public void testModifiedFileIsReadAgain() throws Exception {
+        Path file = write("file.jar", "content");
+        Path cacheDirectory = tempFolder.newFolder("cache").toPath();
+        FileChecksums checksums = new FileChecksums(cacheDirectory, 10);
+        assertEquals(MD5_OF_CONTENT, checksums.compute(file, List.of("MD5")).get("MD5"));
+
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        Files.writeString(file, "changed");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified.toMillis() + 2000));
+
+        String expected = "8977dfac2f8e04cb96e66882235f5aba";
+        assertEquals(expected, checksums.compute(file, List.of("MD5")).get("MD5"));
+        assertEquals(expected, new FileChecksums(cacheDirectory, 10).compute(file, List.of("MD5")).get("MD5"));
+    }
+
+    @Test
+    public void testRecentlyModifiedFileIsNotRemembered() throws Exception {
+        Path file = Files.writeString(tempFolder.getRoot().toPath().resolve("file.jar"), "content");
+        Path cacheDirectory = tempFolder.newFolder("cache").toPath();
+        FileChecksums checksums = new FileChecksums(cacheDirectory, 10);
+        assertEquals(MD5_OF_CONTENT, checksums.compute(file, List.of("MD5")).get("MD5"));
+
+        assertEquals(0, checksums.getCachedFileCount());
+        assertFalse(Files.exists(checksums.getSidecar(file.toRealPath())));
+        // a modification within the granularity of the modification time is not noticed otherwise
+        FileTime lastModified = Files.getLastModifiedTime(file);
+        Files.writeString(file, "CONTENT");
+        Files.setLastModifiedTime(file, lastModified);
+        assertEquals("45685e95985e20822fb2538a522a5ccf", checksums.compute(file, List.of("MD5")).get("MD5"));
+    }
+
+    @Test
+    public void testNumberOfRememberedFilesIsBounded() throws Exception {
+        FileChecksums checksums = new FileChecksums(null, 10);
+        for (int i = 0; i < 50; i++) {
+            checksums.compute(write("file" + i + ".jar", "content" + i), List.of("MD5"));
+            assertTrue(checksums.getCachedFileCount() <= 10);
+        }
+    }
+
+    private Path write(String name, String content) throws Exception {
+        return makeOld(Files.writeString(tempFolder.getRoot().toPath().resolve(name), content));
+    }
+
+    /**
+     * Files modified just now are not remembered, see {@link #testRecentlyModifiedFileIsNotRemembered()}
+     */
+    private static Path makeOld(Path file) throws Exception {
+        return Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 60000));
+    }
+}
@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.ee;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.plugin.testing.SilentLog;
+import org.eclipse.tycho.core.ee.StandardExecutionEnvironment.JavaInfo;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ToolchainSystemPackagesTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testReadRunningRuntimeImage() {
+        Path javaHome = Path.of(System.getProperty("java.home"));
+
+        JavaInfo javaInfo = ToolchainSystemPackages.readRuntimeImage(javaHome, new SilentLog());
+
+        assertNotNull(javaInfo);
+        assertEquals(Runtime.version().feature(), javaInfo.version);
+        assertTrue(javaInfo.packages.contains("java.lang"));
+        assertTrue(javaInfo.packages.contains("javax.xml.parsers"));
+        assertFalse(javaInfo.packages.contains("jdk.internal.misc"));
+    }
+
+    @Test
+    public void testNoRuntimeImage() throws Exception {
+        Path javaHome = tempFolder.newFolder("jdk8").toPath();
+
+        assertNull(ToolchainSystemPackages.readRuntimeImage(javaHome, new SilentLog()));
+    }
+
+    @Test
+    public void testProbeResultIsStored() throws Exception {
+        Path javaHome = tempFolder.newFolder("jdk").toPath();
+        Files.writeString(javaHome.resolve("release"), "JAVA_VERSION=\"1.8.0_402\"\n");
+        File cacheDirectory = tempFolder.newFolder("cache");
+        AtomicInteger probes = new AtomicInteger();
+
+        JavaInfo javaInfo = ToolchainSystemPackages.getJavaInfo(javaHome, cacheDirectory, () -> {
+            probes.incrementAndGet();
+            return new JavaInfo(8, List.of("javax.xml.parsers", "org.w3c.dom"));
+        }, new SilentLog());
+        JavaInfo cached = ToolchainSystemPackages.getJavaInfo(javaHome, cacheDirectory, () -> {
+            probes.incrementAndGet();
+            return new JavaInfo(-1, List.of());
+        }, new SilentLog());
+
+        assertEquals(1, probes.get());
+        assertEquals(8, cached.version);
+        assertEquals(javaInfo.packages, cached.packages);
+        assertEquals(1, cacheDirectory.list().length);
+    }
+}
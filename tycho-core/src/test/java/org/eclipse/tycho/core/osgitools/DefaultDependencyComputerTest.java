@@ -0,0 +1,270 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.osgitools;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import org.eclipse.osgi.container.Module;
+import org.eclipse.osgi.container.Module.Settings;
+import org.eclipse.osgi.container.ModuleCollisionHook;
+import org.eclipse.osgi.container.ModuleContainer;
+import org.eclipse.osgi.container.ModuleContainerAdaptor;
+import org.eclipse.osgi.container.ModuleDatabase;
+import org.eclipse.osgi.container.ModuleRevision;
+import org.eclipse.osgi.container.ModuleWire;
+import org.eclipse.osgi.container.ModuleWiring;
+import org.eclipse.osgi.container.SystemModule;
+import org.eclipse.osgi.container.builders.OSGiManifestBuilderFactory;
+import org.eclipse.tycho.ArtifactDescriptor;
+import org.eclipse.tycho.ClasspathEntry.AccessRule;
+import org.eclipse.tycho.core.osgitools.DependencyComputer.DependencyEntry;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkListener;
+import org.osgi.framework.hooks.resolver.ResolverHook;
+import org.osgi.framework.hooks.resolver.ResolverHookFactory;
+import org.osgi.framework.wiring.BundleCapability;
+import org.osgi.framework.wiring.BundleRequirement;
+import org.osgi.framework.wiring.BundleRevision;
+
+public class DefaultDependencyComputerTest {
+
+    private ScheduledExecutorService executor;
+    private ModuleContainer container;
+    private final ArtifactDescriptor descriptor = mock(ArtifactDescriptor.class);
+
+    @Before
+    public void setUp() throws BundleException {
+        executor = Executors.newSingleThreadScheduledExecutor();
+        container = newContainer(executor);
+        container.install(null, Constants.SYSTEM_BUNDLE_LOCATION,
+                OSGiManifestBuilderFactory.createBuilder(
+                        Map.of(Constants.BUNDLE_SYMBOLICNAME, Constants.SYSTEM_BUNDLE_SYMBOLICNAME),
+                        Constants.SYSTEM_BUNDLE_SYMBOLICNAME, null, null),
+                null);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReexportedBundlesAreVisibleInDeclaredOrder() throws Exception {
+        install("e", "pkg.e", null);
+        install("d", "pkg.d", null);
+        install("c", "pkg.c", "e;visibility:=reexport");
+        install("b", "pkg.b", "d");
+        install("a", "pkg.a", "b,c;visibility:=reexport");
+        Module consumer = install("consumer", null, "a");
+        container.resolve(null, false);
+
+        List<DependencyEntry> entries = new DefaultDependencyComputer()
+                .computeDependencies(consumer.getCurrentRevision(), revision -> descriptor);
+
+        assertEquals(List.of("a", "b", "d", "c", "e"), names(entries));
+        assertEquals(Set.of(rule("pkg/a/*")), rules(entries, "a"));
+        // b is not re-exported by a, so none of its packages (and those of d) are accessible
+        assertEquals(Set.of(), rules(entries, "b"));
+        assertEquals(Set.of(), rules(entries, "d"));
+        assertEquals(Set.of(rule("pkg/c/*")), rules(entries, "c"));
+        assertEquals(Set.of(rule("pkg/e/*")), rules(entries, "e"));
+    }
+
+    @Test
+    public void testAccessRulesAreSharedBetweenProjects() throws Exception {
+        install("a", "pkg.a", null);
+        Module first = install("first", null, "a");
+        Module second = install("second", null, "a");
+        container.resolve(null, false);
+
+        ClasspathFragments fragments = new ClasspathFragments();
+        DefaultDependencyComputer computer = new DefaultDependencyComputer();
+        List<DependencyEntry> firstEntries = computer.computeDependencies(first.getCurrentRevision(),
+                revision -> descriptor, fragments);
+        List<DependencyEntry> secondEntries = computer.computeDependencies(second.getCurrentRevision(),
+                revision -> descriptor, fragments);
+
+        assertEquals(Set.of(rule("pkg/a/*")), rules(firstEntries, "a"));
+        assertSame(rules(firstEntries, "a"), rules(secondEntries, "a"));
+        // the result does not depend on sharing the rules
+        assertEquals(firstEntries, computer.computeDependencies(first.getCurrentRevision(), revision -> descriptor));
+    }
+
+    @Test
+    public void testReexportClosureOfSharedBundleIsComputedOnce() throws Exception {
+        install("t", "pkg.t", null);
+        install("s", "pkg.s", "t;visibility:=reexport");
+        install("a", "pkg.a", "s;visibility:=reexport");
+        install("b", "pkg.b", "s;visibility:=reexport");
+        Module consumer = install("consumer", null, "a,b");
+        container.resolve(null, false);
+
+        Map<String, Integer> computedClosures = new HashMap<>();
+        DefaultDependencyComputer computer = new DefaultDependencyComputer() {
+            @Override
+            Collection<ModuleWire> computeReexportClosure(ModuleWiring wiring) {
+                computedClosures.merge(wiring.getRevision().getSymbolicName(), 1, Integer::sum);
+                return super.computeReexportClosure(wiring);
+            }
+        };
+        List<DependencyEntry> entries = computer.computeDependencies(consumer.getCurrentRevision(),
+                revision -> descriptor);
+
+        assertEquals(Map.of("a", 1, "b", 1, "s", 1, "t", 1), computedClosures);
+        assertEquals(List.of("a", "s", "t", "b"), names(entries));
+        assertEquals(Set.of(rule("pkg/s/*")), rules(entries, "s"));
+        assertEquals(Set.of(rule("pkg/t/*")), rules(entries, "t"));
+        // the result does not depend on sharing the closures
+        assertEquals(entries, new DefaultDependencyComputer().computeDependencies(consumer.getCurrentRevision(),
+                revision -> descriptor));
+    }
+
+    private Module install(String symbolicName, String exportPackage, String requireBundle) throws BundleException {
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(Constants.BUNDLE_MANIFESTVERSION, "2");
+        headers.put(Constants.BUNDLE_SYMBOLICNAME, symbolicName);
+        headers.put(Constants.BUNDLE_VERSION, "1.0.0");
+        if (exportPackage != null) {
+            headers.put(Constants.EXPORT_PACKAGE, exportPackage);
+        }
+        if (requireBundle != null) {
+            headers.put(Constants.REQUIRE_BUNDLE, requireBundle);
+        }
+        return container.install(null, symbolicName, OSGiManifestBuilderFactory.createBuilder(headers),
+                new File(symbolicName));
+    }
+
+    private static AccessRule rule(String pattern) {
+        return new DefaultClasspathEntry.DefaultAccessRule(pattern, false);
+    }
+
+    private static List<String> names(List<DependencyEntry> entries) {
+        List<String> names = new ArrayList<>();
+        for (DependencyEntry entry : entries) {
+            names.add(entry.getSymbolicName());
+        }
+        return names;
+    }
+
+    private static Collection<AccessRule> rules(List<DependencyEntry> entries, String symbolicName) {
+        return entries.stream().filter(entry -> symbolicName.equals(entry.getSymbolicName())).findFirst()
+                .orElseThrow().getRules();
+    }
+
+    private static ModuleContainer newContainer(ScheduledExecutorService executor) {
+        ModuleContainer[] containerAccessor = new ModuleContainer[1];
+        ModuleContainerAdaptor adaptor = new ModuleContainerAdaptor() {
+
+            @Override
+            public void publishModuleEvent(ModuleEvent type, Module module, Module origin) {
+                // nothing to do
+            }
+
+            @Override
+            public void publishContainerEvent(ContainerEvent type, Module module, Throwable error,
+                    FrameworkListener... listeners) {
+                // nothing to do
+            }
+
+            @Override
+            public ResolverHookFactory getResolverHookFactory() {
+                return triggers -> new ResolverHook() {
+                    @Override
+                    public void filterSingletonCollisions(BundleCapability singleton,
+                            Collection<BundleCapability> collisionCandidates) {
+                        // nothing to do
+                    }
+
+                    @Override
+                    public void filterResolvable(Collection<BundleRevision> candidates) {
+                        // nothing to do
+                    }
+
+                    @Override
+                    public void filterMatches(BundleRequirement requirement, Collection<BundleCapability> candidates) {
+                        // nothing to do
+                    }
+
+                    @Override
+                    public void end() {
+                        // nothing to do
+                    }
+                };
+            }
+
+            @Override
+            public ModuleCollisionHook getModuleCollisionHook() {
+                return (operationType, target, collisionCandidates) -> {
+                    // nothing to do
+                };
+            }
+
+            @Override
+            public SystemModule createSystemModule() {
+                return new SystemModule(containerAccessor[0]) {
+                    @Override
+                    public Bundle getBundle() {
+                        return null;
+                    }
+
+                    @Override
+                    protected void cleanup(ModuleRevision revision) {
+                        // nothing to do
+                    }
+                };
+            }
+
+            @Override
+            public Module createModule(String location, long id, EnumSet<Settings> settings, int startlevel) {
+                return new Module(id, location, containerAccessor[0], settings, startlevel) {
+                    @Override
+                    public Bundle getBundle() {
+                        return null;
+                    }
+
+                    @Override
+                    protected void cleanup(ModuleRevision revision) {
+                        // nothing to do
+                    }
+                };
+            }
+
+            @Override
+            public ScheduledExecutorService getScheduledExecutor() {
+                return executor;
+            }
+        };
+        ModuleContainer container = new ModuleContainer(adaptor, new ModuleDatabase(adaptor));
+        containerAccessor[0] = container;
+        return container;
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.core.osgitools;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class JarManifestReaderTest {
+
+    private static final byte[] MANIFEST = """
+            Manifest-Version: 1.0
+            Bundle-ManifestVersion: 2
+            Bundle-SymbolicName: test.bundle
+            Bundle-Version: 1.0.0
+            """.getBytes(StandardCharsets.UTF_8);
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testDeflatedManifest() throws IOException {
+        File jar = createJar(ZipEntry.DEFLATED, true, "Comment");
+        assertArrayEquals(MANIFEST, read(jar));
+    }
+
+    @Test
+    public void testStoredManifest() throws IOException {
+        File jar = createJar(ZipEntry.STORED, true, null);
+        assertArrayEquals(MANIFEST, read(jar));
+    }
+
+    @Test
+    public void testNoManifest() throws IOException {
+        File jar = createJar(ZipEntry.DEFLATED, false, null);
+        assertNull(JarManifestReader.readManifest(jar.toPath()));
+    }
+
+    @Test
+    public void testNotAnArchive() throws IOException {
+        File file = tempFolder.newFile("invalid.jar");
+        Files.writeString(file.toPath(), "not a zip file");
+        assertThrows(IOException.class, () -> JarManifestReader.readManifest(file.toPath()));
+    }
+
+    private static byte[] read(File jar) throws IOException {
+        try (InputStream stream = JarManifestReader.readManifest(jar.toPath())) {
+            return stream.readAllBytes();
+        }
+    }
+
+    private File createJar(int method, boolean withManifest, String comment) throws IOException {
+        File jar = tempFolder.newFile();
+        try (OutputStream out = Files.newOutputStream(jar.toPath()); ZipOutputStream zip = new ZipOutputStream(out)) {
+            addEntry(zip, "META-INF/", new byte[0], ZipEntry.STORED);
+            addEntry(zip, "a/Other.class", new byte[] { 1, 2, 3 }, method);
+            if (withManifest) {
+                addEntry(zip, "META-INF/MANIFEST.MF", MANIFEST, method);
+            }
+            addEntry(zip, "z/Last.class", new byte[] { 4, 5, 6 }, method);
+            if (comment != null) {
+                zip.setComment(comment);
+            }
+        }
+        return jar;
+    }
+
+    private static void addEntry(ZipOutputStream zip, String name, byte[] content, int method) throws IOException {
+        ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(method);
+        if (method == ZipEntry.STORED) {
+            CRC32 crc = new CRC32();
+            crc.update(content);
+            entry.setCrc(crc.getValue());
+            entry.setSize(content.length);
+            entry.setCompressedSize(content.length);
+        }
+        zip.putNextEntry(entry);
+        zip.write(content);
+        zip.closeEntry();
+    }
+}
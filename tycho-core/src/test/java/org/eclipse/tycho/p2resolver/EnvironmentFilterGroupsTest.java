@@ -0,0 +1,83 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.tycho.TargetEnvironment;
+import org.eclipse.tycho.test.util.ExecutionEnvironmentTestUtils;
+import org.junit.Test;
+
+public class EnvironmentFilterGroupsTest {
+
+    private static final TargetEnvironment LINUX_X86_64 = new TargetEnvironment("linux", "gtk", "x86_64");
+    private static final TargetEnvironment LINUX_AARCH64 = new TargetEnvironment("linux", "gtk", "aarch64");
+    private static final TargetEnvironment WIN32_X86_64 = new TargetEnvironment("win32", "win32", "x86_64");
+    private static final TargetEnvironment MACOSX_X86_64 = new TargetEnvironment("macosx", "cocoa", "x86_64");
+
+    private static final List<TargetEnvironment> ENVIRONMENTS = List.of(LINUX_X86_64, LINUX_AARCH64, WIN32_X86_64,
+            MACOSX_X86_64);
+
+    @Test
+    public void testUnfilteredUnitsResolveOnce() {
+        Map<TargetEnvironment, TargetEnvironment> representatives = EnvironmentFilterGroups
+                .computeRepresentatives(ENVIRONMENTS, data(InstallableUnitUtil.createIU("unit", "1.0.0")), Set.of());
+
+        assertEquals(ENVIRONMENTS, new ArrayList<>(representatives.keySet()));
+        for (TargetEnvironment environment : ENVIRONMENTS) {
+            assertEquals(LINUX_X86_64, representatives.get(environment));
+        }
+    }
+
+    @Test
+    public void testOsFilterSeparatesEnvironments() {
+        IInstallableUnit windowsOnly = InstallableUnitUtil.createIUWithCapabilitiesAndFilter("fragment.win32", "1.0.0",
+                List.of(), "(osgi.os=win32)");
+
+        Map<TargetEnvironment, TargetEnvironment> representatives = EnvironmentFilterGroups
+                .computeRepresentatives(ENVIRONMENTS, data(windowsOnly), Set.of());
+
+        assertEquals(LINUX_X86_64, representatives.get(LINUX_X86_64));
+        assertEquals(LINUX_X86_64, representatives.get(LINUX_AARCH64));
+        assertEquals(WIN32_X86_64, representatives.get(WIN32_X86_64));
+        assertEquals(LINUX_X86_64, representatives.get(MACOSX_X86_64));
+    }
+
+    @Test
+    public void testFiltersOfAdditionalUnitsAreConsidered() {
+        IInstallableUnit aarch64Only = InstallableUnitUtil.createIUWithCapabilitiesAndFilter("fragment.aarch64",
+                "1.0.0", List.of(), "(osgi.arch=aarch64)");
+
+        Map<TargetEnvironment, TargetEnvironment> representatives = EnvironmentFilterGroups
+                .computeRepresentatives(ENVIRONMENTS, data(), Set.of(aarch64Only));
+
+        assertEquals(LINUX_X86_64, representatives.get(LINUX_X86_64));
+        assertEquals(LINUX_AARCH64, representatives.get(LINUX_AARCH64));
+        assertEquals(LINUX_X86_64, representatives.get(WIN32_X86_64));
+        assertEquals(LINUX_X86_64, representatives.get(MACOSX_X86_64));
+    }
+
+    private static ResolutionDataImpl data(IInstallableUnit... availableUnits) {
+        ResolutionDataImpl data = new ResolutionDataImpl(ExecutionEnvironmentTestUtils.NOOP_EE_RESOLUTION_HINTS);
+        data.setRootIUs(Set.of());
+        data.setAdditionalRequirements(new ArrayList<>());
+        data.setAvailableIUs(List.of(availableUnits));
+        return data;
+    }
+}
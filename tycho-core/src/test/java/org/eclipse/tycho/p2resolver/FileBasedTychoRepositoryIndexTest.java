@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Set;
+
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.p2.repository.FileBasedTychoRepositoryIndex;
+import org.eclipse.tycho.p2.repository.GAV;
+import org.eclipse.tycho.p2.repository.TychoRepositoryIndex;
+import org.eclipse.tycho.test.util.MockMavenContext;
+import org.eclipse.tycho.test.util.NoopFileLockService;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class FileBasedTychoRepositoryIndexTest {
+
+    private static final GAV GAV_1 = new GAV("group", "artifact1", "1.0.0");
+    private static final GAV GAV_2 = new GAV("group", "artifact2", "1.0.0");
+    private static final GAV GAV_3 = new GAV("group", "artifact3", "1.0.0");
+
+    @Rule
+    public final TemporaryFolder tempManager = new TemporaryFolder();
+
+    private File location;
+    private File indexFile;
+    private File journalFile;
+
+    @Before
+    public void initLocation() throws Exception {
+        location = tempManager.newFolder("repo");
+        indexFile = new File(location, FileBasedTychoRepositoryIndex.ARTIFACTS_INDEX_RELPATH);
+        journalFile = new File(indexFile.getPath() + ".journal");
+    }
+
+    @Test
+    public void testChangesAreJournaled() throws Exception {
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_1);
+        index.save();
+        List<String> initialContent = Files.readAllLines(indexFile.toPath());
+
+        index.addGav(GAV_2);
+        index.save();
+        index.removeGav(GAV_1);
+        index.save();
+
+        assertEquals(initialContent, Files.readAllLines(indexFile.toPath()));
+        assertTrue(journalFile.isFile());
+        assertEquals(Set.of(GAV_2), createIndex().getProjectGAVs());
+    }
+
+    @Test
+    public void testCompactFoldsJournalIntoIndex() throws Exception {
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_1);
+        index.save();
+        index.addGav(GAV_2);
+        index.save();
+
+        index.compact();
+
+        assertFalse(journalFile.exists());
+        assertEquals(List.of(GAV_1.toExternalForm(), GAV_2.toExternalForm()),
+                Files.readAllLines(indexFile.toPath()));
+    }
+
+    @Test
+    public void testJournalIsFoldedIntoIndexWhenRead() throws Exception {
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_1);
+        index.save();
+        // a build that was killed before it compacted only leaves the journal behind
+        index.addGav(GAV_2);
+        index.save();
+        assertTrue(journalFile.isFile());
+
+        assertEquals(Set.of(GAV_1, GAV_2), createIndex().getProjectGAVs());
+
+        assertFalse(journalFile.exists());
+        assertEquals(List.of(GAV_1.toExternalForm(), GAV_2.toExternalForm()),
+                Files.readAllLines(indexFile.toPath()));
+        // the instance that wrote the journal continues on top of the new index file
+        index.addGav(GAV_3);
+        index.save();
+        assertEquals(Set.of(GAV_1, GAV_2, GAV_3), createIndex().getProjectGAVs());
+    }
+
+    @Test
+    public void testChangesOfOtherInstancesAreMerged() throws Exception {
+        TychoRepositoryIndex index1 = createIndex();
+        index1.addGav(GAV_1);
+        index1.save();
+        TychoRepositoryIndex index2 = createIndex();
+
+        index1.addGav(GAV_2);
+        index1.save();
+        index2.addGav(GAV_3);
+        index2.save();
+        index2.compact();
+        index1.removeGav(GAV_1);
+        index1.save();
+
+        assertEquals(Set.of(GAV_2, GAV_3), createIndex().getProjectGAVs());
+    }
+
+    @Test
+    public void testIncompleteJournalLineIsDiscarded() throws Exception {
+        TychoRepositoryIndex index = createIndex();
+        index.addGav(GAV_1);
+        index.save();
+        index.addGav(GAV_2);
+        index.save();
+        Files.writeString(journalFile.toPath(), "+group:artifact3:1", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        TychoRepositoryIndex reloaded = createIndex();
+        assertEquals(Set.of(GAV_1, GAV_2), reloaded.getProjectGAVs());
+        reloaded.addGav(GAV_3);
+        reloaded.save();
+
+        assertEquals(Set.of(GAV_1, GAV_2, GAV_3), createIndex().getProjectGAVs());
+    }
+
+    private TychoRepositoryIndex createIndex() {
+        return FileBasedTychoRepositoryIndex.createArtifactsIndex(location, new NoopFileLockService(),
+                new MockMavenContext(location, mock(MavenLogger.class)));
+    }
+}
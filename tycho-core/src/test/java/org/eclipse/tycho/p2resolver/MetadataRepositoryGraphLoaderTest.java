@@ -0,0 +1,157 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.eclipse.equinox.p2.core.ProvisionException;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.CollectionResult;
+import org.eclipse.equinox.p2.repository.IRepository;
+import org.eclipse.equinox.p2.repository.IRepositoryReference;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepository;
+import org.eclipse.equinox.p2.repository.metadata.IMetadataRepositoryManager;
+import org.eclipse.tycho.core.shared.MavenLogger;
+import org.eclipse.tycho.p2resolver.MetadataRepositoryGraphLoader.LoadedRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetadataRepositoryGraphLoaderTest {
+
+    private static final URI A = URI.create("https://example.org/a");
+    private static final URI B = URI.create("https://example.org/b");
+    private static final URI C = URI.create("https://example.org/c");
+    private static final URI D = URI.create("https://example.org/d");
+    private static final URI ARTIFACTS = URI.create("https://example.org/artifacts");
+
+    private IMetadataRepositoryManager manager;
+    private MavenLogger logger;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        manager = mock(IMetadataRepositoryManager.class);
+        logger = mock(MavenLogger.class);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testReferencesAreCollectedInDeclaredOrder() throws Exception {
+        IMetadataRepository a = repository(A, metadataReference(B), metadataReference(C), artifactReference());
+        IMetadataRepository b = repository(B, metadataReference(D));
+        IMetadataRepository c = repository(C, metadataReference(D));
+        IMetadataRepository d = repository(D);
+
+        Map<URI, Boolean> artifactRepositories = new HashMap<>();
+        List<LoadedRepository> result = collect(true, artifactRepositories);
+
+        assertEquals(List.of(a, b, d, c), result.stream().map(LoadedRepository::repository).toList());
+        assertEquals(Map.of(ARTIFACTS, true), artifactRepositories);
+        // a repository referenced twice is only loaded once
+        verify(manager, times(1)).loadRepository(eq(D), any());
+    }
+
+    @Test
+    public void testReferencesAreIgnoredIfNotIncluded() throws Exception {
+        IMetadataRepository a = repository(A, metadataReference(B));
+        repository(B);
+
+        List<LoadedRepository> result = collect(false, new HashMap<>());
+
+        assertEquals(List.of(a), result.stream().map(LoadedRepository::repository).toList());
+        verify(manager, never()).loadRepository(eq(B), any());
+    }
+
+    @Test
+    public void testFailingReferenceIsLogged() throws Exception {
+        IMetadataRepository a = repository(A, metadataReference(B));
+        when(manager.loadRepository(eq(B), any())).thenThrow(new ProvisionException("no repository at b"));
+
+        List<LoadedRepository> result = collect(true, new HashMap<>());
+
+        assertEquals(List.of(a), result.stream().map(LoadedRepository::repository).toList());
+        verify(logger).warn(anyString(), any());
+    }
+
+    @Test
+    public void testFailingRepositoryIsReported() throws Exception {
+        when(manager.loadRepository(eq(A), any())).thenThrow(new ProvisionException("no repository at a"));
+
+        ProvisionException exception = assertThrows(ProvisionException.class,
+                () -> collect(true, new HashMap<>()));
+
+        assertTrue(exception.getMessage().contains("no repository at a"));
+    }
+
+    private List<LoadedRepository> collect(boolean includeReferences, Map<URI, Boolean> artifactRepositories)
+            throws ProvisionException {
+        MetadataRepositoryGraphLoader loader = new MetadataRepositoryGraphLoader(manager, executor,
+                includeReferences, logger);
+        loader.schedule(A);
+        List<LoadedRepository> result = new ArrayList<>();
+        loader.collect(A, result, new HashSet<>(), artifactRepositories);
+        return result;
+    }
+
+    private IMetadataRepository repository(URI location, IRepositoryReference... references)
+            throws ProvisionException {
+        IMetadataRepository repository = mock(IMetadataRepository.class);
+        when(repository.getLocation()).thenReturn(location);
+        when(repository.getReferences()).thenReturn(List.of(references));
+        when(repository.query(any(), any())).thenReturn(new CollectionResult<IInstallableUnit>(List.of()));
+        when(manager.loadRepository(eq(location), any())).thenReturn(repository);
+        return repository;
+    }
+
+    private static IRepositoryReference metadataReference(URI location) {
+        return reference(location, IRepository.TYPE_METADATA);
+    }
+
+    private static IRepositoryReference artifactReference() {
+        return reference(ARTIFACTS, IRepository.TYPE_ARTIFACT);
+    }
+
+    private static IRepositoryReference reference(URI location, int type) {
+        IRepositoryReference reference = mock(IRepositoryReference.class);
+        when(reference.getLocation()).thenReturn(location);
+        when(reference.getType()).thenReturn(type);
+        when(reference.isEnabled()).thenReturn(true);
+        return reference;
+    }
+
+}
@@ -172,6 +172,33 @@ public class MirroringArtifactProviderTest extends TychoPlexusTestCase {
         assertMirrored(BUNDLE_A_KEY);
     }
 
+    @Test
+    public void testGetPrefetchedArtifactFile() {
+        subject.prefetchArtifactFiles(Arrays.asList(BUNDLE_A_KEY, BUNDLE_B_KEY, OTHER_KEY));
+
+        assertEquals(new File(localRepositoryRoot, localRepoPathOf(BUNDLE_A_KEY)),
+                subject.getArtifactFile(BUNDLE_A_KEY));
+        assertEquals(new File(localRepositoryRoot, localRepoPathOf(BUNDLE_B_KEY)),
+                subject.getArtifactFile(BUNDLE_B_KEY));
+        assertNull(subject.getArtifactFile(OTHER_KEY));
+
+        assertMirrored(BUNDLE_A_KEY);
+        assertMirrored(BUNDLE_B_KEY);
+    }
+
+    @Test
+    public void testPrefetchedArtifactsAreSavedWhenAwaited() {
+        subject.prefetchArtifactFiles(Arrays.asList(BUNDLE_A_KEY, BUNDLE_B_KEY));
+
+        MirroringArtifactProvider.awaitPrefetches();
+
+        assertTrue(new File(localRepositoryRoot, localRepoPathOf(BUNDLE_A_KEY)).isFile());
+        assertTrue(new File(localRepositoryRoot, localRepoPathOf(BUNDLE_A_KEY, "-p2artifacts.xml")).isFile());
+        assertTrue(new File(localRepositoryRoot, localRepoPathOf(BUNDLE_B_KEY, "-p2artifacts.xml")).isFile());
+        assertMirrored(BUNDLE_A_KEY);
+        assertMirrored(BUNDLE_B_KEY);
+    }
+
     @Test
     public void testGetUnavailableArtifactFile() {
         assertNull(subject.getArtifactFile(OTHER_KEY));
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.MAIN_BUNDLE;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.REFERENCED_BUNDLE_V1;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.bagEquals;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.defaultEnvironments;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.definitionWith;
+import static org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.versionedIdsOf;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.eclipse.equinox.p2.core.IProvisioningAgent;
+import org.eclipse.equinox.p2.metadata.IVersionedId;
+import org.eclipse.tycho.TargetEnvironment;
+import org.eclipse.tycho.core.resolver.shared.IncludeSourceMode;
+import org.eclipse.tycho.core.resolver.shared.ReferencedRepositoryMode;
+import org.eclipse.tycho.core.shared.MavenContext;
+import org.eclipse.tycho.core.test.utils.ResourceUtil;
+import org.eclipse.tycho.p2resolver.PersistentTargetDefinitionCache.Key;
+import org.eclipse.tycho.p2resolver.TargetDefinitionResolverTest.LocationStub;
+import org.eclipse.tycho.targetplatform.TargetDefinition;
+import org.eclipse.tycho.targetplatform.TargetDefinition.Repository;
+import org.eclipse.tycho.targetplatform.TargetDefinitionContent;
+import org.eclipse.tycho.test.util.LogVerifier;
+import org.eclipse.tycho.test.util.MockMavenContext;
+import org.eclipse.tycho.testing.TychoPlexusTestCase;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class PersistentTargetDefinitionCacheTest extends TychoPlexusTestCase {
+
+    @Rule
+    public final LogVerifier logVerifier = new LogVerifier();
+
+    @Rule
+    public final TemporaryFolder tempManager = new TemporaryFolder();
+
+    private File repository;
+    private TargetDefinitionResolver resolver;
+    private PersistentTargetDefinitionCache subject;
+
+    @Before
+    public void initContext() throws Exception {
+        repository = tempManager.newFolder("repository");
+        FileUtils.copyDirectory(ResourceUtil.resourceFile("targetresolver/v1_content"), repository);
+        MavenContext mavenCtx = new MockMavenContext(tempManager.newFolder("localRepo"), logVerifier.getLogger());
+        resolver = new TargetDefinitionResolver(defaultEnvironments(),
+                ExecutionEnvironmentTestUtils.NOOP_EE_RESOLUTION_HINTS, IncludeSourceMode.honor,
+                ReferencedRepositoryMode.ignore, mavenCtx, null,
+                new DefaultTargetDefinitionVariableResolver(mavenCtx, logVerifier.getLogger()));
+        subject = new PersistentTargetDefinitionCache(tempManager.newFolder("cache"), mavenCtx.getLogger());
+    }
+
+    @Test
+    public void testStoredContentIsReused() throws Exception {
+        IProvisioningAgent agent = lookup(IProvisioningAgent.class);
+        TargetDefinition definition = definitionWith(location(MAIN_BUNDLE));
+        Key key = computeKey(definition, defaultEnvironments());
+        TargetDefinitionContent content = resolver.resolveContent(definition, agent);
+        subject.write(key, content, agent);
+
+        TargetDefinitionContent cached = subject.read(key, agent);
+
+        assertNotNull(cached);
+        assertThat(versionedIdsOf(cached), bagEquals(versionedIdsOf(content)));
+        assertNotNull(cached.getArtifactRepository());
+    }
+
+    @Test
+    public void testChangedRepositoryInvalidatesEntry() throws Exception {
+        IProvisioningAgent agent = lookup(IProvisioningAgent.class);
+        TargetDefinition definition = definitionWith(location(MAIN_BUNDLE));
+        Key key = computeKey(definition, defaultEnvironments());
+        subject.write(key, resolver.resolveContent(definition, agent), agent);
+
+        File contentXml = new File(repository, "content.xml");
+        contentXml.setLastModified(contentXml.lastModified() - 10000);
+
+        assertNull(subject.read(key, agent));
+    }
+
+    @Test
+    public void testChangedChildOfCompositeInvalidatesEntry() throws Exception {
+        File composite = tempManager.newFolder("composite");
+        Files.writeString(new File(composite, "compositeContent.xml").toPath(), """
+                <?xml version='1.0' encoding='UTF-8'?>
+                <?compositeMetadataRepository version='1.0.0'?>
+                <repository name='composite' type='org.eclipse.equinox.internal.p2.metadata.repository.CompositeMetadataRepository' version='1.0.0'>
+                  <properties size='1'>
+                    <property name='p2.timestamp' value='1'/>
+                  </properties>
+                  <children size='1'>
+                    <child location='../repository'/>
+                  </children>
+                </repository>
+                """);
+        IProvisioningAgent agent = lookup(IProvisioningAgent.class);
+        TargetDefinition definition = definitionWith(location(composite, MAIN_BUNDLE));
+        Key key = computeKey(definition, defaultEnvironments());
+        subject.write(key, resolver.resolveContent(definition, agent), agent);
+        assertNotNull(subject.read(key, agent));
+
+        // the composite itself is unchanged
+        File contentXml = new File(repository, "content.xml");
+        contentXml.setLastModified(contentXml.lastModified() - 10000);
+
+        assertNull(subject.read(key, agent));
+    }
+
+    @Test
+    public void testKeyDependsOnArguments() throws Exception {
+        TargetDefinition definition = definitionWith(location(MAIN_BUNDLE));
+        Key key = computeKey(definition, defaultEnvironments());
+
+        assertNotEquals(key.hash(),
+                computeKey(definitionWith(location(REFERENCED_BUNDLE_V1)), defaultEnvironments()).hash());
+        assertNotEquals(key.hash(),
+                computeKey(definition, List.of(new TargetEnvironment("linux", "gtk", "x86_64"))).hash());
+    }
+
+    private static Key computeKey(TargetDefinition definition, List<TargetEnvironment> environments) {
+        return PersistentTargetDefinitionCache.computeKey(definition, environments,
+                ExecutionEnvironmentTestUtils.NOOP_EE_RESOLUTION_HINTS, IncludeSourceMode.honor,
+                ReferencedRepositoryMode.ignore, raw -> raw);
+    }
+
+    private LocationStub location(IVersionedId... seedUnits) {
+        return location(repository, seedUnits);
+    }
+
+    private static LocationStub location(File repository, IVersionedId... seedUnits) {
+        String location = repository.toURI().toString();
+        return new LocationStub(seedUnits) {
+            @Override
+            public List<? extends Repository> getRepositories() {
+                return List.of(new Repository() {
+
+                    @Override
+                    public String getLocation() {
+                        return location;
+                    }
+
+                    @Override
+                    public String getId() {
+                        return null;
+                    }
+                });
+            }
+        };
+    }
+}
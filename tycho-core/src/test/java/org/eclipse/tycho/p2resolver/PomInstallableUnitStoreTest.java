@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.p2resolver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.eclipse.equinox.p2.metadata.IInstallableUnit;
+import org.eclipse.equinox.p2.query.QueryUtil;
+import org.eclipse.tycho.IArtifactFacade;
+import org.eclipse.tycho.ReactorProject;
+import org.eclipse.tycho.core.TargetPlatformConfiguration;
+import org.eclipse.tycho.core.TychoProject;
+import org.eclipse.tycho.core.resolver.shared.PomDependencies;
+import org.eclipse.tycho.p2maven.InstallableUnitGenerator;
+import org.eclipse.tycho.p2resolver.PomInstallableUnitStore.PomDependency;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PomInstallableUnitStoreTest {
+
+    private final IInstallableUnit unit = InstallableUnitUtil.createIU("pom.unit", "1.0.0");
+    private PomInstallableUnitStore store;
+
+    @Before
+    public void setUp() {
+        Artifact artifact = new DefaultArtifact("group", "artifact", "1.0.0", Artifact.SCOPE_COMPILE, "jar", null,
+                new DefaultArtifactHandler("jar"));
+        artifact.setFile(new File("artifact.jar"));
+        ReactorProject reactorProject = mock(ReactorProject.class);
+        TychoProject tychoProject = mock(TychoProject.class);
+        when(tychoProject.getInitialArtifacts(reactorProject, List.of(Artifact.SCOPE_TEST)))
+                .thenReturn(List.of(artifact));
+        when(tychoProject.getArtifactFacades(any(), any()))
+                .thenReturn(Map.of(artifact, mock(IArtifactFacade.class)));
+        InstallableUnitGenerator generator = mock(InstallableUnitGenerator.class);
+        when(generator.getInstallableUnits(artifact)).thenReturn(List.of(unit));
+        TargetPlatformConfiguration configuration = mock(TargetPlatformConfiguration.class);
+        when(configuration.getPomDependencies()).thenReturn(PomDependencies.consider);
+        when(configuration.isExcluded(anyString(), anyString())).thenReturn(false);
+        store = new PomInstallableUnitStore(tychoProject, reactorProject, generator, null,
+                new ConsoleLogger(Logger.LEVEL_DISABLED, "no-op logger"), configuration);
+    }
+
+    @Test
+    public void testUnitsAreOnlyLoadedWhenQueried() {
+        assertEquals(Optional.empty(), store.getLoadedInstallableUnits());
+
+        assertEquals(Set.of(unit), store.query(QueryUtil.ALL_UNITS, null).toUnmodifiableSet());
+
+        assertEquals(Optional.of(List.of(unit)), store.getLoadedInstallableUnits());
+    }
+
+    @Test
+    public void testConsumersDoNotBlockQueries() throws Exception {
+        CountDownLatch consumerCalled = new CountDownLatch(1);
+        CountDownLatch releaseConsumer = new CountDownLatch(1);
+        List<PomDependency> consumed = new CopyOnWriteArrayList<>();
+        store.addPomDependencyConsumer(dependency -> {
+            consumed.add(dependency);
+            consumerCalled.countDown();
+            try {
+                releaseConsumer.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        CompletableFuture<?> firstQuery = CompletableFuture.runAsync(() -> store.query(QueryUtil.ALL_UNITS, null));
+        try {
+            assertTrue(consumerCalled.await(10, TimeUnit.SECONDS));
+            // the consumer is still running, but does not hold the store
+            CompletableFuture.runAsync(() -> store.query(QueryUtil.ALL_UNITS, null)).get(10, TimeUnit.SECONDS);
+        } finally {
+            releaseConsumer.countDown();
+        }
+        firstQuery.get(10, TimeUnit.SECONDS);
+
+        assertEquals(1, consumed.size());
+        assertEquals(List.of(unit), List.copyOf(consumed.get(0).installableUnit()));
+        // consumers added later get the dependencies gathered so far
+        List<PomDependency> consumedLater = new CopyOnWriteArrayList<>();
+        store.addPomDependencyConsumer(consumedLater::add);
+        assertEquals(consumed, consumedLater);
+    }
+}
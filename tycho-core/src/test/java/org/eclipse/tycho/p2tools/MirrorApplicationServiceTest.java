@@ -14,10 +14,16 @@ package org.eclipse.tycho.p2tools;
 
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -25,9 +31,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import javax.xml.parsers.DocumentBuilderFactory;
 
+import org.apache.commons.io.FileUtils;
+import org.eclipse.core.runtime.IStatus;
 import org.eclipse.equinox.p2.core.IProvisioningAgent;
 import org.eclipse.equinox.p2.metadata.IInstallableUnit;
 import org.eclipse.equinox.p2.metadata.IRequirement;
@@ -65,6 +74,9 @@ public class MirrorApplicationServiceTest extends TychoPlexusTestCase {
     private static final String FEATURE_PATCH = "org.eclipse.example.feature_patch";
     private static final VersionedId FEATURE_PATCH_IU = new VersionedId(FEATURE_PATCH + ".feature.group", "1.0.0");
 
+    // the only artifact of the e342 repository
+    private static final String RUNTIME_JAR = "plugins/org.eclipse.core.runtime_3.4.0.v20080512.jar";
+
     private static final String DEFAULT_NAME = "dummy";
     private static final String DEFAULT_QUALIFIER = null;
     private static final List<TargetEnvironment> DEFAULT_ENVIRONMENTS = Collections
@@ -196,6 +208,112 @@ public class MirrorApplicationServiceTest extends TychoPlexusTestCase {
         assertTrue(repoFile(destinationRepo, "plugins/org.eclipse.core.runtime_3.4.0.v20080512.jar").exists());
     }
 
+    @Test
+    public void testLocalArtifactsAreLinked() throws Exception {
+        File source = copyRepository("e342");
+        subject.artifactFileTransfer = TychoMirrorApplication.LINK;
+
+        mirrorRuntime(source);
+
+        assertTrue(Files.isSameFile(new File(source, RUNTIME_JAR).toPath(),
+                repoFile(destinationRepo, RUNTIME_JAR).toPath()));
+    }
+
+    @Test
+    public void testLocalArtifactsAreCopiedIfLinkIsNotPossible() throws Exception {
+        File source = copyRepository("e342");
+        // a stale file of an earlier build prevents the link
+        Path target = repoFile(destinationRepo, RUNTIME_JAR).toPath();
+        Files.createDirectories(target.getParent());
+        Files.writeString(target, "stale");
+        subject.artifactFileTransfer = TychoMirrorApplication.LINK;
+
+        mirrorRuntime(source);
+
+        Path sourceFile = new File(source, RUNTIME_JAR).toPath();
+        assertFalse(Files.isSameFile(sourceFile, target));
+        assertArrayEquals(Files.readAllBytes(sourceFile), Files.readAllBytes(target));
+    }
+
+    @Test
+    public void testFailedTransferIsMirrored() throws Exception {
+        File source = copyRepository("e342");
+        subject.artifactFileTransfer = (sourceFile, target) -> {
+            Files.writeString(target, "partial");
+            throw new IOException("transfer failed");
+        };
+
+        mirrorRuntime(source);
+
+        assertArrayEquals(Files.readAllBytes(new File(source, RUNTIME_JAR).toPath()),
+                Files.readAllBytes(repoFile(destinationRepo, RUNTIME_JAR).toPath()));
+    }
+
+    @Test
+    public void testArtifactWithProcessingStepsIsMirrored() throws Exception {
+        File source = copyRepository("e342");
+        Path artifactsXml = new File(source, "artifacts.xml").toPath();
+        String artifacts = Files.readString(artifactsXml, StandardCharsets.UTF_8);
+        // p2 only knows the location of a processed artifact if it is referenced explicitly
+        artifacts = artifacts.replace("<properties size='3'>", "<processing size='1'>\n"
+                + "        <step id='org.example.SomeProcessingStep' required='false'/>\n" //
+                + "      </processing>\n" //
+                + "      <repositoryProperties size='1'>\n" //
+                + "        <property name='artifact.reference' value='" + new File(source, RUNTIME_JAR).toURI()
+                + "'/>\n" //
+                + "      </repositoryProperties>\n" //
+                + "      <properties size='3'>");
+        Files.writeString(artifactsXml, artifacts, StandardCharsets.UTF_8);
+        List<Path> transferred = new CopyOnWriteArrayList<>();
+        subject.artifactFileTransfer = (sourceFile, target) -> {
+            transferred.add(sourceFile);
+            TychoMirrorApplication.COPY.transfer(sourceFile, target);
+        };
+
+        mirrorRuntime(source);
+
+        // the mirroring keeps the artifact in its processed form
+        assertEquals(List.of(), transferred);
+        assertFalse(repoFile(destinationRepo, RUNTIME_JAR).exists());
+    }
+
+    @Test
+    public void testValidatedArtifactsAreMirrored() throws Exception {
+        File source = copyRepository("e342");
+        List<Path> transferred = new CopyOnWriteArrayList<>();
+        subject.artifactFileTransfer = (sourceFile, target) -> {
+            transferred.add(sourceFile);
+            TychoMirrorApplication.COPY.transfer(sourceFile, target);
+        };
+        RepositoryReferences sources = new RepositoryReferences();
+        sources.addMetadataRepository(source);
+        sources.addArtifactRepository(source);
+        TychoMirrorApplication mirrorApp = subject.createMirrorApplication(sources, destinationRepo);
+        mirrorApp.setValidate(true);
+
+        IStatus status = mirrorApp.run(null);
+
+        assertTrue(status.toString(), status.isOK());
+        assertEquals(List.of(), transferred);
+        assertTrue(repoFile(destinationRepo, RUNTIME_JAR).exists());
+    }
+
+    private void mirrorRuntime(File sourceRepository) throws Exception {
+        RepositoryReferences sources = new RepositoryReferences();
+        sources.addMetadataRepository(sourceRepository);
+        sources.addArtifactRepository(sourceRepository);
+        List<DependencySeed> seeds = Collections
+                .singletonList(new DependencySeed(null, "org.eclipse.core.runtime", null));
+        subject.mirrorReactor(sources, destinationRepo, seeds, context, false, false, false, false, false, false,
+                null);
+    }
+
+    private File copyRepository(String repoId) throws IOException {
+        File copy = tempFolder.newFolder("source-" + repoId);
+        FileUtils.copyDirectory(ResourceUtil.resourceFile("repositories/" + repoId), copy);
+        return copy;
+    }
+
     public static RepositoryReferences sourceRepos(String... repoIds) {
         RepositoryReferences result = new RepositoryReferences();
         for (String repoId : repoIds) {
@@ -31,6 +31,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -65,11 +66,14 @@ public abstract class AbstractTychoMapping implements Mapping, ModelReader {
     // All build.properties entries specifically considered by Tycho. Extends the list in Mapping interface
     protected static final String TYCHO_POMLESS_PARENT_PROPERTY = "tycho.pomless.parent";
     protected static final String TYCHO_POMLESS_AGGREGATOR_NAMES_PROPERTY = "tycho.pomless.aggregator.names";
+    protected static final String TYCHO_POMLESS_CACHE_PROPERTY = "tycho.pomless.cache";
 
     private static final String PARENT_POM_DEFAULT_VALUE = System.getProperty(TYCHO_POMLESS_PARENT_PROPERTY, "..");
     private static final String QUALIFIER_SUFFIX = ".qualifier";
+    private static final PersistentModelCache MODEL_CACHE = createModelCache();
 
-    private Map<Path, ParentModel> parentModelCache = new HashMap<Path, ParentModel>();
+    private final Map<Path, ParentModel> parentModelCache = new ConcurrentHashMap<>();
+    private final Map<Path, PersistentModelCache.Inputs> parentModelInputs = new ConcurrentHashMap<>();
 
     @Inject
     protected PlexusContainer container;
@@ -77,7 +81,7 @@ public abstract class AbstractTychoMapping implements Mapping, ModelReader {
     @Inject
     protected Logger logger;
 
-    private ModelWriter writer;
+    private volatile ModelWriter writer;
     private boolean extensionMode;
     @SuppressWarnings("unused")
     private File multiModuleProjectDirectory;
@@ -132,10 +136,37 @@ public abstract class AbstractTychoMapping implements Mapping, ModelReader {
     @Override
     public Model read(File inputFile, Map<String, ?> options) throws IOException {
         Path input = inputFile.toPath();
+        if (MODEL_CACHE == null || !isModelCacheable()) {
+            return readFile(input, options);
+        }
+        String key = getClass().getName() + ":" + input.toAbsolutePath().normalize();
+        String configuration = getPackaging() + ";extensionMode=" + extensionMode + ";snapshotProperty="
+                + snapshotProperty + ";parent=" + PARENT_POM_DEFAULT_VALUE;
+        PersistentModelCache.Entry cached = MODEL_CACHE.read(key, configuration);
+        if (cached != null) {
+            PersistentModelCache.recordInputs(cached.inputs());
+            Model model = cached.model();
+            setLocation(model, getRealArtifactFile(input));
+            return model;
+        }
+        PersistentModelCache.Inputs inputs = new PersistentModelCache.Inputs();
+        Model model = PersistentModelCache.recordInputs(inputs, () -> readFile(input, options));
+        if (inputs.isComplete()) {
+            try {
+                MODEL_CACHE.write(key, configuration, inputs, model);
+            } catch (IOException e) {
+                logger.debug("Can't store model of " + input + " in cache: " + e);
+            }
+        }
+        return model;
+    }
+
+    private Model readFile(Path input, Map<String, ?> options) throws IOException {
         Path artifactFile = getRealArtifactFile(input);
         if (Files.isDirectory(artifactFile)) {
             return read(new StringReader(""), input, options);
         } else if (Files.isRegularFile(artifactFile)) {
+            PersistentModelCache.recordInput(artifactFile);
             try (Reader stream = Files.newBufferedReader(artifactFile, getPrimaryArtifactCharset())) {
                 return read(stream, input, options);
             }
@@ -178,18 +209,29 @@ public abstract class AbstractTychoMapping implements Mapping, ModelReader {
         return polyglotArtifactFile;
     }
 
-    protected synchronized ParentModel findParent(Path projectRootIn, Map<String, ?> projectOptions)
-            throws IOException {
+    protected ParentModel findParent(Path projectRootIn, Map<String, ?> projectOptions) throws IOException {
         var projectRoot = projectRootIn.normalize();
         ParentModel cached = parentModelCache.get(projectRoot);
         if (cached != null) {
+            PersistentModelCache.Inputs inputs = parentModelInputs.get(projectRoot);
+            if (inputs != null) {
+                PersistentModelCache.recordInputs(inputs);
+            } else {
+                PersistentModelCache.recordUnknownInputs();
+            }
             return cached;
         }
-        Properties buildProperties = getBuildProperties(projectRoot);
-        // assumption parent pom must be physically located in parent directory if not given by build.properties
-        String parentRef = buildProperties.getProperty(TYCHO_POMLESS_PARENT_PROPERTY, PARENT_POM_DEFAULT_VALUE);
-        Path fileOrFolder = projectRoot.resolve(parentRef).toRealPath();
-        return loadParent(projectRoot, fileOrFolder);
+        // the same parent might be loaded concurrently by different threads, this does no harm
+        PersistentModelCache.Inputs inputs = new PersistentModelCache.Inputs();
+        ParentModel parent = PersistentModelCache.recordInputs(inputs, () -> {
+            Properties buildProperties = getBuildProperties(projectRoot);
+            // assumption parent pom must be physically located in parent directory if not given by build.properties
+            String parentRef = buildProperties.getProperty(TYCHO_POMLESS_PARENT_PROPERTY, PARENT_POM_DEFAULT_VALUE);
+            Path fileOrFolder = projectRoot.resolve(parentRef).toRealPath();
+            return loadParent(projectRoot, fileOrFolder);
+        });
+        parentModelInputs.put(projectRoot, inputs);
+        return parent;
     }
 
     protected ParentModel loadParent(Path projectRoot, Path fileOrFolder) throws NoParentPomFound, IOException {
@@ -204,6 +246,7 @@ public abstract class AbstractTychoMapping implements Mapping, ModelReader {
         if (parentPom == null) {
             throw new NoParentPomFound(fileOrFolder);
         }
+        PersistentModelCache.recordInput(parentPom.getPomFile().toPath());
         Map<String, Object> options = new HashMap<>(1);
         options.put(ModelProcessor.SOURCE, new FileModelSource(parentPom.getPomFile()));
         Model parentModel = parentPom.getReader().read(parentPom.getPomFile(), options);
@@ -279,6 +322,30 @@ public abstract class AbstractTychoMapping implements Mapping, ModelReader {
         return StandardCharsets.UTF_8;
     }
 
+    /**
+     * Returns whether models of this mapping can be stored in the persistent model cache (enabled
+     * by the <code>tycho.pomless.cache</code> system property). This requires that all files that
+     * influence the model are recorded with {@link #recordInput(Path)} (files read with
+     * {@link #loadProperties(Path)}, the artifact file and the parent poms are recorded
+     * automatically).
+     *
+     * @return <code>true</code> if the models can be cached, default is <code>false</code>
+     */
+    protected boolean isModelCacheable() {
+        return false;
+    }
+
+    /**
+     * Records that the given file (which might not exist) influences the model that is currently
+     * created, see {@link #isModelCacheable()}
+     *
+     * @param file
+     *            the file
+     */
+    protected static void recordInput(Path file) {
+        PersistentModelCache.recordInput(file);
+    }
+
     protected abstract void initModel(Model model, Reader artifactReader, Path artifactFile) throws IOException;
 
     protected static Properties getBuildProperties(Path dir) throws IOException {
@@ -286,6 +353,7 @@ public abstract class AbstractTychoMapping implements Mapping, ModelReader {
     }
 
     static Properties loadProperties(Path propertiesPath) throws IOException {
+        PersistentModelCache.recordInput(propertiesPath);
         Properties properties = new Properties();
         if (Files.isRegularFile(propertiesPath)) {
             try (InputStream stream = Files.newInputStream(propertiesPath)) {
@@ -409,6 +477,14 @@ public abstract class AbstractTychoMapping implements Mapping, ModelReader {
         this.snapshotProperty = snapshotFormat;
     }
 
+    private static PersistentModelCache createModelCache() {
+        String directory = System.getProperty(TYCHO_POMLESS_CACHE_PROPERTY);
+        if (directory == null || directory.isBlank()) {
+            return null;
+        }
+        return new PersistentModelCache(Path.of(directory));
+    }
+
     static Optional<Path> getLocation(Map<String, ?> options) {
         String location = PolyglotModelUtil.getLocation(options);
         if (location != null) {
@@ -52,7 +52,11 @@ public abstract class AbstractXMLTychoMapping extends AbstractTychoMapping {
 
     protected static Element parseXML(Reader artifactReader, String documentURI) throws IOException {
         try {
-            DocumentBuilder parser = FACTORY.newDocumentBuilder();
+            DocumentBuilder parser;
+            synchronized (FACTORY) {
+                // factories are not required to be thread-safe
+                parser = FACTORY.newDocumentBuilder();
+            }
             Document doc = parser.parse(new InputSource(artifactReader));
             if (documentURI != null) {
                 doc.setDocumentURI(documentURI);
@@ -0,0 +1,281 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.pomless;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.Properties;
+import java.util.Set;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.model.io.xpp3.MavenXpp3Writer;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+
+/**
+ * Stores synthesized models on disk together with the content hashes of all files that were read
+ * to create them. An entry is only used as long as all of these files (including the parent poms)
+ * are unchanged and the model was created with the same configuration by the same Tycho version.
+ * <p>
+ * The files a model depends on are collected while it is created: all reads of a mapping that
+ * influence the model must call {@link #recordInput(Path)}.
+ */
+final class PersistentModelCache {
+
+    private static final String TYCHO_VERSION = "tychoVersion";
+    private static final String CONFIGURATION = "configuration";
+    private static final String INPUT = "input.";
+    private static final String HASH = "hash.";
+    private static final String MODEL = "model";
+    private static final String ABSENT = "-";
+
+    private static final ThreadLocal<Inputs> RECORDED_INPUTS = new ThreadLocal<>();
+
+    private static final String CURRENT_TYCHO_VERSION = readTychoVersion();
+
+    interface ModelSupplier<T> {
+        T get() throws IOException;
+    }
+
+    /**
+     * The files some information was derived from
+     */
+    static final class Inputs {
+
+        private final Set<Path> files = new LinkedHashSet<>();
+        private boolean complete = true;
+
+        private void add(Inputs other) {
+            files.addAll(other.files);
+            complete &= other.complete;
+        }
+
+        boolean isComplete() {
+            return complete;
+        }
+
+        Collection<Path> getFiles() {
+            return files;
+        }
+    }
+
+    /**
+     * A cached model together with the files it depends on
+     */
+    record Entry(Model model, Inputs inputs) {
+    }
+
+    private final Path directory;
+    private final String tychoVersion;
+
+    PersistentModelCache(Path directory) {
+        this(directory, CURRENT_TYCHO_VERSION);
+    }
+
+    /**
+     * @param directory
+     *            the directory to store the models in
+     * @param tychoVersion
+     *            the version of Tycho, models created by other versions are not used
+     */
+    PersistentModelCache(Path directory, String tychoVersion) {
+        this.directory = directory;
+        this.tychoVersion = tychoVersion;
+    }
+
+    /**
+     * Reads a model from the cache
+     *
+     * @param key
+     *            the key of the model (e.g. the location of the artifact file)
+     * @param configuration
+     *            the configuration of the mapping that must match the one used to create the
+     *            model
+     * @return the cached model or <code>null</code> if there is no entry or any of its inputs has
+     *         changed
+     */
+    Entry read(String key, String configuration) {
+        Path file = getFile(key);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream stream = Files.newInputStream(file)) {
+            properties.load(stream);
+        } catch (IOException e) {
+            return null;
+        }
+        if (!tychoVersion.equals(properties.getProperty(TYCHO_VERSION))
+                || !configuration.equals(properties.getProperty(CONFIGURATION))) {
+            return null;
+        }
+        Inputs inputs = new Inputs();
+        for (int i = 0; properties.containsKey(INPUT + i); i++) {
+            Path input = Path.of(properties.getProperty(INPUT + i));
+            if (!hash(input).equals(properties.getProperty(HASH + i))) {
+                return null;
+            }
+            inputs.files.add(input);
+        }
+        String model = properties.getProperty(MODEL);
+        if (model == null) {
+            return null;
+        }
+        try {
+            return new Entry(new MavenXpp3Reader().read(new StringReader(model), false), inputs);
+        } catch (IOException | XmlPullParserException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Stores a model in the cache
+     *
+     * @param key
+     *            the key of the model
+     * @param configuration
+     *            the configuration of the mapping used to create the model
+     * @param inputs
+     *            the files that were read to create the model
+     * @param model
+     *            the model
+     */
+    void write(String key, String configuration, Inputs inputs, Model model) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(TYCHO_VERSION, tychoVersion);
+        properties.setProperty(CONFIGURATION, configuration);
+        int i = 0;
+        for (Path input : inputs.files) {
+            properties.setProperty(INPUT + i, input.toString());
+            properties.setProperty(HASH + i, hash(input));
+            i++;
+        }
+        StringWriter xml = new StringWriter();
+        new MavenXpp3Writer().write(xml, model);
+        properties.setProperty(MODEL, xml.toString());
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, "model", ".tmp");
+        try {
+            try (OutputStream stream = Files.newOutputStream(tempFile)) {
+                properties.store(stream, key);
+            }
+            Files.move(tempFile, getFile(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private Path getFile(String key) {
+        return directory.resolve(sha256(key.getBytes(StandardCharsets.UTF_8)) + ".properties");
+    }
+
+    /**
+     * Runs the given supplier and collects all inputs recorded by it, the inputs are also recorded
+     * for the caller (if it records inputs itself).
+     *
+     * @param inputs
+     *            collects the inputs
+     * @param supplier
+     *            the supplier to run
+     * @return the value of the supplier
+     */
+    static <T> T recordInputs(Inputs inputs, ModelSupplier<T> supplier) throws IOException {
+        Inputs outer = RECORDED_INPUTS.get();
+        RECORDED_INPUTS.set(inputs);
+        try {
+            return supplier.get();
+        } finally {
+            RECORDED_INPUTS.set(outer);
+            if (outer != null) {
+                outer.add(inputs);
+            }
+        }
+    }
+
+    /**
+     * Records that the given file (which might not exist) was read by the current thread
+     *
+     * @param file
+     *            the file
+     */
+    static void recordInput(Path file) {
+        Inputs inputs = RECORDED_INPUTS.get();
+        if (inputs != null) {
+            inputs.files.add(file.toAbsolutePath().normalize());
+        }
+    }
+
+    /**
+     * Records all given inputs, see {@link #recordInput(Path)}
+     */
+    static void recordInputs(Inputs other) {
+        Inputs inputs = RECORDED_INPUTS.get();
+        if (inputs != null) {
+            inputs.add(other);
+        }
+    }
+
+    /**
+     * Records that the current thread used information whose inputs are not known, so the result
+     * must not be cached.
+     */
+    static void recordUnknownInputs() {
+        Inputs inputs = RECORDED_INPUTS.get();
+        if (inputs != null) {
+            inputs.complete = false;
+        }
+    }
+
+    private static String hash(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Files.isDirectory(file) ? "d" : ABSENT;
+        }
+        try {
+            return sha256(Files.readAllBytes(file));
+        } catch (IOException e) {
+            return ABSENT;
+        }
+    }
+
+    private static String readTychoVersion() {
+        Properties properties = new Properties();
+        try (InputStream stream = PersistentModelCache.class.getResourceAsStream("version.properties")) {
+            if (stream != null) {
+                properties.load(stream);
+            }
+        } catch (IOException e) {
+            // use the fallback
+        }
+        return properties.getProperty("version", "unknown");
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
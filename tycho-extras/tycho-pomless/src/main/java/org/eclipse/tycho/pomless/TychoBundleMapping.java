@@ -67,6 +67,11 @@ public class TychoBundleMapping extends AbstractTychoMapping {
         return 40;
     }
 
+    @Override
+    protected boolean isModelCacheable() {
+        return true;
+    }
+
     @Override
     protected boolean isValidLocation(Path polyglotFile) {
         String fileName = getFileName(polyglotFile);
@@ -123,13 +128,15 @@ public class TychoBundleMapping extends AbstractTychoMapping {
             model.setDescription(description);
         }
         Path bndFile = bundleRoot.resolve("bnd.bnd");
+        recordInput(bndFile);
         if (Files.isRegularFile(bndFile)) {
             createBndPlugin(model);
         }
         List<SourceFolderClasspathEntry> sourceFolders = new ArrayList<SourceFolderClasspathEntry>(1);
         List<SourceFolderClasspathEntry> testSourceFolders = new ArrayList<SourceFolderClasspathEntry>(1);
-        for (ProjectClasspathEntry entry : ClasspathParser
-                .parse(bundleRoot.resolve(ClasspathParser.CLASSPATH_FILENAME).toFile())) {
+        Path classpathFile = bundleRoot.resolve(ClasspathParser.CLASSPATH_FILENAME);
+        recordInput(classpathFile);
+        for (ProjectClasspathEntry entry : ClasspathParser.parse(classpathFile.toFile())) {
             if (entry instanceof SourceFolderClasspathEntry source) {
                 if (source.isTest()) {
                     testSourceFolders.add(source);
@@ -217,6 +224,7 @@ public class TychoBundleMapping extends AbstractTychoMapping {
     }
 
     private Attributes readManifestHeaders(Path manifestFile) throws IOException {
+        recordInput(manifestFile);
         Manifest manifest = new Manifest();
         try (InputStream stream = Files.newInputStream(manifestFile)) {
             if (getFileName(manifestFile).equals(PDE_BND)) {
@@ -47,6 +47,11 @@ public class TychoFeatureMapping extends AbstractXMLTychoMapping {
         return 30;
     }
 
+    @Override
+    protected boolean isModelCacheable() {
+        return true;
+    }
+
     @Override
     protected void initModelFromXML(Model model, Element xml, Path artifactFile) throws IOException {
         model.setArtifactId(getRequiredXMLAttributeValue(xml, "id"));
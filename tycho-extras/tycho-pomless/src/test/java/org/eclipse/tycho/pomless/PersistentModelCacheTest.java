@@ -0,0 +1,121 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.pomless;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Parent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class PersistentModelCacheTest {
+
+    private static final String KEY = "bundle:/project/META-INF";
+    private static final String CONFIGURATION = "eclipse-plugin";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testModelIsReusedWhileInputsAreUnchanged() throws Exception {
+        Path manifest = Files.writeString(tempDir.resolve("MANIFEST.MF"), "Bundle-SymbolicName: bundle\n");
+        Path parentPom = Files.writeString(tempDir.resolve("pom.xml"), "<project/>");
+        PersistentModelCache cache = new PersistentModelCache(tempDir.resolve("cache"));
+
+        PersistentModelCache.Inputs inputs = recordAndWrite(cache, manifest, parentPom,
+                tempDir.resolve("build.properties"));
+
+        PersistentModelCache.Entry entry = cache.read(KEY, CONFIGURATION);
+        assertNotNull(entry);
+        assertEquals("bundle", entry.model().getArtifactId());
+        assertEquals("parent", entry.model().getParent().getArtifactId());
+        assertEquals(inputs.getFiles().size(), entry.inputs().getFiles().size());
+        assertNull(cache.read(KEY, "eclipse-test-plugin"));
+    }
+
+    @Test
+    public void testChangedInputInvalidatesModel() throws Exception {
+        Path manifest = Files.writeString(tempDir.resolve("MANIFEST.MF"), "Bundle-SymbolicName: bundle\n");
+        Path parentPom = Files.writeString(tempDir.resolve("pom.xml"), "<project/>");
+        Path buildProperties = tempDir.resolve("build.properties");
+        PersistentModelCache cache = new PersistentModelCache(tempDir.resolve("cache"));
+        recordAndWrite(cache, manifest, parentPom, buildProperties);
+
+        Files.writeString(parentPom, "<project><version>2</version></project>");
+        assertNull(cache.read(KEY, CONFIGURATION));
+
+        recordAndWrite(cache, manifest, parentPom, buildProperties);
+        assertNotNull(cache.read(KEY, CONFIGURATION));
+        Files.writeString(buildProperties, "bin.includes = .");
+        assertNull(cache.read(KEY, CONFIGURATION));
+    }
+
+    @Test
+    public void testModelOfOtherTychoVersionIsNotUsed() throws Exception {
+        Path manifest = Files.writeString(tempDir.resolve("MANIFEST.MF"), "Bundle-SymbolicName: bundle\n");
+        Path cacheDirectory = tempDir.resolve("cache");
+        recordAndWrite(new PersistentModelCache(cacheDirectory, "5.0.0"), manifest);
+
+        assertNotNull(new PersistentModelCache(cacheDirectory, "5.0.0").read(KEY, CONFIGURATION));
+        assertNull(new PersistentModelCache(cacheDirectory, "5.0.1").read(KEY, CONFIGURATION));
+    }
+
+    @Test
+    public void testNestedRecordingIsPropagated() throws Exception {
+        Path manifest = tempDir.resolve("MANIFEST.MF");
+        Path parentPom = tempDir.resolve("pom.xml");
+        PersistentModelCache.Inputs outer = new PersistentModelCache.Inputs();
+        PersistentModelCache.Inputs inner = new PersistentModelCache.Inputs();
+        PersistentModelCache.recordInputs(outer, () -> {
+            PersistentModelCache.recordInput(manifest);
+            return PersistentModelCache.recordInputs(inner, () -> {
+                PersistentModelCache.recordInput(parentPom);
+                PersistentModelCache.recordUnknownInputs();
+                return null;
+            });
+        });
+        assertEquals(1, inner.getFiles().size());
+        assertEquals(2, outer.getFiles().size());
+        assertFalse(outer.isComplete());
+        assertTrue(new PersistentModelCache.Inputs().isComplete());
+    }
+
+    private static PersistentModelCache.Inputs recordAndWrite(PersistentModelCache cache, Path... files)
+            throws Exception {
+        PersistentModelCache.Inputs inputs = new PersistentModelCache.Inputs();
+        Model model = PersistentModelCache.recordInputs(inputs, () -> {
+            for (Path file : files) {
+                PersistentModelCache.recordInput(file);
+            }
+            Model m = new Model();
+            m.setModelVersion("4.0.0");
+            m.setArtifactId("bundle");
+            Parent parent = new Parent();
+            parent.setGroupId("group");
+            parent.setArtifactId("parent");
+            parent.setVersion("1.0.0");
+            m.setParent(parent);
+            return m;
+        });
+        cache.write(KEY, CONFIGURATION, inputs, model);
+        return inputs;
+    }
+}
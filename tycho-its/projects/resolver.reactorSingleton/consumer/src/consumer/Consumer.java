@@ -0,0 +1,14 @@
+package consumer;
+
+import singleton.api.Api;
+
+/**
+ * Only compiles if the reactor bundle overrides the singleton of the target platform and is
+ * re-exported by the target platform bundle
+ */
+public class Consumer {
+
+	public String name() {
+		return Api.name();
+	}
+}
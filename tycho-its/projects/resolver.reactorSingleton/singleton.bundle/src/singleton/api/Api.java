@@ -0,0 +1,8 @@
+package singleton.api;
+
+public class Api {
+
+	public static String name() {
+		return "reactor";
+	}
+}
@@ -114,6 +114,20 @@ public class ResolverTests extends AbstractTychoIntegrationTest {
 		verifier.verifyErrorFreeLog();
 	}
 
+	/**
+	 * A reactor bundle must override a singleton bundle with the same symbolic
+	 * name from the target platform, and the optional (re-exported) requirement of
+	 * another target platform bundle must be wired to the reactor bundle.
+	 *
+	 * @throws Exception if anything goes wrong
+	 */
+	@Test
+	public void testReactorBundleOverridesTargetPlatformSingleton() throws Exception {
+		Verifier verifier = getVerifier("resolver.reactorSingleton", false, true);
+		verifier.executeGoal("compile");
+		verifier.verifyErrorFreeLog();
+	}
+
 	@Test
 	@Ignore
 	// Due to technical reasons, the Maven artifact is rebundled during the
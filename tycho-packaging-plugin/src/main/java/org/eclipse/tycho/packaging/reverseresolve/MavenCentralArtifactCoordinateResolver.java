@@ -15,16 +15,13 @@ package org.eclipse.tycho.packaging.reverseresolve;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
-import java.security.MessageDigest;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -42,6 +39,7 @@ import org.apache.maven.search.backend.smo.SmoSearchBackend;
 import org.apache.maven.search.backend.smo.SmoSearchBackendFactory;
 import org.apache.maven.search.backend.smo.SmoSearchResponse;
 import org.codehaus.plexus.logging.Logger;
+import org.eclipse.tycho.FileChecksums;
 import org.eclipse.tycho.ReproducibleUtils;
 import org.eclipse.tycho.core.shared.MavenContext;
 import org.eclipse.tycho.p2.repository.GAV;
@@ -93,17 +91,7 @@ public class MavenCentralArtifactCoordinateResolver implements ArtifactCoordinat
 				}
 			}).map(path -> {
 				try {
-					MessageDigest digest = MessageDigest.getInstance("SHA-1");
-					byte[] buffer = new byte[8192];
-					try (InputStream stream = Files.newInputStream(path)) {
-						int read;
-						while ((read = stream.read(buffer)) > -1) {
-							if (read > 0) {
-								digest.update(buffer, 0, read);
-							}
-						}
-					}
-					String sha1Hash = toHexString(digest.digest());
+					String sha1Hash = FileChecksums.getChecksum(path, "SHA-1").toUpperCase(Locale.ROOT);
 					
 					SmoSearchBackend searchBackend = SmoSearchBackendFactory.createCsc();
 					SmoSearchResponse searchResponse = searchBackend.search(new SearchRequest(new Paging(2), Query.query("1:" + sha1Hash)));
@@ -163,11 +151,6 @@ public class MavenCentralArtifactCoordinateResolver implements ArtifactCoordinat
 		}
 	}
 
-	private static String toHexString(byte[] bytes) {
-		return IntStream.range(0, bytes.length).mapToObj(i -> String.format("%02X", bytes[i]))
-				.collect(Collectors.joining());
-	}
-
 	public static void clearCache(String localRepository, List<Dependency> dependencies) {
 		for (Dependency dep : dependencies) {
 			GAV gav = new GAV(dep.getGroupId(), dep.getArtifactId(), dep.getVersion());
@@ -24,6 +24,10 @@ public class HeadlessTestApplication implements IApplication {
     @Override
     public Object start(IApplicationContext context) throws Exception {
         String[] args = Platform.getCommandLineArgs();
+        String daemonPort = OsgiSurefireBooter.getArgumentValue(args, TestDaemon.ARG_DAEMON);
+        if (daemonPort != null) {
+            return Integer.valueOf(TestDaemon.serve(daemonPort));
+        }
         Properties testProps = OsgiSurefireBooter.loadProperties(args);
         OsgiSurefireBooter.printBundleInfos(testProps);
         return Integer.valueOf(OsgiSurefireBooter.run(args, testProps));
@@ -339,7 +339,7 @@ public class OsgiSurefireBooter {
                 null));
     }
 
-    private static String getArgumentValue(String[] args, String argumentName) {
+    static String getArgumentValue(String[] args, String argumentName) {
         String arg = null;
         for (int i = 0; i < args.length; i++) {
             if (argumentName.equalsIgnoreCase(args[i]) && args.length >= i + 1) {
@@ -0,0 +1,188 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.surefire.osgibooter;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.framework.Bundle;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.BundleException;
+import org.osgi.framework.Constants;
+import org.osgi.framework.FrameworkUtil;
+import org.osgi.framework.startlevel.BundleStartLevel;
+import org.osgi.framework.wiring.FrameworkWiring;
+
+/**
+ * Runs the tests of several test bundles one after the other in the same framework. The daemon
+ * connects to the port given with <code>-testdaemon</code> and then reads requests, each
+ * describing the bundles of the reactor that have to be installed for the test run on top of the
+ * bundles the framework was started with, until the connection is closed.
+ * <p>
+ * A request is a length prefixed properties file. Right before the tests are started the daemon
+ * answers {@link #RUNNING}, followed by the result code of the test run. If the daemon answers
+ * {@link #NOT_RUN} instead of {@link #RUNNING}, the tests could not be run in the daemon and the
+ * caller is expected to use a fresh test runtime. {@link #NOT_RUN} after {@link #RUNNING} means
+ * that the test run failed with an exception.
+ * </p>
+ */
+class TestDaemon {
+
+    static final String ARG_DAEMON = "-testdaemon";
+
+    static final int NOT_RUN = -1;
+
+    static final int RUNNING = -2;
+
+    private static final String KEY_TEST_PROPERTIES = "testproperties";
+    private static final String KEY_BUNDLES = "bundles";
+    private static final String KEY_BUNDLE = "bundle.";
+    private static final String KEY_DEV = "dev.";
+    private static final String SUFFIX_START_LEVEL = ".startLevel";
+    private static final String SUFFIX_AUTO_START = ".autoStart";
+
+    static int serve(String port) throws IOException {
+        BundleContext context = FrameworkUtil.getBundle(TestDaemon.class).getBundleContext();
+        try (Socket socket = new Socket((String) null, Integer.parseInt(port));
+                DataInputStream input = new DataInputStream(socket.getInputStream());
+                DataOutputStream output = new DataOutputStream(socket.getOutputStream())) {
+            while (true) {
+                Properties request;
+                try {
+                    int length = input.readInt();
+                    if (length <= 0) {
+                        return 0;
+                    }
+                    byte[] bytes = new byte[length];
+                    input.readFully(bytes);
+                    request = new Properties();
+                    request.load(new ByteArrayInputStream(bytes));
+                } catch (EOFException e) {
+                    return 0;
+                }
+                output.writeInt(runRequest(context, request, output));
+                output.flush();
+            }
+        }
+    }
+
+    private static int runRequest(BundleContext context, Properties request, DataOutputStream output) {
+        List<Bundle> installed = new ArrayList<>();
+        try {
+            writeDevProperties(request);
+            int bundles = Integer.parseInt(request.getProperty(KEY_BUNDLES, "0"));
+            for (int i = 0; i < bundles; i++) {
+                String key = KEY_BUNDLE + i;
+                File file = new File(request.getProperty(key));
+                Bundle bundle = context.installBundle("reference:" + file.toURI());
+                installed.add(bundle);
+                int startLevel = Integer.parseInt(request.getProperty(key + SUFFIX_START_LEVEL, "0"));
+                if (startLevel > 0) {
+                    bundle.adapt(BundleStartLevel.class).setStartLevel(startLevel);
+                }
+            }
+            FrameworkWiring frameworkWiring = context.getBundle(0).adapt(FrameworkWiring.class);
+            frameworkWiring.resolveBundles(installed);
+            for (Bundle bundle : installed) {
+                if (isFragment(bundle) && bundle.getState() == Bundle.INSTALLED) {
+                    // the host is part of the base runtime and already resolved
+                    System.err.println("Fragment " + bundle.getSymbolicName()
+                            + " can't be attached in the test daemon, a fresh test runtime is required");
+                    return NOT_RUN;
+                }
+            }
+            for (int i = 0; i < installed.size(); i++) {
+                if (Boolean.parseBoolean(request.getProperty(KEY_BUNDLE + i + SUFFIX_AUTO_START))) {
+                    installed.get(i).start();
+                }
+            }
+            String testProperties = request.getProperty(KEY_TEST_PROPERTIES);
+            String[] args = { "-testproperties", testProperties };
+            Properties testProps = OsgiSurefireBooter.loadProperties(args);
+            OsgiSurefireBooter.printBundleInfos(testProps);
+            output.writeInt(RUNNING);
+            output.flush();
+            return OsgiSurefireBooter.run(args, testProps);
+        } catch (Exception e) {
+            System.err.println("Running the tests in the test daemon failed");
+            e.printStackTrace();
+            return NOT_RUN;
+        } finally {
+            uninstall(context, installed);
+        }
+    }
+
+    private static boolean isFragment(Bundle bundle) {
+        return bundle.getHeaders("").get(Constants.FRAGMENT_HOST) != null;
+    }
+
+    private static void uninstall(BundleContext context, List<Bundle> installed) {
+        if (installed.isEmpty()) {
+            return;
+        }
+        for (Bundle bundle : installed) {
+            try {
+                bundle.uninstall();
+            } catch (BundleException | IllegalStateException e) {
+                // already uninstalled
+            }
+        }
+        CountDownLatch latch = new CountDownLatch(1);
+        context.getBundle(0).adapt(FrameworkWiring.class).refreshBundles(installed, event -> latch.countDown());
+        try {
+            latch.await(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The dev entries of the installed bundles are written to the file given by
+     * <code>osgi.dev</code>, the framework reads it again when it was modified.
+     */
+    private static void writeDevProperties(Properties request) throws IOException {
+        String devLocation = System.getProperty("osgi.dev");
+        if (devLocation == null || !devLocation.startsWith("file:")) {
+            return;
+        }
+        File devFile = new File(URI.create(devLocation));
+        long lastModified = devFile.lastModified();
+        Properties devProperties = new Properties();
+        for (String key : request.stringPropertyNames()) {
+            if (key.startsWith(KEY_DEV)) {
+                devProperties.setProperty(key.substring(KEY_DEV.length()), request.getProperty(key));
+            }
+        }
+        try (OutputStream stream = new FileOutputStream(devFile)) {
+            devProperties.store(stream, null);
+        }
+        if (devFile.lastModified() <= lastModified) {
+            // make sure the change is noticed even on file systems with a coarse time resolution
+            devFile.setLastModified(lastModified + 1000);
+        }
+    }
+
+}
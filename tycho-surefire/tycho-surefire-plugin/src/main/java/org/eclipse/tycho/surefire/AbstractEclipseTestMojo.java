@@ -24,10 +24,13 @@ import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -36,7 +39,14 @@ import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
 import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -50,9 +60,12 @@ import org.apache.maven.model.Dependency;
 import org.apache.maven.model.Repository;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.failsafe.util.FailsafeSummaryXmlUtils;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.repository.RepositorySystem;
 import org.apache.maven.surefire.api.booter.ProviderParameterNames;
+import org.apache.maven.surefire.api.suite.RunResult;
+import org.apache.maven.surefire.api.util.DefaultScanResult;
 import org.apache.maven.surefire.api.util.ScanResult;
 import org.apache.maven.surefire.booter.BooterConstants;
 import org.apache.maven.surefire.booter.PropertiesWrapper;
@@ -62,6 +75,7 @@ import org.eclipse.equinox.internal.p2.metadata.IRequiredCapability;
 import org.eclipse.equinox.p2.metadata.IRequirement;
 import org.eclipse.equinox.spi.p2.publisher.PublisherHelper;
 import org.eclipse.osgi.internal.framework.EquinoxConfiguration;
+import org.eclipse.sisu.equinox.launching.BundleReference;
 import org.eclipse.sisu.equinox.launching.BundleStartLevel;
 import org.eclipse.sisu.equinox.launching.DefaultEquinoxInstallationDescription;
 import org.eclipse.sisu.equinox.launching.EquinoxInstallation;
@@ -343,6 +357,9 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
     @Inject
     private EquinoxLauncher launcher;
 
+    @Inject
+    private TestDaemons testDaemons;
+
     @Inject
     @Named("p2")
     protected DependencyResolver dependencyResolver;
@@ -480,6 +497,63 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
     @Parameter(defaultValue = "default")
     private String testRuntime;
 
+    /**
+     * Directory where bundles that must be unpacked for the <code>default</code> test runtime (see
+     * {@link #testRuntime}) are stored if {@link #useInstallationStore} is enabled. Each bundle is
+     * unpacked only once, identified by its content, and the {@link #work} directory of each test
+     * project links to it. This way test projects of the same build share the unpacked bundles.
+     */
+    @Parameter(property = "tycho.surefire.installationStore", defaultValue = "${session.topLevelProject.build.directory}/tycho-surefire-installations")
+    private File installationStore;
+
+    /**
+     * If enabled, the bundles that must be unpacked are shared through the
+     * {@link #installationStore} instead of being unpacked into the {@link #work} directory of each
+     * test project. As the test runtimes then link to the same files, this must only be enabled if
+     * the tests don't modify the files of the unpacked bundles.
+     */
+    @Parameter(property = "tycho.surefire.useInstallationStore", defaultValue = "false")
+    private boolean useInstallationStore;
+
+    /**
+     * If enabled, the tests of the <code>default</code> test runtime (see {@link #testRuntime}) are
+     * run in a test daemon: a forked test runtime that is kept alive between test runs that use the
+     * same working directory, target platform bundles and launch configuration, for example further
+     * executions of the test mojo or later builds in the same Maven process. Only the bundles of the
+     * reactor are installed into the daemon for each test run and uninstalled afterwards, this saves
+     * the start of a new JVM and framework for each test run.
+     * <p>
+     * The daemon is started in the base directory of the project, but as it is shared, all test
+     * runs use the same {@link #osgiDataDirectory} of the daemon, so tests must not depend on it. If
+     * the daemon fails while the tests are running, the build fails. Whenever the
+     * isolation of a fresh test runtime is required (for example with the UI harness, a custom
+     * {@link #application} or {@link #product}, a {@link #debugPort} or if the daemon can't run
+     * the tests), a fresh test runtime is used instead.
+     * </p>
+     */
+    @Parameter(property = "tycho.surefire.useTestDaemon", defaultValue = "false")
+    private boolean useTestDaemon;
+
+    /**
+     * The number of test runs after which a test daemon (see {@link #useTestDaemon}) is stopped and
+     * replaced by a new one.
+     */
+    @Parameter(property = "tycho.surefire.testDaemonMaxRuns", defaultValue = "50")
+    private int testDaemonMaxRuns;
+
+    /**
+     * If greater than one, the test classes of the <code>default</code> test runtime (see
+     * {@link #testRuntime}) are split into up to this number of shards that are executed in
+     * parallel, each in its own forked test runtime. The shards are balanced by the run time of the
+     * test classes recorded in the reports of the previous run (classes without a previous report
+     * count with the average run time), so for best results the reports directory should be kept
+     * between builds. All shards write their reports to the usual reports directory, a failsafe
+     * summary is merged from the summaries of the shards. The number of test runtimes executed at
+     * the same time is still limited by {@link #reactorConcurrencyLevel}.
+     */
+    @Parameter(property = "tycho.surefire.forkCount", defaultValue = "1")
+    private int forkCount;
+
     /**
      * Additional dependencies to be added to the test runtime.
      *
@@ -616,6 +690,24 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
     @Parameter
     private List<String> suiteXmlFiles;
 
+    /**
+     * The ids of the bundles of the test runtime that are built by the reactor
+     */
+    private final Set<String> reactorBundles = new HashSet<>();
+
+    /**
+     * The shards of the test run if the tests are split (see {@link #forkCount})
+     */
+    private final List<TestShard> shards = new ArrayList<>();
+
+    /**
+     * The failsafe summary the summaries of the shards are merged into
+     */
+    private File shardedSummaryFile;
+
+    private record TestShard(int index, File properties, File summary) {
+    }
+
     @Override
     protected void runTests(ScanResult scanResult) throws MojoExecutionException, MojoFailureException {
         // Allow constructing the test runtime against filtered OSGi/PDE metadata
@@ -623,15 +715,24 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
         reactorProject.setContextValue(TychoConstants.CTX_METADATA_ARTIFACT_LOCATION, metadataDirectory);
 
         EquinoxInstallation equinoxTestRuntime;
-        synchronized (AbstractEclipseTestMojo.class) {
-            if ("p2Installed".equals(testRuntime)) {
+        if ("p2Installed".equals(testRuntime)) {
+            synchronized (AbstractEclipseTestMojo.class) {
                 equinoxTestRuntime = createProvisionedInstallation();
-            } else if ("default".equals(testRuntime)) {
-                equinoxTestRuntime = createEclipseInstallation();
-            } else {
-                throw new MojoExecutionException("Configured testRuntime parameter value '" + testRuntime
-                        + "' is unknown. Allowed values: 'default', 'p2Installed'.");
             }
+        } else if ("default".equals(testRuntime)) {
+            EquinoxInstallationDescription description;
+            synchronized (AbstractEclipseTestMojo.class) {
+                description = createEclipseInstallationDescription();
+            }
+            if (description != null && !shards.isEmpty()) {
+                // each shard gets an installation of its own, the one of the unsplit test run is not needed
+                runShards(description);
+                return;
+            }
+            equinoxTestRuntime = createEclipseInstallation(description);
+        } else {
+            throw new MojoExecutionException("Configured testRuntime parameter value '" + testRuntime
+                    + "' is unknown. Allowed values: 'default', 'p2Installed'.");
         }
         if (equinoxTestRuntime != null) {
             try (AutoCloseable runLock = CONCURRENCY_LOCK.aquire(reactorConcurrencyLevel)) {
@@ -738,7 +839,19 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
         return (BundleProject) projectTypes.get(project.getPackaging());
     }
 
-    private EquinoxInstallation createEclipseInstallation() throws MojoExecutionException, MojoFailureException {
+    private EquinoxInstallation createEclipseInstallation(EquinoxInstallationDescription testRuntime) {
+        if (testRuntime == null) {
+            return null;
+        }
+        // creating the installation (e.g. unpacking bundles) only involves this project and the
+        // installation store, so it does not need to be serialized with other projects
+        getReportsDirectory().mkdirs();
+        return installationFactory.createInstallation(testRuntime, work,
+                useInstallationStore ? installationStore : null);
+    }
+
+    private EquinoxInstallationDescription createEclipseInstallationDescription()
+            throws MojoExecutionException, MojoFailureException {
         ScanResult scanResult = scanForTests();
         if (scanResult.size() == 0) {
             handleNoTestsFound(); //this might throw an exception...
@@ -779,12 +892,14 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
         }
         PropertiesWrapper wrapper = createSurefireProperties(provider, scanResult);
         storeProperties(wrapper.getProperties(), surefireProperties);
+        createShards(provider, scanResult);
         for (ArtifactDescriptor artifact : testRuntimeArtifacts.getArtifacts(ArtifactType.TYPE_ECLIPSE_PLUGIN)) {
             // note that this project is added as directory structure rooted at project basedir.
             // project classes and test-classes are added via dev.properties file (see #createDevProperties())
             // all other projects are added as bundle jars.
             ReactorProject otherProject = artifact.getMavenProject();
             if (otherProject != null) {
+                reactorBundles.add(artifact.getKey().getId());
                 // Contrary to what's written above, we use the project's root directory only when
                 // we do not need custom metadata. If we need, we load the test bundle as JAR instead
                 if (useMetadataDirectory(otherProject)) {
@@ -807,9 +922,42 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
         }
 
         setupTestBundles(testFrameworkBundles, testRuntime, provider);
+        return testRuntime;
+    }
 
-        getReportsDirectory().mkdirs();
-        return installationFactory.createInstallation(testRuntime, work);
+    private void createShards(TestFrameworkProvider provider, ScanResult scanResult) throws MojoExecutionException {
+        shards.clear();
+        shardedSummaryFile = null;
+        if (forkCount <= 1 || scanResult.size() <= 1) {
+            return;
+        }
+        if (suiteXmlFiles != null && !suiteXmlFiles.isEmpty()) {
+            getLog().info("Test suite files are configured, the tests are not split into shards");
+            return;
+        }
+        List<String> classes = IntStream.range(0, scanResult.size()).mapToObj(scanResult::getClassName).toList();
+        Map<String, Double> durations = TestShards.readDurations(getReportsDirectory());
+        List<List<String>> split = TestShards.split(classes, forkCount, durations);
+        if (split.size() <= 1) {
+            return;
+        }
+        getLog().info("Splitting " + classes.size() + " test classes into " + split.size()
+                + " shards, the run time of " + durations.size() + " classes is known from previous reports");
+        for (int i = 0; i < split.size(); i++) {
+            Map<String, String> properties = createSurefireProperties(provider, new DefaultScanResult(split.get(i)))
+                    .getProperties();
+            File summary = null;
+            String failsafe = properties.get("failsafe");
+            if (failsafe != null) {
+                shardedSummaryFile = new File(failsafe);
+                summary = new File(shardedSummaryFile.getParentFile(),
+                        "shard" + i + "-" + shardedSummaryFile.getName());
+                properties.put("failsafe", summary.getAbsolutePath());
+            }
+            File file = new File(surefireProperties.getParentFile(), "surefire-shard" + i + ".properties");
+            storeProperties(properties, file);
+            shards.add(new TestShard(i, file, summary));
+        }
     }
 
     protected boolean useMetadataDirectory(ReactorProject otherProject) {
@@ -985,18 +1133,123 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
     private void runTest(EquinoxInstallation testRuntime) throws MojoExecutionException, MojoFailureException {
         int result;
         File logFile = new File(osgiDataDirectory, ".metadata/.log");
-        LaunchConfiguration cli;
+        EquinoxLaunchConfiguration cli;
         try {
             if (deleteOsgiDataDirectory) {
                 FileUtils.deleteDirectory(osgiDataDirectory);
             }
-            cli = createCommandLine(testRuntime);
-            getLog().info("Executing test runtime with timeout (seconds): " + forkedProcessTimeoutInSeconds
-                    + ", logs, if any, will be placed at: " + logFile.getAbsolutePath());
-            result = launcher.execute(cli, forkedProcessTimeoutInSeconds);
+            cli = createCommandLine(testRuntime, osgiDataDirectory, surefireProperties);
+            Integer daemonResult = runInTestDaemon(testRuntime, cli);
+            if (daemonResult != null) {
+                result = daemonResult;
+            } else {
+                getLog().info("Executing test runtime with timeout (seconds): " + forkedProcessTimeoutInSeconds
+                        + ", logs, if any, will be placed at: " + logFile.getAbsolutePath());
+                result = launcher.execute(cli, forkedProcessTimeoutInSeconds);
+            }
         } catch (Exception e) {
             throw new MojoExecutionException("Error while executing platform", e);
         }
+        handleResult(result, logFile, cli);
+    }
+
+    /**
+     * Runs each shard of the tests in its own test runtime, all shards are executed in parallel
+     */
+    private void runShards(EquinoxInstallationDescription testRuntime)
+            throws MojoExecutionException, MojoFailureException {
+        getReportsDirectory().mkdirs();
+        List<EquinoxLaunchConfiguration> commandLines = new ArrayList<>();
+        List<File> logFiles = new ArrayList<>();
+        try {
+            for (TestShard shard : shards) {
+                String suffix = "-shard" + shard.index();
+                EquinoxInstallation shardRuntime = installationFactory.createInstallation(testRuntime,
+                        new File(work.getPath() + suffix), useInstallationStore ? installationStore : null);
+                File dataDirectory = new File(osgiDataDirectory.getPath() + suffix);
+                if (deleteOsgiDataDirectory) {
+                    FileUtils.deleteDirectory(dataDirectory);
+                }
+                commandLines.add(createCommandLine(shardRuntime, dataDirectory, shard.properties()));
+                logFiles.add(new File(dataDirectory, ".metadata/.log"));
+            }
+        } catch (IOException e) {
+            throw new MojoExecutionException("Error while creating the test runtime of the shards", e);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(shards.size());
+        int[] results = new int[shards.size()];
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < shards.size(); i++) {
+                EquinoxLaunchConfiguration cli = commandLines.get(i);
+                File logFile = logFiles.get(i);
+                int index = i;
+                futures.add(executor.submit(() -> {
+                    try (AutoCloseable runLock = CONCURRENCY_LOCK.aquire(reactorConcurrencyLevel)) {
+                        getLog().info("Executing test shard " + index + " with timeout (seconds): "
+                                + forkedProcessTimeoutInSeconds + ", logs, if any, will be placed at: "
+                                + logFile.getAbsolutePath());
+                        return launcher.execute(cli, forkedProcessTimeoutInSeconds);
+                    }
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                results[i] = futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            throw new MojoExecutionException("Error while executing platform", e.getCause());
+        } finally {
+            // interrupting the shards that are still running destroys their forked test runtimes
+            executor.shutdownNow();
+            try {
+                executor.awaitTermination(1, TimeUnit.MINUTES);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        mergeShardSummaries();
+        int result = 254/* RunResult.NO_TESTS */;
+        int resultShard = 0;
+        for (int i = 0; i < results.length; i++) {
+            if (results[i] != 0 && results[i] != 254 && results[i] != 255) {
+                // an unexpected result is reported in favor of test failures
+                result = results[i];
+                resultShard = i;
+                break;
+            }
+            if (results[i] == 255 || (results[i] == 0 && result == 254)) {
+                result = results[i];
+                resultShard = i;
+            }
+        }
+        handleResult(result, logFiles.get(resultShard), commandLines.get(resultShard));
+    }
+
+    private void mergeShardSummaries() throws MojoExecutionException {
+        if (shardedSummaryFile == null) {
+            return;
+        }
+        try {
+            RunResult merged = null;
+            for (TestShard shard : shards) {
+                if (shard.summary() != null && shard.summary().isFile()) {
+                    RunResult result = FailsafeSummaryXmlUtils.toRunResult(shard.summary());
+                    merged = merged == null ? result : merged.aggregate(result);
+                }
+            }
+            if (merged != null) {
+                FailsafeSummaryXmlUtils.writeSummary(merged, shardedSummaryFile, false);
+            }
+        } catch (Exception e) {
+            throw new MojoExecutionException("Can't merge the failsafe summaries of the shards", e);
+        }
+    }
+
+    private void handleResult(int result, File logFile, LaunchConfiguration cli)
+            throws MojoExecutionException, MojoFailureException {
         switch (result) {
         case 0:
             handleSuccess();
@@ -1051,6 +1304,106 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
         }
     }
 
+    /**
+     * Runs the tests in a test daemon (see {@link #useTestDaemon}) where only the reactor bundles of
+     * the test runtime are installed for this test run.
+     *
+     * @return the result code of the test run, or <code>null</code> if a fresh test runtime must be
+     *         used
+     */
+    private Integer runInTestDaemon(EquinoxInstallation testRuntime, EquinoxLaunchConfiguration cli)
+            throws MojoExecutionException, IOException {
+        if (!useTestDaemon) {
+            return null;
+        }
+        EquinoxInstallationDescription description = testRuntime.getInstallationDescription();
+        String isolationReason = getTestDaemonIsolationReason(description);
+        if (isolationReason != null) {
+            getLog().info("Using a fresh test runtime because " + isolationReason);
+            return null;
+        }
+        BundleStartLevel defaultLevel = description.getDefaultBundleStartLevel();
+        EquinoxInstallationDescription daemonRuntime = new DefaultEquinoxInstallationDescription();
+        daemonRuntime.setDefaultBundleStartLevel(defaultLevel);
+        daemonRuntime.addBundlesToExplode(new ArrayList<>(description.getBundlesToExplode()));
+        daemonRuntime.addFrameworkExtensions(new ArrayList<>(description.getFrameworkExtensions()));
+        description.getBundleStartLevel().values().forEach(daemonRuntime::addBundleStartLevel);
+        description.getPlatformProperties().forEach(daemonRuntime::addPlatformProperty);
+        Set<String> baseBundles = new TreeSet<>();
+        Properties request = new Properties();
+        int reactorBundleCount = 0;
+        for (BundleReference bundle : description.getBundles()) {
+            if (!reactorBundles.contains(bundle.getId())) {
+                daemonRuntime.addBundle(bundle);
+                baseBundles.add(bundle.getId() + "_" + bundle.getVersion() + "@" + bundle.getLocation());
+                continue;
+            }
+            String prefix = "bundle." + reactorBundleCount++;
+            BundleStartLevel level = description.getBundleStartLevel().get(bundle.getId());
+            request.setProperty(prefix, bundle.getLocation().getAbsolutePath());
+            request.setProperty(prefix + ".startLevel", String.valueOf(level != null ? level.getLevel() : 0));
+            request.setProperty(prefix + ".autoStart", String.valueOf(
+                    level != null ? level.isAutoStart() : defaultLevel != null && defaultLevel.isAutoStart()));
+        }
+        request.setProperty("bundles", String.valueOf(reactorBundleCount));
+        description.getDevEntries().forEach((id, entries) -> request.setProperty("dev." + id, entries));
+        request.setProperty("testproperties", surefireProperties.getAbsolutePath());
+        Map<String, String> startLevels = new TreeMap<>();
+        description.getBundleStartLevel().forEach(
+                (id, level) -> startLevels.put(id, level.getLevel() + ":" + level.isAutoStart()));
+        File workingDirectory = cli.getWorkingDirectory();
+        List<Object> key = List.of(workingDirectory, cli.getJvmExecutable(), List.of(cli.getVMArguments()),
+                new TreeMap<>(cli.getEnvironment()), baseBundles, startLevels,
+                defaultLevel == null ? "" : defaultLevel.getLevel() + ":" + defaultLevel.isAutoStart(),
+                new TreeSet<>(description.getBundlesToExplode()), List.copyOf(description.getFrameworkExtensions()),
+                new TreeMap<>(description.getPlatformProperties()), Objects.toString(debugOptions),
+                String.valueOf(showEclipseLog), Objects.toString(appArgLine));
+        getLog().info("Executing tests in test daemon with timeout (seconds): " + forkedProcessTimeoutInSeconds);
+        return testDaemons.execute(key, port -> {
+            Path daemonDirectory = Files.createTempDirectory(Files.createDirectories(installationStore.toPath()),
+                    "daemon");
+            EquinoxInstallation daemonInstallation = installationFactory.createInstallation(daemonRuntime,
+                    daemonDirectory.toFile(), useInstallationStore ? installationStore : null);
+            // the daemon writes the dev entries of the reactor bundles for each test run
+            Path devProperties = daemonDirectory.resolve("dev.properties");
+            ReproducibleUtils.storeProperties(new Properties(), devProperties);
+            // a running JVM can't change its working directory, so the daemon is started in the one of
+            // the project and is only reused for test runs with the same working directory
+            EquinoxLaunchConfiguration daemonCli = createRuntimeCommandLine(daemonInstallation, workingDirectory,
+                    daemonDirectory.resolve("data").toFile());
+            daemonCli.addProgramArguments("-testdaemon", String.valueOf(port), //
+                    "-dev", devProperties.toUri().toString());
+            daemonCli.addProgramArguments(splitArgLine(appArgLine));
+            return daemonCli;
+        }, request, forkedProcessTimeoutInSeconds, testDaemonMaxRuns);
+    }
+
+    private String getTestDaemonIsolationReason(EquinoxInstallationDescription description) {
+        if (!"default".equals(testRuntime)) {
+            return "the test runtime is " + testRuntime;
+        }
+        if (useUIHarness) {
+            return "the UI harness is used";
+        }
+        if (application != null || product != null) {
+            return "an application or product is configured";
+        }
+        if (debugPort > 0) {
+            return "a debug port is configured";
+        }
+        for (String id : description.getBundlesToExplode()) {
+            if (reactorBundles.contains(id)) {
+                return "the reactor bundle " + id + " must be exploded";
+            }
+        }
+        for (String id : description.getDevEntries().keySet()) {
+            if (!reactorBundles.contains(id)) {
+                return "the bundle " + id + " requires dev entries";
+            }
+        }
+        return null;
+    }
+
     protected abstract void handleTestFailures() throws MojoFailureException;
 
     protected abstract void handleSuccess();
@@ -1072,14 +1425,35 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
         return String.valueOf(result);
     }
 
-    private EquinoxLaunchConfiguration createCommandLine(EquinoxInstallation testRuntime)
-            throws MalformedURLException, MojoExecutionException {
+    private EquinoxLaunchConfiguration createCommandLine(EquinoxInstallation testRuntime, File dataDirectory,
+            File testProperties) throws MalformedURLException, MojoExecutionException {
+        EquinoxLaunchConfiguration cli = createRuntimeCommandLine(testRuntime, project.getBasedir(), dataDirectory);
+        addProgramArgs(cli, "-testproperties", testProperties.getAbsolutePath());
+        if (application != null) {
+            cli.addProgramArguments("-testApplication", application);
+        }
+        if (product != null) {
+            cli.addProgramArguments("-product", product);
+        }
+        if (useUIHarness && !useUIThread) {
+            cli.addProgramArguments("-nouithread");
+        }
+        cli.addProgramArguments(splitArgLine(appArgLine));
+        return cli;
+    }
+
+    /**
+     * Creates the command line for the given runtime without the arguments that describe the test
+     * run
+     */
+    private EquinoxLaunchConfiguration createRuntimeCommandLine(EquinoxInstallation testRuntime,
+            File workingDirectory, File dataDirectory) throws MojoExecutionException {
         EquinoxLaunchConfiguration cli = new EquinoxLaunchConfiguration(testRuntime);
 
         String executable = getJavaExecutable();
         cli.setJvmExecutable(executable);
 
-        cli.setWorkingDirectory(project.getBasedir());
+        cli.setWorkingDirectory(workingDirectory);
 
         if (debugPort > 0) {
             cli.addVMArguments("-Xdebug", "-Xrunjdwp:transport=dt_socket,address=" + debugPort + ",server=y,suspend=y");
@@ -1106,21 +1480,10 @@ public abstract class AbstractEclipseTestMojo extends AbstractTestMojo {
         if (getLog().isDebugEnabled() || showEclipseLog) {
             cli.addProgramArguments("-consolelog");
         }
-        addProgramArgs(cli, "-data", osgiDataDirectory.getAbsolutePath(), //
+        addProgramArgs(cli, "-data", dataDirectory.getAbsolutePath(), //
                 "-install", testRuntime.getLocation().getAbsolutePath(), //
                 "-configuration", testRuntime.getConfigurationLocation().getAbsolutePath(), //
-                "-application", getTestApplication(), //
-                "-testproperties", surefireProperties.getAbsolutePath());
-        if (application != null) {
-            cli.addProgramArguments("-testApplication", application);
-        }
-        if (product != null) {
-            cli.addProgramArguments("-product", product);
-        }
-        if (useUIHarness && !useUIThread) {
-            cli.addProgramArguments("-nouithread");
-        }
-        cli.addProgramArguments(splitArgLine(appArgLine));
+                "-application", getTestApplication());
         if (environmentVariables != null) {
             cli.addEnvironmentVariables(environmentVariables);
         }
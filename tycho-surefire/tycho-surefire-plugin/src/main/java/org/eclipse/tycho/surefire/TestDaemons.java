@@ -0,0 +1,260 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.surefire;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.ProcessBuilder.Redirect;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+
+import org.codehaus.plexus.logging.Logger;
+import org.eclipse.sisu.PreDestroy;
+import org.eclipse.sisu.equinox.launching.LaunchConfiguration;
+
+/**
+ * Keeps forked test runtimes (see <code>TestDaemon</code> in the osgibooter) alive between test
+ * runs, so consecutive test runs with the same base runtime only need to install their reactor
+ * bundles instead of starting a new JVM and framework. A daemon is only used by one test run at a
+ * time, concurrent runs with the same base runtime each get their own daemon.
+ * <p>
+ * The daemon answers {@link #RUNNING} before it starts the tests, a fresh test runtime is only
+ * used as a fallback if the daemon failed before that point, otherwise the tests would run twice.
+ * </p>
+ */
+@Named
+@Singleton
+public class TestDaemons {
+
+    /**
+     * Answer of the daemon if the tests could not be run and a fresh test runtime is required
+     */
+    static final int NOT_RUN = -1;
+
+    /**
+     * Sent by the daemon right before the tests are started, any result that follows is the result
+     * of the test run
+     */
+    static final int RUNNING = -2;
+
+    private static final long CONNECT_TIMEOUT = TimeUnit.MINUTES.toMillis(5);
+
+    public interface DaemonLaunchFactory {
+        /**
+         * @return the launch configuration of a new daemon that connects to the given port
+         */
+        LaunchConfiguration createDaemon(int port) throws Exception;
+    }
+
+    private final Map<Object, Deque<Daemon>> idle = new HashMap<>();
+
+    @Inject
+    private Logger logger;
+
+    public TestDaemons() {
+    }
+
+    TestDaemons(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Runs the tests described by the request in a daemon for the given key, starting a new
+     * daemon if none is idle.
+     *
+     * @return the result code of the test run, or <code>null</code> if the tests could not be run
+     *         in a daemon and a fresh test runtime must be used instead
+     * @throws IOException
+     *             if the daemon failed after the tests were started
+     */
+    public Integer execute(Object key, DaemonLaunchFactory factory, Properties request, int timeoutInSeconds,
+            int maxRuns) throws IOException {
+        Daemon daemon = acquire(key);
+        if (daemon == null) {
+            try {
+                daemon = start(factory);
+            } catch (Exception e) {
+                logger.warn("Starting the test daemon failed, using a fresh test runtime: " + e);
+                return null;
+            }
+        } else {
+            logger.info("Reusing test daemon (run " + (daemon.runs + 1) + " of " + maxRuns + ")");
+        }
+        int result;
+        try {
+            result = daemon.run(request, timeoutInSeconds);
+        } catch (SocketTimeoutException e) {
+            logger.error("Timeout of " + timeoutInSeconds + "s exceeded. Process was killed");
+            return daemon.kill();
+        } catch (IOException e) {
+            if (daemon.testsStarted) {
+                daemon.kill();
+                throw new IOException("The test daemon failed while running the tests", e);
+            }
+            logger.warn("The test daemon failed before running the tests, using a fresh test runtime: " + e);
+            daemon.stop();
+            return null;
+        }
+        if (daemon.runs >= maxRuns) {
+            daemon.stop();
+        } else {
+            synchronized (idle) {
+                idle.computeIfAbsent(key, k -> new ArrayDeque<>()).push(daemon);
+            }
+        }
+        if (result == NOT_RUN) {
+            return null;
+        }
+        return result;
+    }
+
+    private Daemon acquire(Object key) {
+        while (true) {
+            Daemon daemon;
+            synchronized (idle) {
+                Deque<Daemon> daemons = idle.get(key);
+                daemon = daemons == null ? null : daemons.poll();
+            }
+            if (daemon == null || daemon.process.isAlive()) {
+                return daemon;
+            }
+            daemon.stop();
+        }
+    }
+
+    Daemon start(DaemonLaunchFactory factory) throws Exception {
+        try (ServerSocket serverSocket = new ServerSocket(0)) {
+            LaunchConfiguration configuration = factory.createDaemon(serverSocket.getLocalPort());
+            List<String> commandline = new ArrayList<>();
+            commandline.add(configuration.getJvmExecutable());
+            commandline.addAll(List.of(configuration.getVMArguments()));
+            commandline.add("-jar");
+            commandline.add(configuration.getLauncherJar().getCanonicalPath());
+            commandline.addAll(List.of(configuration.getProgramArguments()));
+            logger.info("Starting test daemon: " + String.join(" ", commandline));
+            ProcessBuilder builder = new ProcessBuilder(commandline);
+            builder.directory(configuration.getWorkingDirectory());
+            builder.environment().putAll(configuration.getEnvironment());
+            builder.redirectOutput(Redirect.INHERIT);
+            builder.redirectError(Redirect.INHERIT);
+            Process process = builder.start();
+            long deadline = System.currentTimeMillis() + CONNECT_TIMEOUT;
+            serverSocket.setSoTimeout(1000);
+            while (true) {
+                try {
+                    return new Daemon(process, serverSocket.accept());
+                } catch (SocketTimeoutException e) {
+                    if (!process.isAlive() || System.currentTimeMillis() > deadline) {
+                        process.destroyForcibly();
+                        throw new IOException("Test daemon did not connect, exit code "
+                                + (process.isAlive() ? "unknown" : process.exitValue()));
+                    }
+                }
+            }
+        }
+    }
+
+    @PreDestroy
+    public void dispose() {
+        List<Daemon> daemons = new ArrayList<>();
+        synchronized (idle) {
+            idle.values().forEach(daemons::addAll);
+            idle.clear();
+        }
+        for (Daemon daemon : daemons) {
+            daemon.stop();
+        }
+    }
+
+    static final class Daemon {
+
+        private final Process process;
+        private final Socket socket;
+        private final DataInputStream input;
+        private final DataOutputStream output;
+        private int runs;
+        private boolean testsStarted;
+
+        Daemon(Process process, Socket socket) throws IOException {
+            this.process = process;
+            this.socket = socket;
+            this.input = new DataInputStream(socket.getInputStream());
+            this.output = new DataOutputStream(socket.getOutputStream());
+        }
+
+        int run(Properties request, int timeoutInSeconds) throws IOException {
+            runs++;
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            request.store(bytes, null);
+            output.writeInt(bytes.size());
+            bytes.writeTo(output);
+            output.flush();
+            socket.setSoTimeout(timeoutInSeconds > 0 ? (int) TimeUnit.SECONDS.toMillis(timeoutInSeconds) : 0);
+            testsStarted = false;
+            int result = input.readInt();
+            if (result != RUNNING) {
+                return result;
+            }
+            testsStarted = true;
+            result = input.readInt();
+            if (result == NOT_RUN) {
+                throw new IOException("The tests could not be completed in the test daemon");
+            }
+            return result;
+        }
+
+        int kill() {
+            process.destroyForcibly();
+            try {
+                socket.close();
+                return process.waitFor();
+            } catch (IOException | InterruptedException e) {
+                return NOT_RUN;
+            }
+        }
+
+        void stop() {
+            try {
+                // a request of length zero tells the daemon to exit
+                output.writeInt(0);
+                output.flush();
+                socket.close();
+            } catch (IOException e) {
+                // the daemon is already gone
+            }
+            try {
+                if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+}
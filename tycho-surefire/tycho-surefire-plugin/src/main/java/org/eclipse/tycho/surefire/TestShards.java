@@ -0,0 +1,125 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.surefire;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Splits the test classes of a test bundle into shards with about the same run time, based on
+ * the durations recorded in the reports of a previous run.
+ */
+class TestShards {
+
+    private static final String REPORT_PREFIX = "TEST-";
+    private static final String REPORT_SUFFIX = ".xml";
+
+    private TestShards() {
+    }
+
+    /**
+     * Reads the duration (in seconds) of each test class from the <code>TEST-*.xml</code> reports
+     * in the given directory, unreadable reports are ignored.
+     */
+    static Map<String, Double> readDurations(File reportsDirectory) {
+        Map<String, Double> durations = new HashMap<>();
+        File[] reports = reportsDirectory.listFiles(
+                (dir, name) -> name.startsWith(REPORT_PREFIX) && name.endsWith(REPORT_SUFFIX));
+        if (reports == null) {
+            return durations;
+        }
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        for (File report : reports) {
+            String name = report.getName();
+            String className = name.substring(REPORT_PREFIX.length(), name.length() - REPORT_SUFFIX.length());
+            try (InputStream stream = Files.newInputStream(report.toPath())) {
+                XMLStreamReader reader = factory.createXMLStreamReader(stream);
+                try {
+                    // only the root element is needed, it carries the time of the whole class
+                    reader.nextTag();
+                    String time = reader.getAttributeValue(null, "time");
+                    if (time != null) {
+                        durations.put(className, Double.parseDouble(time.replace(",", "")));
+                    }
+                } finally {
+                    reader.close();
+                }
+            } catch (IOException | XMLStreamException | NumberFormatException e) {
+                // no usable history for this class
+            }
+        }
+        return durations;
+    }
+
+    /**
+     * Splits the classes into at most <code>count</code> shards, so that the sum of the durations
+     * is about the same in each shard. Classes without a known duration are assumed to take the
+     * average time of the known classes. The classes of each shard keep their original order.
+     *
+     * @return the non-empty shards
+     */
+    static List<List<String>> split(List<String> classes, int count, Map<String, Double> durations) {
+        double known = 0;
+        int knownCount = 0;
+        for (String clazz : classes) {
+            Double duration = durations.get(clazz);
+            if (duration != null) {
+                known += duration;
+                knownCount++;
+            }
+        }
+        double average = knownCount > 0 ? known / knownCount : 1;
+        Map<String, Double> effective = new HashMap<>();
+        for (String clazz : classes) {
+            // give each class a minimal weight so classes without a run time are spread as well
+            effective.put(clazz, Math.max(durations.getOrDefault(clazz, average), 0.001));
+        }
+        int shardCount = Math.max(1, Math.min(count, classes.size()));
+        double[] totals = new double[shardCount];
+        Map<String, Integer> assignment = new HashMap<>();
+        List<String> longestFirst = new ArrayList<>(classes);
+        longestFirst.sort(Comparator.comparing(effective::get, Comparator.reverseOrder()));
+        for (String clazz : longestFirst) {
+            int shortest = 0;
+            for (int i = 1; i < shardCount; i++) {
+                if (totals[i] < totals[shortest]) {
+                    shortest = i;
+                }
+            }
+            totals[shortest] += effective.get(clazz);
+            assignment.put(clazz, shortest);
+        }
+        List<List<String>> shards = new ArrayList<>();
+        for (int i = 0; i < shardCount; i++) {
+            shards.add(new ArrayList<>());
+        }
+        for (String clazz : classes) {
+            shards.get(assignment.get(clazz)).add(clazz);
+        }
+        shards.removeIf(List::isEmpty);
+        return shards;
+    }
+
+}
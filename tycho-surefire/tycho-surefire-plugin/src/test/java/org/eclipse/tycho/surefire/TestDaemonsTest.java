@@ -0,0 +1,222 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.surefire;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.codehaus.plexus.logging.Logger;
+import org.codehaus.plexus.logging.console.ConsoleLogger;
+import org.junit.After;
+import org.junit.Test;
+
+public class TestDaemonsTest {
+
+    private final List<Properties> receivedRequests = new CopyOnWriteArrayList<>();
+    private final List<FakeProcess> processes = new CopyOnWriteArrayList<>();
+    private DaemonBehavior behavior = TestDaemonsTest::runTests;
+    private final TestDaemons daemons = new FakeDaemons();
+
+    @After
+    public void dispose() {
+        daemons.dispose();
+    }
+
+    @Test
+    public void testRequestIsRunAndDaemonIsReused() throws Exception {
+        assertEquals(Integer.valueOf(0), daemons.execute("key", null, request("0"), 0, 2));
+        assertEquals(Integer.valueOf(255), daemons.execute("key", null, request("255"), 0, 2));
+
+        assertEquals(1, processes.size());
+        assertEquals(List.of(request("0"), request("255")), receivedRequests);
+        // the daemon is stopped after the maximum number of runs
+        assertTrue(processes.get(0).exited.await(10, TimeUnit.SECONDS));
+        assertEquals(Integer.valueOf(0), daemons.execute("key", null, request("0"), 0, 2));
+        assertEquals(2, processes.size());
+    }
+
+    @Test
+    public void testDaemonIsNotSharedBetweenKeys() throws Exception {
+        assertEquals(Integer.valueOf(0), daemons.execute("key1", null, request("0"), 0, 10));
+        assertEquals(Integer.valueOf(0), daemons.execute("key2", null, request("0"), 0, 10));
+
+        assertEquals(2, processes.size());
+    }
+
+    @Test
+    public void testFreshRuntimeIsUsedIfTestsWereNotRun() throws Exception {
+        behavior = (output, request) -> {
+            output.writeInt(TestDaemons.NOT_RUN);
+            return true;
+        };
+
+        assertNull(daemons.execute("key", null, request("0"), 0, 10));
+    }
+
+    @Test
+    public void testFreshRuntimeIsUsedIfDaemonFailsBeforeRunning() throws Exception {
+        behavior = (output, request) -> false;
+
+        assertNull(daemons.execute("key", null, request("0"), 0, 10));
+    }
+
+    @Test
+    public void testFailureWhileRunningIsReported() throws Exception {
+        behavior = (output, request) -> {
+            output.writeInt(TestDaemons.RUNNING);
+            return false;
+        };
+
+        assertThrows(IOException.class, () -> daemons.execute("key", null, request("0"), 0, 10));
+        assertTrue(processes.get(0).exited.await(10, TimeUnit.SECONDS));
+        assertEquals(1, receivedRequests.size());
+    }
+
+    @Test
+    public void testExceptionWhileRunningIsReported() throws Exception {
+        behavior = (output, request) -> {
+            output.writeInt(TestDaemons.RUNNING);
+            output.writeInt(TestDaemons.NOT_RUN);
+            return true;
+        };
+
+        assertThrows(IOException.class, () -> daemons.execute("key", null, request("0"), 0, 10));
+    }
+
+    private static boolean runTests(DataOutputStream output, Properties request) throws IOException {
+        output.writeInt(TestDaemons.RUNNING);
+        output.writeInt(Integer.parseInt(request.getProperty("result")));
+        return true;
+    }
+
+    private static Properties request(String result) {
+        Properties request = new Properties();
+        request.setProperty("bundles", "0");
+        request.setProperty("result", result);
+        return request;
+    }
+
+    private interface DaemonBehavior {
+        /**
+         * @return <code>false</code> if the daemon should crash
+         */
+        boolean answer(DataOutputStream output, Properties request) throws IOException;
+    }
+
+    /**
+     * Speaks the protocol of the <code>TestDaemon</code> in the osgibooter from a thread instead of
+     * a forked test runtime
+     */
+    private final class FakeDaemons extends TestDaemons {
+
+        FakeDaemons() {
+            super(new ConsoleLogger(Logger.LEVEL_DISABLED, "no-op logger"));
+        }
+
+        @Override
+        Daemon start(DaemonLaunchFactory factory) throws Exception {
+            try (ServerSocket serverSocket = new ServerSocket(0)) {
+                FakeProcess process = new FakeProcess();
+                processes.add(process);
+                int port = serverSocket.getLocalPort();
+                Thread thread = new Thread(() -> {
+                    try {
+                        serve(port);
+                    } catch (IOException e) {
+                        // the connection was closed by the client
+                    } finally {
+                        process.exited.countDown();
+                    }
+                });
+                thread.setDaemon(true);
+                thread.start();
+                return new Daemon(process, serverSocket.accept());
+            }
+        }
+
+        private void serve(int port) throws IOException {
+            try (Socket socket = new Socket((String) null, port);
+                    DataInputStream input = new DataInputStream(socket.getInputStream());
+                    DataOutputStream output = new DataOutputStream(socket.getOutputStream())) {
+                while (true) {
+                    int length = input.readInt();
+                    if (length <= 0) {
+                        return;
+                    }
+                    Properties request = new Properties();
+                    request.load(new ByteArrayInputStream(input.readNBytes(length)));
+                    receivedRequests.add(request);
+                    if (!behavior.answer(output, request)) {
+                        return;
+                    }
+                    output.flush();
+                }
+            }
+        }
+    }
+
+    private static final class FakeProcess extends Process {
+
+        private final CountDownLatch exited = new CountDownLatch(1);
+
+        @Override
+        public OutputStream getOutputStream() {
+            return OutputStream.nullOutputStream();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return InputStream.nullInputStream();
+        }
+
+        @Override
+        public InputStream getErrorStream() {
+            return InputStream.nullInputStream();
+        }
+
+        @Override
+        public int waitFor() throws InterruptedException {
+            exited.await();
+            return 0;
+        }
+
+        @Override
+        public int exitValue() {
+            if (exited.getCount() > 0) {
+                throw new IllegalThreadStateException();
+            }
+            return 0;
+        }
+
+        @Override
+        public void destroy() {
+            exited.countDown();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.surefire;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestShardsTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testSplitByDuration() {
+        List<String> classes = List.of("a.ATest", "a.BTest", "a.CTest", "a.DTest");
+        Map<String, Double> durations = Map.of("a.ATest", 10.0, "a.BTest", 4.0, "a.CTest", 3.0, "a.DTest", 3.0);
+
+        List<List<String>> shards = TestShards.split(classes, 2, durations);
+
+        assertEquals(List.of(List.of("a.ATest"), List.of("a.BTest", "a.CTest", "a.DTest")), shards);
+    }
+
+    @Test
+    public void testSplitWithoutHistory() {
+        List<String> classes = List.of("a.ATest", "a.BTest", "a.CTest");
+
+        List<List<String>> shards = TestShards.split(classes, 5, Map.of());
+
+        assertEquals(3, shards.size());
+        for (List<String> shard : shards) {
+            assertEquals(1, shard.size());
+        }
+    }
+
+    @Test
+    public void testReadDurations() throws Exception {
+        File reports = tempFolder.newFolder("reports");
+        Files.writeString(new File(reports, "TEST-a.ATest.xml").toPath(),
+                "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+                        + "<testsuite name=\"a.ATest\" time=\"1,234.5\" tests=\"1\"><testcase name=\"x\"/></testsuite>");
+        Files.writeString(new File(reports, "TEST-a.BTest.xml").toPath(), "not xml");
+        Files.writeString(new File(reports, "a.CTest.txt").toPath(), "ignored");
+
+        Map<String, Double> durations = TestShards.readDurations(reports);
+
+        assertEquals(1, durations.size());
+        assertEquals(1234.5, durations.get("a.ATest"), 0.001);
+        assertFalse(durations.containsKey("a.BTest"));
+    }
+}
@@ -45,6 +45,14 @@ public interface P2TargetPlatform extends TargetPlatform {
 
     File getLocalArtifactFile(IArtifactKey key);
 
+    /**
+     * Starts fetching the files of the given artifacts in the background if they are not available
+     * locally yet, so that later calls to {@link #getLocalArtifactFile(IArtifactKey)} only have to
+     * wait for the download.
+     */
+    default void prefetchArtifactFiles(Collection<IArtifactKey> keys) {
+    }
+
     /**
      * Returns the map from target platform installable units back to the contributing reactor
      * project.
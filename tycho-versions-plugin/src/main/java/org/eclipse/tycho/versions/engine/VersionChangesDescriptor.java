@@ -14,23 +14,39 @@ package org.eclipse.tycho.versions.engine;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
+import org.eclipse.tycho.versions.pom.PomFile;
+
 /**
  * This class holds the set of changes that are applied during a {@link VersionsEngine} execution as
  * well as some configuration that need to be passed to {@link MetadataManipulator}s.
+ * <p>
+ * Changes are indexed by artifact id, project and package name so that manipulators can look up
+ * the changes that affect the references of a project instead of iterating over all changes.
  */
 public class VersionChangesDescriptor {
 
     private final Set<PomVersionChange> aritfactsVersionChanges;
     private final Set<PackageVersionChange> packageVersionChanges;
+    private final Map<String, List<PomVersionChange>> changesByArtifactId = new HashMap<>();
+    private final Map<PomFile, PomVersionChange> changesByProject = new IdentityHashMap<>();
+    private final Map<String, PackageVersionChange> packageChangesByName = new HashMap<>();
+    private final Map<String, List<PackageVersionChange>> packageChangesByBundle = new HashMap<>();
+    private Set<PomVersionChange> versionChangesSnapshot;
+    private Map<Path, ProjectMetadata> projectsByPath;
+    private Map<Path, ProjectMetadata> projectsByRealPath;
 
     private final VersionRangeUpdateStrategy versionRangeUpdateStrategy;
     private Collection<ProjectMetadata> projects;
@@ -39,48 +55,94 @@ public class VersionChangesDescriptor {
     public VersionChangesDescriptor(Set<PomVersionChange> originalVersionChanges,
             VersionRangeUpdateStrategy versionRangeUpdateStrategy, Collection<ProjectMetadata> projects) {
         this.projects = projects;
-        this.aritfactsVersionChanges = new LinkedHashSet<>(originalVersionChanges);
+        this.aritfactsVersionChanges = new LinkedHashSet<>();
         this.versionRangeUpdateStrategy = versionRangeUpdateStrategy;
         this.packageVersionChanges = new LinkedHashSet<>();
+        for (PomVersionChange versionChange : originalVersionChanges) {
+            addVersionChange(versionChange);
+        }
     }
 
     public Optional<ProjectMetadata> findMetadataByBasedir(File baseDir) {
         Path path = baseDir.toPath();
-        for (ProjectMetadata meta : projects) {
-            Path projectPath = meta.getBasedir().toPath();
-            try {
-                if (Files.isSameFile(projectPath, path)) {
-                    return Optional.of(meta);
+        synchronized (this) {
+            if (projectsByPath == null) {
+                projectsByPath = new HashMap<>();
+                projectsByRealPath = new HashMap<>();
+                for (ProjectMetadata meta : projects) {
+                    Path projectPath = meta.getBasedir().toPath();
+                    projectsByPath.putIfAbsent(projectPath, meta);
+                    try {
+                        projectsByRealPath.putIfAbsent(projectPath.toRealPath(), meta);
+                    } catch (IOException e) {
+                        // can only be the same file if the paths are equal
+                    }
                 }
+            }
+        }
+        ProjectMetadata meta = projectsByPath.get(path);
+        if (meta == null) {
+            try {
+                meta = projectsByRealPath.get(path.toRealPath());
             } catch (IOException e) {
             }
         }
-        return Optional.empty();
+        return Optional.ofNullable(meta);
+    }
 
+    public synchronized Set<PomVersionChange> getVersionChanges() {
+        // Returns a copy to avoid concurrent modification exception if used during addMoreChanges phase, the copy is
+        // reused until the next change is added
+        if (versionChangesSnapshot == null) {
+            versionChangesSnapshot = Collections.unmodifiableSet(new HashSet<>(aritfactsVersionChanges));
+        }
+        return versionChangesSnapshot;
     }
 
-    public Set<PomVersionChange> getVersionChanges() {
-        // Creates a copy to avoid concurrent modification exception if used during addMoreChanges phase
-        return Collections.unmodifiableSet(new HashSet<>(aritfactsVersionChanges));
+    public synchronized boolean addVersionChange(PomVersionChange versionChange) {
+        if (!aritfactsVersionChanges.add(versionChange)) {
+            return false;
+        }
+        versionChangesSnapshot = null;
+        changesByArtifactId.computeIfAbsent(versionChange.getArtifactId(), id -> new ArrayList<>())
+                .add(versionChange);
+        changesByProject.putIfAbsent(versionChange.getProject(), versionChange);
+        return true;
     }
 
-    public boolean addVersionChange(PomVersionChange versionChange) {
-        return aritfactsVersionChanges.add(versionChange);
+    public synchronized VersionChange findVersionChangeByArtifactId(String symbolicName) {
+        List<PomVersionChange> changes = changesByArtifactId.get(symbolicName);
+        return changes != null ? changes.get(0) : null;
     }
 
-    public VersionChange findVersionChangeByArtifactId(String symbolicName) {
-        for (PomVersionChange versionChange : aritfactsVersionChanges) {
-            if (versionChange.getArtifactId().equals(symbolicName)) {
-                return versionChange;
-            }
-        }
-        return null;
+    /**
+     * @return all changes of artifacts with the given id, in the order they were added
+     */
+    public synchronized List<PomVersionChange> findVersionChangesByArtifactId(String artifactId) {
+        List<PomVersionChange> changes = changesByArtifactId.get(artifactId);
+        return changes != null ? List.copyOf(changes) : List.of();
+    }
+
+    /**
+     * @return the first change that was added for the given pom or <code>null</code> if the project
+     *         is not changed
+     */
+    public synchronized PomVersionChange findVersionChangeByProject(PomFile pom) {
+        return changesByProject.get(pom);
     }
 
     public Set<PackageVersionChange> getPackageVersionChanges() {
         return Collections.unmodifiableSet(packageVersionChanges);
     }
 
+    /**
+     * @return the changes of the packages exported by the given bundle, in the order they were added
+     */
+    public synchronized List<PackageVersionChange> getPackageVersionChanges(String bundleSymbolicName) {
+        List<PackageVersionChange> changes = packageChangesByBundle.get(bundleSymbolicName);
+        return changes != null ? List.copyOf(changes) : List.of();
+    }
+
     public VersionRangeUpdateStrategy getVersionRangeUpdateStrategy() {
         return versionRangeUpdateStrategy;
     }
@@ -93,17 +155,21 @@ public class VersionChangesDescriptor {
         this.updatePackageVersions = updatePackageVersions;
     }
 
-    public boolean addPackageVersionChanges(Set<PackageVersionChange> changes) {
-        return packageVersionChanges.addAll(changes);
-    }
-
-    public PackageVersionChange findPackageVersionChange(String packageName) {
-        for (PackageVersionChange versionChange : packageVersionChanges) {
-            if (versionChange.getPackageName().equals(packageName)) {
-                return versionChange;
+    public synchronized boolean addPackageVersionChanges(Set<PackageVersionChange> changes) {
+        boolean added = false;
+        for (PackageVersionChange change : changes) {
+            if (packageVersionChanges.add(change)) {
+                packageChangesByName.putIfAbsent(change.getPackageName(), change);
+                packageChangesByBundle.computeIfAbsent(change.getBundleSymbolicName(), bsn -> new ArrayList<>())
+                        .add(change);
+                added = true;
             }
         }
-        return null;
+        return added;
+    }
+
+    public synchronized PackageVersionChange findPackageVersionChange(String packageName) {
+        return packageChangesByName.get(packageName);
     }
 
 }
@@ -15,11 +15,20 @@
 package org.eclipse.tycho.versions.engine;
 
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import javax.inject.Inject;
 import javax.inject.Named;
@@ -51,6 +60,13 @@ public class VersionsEngine {
         }
     }
 
+    /**
+     * The number of threads used to validate and write the changes of the projects
+     */
+    private static final int THREADS = Integer.getInteger("tycho.versions.threads", 4);
+
+    private static final ExecutorService EXECUTOR = createExecutor();
+
     @Inject
     private Logger logger;
 
@@ -63,6 +79,8 @@ public class VersionsEngine {
 
     private Collection<ProjectMetadata> projects;
 
+    private Map<String, ProjectMetadata> projectsByArtifactId;
+
     private Set<PomVersionChange> originalVersionChanges = new LinkedHashSet<>();
 
     private Set<PropertyChange> propertyChanges = new LinkedHashSet<>();
@@ -89,6 +107,7 @@ public class VersionsEngine {
 
     public void setProjects(Collection<ProjectMetadata> projects) {
         this.projects = projects;
+        this.projectsByArtifactId = null;
     }
 
     public void addVersionChange(String artifactId, String newVersion) throws IOException {
@@ -120,6 +139,7 @@ public class VersionsEngine {
         updateVersionRangeMatchingBounds = false;
         updatePackageVersions = true;
         projects = null;
+        projectsByArtifactId = null;
     }
 
     public void apply() throws IOException {
@@ -139,16 +159,19 @@ public class VersionsEngine {
             }
         }
 
-        // validate version changes can be implemented
+        // validate version changes can be implemented, manipulators only read the metadata of the
+        // project passed to them so projects can be validated in parallel
         List<String> errors = new ArrayList<>();
-        for (ProjectMetadata project : projects) {
+        forEachProject(project -> {
+            List<String> projectErrors = new ArrayList<>();
             for (MetadataManipulator manipulator : manipulators) {
                 Collection<String> error = manipulator.validateChanges(project, versionChangeContext);
                 if (error != null) {
-                    errors.addAll(error);
+                    projectErrors.addAll(error);
                 }
             }
-        }
+            return projectErrors;
+        }).forEach(errors::addAll);
         if (!errors.isEmpty()) {
             throw new IllegalVersionChangeException(errors);
         }
@@ -175,23 +198,86 @@ public class VersionsEngine {
         }
 
         // write changes to the disk
-        for (ProjectMetadata project : projects) {
+        forEachProject(project -> {
             for (MetadataManipulator manipulator : manipulators) {
                 manipulator.writeMetadata(project);
             }
+            return null;
+        });
+
+    }
+
+    /**
+     * Runs the task for all projects in parallel and waits for all of them to finish.
+     * 
+     * @return the results in the order of the projects
+     * @throws IOException
+     *             the first exception (in the order of the projects) thrown by the task
+     */
+    private <T> List<T> forEachProject(ProjectTask<T> task) throws IOException {
+        List<T> results = new ArrayList<>();
+        if (THREADS <= 1 || projects.size() <= 1) {
+            for (ProjectMetadata project : projects) {
+                results.add(task.run(project));
+            }
+            return results;
+        }
+        List<Future<T>> futures = new ArrayList<>();
+        for (ProjectMetadata project : projects) {
+            futures.add(EXECUTOR.submit(() -> task.run(project)));
         }
+        Throwable failure = null;
+        for (Future<T> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new InterruptedIOException("Interrupted while processing the projects");
+            }
+        }
+        if (failure instanceof IOException ioException) {
+            throw ioException;
+        }
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        return results;
+    }
+
+    private interface ProjectTask<T> {
+        T run(ProjectMetadata project) throws IOException;
+    }
 
+    private static ExecutorService createExecutor() {
+        int threads = Math.max(1, THREADS);
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 1, TimeUnit.MINUTES,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "Tycho-Versions");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 
     private ProjectMetadata getProject(String artifactId) {
-        // TODO detect ambiguous artifactId
-        for (ProjectMetadata project : projects) {
-            PomFile pom = project.getMetadata(PomFile.class);
-            if (artifactId.equals(pom.getArtifactId())) {
-                return project;
+        if (projectsByArtifactId == null) {
+            projectsByArtifactId = new HashMap<>();
+            for (ProjectMetadata project : projects) {
+                PomFile pom = project.getMetadata(PomFile.class);
+                // TODO detect ambiguous artifactId
+                projectsByArtifactId.putIfAbsent(pom.getArtifactId(), project);
             }
         }
-        return null;
+        return projectsByArtifactId.get(artifactId);
     }
 
     public void addPropertyChange(String artifactId, String propertyName, String propertyValue) throws IOException {
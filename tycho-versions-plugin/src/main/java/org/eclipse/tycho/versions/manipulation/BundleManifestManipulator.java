@@ -169,14 +169,13 @@ public class BundleManifestManipulator extends AbstractMetadataManipulator {
             mf.setVersion(versionChangeForProject.getNewVersion());
 
             Map<String, String> exportPackagesNewVersion = new HashMap<>();
-            for (PackageVersionChange packageVersionChange : versionChangeContext.getPackageVersionChanges()) {
-                if (packageVersionChange.getBundleSymbolicName().equals(mf.getSymbolicName())) {
-                    logger.info("  META-INF/MANIFEST.MF//Export-Package//" + packageVersionChange.getPackageName()
-                            + ";version: " + packageVersionChange.getVersion() + " => "
-                            + packageVersionChange.getNewVersion());
-                    exportPackagesNewVersion.put(packageVersionChange.getPackageName(),
-                            packageVersionChange.getNewVersion());
-                }
+            for (PackageVersionChange packageVersionChange : versionChangeContext
+                    .getPackageVersionChanges(mf.getSymbolicName())) {
+                logger.info("  META-INF/MANIFEST.MF//Export-Package//" + packageVersionChange.getPackageName()
+                        + ";version: " + packageVersionChange.getVersion() + " => "
+                        + packageVersionChange.getNewVersion());
+                exportPackagesNewVersion.put(packageVersionChange.getPackageName(),
+                        packageVersionChange.getNewVersion());
             }
             mf.updateExportedPackageVersions(exportPackagesNewVersion);
         }
@@ -210,13 +209,13 @@ public class BundleManifestManipulator extends AbstractMetadataManipulator {
         MutableBundleManifest mf = bundleManifest.get();
         Map<String, String> requiredBundleVersions = mf.getRequiredBundleVersions();
         Map<String, String> versionsToUpdate = new HashMap<>();
-        for (PomVersionChange versionChange : versionChangeContext.getVersionChanges()) {
-            String bundleSymbolicName = versionChange.getArtifactId();
-            if (requiredBundleVersions.containsKey(bundleSymbolicName)) {
-                String originalVersionRange = requiredBundleVersions.get(bundleSymbolicName);
+        for (Entry<String, String> requiredBundle : requiredBundleVersions.entrySet()) {
+            String bundleSymbolicName = requiredBundle.getKey();
+            for (PomVersionChange versionChange : versionChangeContext
+                    .findVersionChangesByArtifactId(bundleSymbolicName)) {
                 versionsToUpdate.put(bundleSymbolicName,
                         versionChangeContext.getVersionRangeUpdateStrategy().computeNewVersionRange(
-                                originalVersionRange, versionChange.getVersion(), versionChange.getNewVersion()));
+                                requiredBundle.getValue(), versionChange.getVersion(), versionChange.getNewVersion()));
             }
         }
         mf.updateRequiredBundleVersions(versionsToUpdate);
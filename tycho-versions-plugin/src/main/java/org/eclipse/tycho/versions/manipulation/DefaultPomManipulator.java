@@ -22,8 +22,9 @@ import static org.eclipse.tycho.versions.engine.Versions.isVersionEquals;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.inject.Named;
@@ -61,7 +62,8 @@ public class DefaultPomManipulator extends AbstractMetadataManipulator implement
 
         AtomicBoolean moreChanges = new AtomicBoolean();
         if (parent != null) {
-            for (PomVersionChange change : versionChangeContext.getVersionChanges()) {
+            for (PomVersionChange change : versionChangeContext
+                    .findVersionChangesByArtifactId(parent.getArtifactId())) {
                 if (isGavEquals(parent, change)) {
                     if (isVersionEquals(pom.getVersion(), change.getVersion())) {
                         if (versionChangeContext.addVersionChange(
@@ -74,10 +76,8 @@ public class DefaultPomManipulator extends AbstractMetadataManipulator implement
         }
         //if we are about to change we need to check the submodule
         if (POM.equals(pom.getPackaging())) {
-            Optional<PomVersionChange> thisChange = versionChangeContext.getVersionChanges().stream()
-                    .filter(change -> change.getProject() == pom).findFirst();
-            if (thisChange.isPresent()) {
-                PomVersionChange change = thisChange.get();
+            PomVersionChange change = versionChangeContext.findVersionChangeByProject(pom);
+            if (change != null) {
                 List<String> modules = pom.getModules();
                 for (String module : modules) {
                     versionChangeContext.findMetadataByBasedir(new File(project.getBasedir(), module))
@@ -110,7 +110,7 @@ public class DefaultPomManipulator extends AbstractMetadataManipulator implement
         String pomName = project.getPomFile().getName();
         // TODO visitor pattern is a better way to implement this
 
-        for (PomVersionChange change : versionChangeContext.getVersionChanges()) {
+        for (PomVersionChange change : getReferencedChanges(pom, versionChangeContext)) {
             String version = Versions.toMavenVersion(change.getVersion());
             String newVersion = Versions.toMavenVersion(change.getNewVersion());
             if (isGavEquals(pom, change)) {
@@ -173,6 +173,51 @@ public class DefaultPomManipulator extends AbstractMetadataManipulator implement
 
     }
 
+    /**
+     * @return the changes of all artifacts that are referenced by the given pom, the result is a
+     *         superset of the changes that need to be applied
+     */
+    private static Collection<PomVersionChange> getReferencedChanges(PomFile pom,
+            VersionChangesDescriptor versionChangeContext) {
+        Set<String> artifactIds = new LinkedHashSet<>();
+        artifactIds.add(pom.getArtifactId());
+        if (pom.getParent() != null) {
+            artifactIds.add(pom.getParent().getArtifactId());
+        }
+        addReferencedArtifactIds(artifactIds, pom.getDependencies(), pom.getDependencyManagement(), pom.getBuild());
+        for (Profile profile : pom.getProfiles()) {
+            addReferencedArtifactIds(artifactIds, profile.getDependencies(), profile.getDependencyManagement(),
+                    profile.getBuild());
+        }
+        Set<PomVersionChange> changes = new LinkedHashSet<>();
+        for (String artifactId : artifactIds) {
+            changes.addAll(versionChangeContext.findVersionChangesByArtifactId(artifactId));
+        }
+        return changes;
+    }
+
+    private static void addReferencedArtifactIds(Set<String> artifactIds, List<GAV> dependencies,
+            DependencyManagement dependencyManagement, Build build) {
+        dependencies.forEach(dependency -> artifactIds.add(dependency.getArtifactId()));
+        if (dependencyManagement != null) {
+            dependencyManagement.getDependencies().forEach(dependency -> artifactIds.add(dependency.getArtifactId()));
+        }
+        if (build != null) {
+            addReferencedArtifactIds(artifactIds, build.getPlugins());
+            if (build.getPluginManagement() != null) {
+                addReferencedArtifactIds(artifactIds, build.getPluginManagement().getPlugins());
+            }
+        }
+    }
+
+    private static void addReferencedArtifactIds(Set<String> artifactIds, List<Plugin> plugins) {
+        for (Plugin plugin : plugins) {
+            artifactIds.add(plugin.getGAV().getArtifactId());
+            plugin.getDependencies().forEach(dependency -> artifactIds.add(dependency.getArtifactId()));
+            plugin.getTargetArtifacts().forEach(artifact -> artifactIds.add(artifact.getArtifactId()));
+        }
+    }
+
     protected void changeDependencyManagement(String pomPath, DependencyManagement dependencyManagment,
             PomVersionChange change, String version, String newVersion) {
         if (dependencyManagment != null) {
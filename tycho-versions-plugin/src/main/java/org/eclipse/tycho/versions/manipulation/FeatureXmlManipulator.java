@@ -17,6 +17,8 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 import javax.inject.Named;
 import javax.inject.Singleton;
@@ -42,7 +44,7 @@ public class FeatureXmlManipulator extends AbstractMetadataManipulator {
     public void applyChanges(ProjectMetadata project, VersionChangesDescriptor versionChangeContext) {
         if (isFeature(project)) {
             Feature feature = getFeatureXml(project);
-            for (PomVersionChange change : versionChangeContext.getVersionChanges()) {
+            for (PomVersionChange change : getReferencedChanges(feature, versionChangeContext)) {
                 if (isFeature(change.getProject().getPackaging())) {
                     if (change.getArtifactId().equals(feature.getId())
                             && change.getVersion().equals(feature.getVersion())) {
@@ -66,7 +68,7 @@ public class FeatureXmlManipulator extends AbstractMetadataManipulator {
     public Collection<String> validateChanges(ProjectMetadata project, VersionChangesDescriptor versionChangeContext) {
         if (isFeature(project)) {
             Feature feature = getFeatureXml(project);
-            for (PomVersionChange change : versionChangeContext.getVersionChanges()) {
+            for (PomVersionChange change : versionChangeContext.findVersionChangesByArtifactId(feature.getId())) {
                 if (change.getArtifactId().equals(feature.getId())
                         && change.getVersion().equals(feature.getVersion())) {
                     String error = Versions.validateOsgiVersion(change.getNewVersion(), getFeatureFile(project));
@@ -77,6 +79,31 @@ public class FeatureXmlManipulator extends AbstractMetadataManipulator {
         return null;
     }
 
+    /**
+     * @return the changes of all artifacts that are referenced by the given feature, the result is a
+     *         superset of the changes that need to be applied
+     */
+    private static Collection<PomVersionChange> getReferencedChanges(Feature feature,
+            VersionChangesDescriptor versionChangeContext) {
+        Set<String> ids = new LinkedHashSet<>();
+        ids.add(feature.getId());
+        ids.add(feature.getLicenseFeature());
+        feature.getIncludedFeatures().forEach(ref -> ids.add(ref.getId()));
+        feature.getPlugins().forEach(plugin -> ids.add(plugin.getId()));
+        for (RequiresRef ref : feature.getRequires()) {
+            for (ImportRef importRef : ref.getImports()) {
+                ids.add(importRef.getFeature());
+                ids.add(importRef.getPlugin());
+            }
+        }
+        ids.remove(null);
+        Set<PomVersionChange> changes = new LinkedHashSet<>();
+        for (String id : ids) {
+            changes.addAll(versionChangeContext.findVersionChangesByArtifactId(id));
+        }
+        return changes;
+    }
+
     private void changeLicenseFeature(PomVersionChange change, Feature feature) {
         if (change.getArtifactId().equals(feature.getLicenseFeature())
                 && change.getVersion().equals(feature.getLicenseFeatureVersion())) {
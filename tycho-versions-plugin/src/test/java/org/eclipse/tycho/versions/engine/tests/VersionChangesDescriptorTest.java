@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * Copyright (c) 2025 Christoph Läubrich and others.
+ * This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License 2.0
+ * which accompanies this distribution, and is available at
+ * https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *    Christoph Läubrich - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.tycho.versions.engine.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.eclipse.tycho.versions.engine.DefaultVersionRangeUpdateStrategy;
+import org.eclipse.tycho.versions.engine.PackageVersionChange;
+import org.eclipse.tycho.versions.engine.PomVersionChange;
+import org.eclipse.tycho.versions.engine.ProjectMetadata;
+import org.eclipse.tycho.versions.engine.VersionChangesDescriptor;
+import org.eclipse.tycho.versions.pom.PomFile;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class VersionChangesDescriptorTest {
+
+    @Rule
+    public final TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void testVersionChangesAreFoundByArtifactIdAndProject() throws Exception {
+        PomFile bundle = pom("group", "bundle", "1.0.0");
+        PomFile otherBundle = pom("other.group", "bundle", "2.0.0");
+        PomFile feature = pom("group", "feature", "1.0.0");
+        PomVersionChange bundleChange = new PomVersionChange(bundle, "1.0.1");
+        PomVersionChange otherBundleChange = new PomVersionChange(otherBundle, "2.0.1");
+        VersionChangesDescriptor descriptor = newDescriptor(List.of(), bundleChange, otherBundleChange);
+
+        assertSame(bundleChange, descriptor.findVersionChangeByArtifactId("bundle"));
+        assertEquals(List.of(bundleChange, otherBundleChange), descriptor.findVersionChangesByArtifactId("bundle"));
+        assertSame(bundleChange, descriptor.findVersionChangeByProject(bundle));
+        assertSame(otherBundleChange, descriptor.findVersionChangeByProject(otherBundle));
+        assertNull(descriptor.findVersionChangeByArtifactId("feature"));
+        assertEquals(List.of(), descriptor.findVersionChangesByArtifactId("feature"));
+        assertNull(descriptor.findVersionChangeByProject(feature));
+
+        PomVersionChange featureChange = new PomVersionChange(feature, "1.0.1");
+        assertTrue(descriptor.addVersionChange(featureChange));
+        assertFalse(descriptor.addVersionChange(new PomVersionChange(feature, "1.0.1")));
+
+        assertSame(featureChange, descriptor.findVersionChangeByArtifactId("feature"));
+        assertEquals(List.of(featureChange), descriptor.findVersionChangesByArtifactId("feature"));
+        assertSame(featureChange, descriptor.findVersionChangeByProject(feature));
+        assertEquals(Set.of(bundleChange, otherBundleChange, featureChange), descriptor.getVersionChanges());
+    }
+
+    @Test
+    public void testProjectIsFoundByItsFirstChange() throws Exception {
+        PomFile bundle = pom("group", "bundle", "1.0.0");
+        PomVersionChange firstChange = new PomVersionChange(bundle, "1.0.1");
+        VersionChangesDescriptor descriptor = newDescriptor(List.of(), firstChange);
+
+        descriptor.addVersionChange(new PomVersionChange(bundle, "1.0.0", "1.0.2"));
+
+        assertSame(firstChange, descriptor.findVersionChangeByProject(bundle));
+        assertEquals(2, descriptor.findVersionChangesByArtifactId("bundle").size());
+    }
+
+    @Test
+    public void testPackageVersionChangesAreFoundByPackageAndBundle() throws Exception {
+        VersionChangesDescriptor descriptor = newDescriptor(List.of());
+        PackageVersionChange api = new PackageVersionChange("bundle", "bundle.api", "1.0.0", "1.1.0");
+        PackageVersionChange impl = new PackageVersionChange("bundle", "bundle.impl", "1.0.0", "1.1.0");
+        PackageVersionChange other = new PackageVersionChange("other", "other.api", "2.0.0", "2.1.0");
+
+        assertTrue(descriptor.addPackageVersionChanges(new LinkedHashSet<>(List.of(api, impl, other))));
+        assertFalse(descriptor.addPackageVersionChanges(Set.of(api)));
+
+        assertSame(api, descriptor.findPackageVersionChange("bundle.api"));
+        assertSame(other, descriptor.findPackageVersionChange("other.api"));
+        assertNull(descriptor.findPackageVersionChange("unknown"));
+        assertEquals(List.of(api, impl), descriptor.getPackageVersionChanges("bundle"));
+        assertEquals(List.of(other), descriptor.getPackageVersionChanges("other"));
+        assertEquals(List.of(), descriptor.getPackageVersionChanges("unknown"));
+        assertEquals(Set.of(api, impl, other), descriptor.getPackageVersionChanges());
+    }
+
+    @Test
+    public void testProjectIsFoundByBasedir() throws Exception {
+        File basedir = tempFolder.newFolder("bundle");
+        ProjectMetadata project = new ProjectMetadata(basedir, new File(basedir, "pom.xml"));
+        VersionChangesDescriptor descriptor = newDescriptor(List.of(project));
+
+        assertEquals(Optional.of(project), descriptor.findMetadataByBasedir(basedir));
+        assertEquals(Optional.of(project),
+                descriptor.findMetadataByBasedir(new File(tempFolder.getRoot(), "./bundle/../bundle")));
+        assertEquals(Optional.empty(), descriptor.findMetadataByBasedir(tempFolder.newFolder("other")));
+    }
+
+    private static VersionChangesDescriptor newDescriptor(List<ProjectMetadata> projects,
+            PomVersionChange... changes) {
+        return new VersionChangesDescriptor(new LinkedHashSet<>(List.of(changes)),
+                new DefaultVersionRangeUpdateStrategy(false), projects);
+    }
+
+    private static PomFile pom(String groupId, String artifactId, String version) throws IOException {
+        String pom = "<project><modelVersion>4.0.0</modelVersion><groupId>" + groupId + "</groupId><artifactId>"
+                + artifactId + "</artifactId><version>" + version + "</version></project>";
+        return PomFile.read(new ByteArrayInputStream(pom.getBytes(StandardCharsets.UTF_8)), true);
+    }
+}
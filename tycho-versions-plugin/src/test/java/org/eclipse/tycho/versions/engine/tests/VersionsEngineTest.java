@@ -16,6 +16,13 @@ package org.eclipse.tycho.versions.engine.tests;
 import static org.junit.Assert.assertThrows;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.codehaus.plexus.util.FileUtils;
 
 import org.eclipse.tycho.testing.TestUtil;
 import org.eclipse.tycho.versions.engine.IllegalVersionChangeException;
@@ -377,6 +384,90 @@ public class VersionsEngineTest extends AbstractVersionChangeTest {
         assertPom(new File(basedir, "targetplatform"));
     }
 
+    public void testParallelValidationReportsErrorsInProjectOrder() throws Exception {
+        File basedir = createReactor("parallelvalidation", 16);
+
+        List<String> firstErrors = null;
+        for (int run = 0; run < 5; run++) {
+            VersionsEngine engine = newEngine(basedir);
+            engine.addVersionChange("parent", "1.0.1-01");
+            IllegalVersionChangeException e = assertThrows(IllegalVersionChangeException.class, () -> engine.apply());
+            List<String> errors = new ArrayList<>(e.getErrors());
+            assertEquals(16, errors.size());
+            for (int i = 0; i < errors.size(); i++) {
+                assertTrue(errors.get(i),
+                        errors.get(i).contains(File.separator + bundleName(i) + File.separator + "META-INF"));
+            }
+            if (firstErrors == null) {
+                firstErrors = errors;
+            } else {
+                assertEquals(firstErrors, errors);
+            }
+        }
+    }
+
+    public void testParallelWriteUpdatesAllProjects() throws Exception {
+        File basedir = createReactor("parallelwrite", 16);
+
+        VersionsEngine engine = newEngine(basedir);
+        engine.addVersionChange("parent", "1.0.1.qualifier");
+        engine.apply();
+
+        assertTrue(readString(new File(basedir, "pom.xml")).contains("<version>1.0.1-SNAPSHOT</version>"));
+        for (int i = 0; i < 16; i++) {
+            File bundle = new File(basedir, bundleName(i));
+            assertTrue(readString(new File(bundle, "pom.xml")).contains("<version>1.0.1-SNAPSHOT</version>"));
+            assertTrue(readString(new File(bundle, "META-INF/MANIFEST.MF"))
+                    .contains("Bundle-Version: 1.0.1.qualifier"));
+        }
+    }
+
+    private static File createReactor(String name, int bundles) throws IOException {
+        File basedir = new File(TestUtil.getBasedir(), "target/projects/" + name);
+        FileUtils.deleteDirectory(basedir);
+        StringBuilder modules = new StringBuilder();
+        for (int i = 0; i < bundles; i++) {
+            String bundle = bundleName(i);
+            modules.append("    <module>").append(bundle).append("</module>\n");
+            writeString(new File(basedir, bundle + "/pom.xml"), "<project>\n" //
+                    + "  <modelVersion>4.0.0</modelVersion>\n" //
+                    + "  <parent>\n" //
+                    + "    <groupId>" + name + "</groupId>\n" //
+                    + "    <artifactId>parent</artifactId>\n" //
+                    + "    <version>1.0.0-SNAPSHOT</version>\n" //
+                    + "  </parent>\n" //
+                    + "  <artifactId>" + bundle + "</artifactId>\n" //
+                    + "  <packaging>eclipse-plugin</packaging>\n" //
+                    + "</project>\n");
+            writeString(new File(basedir, bundle + "/META-INF/MANIFEST.MF"), "Manifest-Version: 1.0\n" //
+                    + "Bundle-ManifestVersion: 2\n" //
+                    + "Bundle-SymbolicName: " + bundle + "\n" //
+                    + "Bundle-Version: 1.0.0.qualifier\n");
+        }
+        writeString(new File(basedir, "pom.xml"), "<project>\n" //
+                + "  <modelVersion>4.0.0</modelVersion>\n" //
+                + "  <groupId>" + name + "</groupId>\n" //
+                + "  <artifactId>parent</artifactId>\n" //
+                + "  <version>1.0.0-SNAPSHOT</version>\n" //
+                + "  <packaging>pom</packaging>\n" //
+                + "  <modules>\n" + modules + "  </modules>\n" //
+                + "</project>\n");
+        return basedir;
+    }
+
+    private static String bundleName(int index) {
+        return String.format("bundle%02d", index);
+    }
+
+    private static void writeString(File file, String content) throws IOException {
+        file.getParentFile().mkdirs();
+        Files.writeString(file.toPath(), content, StandardCharsets.UTF_8);
+    }
+
+    private static String readString(File file) throws IOException {
+        return Files.readString(file.toPath(), StandardCharsets.UTF_8);
+    }
+
     private VersionsEngine newEngine(File basedir) throws Exception {
         VersionsEngine engine = lookup(VersionsEngine.class);
         ProjectMetadataReader reader = lookup(ProjectMetadataReader.class);